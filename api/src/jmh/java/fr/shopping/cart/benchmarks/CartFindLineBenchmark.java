@@ -0,0 +1,54 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recherche d'une ligne par (productId, offerId) : pire cas (dernière ligne) et ligne absente.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartFindLineBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private Cart cart;
+    private Long lastProductId;
+    private Long lastOfferId;
+
+    @Setup
+    public void setUp() {
+        cart = CartFixtures.cart(lines);
+        lastProductId = (long) lines;
+        lastOfferId = (long) lines;
+    }
+
+    @Benchmark
+    public Optional<CartLine> findLastLine() {
+        return cart.findLine(lastProductId, lastOfferId);
+    }
+
+    @Benchmark
+    public Optional<CartLine> findMissingLine() {
+        return cart.findLine(-1L, -1L);
+    }
+}
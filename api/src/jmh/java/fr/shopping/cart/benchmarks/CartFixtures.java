@@ -0,0 +1,40 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+
+import java.math.BigDecimal;
+
+/**
+ * Paniers construits en mémoire (sans base) pour les benchmarks des chemins purement Java.
+ */
+final class CartFixtures {
+
+    private CartFixtures() {
+    }
+
+    static Offer offer(long id, Product product, String price, int discountPercent) {
+        Offer offer = new Offer(new BigDecimal(price), product);
+        offer.setId(id);
+        offer.setDiscountPercent(discountPercent);
+        offer.setState(State.NEUF);
+        offer.setStockQty(100);
+        return offer;
+    }
+
+    static Cart cart(int lineCount) {
+        Cart cart = new Cart(1L);
+        for (int i = 1; i <= lineCount; i++) {
+            Product product = new Product("Produit " + i);
+            product.setId((long) i);
+            Offer offer = offer(i, product, (i % 500) + ".99", i % 40);
+            product.getOffers().add(offer);
+            CartLine line = cart.addLine(product, offer, offer.getFinalUnitPriceMinor());
+            cart.changeLineQuantity(line, 1 + i % 3, offer.getFinalUnitPriceMinor());
+        }
+        return cart;
+    }
+}
@@ -0,0 +1,47 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.mappers.impl.CartResponseMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendu d'un panier en DTO (prix unitaires, totaux de ligne et total panier) selon sa taille.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CartResponseMapperBenchmark {
+
+    @Param({"1", "10", "100", "1000"})
+    private int lines;
+
+    private CartResponseMapperImpl mapper;
+    private Cart cart;
+
+    @Setup
+    public void setUp() {
+        mapper = new CartResponseMapperImpl();
+        cart = CartFixtures.cart(lines);
+    }
+
+    @Benchmark
+    public CartResponseDto toCartResponse() {
+        return mapper.toCartResponse(cart);
+    }
+}
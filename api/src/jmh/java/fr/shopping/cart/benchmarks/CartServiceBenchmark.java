@@ -0,0 +1,108 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.CartApplication;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Chemins service complets (JPA + H2 embarquée, profil {@code test}) : ajout d'un article et checkout.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartServiceBenchmark {
+
+    @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+    public static class Application {
+
+        private final AtomicLong userIds = new AtomicLong(1_000_000L);
+
+        ConfigurableApplicationContext context;
+        CartService cartService;
+        CheckoutService checkoutService;
+        AddItemRequestDto addRequest;
+        Long addUserId;
+
+        @Setup(Level.Trial)
+        public void start() {
+            context = new SpringApplicationBuilder(CartApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .logStartupInfo(false)
+                    .run(
+                            "--logging.level.root=WARN",
+                            "--spring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_ON_EXIT=FALSE"
+                    );
+            cartService = context.getBean(CartService.class);
+            checkoutService = context.getBean(CheckoutService.class);
+
+            Product product = new Product("Benchmark");
+            Offer offer = new Offer(new BigDecimal("49.90"), product);
+            offer.setState(State.NEUF);
+            offer.setDiscountPercent(15);
+            offer.setStockQty(Integer.MAX_VALUE / 2);
+            product.getOffers().add(offer);
+            context.getBean(ProductRepository.class).save(product);
+
+            addRequest = new AddItemRequestDto(product.getId(), offer.getId());
+            addUserId = nextUserId();
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        Long nextUserId() {
+            return userIds.incrementAndGet();
+        }
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class FilledCart {
+
+        Long userId;
+
+        @Setup(Level.Invocation)
+        public void fill(Application app) {
+            userId = app.nextUserId();
+            app.cartService.addItem(userId, app.addRequest);
+        }
+    }
+
+    @Benchmark
+    public void addItem(Application app) {
+        app.cartService.addItem(app.addUserId, app.addRequest);
+    }
+
+    @Benchmark
+    public Cart checkout(Application app, FilledCart cart) {
+        return app.checkoutService.checkout(cart.userId);
+    }
+}
@@ -0,0 +1,98 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.CartApplication;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartSummaryResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Lecture du résumé d'un panier (projection sur une ligne de {@code carts}) comparée à la lecture
+ * complète utilisée par {@code GET /cart} (panier, lignes et offres hydratés puis mappés).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class CartSummaryBenchmark {
+
+    private static final Long USER_ID = 2_000_000L;
+
+    @Param({"1", "10", "50"})
+    private int lines;
+
+    private ConfigurableApplicationContext context;
+    private CartService cartService;
+    private CartResponseMapper cartResponseMapper;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(CartApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .logStartupInfo(false)
+                .run(
+                        "--logging.level.root=WARN",
+                        "--spring.datasource.url=jdbc:h2:mem:summarybenchdb;DB_CLOSE_ON_EXIT=FALSE"
+                );
+        cartService = context.getBean(CartService.class);
+        cartResponseMapper = context.getBean(CartResponseMapper.class);
+
+        final List<Product> products = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            Product product = new Product("Benchmark " + i);
+            Offer offer = new Offer(new BigDecimal("49.90"), product);
+            offer.setState(State.NEUF);
+            offer.setDiscountPercent(15);
+            offer.setStockQty(1_000);
+            product.getOffers().add(offer);
+            products.add(product);
+        }
+        context.getBean(ProductRepository.class).saveAll(products);
+        for (Product product : products) {
+            cartService.addItem(USER_ID, new AddItemRequestDto(product.getId(), product.getOffers().get(0).getId()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public CartResponseDto fullCart() {
+        return cartResponseMapper.toCartResponse(cartService.getCart(USER_ID));
+    }
+
+    @Benchmark
+    public CartSummaryResponseDto summary() {
+        return cartResponseMapper.toCartSummaryResponse(cartService.getCartSummary(USER_ID));
+    }
+}
@@ -0,0 +1,134 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.CartApplication;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockReservationService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Checkouts par seconde sur une seule offre, par 8 threads concurrents (profil {@code test}, H2 embarquée) :
+ * chemin actuel (décrémentation de la ligne {@code offers}) contre offre chaude (compteur en mémoire,
+ * journal local synchronisé ou non sur disque). {@code reserve} isole le prélèvement du stock du reste du checkout.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class HotOfferCheckoutBenchmark {
+
+    private static final String REFERENCE = "BENCH-HOT-1";
+
+    @org.openjdk.jmh.annotations.State(Scope.Benchmark)
+    public static class Application {
+
+        @Param({"cold", "hot", "hot-nosync"})
+        String mode;
+
+        private final AtomicLong userIds = new AtomicLong(2_000_000L);
+
+        ConfigurableApplicationContext context;
+        CartService cartService;
+        CheckoutService checkoutService;
+        StockReservationService stockReservationService;
+        AddItemRequestDto addRequest;
+        List<StockReservation> reservation;
+
+        @Setup(Level.Trial)
+        public void start() throws IOException {
+            context = new SpringApplicationBuilder(CartApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .profiles("test")
+                    .logStartupInfo(false)
+                    .run(
+                            "--logging.level.root=WARN",
+                            "--spring.datasource.url=jdbc:h2:mem:benchdb;DB_CLOSE_ON_EXIT=FALSE",
+                            "--checkout.hot-offers.references=" + (mode.equals("cold") ? "" : REFERENCE),
+                            "--checkout.hot-offers.instance-id=bench",
+                            "--checkout.hot-offers.claim-size=1000",
+                            "--checkout.hot-offers.journal-dir=" + Files.createTempDirectory("hot-stock-bench"),
+                            "--checkout.hot-offers.journal-sync=" + mode.equals("hot")
+                    );
+            cartService = context.getBean(CartService.class);
+            checkoutService = context.getBean(CheckoutService.class);
+            stockReservationService = context.getBean(StockReservationService.class);
+
+            Product product = new Product("Benchmark hot offer");
+            Offer offer = new Offer(new BigDecimal("49.90"), product);
+            offer.setState(State.NEUF);
+            offer.setStockQty(Integer.MAX_VALUE / 2);
+            product.getOffers().add(offer);
+            context.getBean(ProductRepository.class).save(product);
+            context.getBean(JdbcTemplate.class)
+                    .update("UPDATE offers SET reference = ? WHERE id = ?", REFERENCE, offer.getId());
+            context.getBean(HotStockService.class).reconcile();
+
+            addRequest = new AddItemRequestDto(product.getId(), offer.getId());
+            reservation = List.of(new StockReservation(product.getId(), offer.getId(), 1));
+        }
+
+        @TearDown(Level.Trial)
+        public void stop() {
+            context.close();
+        }
+
+        Long nextUserId() {
+            return userIds.incrementAndGet();
+        }
+    }
+
+    @org.openjdk.jmh.annotations.State(Scope.Thread)
+    public static class FilledCart {
+
+        Long userId;
+
+        @Setup(Level.Invocation)
+        public void fill(Application app) {
+            userId = app.nextUserId();
+            app.cartService.addItem(userId, app.addRequest);
+        }
+    }
+
+    @Benchmark
+    public Cart checkout(Application app, FilledCart cart) {
+        return app.checkoutService.checkout(cart.userId);
+    }
+
+    @Benchmark
+    public void reserve(Application app) {
+        app.stockReservationService.reserve(app.reservation);
+    }
+}
@@ -0,0 +1,60 @@
+package fr.shopping.cart.benchmarks;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coût unitaire du prix final d'une offre selon la remise appliquée : lecture mémoïsée en centimes,
+ * conversion en {@link BigDecimal} et calcul complet par {@link PriceCalculator}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OfferPricingBenchmark {
+
+    @Param({"0", "20", "33"})
+    private int discountPercent;
+
+    private Offer offer;
+
+    private long priceMinorUnits;
+
+    @Setup
+    public void setUp() {
+        offer = CartFixtures.offer(1L, new Product("iPhone 14"), "799.99", discountPercent);
+        priceMinorUnits = PriceCalculator.toMinorUnits(offer.getPrice());
+    }
+
+    @Benchmark
+    public BigDecimal finalUnitPrice() {
+        return offer.getFinalUnitPrice();
+    }
+
+    @Benchmark
+    public long finalUnitPriceMinor() {
+        return offer.getFinalUnitPriceMinor();
+    }
+
+    @Benchmark
+    public long computeFinalUnitPrice() {
+        return PriceCalculator.finalUnitPrice(priceMinorUnits, discountPercent);
+    }
+}
@@ -0,0 +1,205 @@
+package fr.shopping.cart.benchmarks.loadtest;
+
+import fr.shopping.cart.CartApplication;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Test de charge HTTP comparant l'exécution des requêtes sur threads plateforme (pool Tomcat),
+ * sur threads virtuels (profil {@code virtual-threads}) et en non bloquant (profil {@code reactive} :
+ * WebFlux sur Netty et R2DBC).
+ * <p>
+ * Pour chaque mode, l'application est démarrée sur un port aléatoire, puis chaque palier
+ * d'utilisateurs simultanés enchaîne en boucle : ajout d'un article, lecture du panier, suppression
+ * de l'article. Le débit (requêtes/s), le p99 et le nombre d'erreurs sont affichés par palier.
+ * <p>
+ * Arguments : paliers d'utilisateurs, durée d'un palier en secondes, modes, profils Spring.
+ * Avec le profil {@code dev} la base est H2 en mémoire, sans latence réseau : pour mesurer l'effet
+ * des attentes JDBC, utiliser {@code prod} avec la base PostgreSQL du {@code docker-compose.yml}.
+ */
+public final class CartLoadTest {
+
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+    private static final long FIRST_USER_ID = 5_000_000L;
+
+    private CartLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        // devtools relancerait main() avec les arguments Spring
+        System.setProperty("spring.devtools.restart.enabled", "false");
+
+        final int[] userLevels = Arrays.stream(arg(args, 0, "200,1000,5000").split(","))
+                .mapToInt(level -> Integer.parseInt(level.trim()))
+                .toArray();
+        final Duration duration = Duration.ofSeconds(Long.parseLong(arg(args, 1, "30")));
+        final String[] modes = arg(args, 2, "platform,virtual,reactive").split(",");
+        final String profiles = arg(args, 3, "dev");
+
+        final List<String> report = new ArrayList<>();
+        report.add(String.format("%-9s %7s %12s %10s %10s %8s", "mode", "users", "throughput", "p50 (ms)", "p99 (ms)", "errors"));
+        for (String mode : modes) {
+            try (ConfigurableApplicationContext context = start(mode.trim(), profiles)) {
+                final Target target = seed(context);
+                for (int users : userLevels) {
+                    run(target, users, WARMUP);
+                    final Result result = run(target, users, duration);
+                    report.add(String.format("%-9s %7d %10.0f/s %10.1f %10.1f %8d",
+                            mode.trim(), users, result.throughput(), result.percentileMillis(0.50),
+                            result.percentileMillis(0.99), result.errors()));
+                }
+            }
+        }
+        report.forEach(System.out::println);
+    }
+
+    private static String arg(String[] args, int index, String defaultValue) {
+        return args.length > index && !args[index].isBlank() ? args[index] : defaultValue;
+    }
+
+    private static ConfigurableApplicationContext start(String mode, String profiles) {
+        final List<String> activeProfiles = new ArrayList<>(Arrays.asList(profiles.split(",")));
+        switch (mode) {
+            case "virtual" -> activeProfiles.add("virtual-threads");
+            case "reactive" -> activeProfiles.add("reactive");
+            default -> {
+            }
+        }
+        return new SpringApplicationBuilder(CartApplication.class)
+                .profiles(activeProfiles.toArray(String[]::new))
+                .logStartupInfo(false)
+                .run(
+                        "--server.port=0",
+                        "--logging.level.root=WARN",
+                        // Même limite de connexions Tomcat pour platform et virtual : seul le modèle d'exécution change
+                        "--server.tomcat.max-connections=10000",
+                        "--server.tomcat.accept-count=1000"
+                );
+    }
+
+    private static Target seed(ConfigurableApplicationContext context) {
+        Product product = new Product("Load test");
+        Offer offer = new Offer(new BigDecimal("19.90"), product);
+        offer.setState(State.NEUF);
+        offer.setDiscountPercent(10);
+        offer.setStockQty(1_000_000);
+        product.getOffers().add(offer);
+        context.getBean(ProductRepository.class).save(product);
+
+        final int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        final String prefix = context.getEnvironment().getProperty("api.prefix.route", "/api/v1");
+        return new Target("http://localhost:" + port + prefix, product.getId(), offer.getId());
+    }
+
+    private static Result run(Target target, int users, Duration duration) throws Exception {
+        final long deadline = System.nanoTime() + duration.toNanos();
+        final AtomicLong errors = new AtomicLong();
+        final List<Future<long[]>> futures = new ArrayList<>(users);
+
+        try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor();
+             HttpClient http = HttpClient.newBuilder()
+                     .version(HttpClient.Version.HTTP_1_1)
+                     .executor(clients)
+                     .connectTimeout(REQUEST_TIMEOUT)
+                     .build()) {
+            for (int u = 0; u < users; u++) {
+                final long userId = FIRST_USER_ID + u;
+                futures.add(clients.submit(() -> simulateUser(http, target, userId, deadline, errors)));
+            }
+
+            final List<long[]> samples = new ArrayList<>(users);
+            for (Future<long[]> future : futures) {
+                samples.add(future.get());
+            }
+            return Result.of(samples, errors.get(), duration);
+        }
+    }
+
+    /**
+     * Boucle d'un utilisateur : ajout, lecture du panier, suppression.
+     *
+     * @return les latences mesurées, en nanosecondes
+     */
+    private static long[] simulateUser(HttpClient http, Target target, long userId, long deadline, AtomicLong errors) {
+        final String cart = target.baseUrl() + "/users/" + userId + "/cart";
+        final String addBody = "{\"productId\": %d, \"offerId\": %d}".formatted(target.productId(), target.offerId());
+        final HttpRequest add = HttpRequest.newBuilder(URI.create(cart + "/items"))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(addBody))
+                .build();
+        final HttpRequest get = HttpRequest.newBuilder(URI.create(cart)).timeout(REQUEST_TIMEOUT).GET().build();
+        final HttpRequest remove = HttpRequest.newBuilder(
+                        URI.create(cart + "/items/" + target.productId() + "/" + target.offerId()))
+                .timeout(REQUEST_TIMEOUT)
+                .DELETE()
+                .build();
+
+        long[] latencies = new long[256];
+        int count = 0;
+        while (System.nanoTime() < deadline) {
+            for (HttpRequest request : List.of(add, get, remove)) {
+                final long start = System.nanoTime();
+                try {
+                    final HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() >= 400) {
+                        errors.incrementAndGet();
+                    }
+                } catch (IOException ex) {
+                    errors.incrementAndGet();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return Arrays.copyOf(latencies, count);
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - start;
+            }
+        }
+        return Arrays.copyOf(latencies, count);
+    }
+
+    private record Target(String baseUrl, Long productId, Long offerId) {}
+
+    private record Result(long[] sortedLatencies, long errors, Duration duration) {
+
+        static Result of(List<long[]> samples, long errors, Duration duration) {
+            final long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(all, errors, duration);
+        }
+
+        double throughput() {
+            return sortedLatencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentileMillis(double percentile) {
+            if (sortedLatencies.length == 0) {
+                return Double.NaN;
+            }
+            final int index = (int) Math.ceil(percentile * sortedLatencies.length) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1e6;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+
+/**
+ * Historique des commandes : lignes de commande au prix payé ({@code order_lines}) et index de pagination
+ * de l'historique d'un utilisateur.
+ * <p>
+ * Sous PostgreSQL, {@code orders} est reconstruite avec {@code order_lines} en tables partitionnées par mois
+ * sur {@code created_at}, qui entre dans leurs clés primaires ; les lignes portent la date de leur commande
+ * pour tomber dans la même partition. Une partition est créée pour chaque mois, de la plus ancienne commande
+ * à deux mois après la migration, puis les commandes existantes sont recopiées. Les mois suivants sont créés
+ * par {@code OrderPartitionMaintainer} ; une partition par défaut reçoit les commandes si cette création a
+ * pris du retard. Sous H2 (tests), les tables ne sont pas partitionnées.
+ * <p>
+ * Pas de clé étrangère vers le catalogue : l'historique survit à la suppression d'une offre.
+ */
+public class V1_0_0_10__order_history_partitions extends BaseJavaMigration {
+
+    private static final int MONTHS_AHEAD = 2;
+
+    private static final String ORDERS_SQL = """
+            CREATE TABLE orders (
+                id BIGINT NOT NULL,
+                user_id BIGINT NOT NULL,
+                item_count INTEGER NOT NULL,
+                subtotal NUMERIC(19, 2) NOT NULL,
+                created_at TIMESTAMP NOT NULL,
+                CONSTRAINT pk_orders PRIMARY KEY (id, created_at)
+            ) PARTITION BY RANGE (created_at)""";
+
+    private static final String ORDER_LINES_SQL = """
+            CREATE TABLE order_lines (
+                order_id BIGINT NOT NULL,
+                line_no INTEGER NOT NULL,
+                created_at TIMESTAMP NOT NULL,
+                product_id BIGINT NOT NULL,
+                offer_id BIGINT NOT NULL,
+                quantity INTEGER NOT NULL,
+                unit_price NUMERIC(19, 2) NOT NULL,
+                CONSTRAINT pk_order_lines PRIMARY KEY (order_id, line_no%s),
+                %sCONSTRAINT check_order_line_quantity_positive CHECK (quantity > 0)
+            )%s""";
+
+    private static final String ORDER_LINES_FK_SQL =
+            "CONSTRAINT fk_order_order_line FOREIGN KEY (order_id, created_at) REFERENCES orders(id, created_at),\n    ";
+
+    private static final String ORDERS_INDEX_SQL = "CREATE INDEX idx_orders_user_created_at ON orders(user_id, created_at, id)";
+
+    private static final String PARTITION_SQL = "CREATE TABLE %s_%d_%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')";
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        final Connection connection = context.getConnection();
+        final boolean postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            if (!postgres) {
+                statement.execute(ORDER_LINES_SQL.formatted("", "", ""));
+                statement.execute(ORDERS_INDEX_SQL);
+                return;
+            }
+
+            statement.execute("ALTER TABLE orders RENAME TO orders_unpartitioned");
+            statement.execute("ALTER TABLE orders_unpartitioned RENAME CONSTRAINT pk_orders TO pk_orders_unpartitioned");
+            statement.execute(ORDERS_SQL);
+            statement.execute(ORDER_LINES_SQL.formatted(", created_at", ORDER_LINES_FK_SQL, " PARTITION BY RANGE (created_at)"));
+            statement.execute(ORDERS_INDEX_SQL);
+
+            final YearMonth last = YearMonth.now().plusMonths(MONTHS_AHEAD);
+            for (YearMonth month = firstMonth(statement); !month.isAfter(last); month = month.plusMonths(1)) {
+                statement.execute(partitionSql("orders", month));
+                statement.execute(partitionSql("order_lines", month));
+            }
+            statement.execute("CREATE TABLE orders_default PARTITION OF orders DEFAULT");
+            statement.execute("CREATE TABLE order_lines_default PARTITION OF order_lines DEFAULT");
+
+            statement.execute("""
+                    INSERT INTO orders (id, user_id, item_count, subtotal, created_at)
+                    SELECT id, user_id, item_count, subtotal, created_at FROM orders_unpartitioned""");
+            statement.execute("DROP TABLE orders_unpartitioned");
+        }
+    }
+
+    private static YearMonth firstMonth(Statement statement) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT MIN(created_at) FROM orders_unpartitioned")) {
+            resultSet.next();
+            final Timestamp oldest = resultSet.getTimestamp(1);
+            return YearMonth.from(oldest == null ? LocalDate.now() : oldest.toLocalDateTime());
+        }
+    }
+
+    private static String partitionSql(String table, YearMonth month) {
+        return PARTITION_SQL.formatted(table, month.getYear(), month.getMonthValue(), table,
+                month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+}
@@ -0,0 +1,53 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Identifiants alloués par séquence (pas de 50, optimiseur pooled d'Hibernate) au lieu de BIGSERIAL :
+ * Hibernate réserve 50 identifiants par appel et peut regrouper les INSERT en batch JDBC.
+ * <p>
+ * Chaque séquence reprend après le plus grand identifiant existant, valeur calculée ici car ni
+ * {@code CREATE SEQUENCE} ni {@code ALTER SEQUENCE} n'acceptent de sous-requête de façon portable.
+ * Sous PostgreSQL, les colonnes id utilisent désormais la séquence par défaut et les séquences
+ * BIGSERIAL d'origine sont supprimées ; sous H2 (tests), seules les séquences sont créées.
+ */
+public class V1_0_0_5__pooled_id_sequences extends BaseJavaMigration {
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    private static final List<String> TABLES = List.of("products", "offers", "carts", "cart_lines");
+
+    @Override
+    public void migrate(Context context) throws SQLException {
+        final Connection connection = context.getConnection();
+        final boolean postgres = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                final String sequence = table + "_seq";
+                // pooled : la valeur lue est la borne haute du bloc, le premier bloc commence donc après MAX(id)
+                final long start = maxId(statement, table) + ALLOCATION_SIZE;
+                statement.execute("CREATE SEQUENCE %s START WITH %d INCREMENT BY %d"
+                        .formatted(sequence, start, ALLOCATION_SIZE));
+                if (postgres) {
+                    statement.execute("ALTER TABLE %s ALTER COLUMN id SET DEFAULT nextval('%s')".formatted(table, sequence));
+                    statement.execute("ALTER SEQUENCE %s OWNED BY %s.id".formatted(sequence, table));
+                    statement.execute("DROP SEQUENCE %s_id_seq".formatted(table));
+                }
+            }
+        }
+    }
+
+    private static long maxId(Statement statement, String table) throws SQLException {
+        try (ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+}
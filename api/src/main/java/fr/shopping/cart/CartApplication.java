@@ -1,12 +1,24 @@
 package fr.shopping.cart;
 
+import fr.shopping.cart.config.CatalogImportCommand;
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcAutoConfiguration;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcTransactionManagerAutoConfiguration;
+import org.springframework.boot.builder.SpringApplicationBuilder;
 
-@SpringBootApplication
+// Le pool R2DBC n'est créé que par le profil reactive (voir ReactiveConfiguration)
+@SpringBootApplication(exclude = {R2dbcAutoConfiguration.class, R2dbcTransactionManagerAutoConfiguration.class})
 public class CartApplication {
 
 	public static void main(String[] args) {
+		if (CatalogImportCommand.isRequested(args)) {
+			// Import catalogue en ligne de commande : pas de serveur web, arrêt avec le code retour de l'import
+			System.exit(SpringApplication.exit(new SpringApplicationBuilder(CartApplication.class)
+					.web(WebApplicationType.NONE)
+					.run(CatalogImportCommand.applicationArgs(args))));
+		}
 		SpringApplication.run(CartApplication.class, args);
 	}
 
@@ -0,0 +1,85 @@
+package fr.shopping.cart.config;
+
+import fr.shopping.cart.domain.catalog.models.CatalogImportReport;
+import fr.shopping.cart.domain.catalog.services.CatalogImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.stream.Stream;
+
+/**
+ * Mode ligne de commande de l'application : import d'un fichier catalogue sans serveur web,
+ * l'application s'arrêtant à la fin de l'import (voir {@code CartApplication}).
+ * <pre>
+ * java -jar cart.jar import-catalog offres.csv --spring.profiles.active=prod --catalog.import.commit-size=10000
+ * </pre>
+ * Code retour : 0 si toutes les lignes ont été importées, 2 si des lignes ont été écartées, 1 en cas d'échec.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty("catalog.import.file")
+public class CatalogImportCommand implements ApplicationRunner, ExitCodeGenerator {
+
+    public static final String NAME = "import-catalog";
+
+    static final int REJECTED_ROWS_EXIT_CODE = 2;
+
+    private final CatalogImportService catalogImportService;
+    private final Path file;
+    private int exitCode;
+
+    public CatalogImportCommand(
+            CatalogImportService catalogImportService,
+            @Value("${catalog.import.file}") Path file
+    ) {
+        this.catalogImportService = catalogImportService;
+        this.file = file;
+    }
+
+    /**
+     * @return {@code true} si la ligne de commande demande un import catalogue
+     */
+    public static boolean isRequested(String[] args) {
+        return args.length > 0 && NAME.equals(args[0]);
+    }
+
+    /**
+     * Traduit {@code import-catalog <fichier> [--option=valeur...]} en arguments Spring Boot.
+     *
+     * @throws IllegalArgumentException si le fichier n'est pas indiqué
+     */
+    public static String[] applicationArgs(String[] args) {
+        if (args.length < 2 || args[1].startsWith("--")) {
+            throw new IllegalArgumentException("Usage: " + NAME + " <file.csv|file.jsonl> [--property=value...]");
+        }
+        return Stream.concat(
+                Stream.of("--catalog.import.file=" + args[1]),
+                Arrays.stream(args, 2, args.length)
+        ).toArray(String[]::new);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        final CatalogImportReport report = catalogImportService.importFile(file);
+        log.info("Catalog import of {}: {} rows read, {} imported, {} rejected, {} commits, {} offers repriced in {} ms ({} rows/s)",
+                file, report.rowsRead(), report.rowsImported(), report.rowsRejected(), report.commits(),
+                report.repricedOffers(), report.elapsed().toMillis(), Math.round(report.rowsPerSecond()));
+        report.rejects().forEach(reject -> log.warn("Rejected line {}: {}", reject.lineNumber(), reject.reason()));
+        if (report.rowsRejected() > report.rejects().size()) {
+            log.warn("{} more rejected lines not reported", report.rowsRejected() - report.rejects().size());
+        }
+        exitCode = report.rowsRejected() > 0 ? REJECTED_ROWS_EXIT_CODE : 0;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+}
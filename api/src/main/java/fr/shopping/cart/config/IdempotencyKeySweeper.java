@@ -0,0 +1,58 @@
+package fr.shopping.cart.config;
+
+import fr.shopping.cart.domain.idempotency.services.IdempotencyService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purge en tâche de fond les clés d'idempotence expirées, toutes les {@code cart.idempotency.sweep-interval}.
+ * Une clé expirée mais pas encore purgée n'est plus rejouée : elle peut être réservée de nouveau.
+ */
+@Slf4j
+@Component
+public class IdempotencyKeySweeper {
+
+    private final IdempotencyService idempotencyService;
+    private final Duration sweepInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("idempotency-key-sweep").daemon().factory());
+
+    public IdempotencyKeySweeper(
+            IdempotencyService idempotencyService,
+            @Value("${cart.idempotency.sweep-interval:10m}") Duration sweepInterval
+    ) {
+        this.idempotencyService = idempotencyService;
+        this.sweepInterval = sweepInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::sweep,
+                sweepInterval.toNanos(), sweepInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void sweep() {
+        try {
+            final int purged = idempotencyService.purgeExpired();
+            if (purged > 0) {
+                log.debug("Purged {} expired idempotency keys", purged);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Idempotency key sweep failed", ex);
+        }
+    }
+}
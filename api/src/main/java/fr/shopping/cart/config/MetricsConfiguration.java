@@ -0,0 +1,120 @@
+package fr.shopping.cart.config;
+
+import fr.shopping.cart.domain.cart.services.impl.RetryingCartService;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.metrics.LazyLoadCountingListener;
+import fr.shopping.cart.infrastructure.metrics.StatementCountingDataSource;
+import fr.shopping.cart.infrastructure.writebehind.cart.WriteBehindCartStore;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Instrumentation exposée par l'actuator ({@code /actuator/prometheus}).
+ * <p>
+ * Les services panier et checkout, le mapper et les repositories JDBC sont chronométrés par
+ * {@code @Timed} ; les repositories Spring Data le sont nativement par Spring Boot
+ * ({@code spring.data.repository.invocations}). Cette configuration ajoute le comptage des
+ * instructions SQL et des chargements paresseux par requête, et publie les compteurs internes
+ * (cache catalogue, conflits de panier, écriture différée).
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    /**
+     * Enveloppe la datasource pour compter les instructions SQL par requête (voir {@code RequestDbMetricsFilter}).
+     */
+    @Bean
+    static BeanPostProcessor statementCountingDataSourcePostProcessor() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !(bean instanceof StatementCountingDataSource)
+                        ? new StatementCountingDataSource(dataSource)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    SmartInitializingSingleton lazyLoadCountingRegistration(EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            final EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .requireService(EventListenerRegistry.class);
+            final LazyLoadCountingListener listener = new LazyLoadCountingListener();
+            listeners.appendListeners(EventType.LOAD, listener);
+            listeners.appendListeners(EventType.INIT_COLLECTION, listener);
+        };
+    }
+
+    @Bean
+    MeterBinder catalogCacheMetrics(CatalogService catalogService) {
+        return registry -> {
+            FunctionCounter.builder("catalog.cache.requests", catalogService, service -> service.stats().hitCount())
+                    .tag("result", "hit")
+                    .register(registry);
+            FunctionCounter.builder("catalog.cache.requests", catalogService, service -> service.stats().missCount())
+                    .tag("result", "miss")
+                    .register(registry);
+            FunctionCounter.builder("catalog.cache.evictions", catalogService, service -> service.stats().evictionCount())
+                    .register(registry);
+            Gauge.builder("catalog.cache.size", catalogService, service -> service.stats().size())
+                    .register(registry);
+        };
+    }
+
+    @Bean
+    MeterBinder cartConflictMetrics(RetryingCartService cartService) {
+        return registry -> {
+            FunctionCounter.builder("cart.retry.attempts", cartService, service -> service.stats().attempts())
+                    .description("Exécutions de mutations de panier, retentatives comprises")
+                    .register(registry);
+            FunctionCounter.builder("cart.retry.conflicts", cartService, service -> service.stats().conflicts())
+                    .register(registry);
+            FunctionCounter.builder("cart.retry.retries", cartService, service -> service.stats().retries())
+                    .register(registry);
+            FunctionCounter.builder("cart.retry.exhausted", cartService, service -> service.stats().exhausted())
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Métriques du mode write-behind ({@code cart.store.type=write-behind}), absentes sinon.
+     */
+    @Bean
+    MeterBinder cartFlushMetrics(ObjectProvider<WriteBehindCartStore> writeBehindStore) {
+        return registry -> writeBehindStore.ifAvailable(store -> {
+            FunctionCounter.builder("cart.flush.batches", store, s -> s.stats().flushes())
+                    .description("Lots de paniers écrits en base")
+                    .register(registry);
+            FunctionCounter.builder("cart.flush.carts", store, s -> s.stats().flushedCarts())
+                    .register(registry);
+            FunctionCounter.builder("cart.flush.failures", store, s -> s.stats().failedCarts())
+                    .register(registry);
+            Gauge.builder("cart.flush.batch.size", store, s -> s.stats().lastBatchSize())
+                    .description("Nombre de paniers du dernier lot")
+                    .register(registry);
+            TimeGauge.builder("cart.flush.lag", store, TimeUnit.MILLISECONDS, s -> s.stats().lastFlushLagMillis())
+                    .description("Délai maximal du dernier lot entre modification et écriture en base")
+                    .register(registry);
+            TimeGauge.builder("cart.flush.lag.max", store, TimeUnit.MILLISECONDS, s -> s.stats().maxFlushLagMillis())
+                    .register(registry);
+            Gauge.builder("cart.flush.pending", store, s -> s.stats().pendingCarts())
+                    .register(registry);
+        });
+    }
+}
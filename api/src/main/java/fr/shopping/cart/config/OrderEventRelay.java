@@ -0,0 +1,60 @@
+package fr.shopping.cart.config;
+
+import fr.shopping.cart.domain.order.services.OrderEventPublisher;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publie en tâche de fond les événements de l'outbox des commandes, toutes les
+ * {@code orders.events.relay-interval}, hors du chemin des checkouts.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "orders.events.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OrderEventRelay {
+
+    private final OrderEventPublisher orderEventPublisher;
+    private final Duration relayInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("order-event-relay").daemon().factory());
+
+    public OrderEventRelay(
+            OrderEventPublisher orderEventPublisher,
+            @Value("${orders.events.relay-interval:200ms}") Duration relayInterval
+    ) {
+        this.orderEventPublisher = orderEventPublisher;
+        this.relayInterval = relayInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::relay,
+                relayInterval.toNanos(), relayInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void relay() {
+        try {
+            final int published = orderEventPublisher.publishPending();
+            if (published > 0) {
+                log.debug("Published {} order events", published);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Order event relay failed", ex);
+        }
+    }
+}
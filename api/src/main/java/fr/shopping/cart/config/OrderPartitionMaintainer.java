@@ -0,0 +1,67 @@
+package fr.shopping.cart.config;
+
+import fr.shopping.cart.infrastructure.jdbc.order.OrderPartitionRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Crée à l'avance les partitions mensuelles des commandes (PostgreSQL) : au démarrage puis toutes les
+ * {@code orders.partitions.check-interval}, du mois courant à {@code orders.partitions.months-ahead} mois
+ * plus tard. Une commande n'arrive ainsi dans la partition par défaut que si la création a échoué plusieurs
+ * mois de suite. Plusieurs instances peuvent créer en parallèle : la création est idempotente.
+ */
+@Slf4j
+@Component
+public class OrderPartitionMaintainer {
+
+    private final OrderPartitionRepository orderPartitionRepository;
+    private final int monthsAhead;
+    private final Duration checkInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("order-partitions").daemon().factory());
+
+    public OrderPartitionMaintainer(
+            OrderPartitionRepository orderPartitionRepository,
+            @Value("${orders.partitions.months-ahead:2}") int monthsAhead,
+            @Value("${orders.partitions.check-interval:12h}") Duration checkInterval
+    ) {
+        if (monthsAhead < 1) {
+            throw new IllegalArgumentException("orders.partitions.months-ahead must be >= 1");
+        }
+        this.orderPartitionRepository = orderPartitionRepository;
+        this.monthsAhead = monthsAhead;
+        this.checkInterval = checkInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        if (!orderPartitionRepository.isPartitioned()) {
+            return;
+        }
+        scheduler.scheduleWithFixedDelay(this::createPartitions, 0, checkInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void createPartitions() {
+        try {
+            final YearMonth current = YearMonth.now();
+            orderPartitionRepository.createMonthlyPartitions(current, current.plusMonths(monthsAhead));
+        } catch (RuntimeException ex) {
+            log.warn("Order partition maintenance failed", ex);
+        }
+    }
+}
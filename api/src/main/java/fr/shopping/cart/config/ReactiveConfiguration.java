@@ -0,0 +1,86 @@
+package fr.shopping.cart.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Édition non bloquante de l'API (profil {@code reactive}) : WebFlux sur Netty et accès base via R2DBC.
+ * <p>
+ * Le contexte JPA reste démarré (schéma, données de démonstration, administration du catalogue),
+ * mais les requêtes panier et checkout n'utilisent que le {@link DatabaseClient} défini ici.
+ * Le gestionnaire de transactions R2DBC n'est pas exposé comme bean : il n'entre pas en concurrence
+ * avec le {@code JpaTransactionManager} utilisé par {@code @Transactional}, et les services réactifs
+ * délimitent leurs transactions par le {@link TransactionalOperator}.
+ */
+@Configuration
+@Profile("reactive")
+@EnableConfigurationProperties(DataSourceProperties.class)
+public class ReactiveConfiguration {
+
+    /**
+     * Tomcat étant aussi présent dans le classpath, Spring Boot le choisirait par défaut :
+     * Netty est imposé pour servir les connexions avec quelques boucles d'événements.
+     */
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * Spring Boot n'auto-configure pas de {@link DataSource} JDBC dès qu'une {@link ConnectionFactory}
+     * R2DBC est déclarée : la datasource Hikari est recréée ici à partir des mêmes propriétés
+     * {@code spring.datasource.*}, pour JPA, JdbcTemplate et Flyway.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean(destroyMethod = "dispose")
+    ConnectionPool r2dbcConnectionFactory(
+            @Value("${spring.r2dbc.url}") String url,
+            @Value("${spring.r2dbc.username:}") String username,
+            @Value("${spring.r2dbc.password:}") String password,
+            @Value("${spring.r2dbc.pool.initial-size:10}") int initialSize,
+            @Value("${spring.r2dbc.pool.max-size:40}") int maxSize,
+            @Value("${spring.r2dbc.pool.max-acquire-time:5s}") Duration maxAcquireTime
+    ) {
+        final ConnectionFactory connectionFactory = ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build();
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(initialSize)
+                .maxSize(maxSize)
+                .maxAcquireTime(maxAcquireTime)
+                .build());
+    }
+
+    @Bean
+    DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    @Bean
+    TransactionalOperator reactiveTransactionalOperator(ConnectionFactory connectionFactory) {
+        return TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+    }
+}
@@ -0,0 +1,61 @@
+package fr.shopping.cart.config;
+
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expire en tâche de fond les réservations temporaires de stock échues, toutes les
+ * {@code cart.stock-holds.sweep-interval}. Plusieurs instances peuvent balayer en parallèle :
+ * chaque lot verrouille les réservations qu'il expire.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cart.stock-holds.enabled", havingValue = "true")
+public class StockHoldSweeper {
+
+    private final StockHoldService stockHoldService;
+    private final Duration sweepInterval;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("stock-hold-sweep").daemon().factory());
+
+    public StockHoldSweeper(
+            StockHoldService stockHoldService,
+            @Value("${cart.stock-holds.sweep-interval:30s}") Duration sweepInterval
+    ) {
+        this.stockHoldService = stockHoldService;
+        this.sweepInterval = sweepInterval;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::sweep,
+                sweepInterval.toNanos(), sweepInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    private void sweep() {
+        try {
+            final int expired = stockHoldService.expireHolds();
+            if (expired > 0) {
+                log.debug("Expired {} stock holds", expired);
+            }
+        } catch (RuntimeException ex) {
+            log.warn("Stock hold sweep failed", ex);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package fr.shopping.cart.domain.cart.exceptions;
+
+public class CartConcurrentModificationException extends RuntimeException {
+    private static final String MESSAGE = "Cart of userId=%d was modified concurrently, please retry";
+
+    public CartConcurrentModificationException(Long userId, Throwable cause){
+        super(String.format(MESSAGE, userId), cause);
+    }
+}
@@ -0,0 +1,28 @@
+package fr.shopping.cart.domain.cart.listeners;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.services.CartRepricingService;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener JPA déclenchant le repricing des paniers lorsque le prix final d'une offre change.
+ * Le repricing s'exécute dans la transaction de la modification, dès l'UPDATE de l'offre : le prix et les
+ * paniers sont validés ou annulés ensemble, sans repricing perdu après un commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CartRepricingListener {
+
+    private final ObjectProvider<CartRepricingService> cartRepricingService;
+
+    @PostUpdate
+    public void onOfferUpdate(Offer offer) {
+        if (!offer.isFinalUnitPriceChanged()) {
+            return;
+        }
+        cartRepricingService.ifAvailable(service -> service.repriceOffer(offer.getId(), offer.getFinalUnitPriceMinor()));
+    }
+}
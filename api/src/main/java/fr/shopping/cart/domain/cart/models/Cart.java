@@ -1,23 +1,49 @@
 package fr.shopping.cart.domain.cart.models;
 
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 @Entity
-@Table(name = "carts")
+@Table(
+        name = "carts",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_carts_user_id", columnNames = {"user_id"})
+        }
+)
+@NamedEntityGraph(
+        name = Cart.GRAPH_LINES,
+        attributeNodes = @NamedAttributeNode("lines")
+)
+@NamedEntityGraph(
+        name = Cart.GRAPH_LINES_WITH_OFFERS,
+        attributeNodes = @NamedAttributeNode(value = "lines", subgraph = "lines.offer"),
+        subgraphs = @NamedSubgraph(name = "lines.offer", attributeNodes = @NamedAttributeNode("offer"))
+)
 @Getter
 @Setter
 @NoArgsConstructor
 public class Cart {
 
+    /** Plan de chargement : lignes seules (identifiants produit/offre et quantités). */
+    public static final String GRAPH_LINES = "Cart.lines";
+
+    /** Plan de chargement : lignes et offres associées (prix, remise, état). */
+    public static final String GRAPH_LINES_WITH_OFFERS = "Cart.linesWithOffers";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "carts_seq")
+    @SequenceGenerator(name = "carts_seq", sequenceName = "carts_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -31,10 +57,42 @@ public class Cart {
     )
     private List<CartLine> lines = new ArrayList<>();
 
+    /** Nombre total d'articles (somme des quantités), maintenu à chaque modification de ligne. */
+    @Column(nullable = false)
+    @Setter(AccessLevel.NONE)
+    private int itemCount;
+
+    /** Somme des totaux de ligne, maintenue à chaque modification de ligne et repricing d'offre. */
+    @Column(nullable = false, precision = 19, scale = 2)
+    @Setter(AccessLevel.NONE)
+    private BigDecimal subtotal = BigDecimal.ZERO;
+
+    @Version
+    @Setter(AccessLevel.NONE)
+    private long version;
+
     public Cart(Long userId) {
         this.userId = userId;
     }
 
+    /**
+     * Reconstitue un panier détaché à partir d'un {@link CartSnapshot}, avec sa version et ses totaux
+     * recalculés depuis les lignes. Le panier obtenu n'est pas géré par JPA.
+     *
+     * @param offerResolver fournit l'offre (et son produit) de chaque ligne
+     */
+    public static Cart restore(CartSnapshot snapshot, Function<CartSnapshot.Line, Offer> offerResolver) {
+        final Cart cart = new Cart(snapshot.userId());
+        cart.version = snapshot.version();
+        for (CartSnapshot.Line restored : snapshot.lines()) {
+            final Offer offer = offerResolver.apply(restored);
+            final CartLine line = new CartLine(cart, offer.getProduct(), offer, restored.quantity(), restored.unitPriceMinor());
+            cart.lines.add(line);
+            cart.applyTotalsDelta(line.getQuantity(), line.getLineTotalMinor());
+        }
+        return cart;
+    }
+
     public Optional<CartLine> findLine(Long productId, Long offerId) {
         return lines.stream()
                 .filter(l ->
@@ -46,7 +104,57 @@ public class Cart {
     public void updateItemQuantity(Product product, Offer offer, int quantity) {
         findLine(product.getId(), offer.getId())
                 .ifPresent(
-                        line -> line.updateQuantity(quantity)
+                        line -> changeLineQuantity(line, quantity, line.getUnitPriceMinor())
                 );
     }
+
+    /**
+     * Ajoute une ligne d'une unité au prix unitaire donné et met à jour les totaux du panier.
+     *
+     * @param unitPriceMinor prix unitaire final en centimes
+     * @return la ligne créée
+     */
+    public CartLine addLine(Product product, Offer offer, long unitPriceMinor) {
+        final CartLine line = new CartLine(this, product, offer, 1, unitPriceMinor);
+        lines.add(line);
+        applyTotalsDelta(1, line.getLineTotalMinor());
+        return line;
+    }
+
+    /**
+     * Remplace la quantité et le prix unitaire d'une ligne et met à jour les totaux par différence.
+     *
+     * @param unitPriceMinor prix unitaire final courant, en centimes
+     * @throws IllegalArgumentException si la quantité n'est pas strictement positive
+     */
+    public void changeLineQuantity(CartLine line, int quantity, long unitPriceMinor) {
+        final int previousQuantity = line.getQuantity();
+        final long previousTotal = line.getLineTotalMinor();
+
+        line.updateQuantity(quantity);
+        line.reprice(unitPriceMinor);
+
+        applyTotalsDelta(quantity - previousQuantity, line.getLineTotalMinor() - previousTotal);
+    }
+
+    /**
+     * Supprime la ligne correspondant au couple produit/offre, si elle existe, et met à jour les totaux.
+     */
+    public void removeLine(Long productId, Long offerId) {
+        final Iterator<CartLine> iterator = lines.iterator();
+        while (iterator.hasNext()) {
+            final CartLine line = iterator.next();
+            if (line.getProduct().getId().equals(productId) && line.getOffer().getId().equals(offerId)) {
+                iterator.remove();
+                applyTotalsDelta(-line.getQuantity(), -line.getLineTotalMinor());
+            }
+        }
+    }
+
+    private void applyTotalsDelta(int quantityDelta, long amountDeltaMinor) {
+        this.itemCount += quantityDelta;
+        this.subtotal = PriceCalculator.toAmount(
+                Math.addExact(PriceCalculator.toMinorUnits(subtotal), amountDeltaMinor)
+        );
+    }
 }
@@ -0,0 +1,21 @@
+package fr.shopping.cart.domain.cart.models;
+
+/**
+ * Compteurs de conflits d'écriture optimistes sur les paniers.
+ *
+ * @param attempts  nombre d'exécutions de mutations, retentatives comprises
+ * @param conflicts nombre d'exécutions rejetées pour conflit de version
+ * @param retries   nombre de retentatives déclenchées
+ * @param exhausted nombre de mutations abandonnées après épuisement des tentatives
+ */
+public record CartConflictStats(
+        long attempts,
+        long conflicts,
+        long retries,
+        long exhausted
+) {
+
+    public double conflictRate() {
+        return attempts == 0 ? 0.0 : (double) conflicts / attempts;
+    }
+}
@@ -0,0 +1,23 @@
+package fr.shopping.cart.domain.cart.models;
+
+/**
+ * Compteurs des écritures différées de paniers (mode write-behind).
+ *
+ * @param flushes            nombre de lots écrits en base
+ * @param flushedCarts       nombre de paniers écrits en base, tous lots confondus
+ * @param failedCarts        nombre d'écritures de panier en échec, laissées en attente du lot suivant
+ * @param lastBatchSize      nombre de paniers du dernier lot
+ * @param lastFlushLagMillis délai maximal, dans le dernier lot, entre la première modification non écrite
+ *                           d'un panier et son écriture en base
+ * @param maxFlushLagMillis  plus grand délai observé depuis le démarrage
+ * @param pendingCarts       nombre de paniers modifiés en attente d'écriture
+ */
+public record CartFlushStats(
+        long flushes,
+        long flushedCarts,
+        long failedCarts,
+        int lastBatchSize,
+        long lastFlushLagMillis,
+        long maxFlushLagMillis,
+        int pendingCarts
+) {}
@@ -1,10 +1,14 @@
 package fr.shopping.cart.domain.cart.models;
 
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
 import jakarta.persistence.*;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
+import java.math.BigDecimal;
+
 @Entity
 @Table(
         name = "cart_lines",
@@ -18,7 +22,8 @@ import lombok.Setter;
 public class CartLine {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cart_lines_seq")
+    @SequenceGenerator(name = "cart_lines_seq", sequenceName = "cart_lines_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -36,11 +41,36 @@ public class CartLine {
     @Column(nullable = false)
     private int quantity;
 
+    /** Prix unitaire final de l'offre au moment du dernier ajout, mise à jour ou repricing. */
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal unitPrice;
+
+    @Version
+    @Setter(AccessLevel.NONE)
+    private long version;
+
     public CartLine(Cart cart, Product product, Offer offer, int quantity) {
+        this(cart, product, offer, quantity, offer.getFinalUnitPriceMinor());
+    }
+
+    public CartLine(Cart cart, Product product, Offer offer, int quantity, long unitPriceMinor) {
         this.cart = cart;
         this.product = product;
         this.offer = offer;
         this.quantity = quantity;
+        this.unitPrice = PriceCalculator.toAmount(unitPriceMinor);
+    }
+
+    public long getUnitPriceMinor() {
+        return PriceCalculator.toMinorUnits(unitPrice);
+    }
+
+    public long getLineTotalMinor() {
+        return PriceCalculator.lineTotal(getUnitPriceMinor(), quantity);
+    }
+
+    void reprice(long unitPriceMinor) {
+        this.unitPrice = PriceCalculator.toAmount(unitPriceMinor);
     }
 
     public void updateQuantity(int quantity) {
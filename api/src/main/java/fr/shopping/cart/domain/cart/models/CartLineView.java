@@ -0,0 +1,21 @@
+package fr.shopping.cart.domain.cart.models;
+
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+
+/**
+ * Projection en lecture seule d'une ligne de panier, lue sans entité managée (édition réactive).
+ *
+ * @param unitPriceMinor prix unitaire figé sur la ligne, en centimes
+ */
+public record CartLineView(
+        Long productId,
+        Long offerId,
+        State state,
+        int quantity,
+        long unitPriceMinor
+) {
+
+    public long lineTotalMinor() {
+        return PriceCalculator.lineTotal(unitPriceMinor, quantity);
+    }
+}
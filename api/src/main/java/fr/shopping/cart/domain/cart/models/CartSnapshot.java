@@ -0,0 +1,41 @@
+package fr.shopping.cart.domain.cart.models;
+
+import java.util.List;
+
+/**
+ * État minimal d'un panier, détaché de JPA : version et, par ligne, les identifiants produit/offre,
+ * la quantité et le prix unitaire figé. Les totaux ne sont pas conservés, ils se déduisent des lignes.
+ * Utilisé par les stockages clé-valeur du panier (voir {@code CartStore}).
+ */
+public record CartSnapshot(
+        Long userId,
+        long version,
+        List<Line> lines
+) {
+
+    public record Line(
+            Long productId,
+            Long offerId,
+            int quantity,
+            long unitPriceMinor
+    ) {}
+
+    public static CartSnapshot empty(Long userId) {
+        return new CartSnapshot(userId, 0, List.of());
+    }
+
+    public static CartSnapshot of(Cart cart) {
+        return new CartSnapshot(
+                cart.getUserId(),
+                cart.getVersion(),
+                cart.getLines().stream()
+                        .map(line -> new Line(
+                                line.getProduct().getId(),
+                                line.getOffer().getId(),
+                                line.getQuantity(),
+                                line.getUnitPriceMinor()
+                        ))
+                        .toList()
+        );
+    }
+}
@@ -0,0 +1,18 @@
+package fr.shopping.cart.domain.cart.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection en lecture seule du résumé d'un panier (nombre d'articles et total),
+ * lue directement depuis les totaux dénormalisés de la table {@code carts}.
+ */
+public record CartSummary(
+        Long userId,
+        int itemCount,
+        BigDecimal total
+) {
+
+    public static CartSummary empty(Long userId) {
+        return new CartSummary(userId, 0, BigDecimal.ZERO);
+    }
+}
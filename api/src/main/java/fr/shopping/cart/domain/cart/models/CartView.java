@@ -0,0 +1,16 @@
+package fr.shopping.cart.domain.cart.models;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Projection en lecture seule d'un panier et de ses lignes, équivalent détaché de {@link Cart}
+ * utilisé par l'édition réactive de l'API.
+ *
+ * @param subtotal sous-total dénormalisé de la table {@code carts}
+ */
+public record CartView(
+        Long userId,
+        List<CartLineView> lines,
+        BigDecimal subtotal
+) {}
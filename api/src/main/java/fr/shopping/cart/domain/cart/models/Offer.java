@@ -1,7 +1,11 @@
 package fr.shopping.cart.domain.cart.models;
 
+import fr.shopping.cart.domain.cart.listeners.CartRepricingListener;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+import fr.shopping.cart.domain.catalog.listeners.CatalogCacheInvalidationListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
@@ -10,25 +14,39 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
 
 @Entity
 @Table(name = "offers")
+@EntityListeners({CatalogCacheInvalidationListener.class, CartRepricingListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Offer {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "offers_seq")
+    @SequenceGenerator(name = "offers_seq", sequenceName = "offers_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Référence catalogue, clé de l'import en masse ; absente pour les offres créées autrement.
+     */
+    @Column(unique = true, length = 64)
+    private String reference;
+
     private BigDecimal price;
 
     @Column(
@@ -47,19 +65,94 @@ public class Offer {
     )
     private int stockQty;
 
+    /**
+     * Quantité réservée temporairement dans des paniers (somme de {@code stock_holds}), maintenue
+     * en SQL par {@code StockHoldRepository} et jamais écrite par JPA.
+     */
+    @Column(
+            nullable = false,
+            insertable = false,
+            updatable = false,
+            columnDefinition = "INTEGER DEFAULT 0 CHECK (held_qty >= 0)"
+    )
+    @Setter(AccessLevel.NONE)
+    private int heldQty;
+
     @Column(nullable = false)
     @Enumerated(EnumType.STRING)
     private State state;
 
+    @Version
+    @Setter(AccessLevel.NONE)
+    private long version;
+
+    /**
+     * Prix final en centimes, mémoïsé pour le couple prix/remise qui a servi à le calculer.
+     * La mémoïsation est indexée sur ces valeurs plutôt que sur les setters : Hibernate écrit
+     * directement dans les champs lors d'un chargement, d'un merge ou d'un refresh.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private long finalUnitPriceMinor;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private BigDecimal pricedPrice;
+
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private int pricedDiscountPercent;
+
+    /**
+     * Prix final en centimes tel qu'il figure en base, pour détecter un changement de prix à l'écriture.
+     */
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Long persistedFinalUnitPriceMinor;
+
     public Offer(BigDecimal price, Product product) {
         this.price = price;
         this.product = product;
     }
 
+    public long getFinalUnitPriceMinor() {
+        if (price != pricedPrice || discountPercent != pricedDiscountPercent) {
+            finalUnitPriceMinor = computeFinalUnitPriceMinor(price, discountPercent);
+            pricedPrice = price;
+            pricedDiscountPercent = discountPercent;
+        }
+        return finalUnitPriceMinor;
+    }
+
     public BigDecimal getFinalUnitPrice() {
-        final BigDecimal discount = price.multiply(BigDecimal.valueOf(discountPercent))
-                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
-        return price.subtract(discount);
+        return PriceCalculator.toAmount(getFinalUnitPriceMinor());
+    }
+
+    public static long computeFinalUnitPriceMinor(BigDecimal price, int discountPercent) {
+        return PriceCalculator.finalUnitPrice(PriceCalculator.toMinorUnits(price), discountPercent);
+    }
+
+    /**
+     * Indique si le prix final a changé depuis la dernière lecture ou écriture en base.
+     */
+    public boolean isFinalUnitPriceChanged() {
+        return persistedFinalUnitPriceMinor != null
+                && price != null
+                && persistedFinalUnitPriceMinor != getFinalUnitPriceMinor();
+    }
+
+    /**
+     * Exécuté après les listeners de l'entité, conformément à l'ordre des callbacks JPA.
+     */
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberPersistedFinalUnitPrice() {
+        this.persistedFinalUnitPriceMinor = price == null ? null : getFinalUnitPriceMinor();
     }
 
     public void decreaseStock(int quantity) {
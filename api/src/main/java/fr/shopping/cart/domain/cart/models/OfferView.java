@@ -0,0 +1,30 @@
+package fr.shopping.cart.domain.cart.models;
+
+import java.math.BigDecimal;
+
+/**
+ * Projection en lecture seule d'une offre : prix, remise, état et stock,
+ * sans entité managée ni chargement du produit.
+ * {@code stockQty} est le stock disponible : stock physique moins les réservations temporaires en cours.
+ */
+public record OfferView(
+        Long offerId,
+        Long productId,
+        BigDecimal price,
+        int discountPercent,
+        State state,
+        int stockQty
+) {
+
+    public long finalUnitPriceMinor() {
+        return Offer.computeFinalUnitPriceMinor(price, discountPercent);
+    }
+
+    public boolean hasSufficientStock(int quantity) {
+        return this.stockQty >= quantity;
+    }
+
+    public boolean hasEmptyStock() {
+        return this.stockQty == 0;
+    }
+}
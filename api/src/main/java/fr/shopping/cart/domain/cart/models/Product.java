@@ -1,5 +1,6 @@
 package fr.shopping.cart.domain.cart.models;
 
+import fr.shopping.cart.domain.catalog.listeners.CatalogCacheInvalidationListener;
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -8,10 +9,10 @@ import lombok.Setter;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
 
 @Entity
 @Table(name = "products")
+@EntityListeners(CatalogCacheInvalidationListener.class)
 @Getter
 @Setter
 @NoArgsConstructor
@@ -19,9 +20,16 @@ import java.util.Optional;
 public class Product {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Référence catalogue, clé de l'import en masse ; absente pour les produits créés autrement.
+     */
+    @Column(unique = true, length = 64)
+    private String reference;
+
     @Column(nullable = false)
     private String label;
 
@@ -36,10 +44,4 @@ public class Product {
     public Product(String label) {
         this.label = label;
     }
-
-    public Optional<Offer> getOfferById(Long offerId) {
-        return offers.stream()
-                .filter(o -> o.getId().equals(offerId))
-                .findFirst();
-    }
 }
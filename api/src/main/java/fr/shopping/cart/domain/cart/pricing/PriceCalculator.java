@@ -0,0 +1,66 @@
+package fr.shopping.cart.domain.cart.pricing;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Calculs de prix en unités mineures (centimes) sur des {@code long}.
+ * Reproduit exactement l'arrondi HALF_UP à 2 décimales du calcul historique en {@link BigDecimal},
+ * la conversion vers {@link BigDecimal} n'ayant lieu qu'en bordure (DTO, persistance).
+ */
+public final class PriceCalculator {
+
+    private static final int SCALE = 2;
+    private static final long PERCENT = 100L;
+
+    private PriceCalculator() {
+    }
+
+    /**
+     * Convertit un montant (au plus 2 décimales significatives) en centimes.
+     *
+     * @param amount montant, par exemple {@code 19.99}
+     * @return le montant en centimes, par exemple {@code 1999}
+     * @throws ArithmeticException si le montant porte des fractions de centime
+     */
+    public static long toMinorUnits(BigDecimal amount) {
+        return amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Convertit un montant en centimes vers un {@link BigDecimal} d'échelle 2.
+     */
+    public static BigDecimal toAmount(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, SCALE);
+    }
+
+    /**
+     * Prix unitaire remisé : {@code prix - arrondiHalfUp(prix * remise / 100)}, en centimes.
+     *
+     * @param priceMinorUnits prix catalogue en centimes
+     * @param discountPercent remise en pourcentage (0 à 100)
+     * @return le prix final en centimes
+     */
+    public static long finalUnitPrice(long priceMinorUnits, int discountPercent) {
+        return priceMinorUnits - divideHalfUp(Math.multiplyExact(priceMinorUnits, discountPercent), PERCENT);
+    }
+
+    /**
+     * Total d'une ligne en centimes.
+     */
+    public static long lineTotal(long unitPriceMinorUnits, int quantity) {
+        return Math.multiplyExact(unitPriceMinorUnits, quantity);
+    }
+
+    /**
+     * Division entière arrondie au plus proche, les demis s'éloignant de zéro (HALF_UP).
+     */
+    private static long divideHalfUp(long dividend, long divisor) {
+        final long quotient = dividend / divisor;
+        final long remainder = Math.abs(dividend % divisor);
+        if (remainder * 2 >= divisor) {
+            return dividend < 0 ? quotient - 1 : quotient + 1;
+        }
+        return quotient;
+    }
+}
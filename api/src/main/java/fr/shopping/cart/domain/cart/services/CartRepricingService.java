@@ -0,0 +1,13 @@
+package fr.shopping.cart.domain.cart.services;
+
+public interface CartRepricingService {
+
+    /**
+     * Reporte le nouveau prix final d'une offre sur les lignes et sous-totaux des paniers.
+     *
+     * @param offerId             identifiant de l'offre
+     * @param finalUnitPriceMinor nouveau prix unitaire final, en centimes
+     * @return le nombre de paniers repricés
+     */
+    int repriceOffer(Long offerId, long finalUnitPriceMinor);
+}
@@ -1,17 +1,26 @@
 package fr.shopping.cart.domain.cart.services;
 
 import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
 import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
 import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+
+import java.util.List;
 
 public interface CartService {
 
     Cart getCart(Long userId);
 
+    CartSummary getCartSummary(Long userId);
+
     void addItem(Long userId, AddItemRequestDto request);
 
     void removeItem(Long userId, Long productId, Long offerId);
 
     void updateItemQuantity(Long userId, UpdateItemRequestDto requestDto);
+
+    List<CartItemOperationResultDto> applyBatch(Long userId, BatchCartItemsRequestDto request);
 }
 
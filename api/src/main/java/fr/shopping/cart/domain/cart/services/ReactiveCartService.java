@@ -0,0 +1,29 @@
+package fr.shopping.cart.domain.cart.services;
+
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.CartView;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Équivalent non bloquant de {@link CartService} (profil {@code reactive}).
+ */
+public interface ReactiveCartService {
+
+    Mono<CartView> getCart(Long userId);
+
+    Mono<CartSummary> getCartSummary(Long userId);
+
+    Mono<Void> addItem(Long userId, AddItemRequestDto request);
+
+    Mono<Void> removeItem(Long userId, Long productId, Long offerId);
+
+    Mono<Void> updateItemQuantity(Long userId, UpdateItemRequestDto requestDto);
+
+    Mono<List<CartItemOperationResultDto>> applyBatch(Long userId, BatchCartItemsRequestDto request);
+}
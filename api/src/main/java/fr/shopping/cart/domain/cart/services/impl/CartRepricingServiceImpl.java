@@ -0,0 +1,25 @@
+package fr.shopping.cart.domain.cart.services.impl;
+
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+import fr.shopping.cart.domain.cart.services.CartRepricingService;
+import fr.shopping.cart.infrastructure.jdbc.cart.CartTotalsRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class CartRepricingServiceImpl implements CartRepricingService {
+
+    private final CartTotalsRepository cartTotalsRepository;
+
+    /**
+     * Exécuté dans la transaction de la modification d'offre, qui ne peut être validée sans son repricing :
+     * si les UPDATE des paniers échouent, le changement de prix est annulé avec eux.
+     */
+    @Override
+    @Transactional
+    public int repriceOffer(Long offerId, long finalUnitPriceMinor) {
+        return cartTotalsRepository.repriceOffer(offerId, PriceCalculator.toAmount(finalUnitPriceMinor));
+    }
+}
@@ -1,9 +1,19 @@
 package fr.shopping.cart.domain.cart.services.impl;
 
-import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
 import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
 import fr.shopping.cart.domain.cart.services.CartService;
 import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationStatus;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationType;
 import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
 import fr.shopping.cart.domain.cart.exceptions.CartLineNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.CartNotFoundException;
@@ -12,20 +22,47 @@ import fr.shopping.cart.domain.cart.exceptions.OfferNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.ProductNotFoundException;
 import fr.shopping.cart.domain.cart.models.Cart;
 import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.CartSummary;
 import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
 import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
+@Timed("cart.service")
 @RequiredArgsConstructor
 public class CartServiceImpl implements CartService {
 
-    /** Wrapper interne pour coupler un produit et son offre. */
-    private record ProductAndOffer(Product product, Offer offer) {}
+    /**
+     * Wrapper interne pour coupler un produit, son offre, le prix unitaire courant de l'offre et son
+     * stock disponible lu en base, {@code null} si le stockage des paniers ne contrôle pas le stock.
+     */
+    private record ProductAndOffer(
+            Long productId, Long offerId, Product product, Offer offer, long unitPriceMinor, Integer availableStock
+    ) {}
 
-    private final CartRepository cartRepository;
+    private final CartStore cartStore;
     private final ProductRepository productRepository;
+    private final OfferRepository offerRepository;
+    private final CatalogService catalogService;
+    private final StockHoldService stockHoldService;
+    private final HotStockService hotStockService;
+    private final CartMetrics cartMetrics;
 
     /**
      * Récupère le panier d'un utilisateur. Si le panier n'existe pas, il est créé automatiquement.
@@ -35,8 +72,20 @@ public class CartServiceImpl implements CartService {
      */
     @Override
     public Cart getCart(Long userId) {
-        return cartRepository.findByUserId(userId)
-                .orElseGet(() -> createCart(userId));
+        return getOrCreateCart(userId, cartStore::findForDisplay);
+    }
+
+    /**
+     * Récupère le résumé du panier d'un utilisateur (nombre d'articles et total) via une projection,
+     * sans charger les lignes. Un panier inexistant est résumé à zéro, sans être créé.
+     *
+     * @param userId identifiant de l'utilisateur
+     * @return {@link CartSummary} du panier
+     */
+    @Override
+    public CartSummary getCartSummary(Long userId) {
+        return cartStore.findSummary(userId)
+                .orElseGet(() -> CartSummary.empty(userId));
     }
 
     /**
@@ -47,34 +96,19 @@ public class CartServiceImpl implements CartService {
      * @throws InsufficientStockException si le stock est insufisant
      */
     @Override
+    @Transactional
     public void addItem(Long userId, AddItemRequestDto request) {
         final Long productId = request.productId();
         final Long offerId = request.offerId();
 
-        Cart cart = cartRepository.findByUserId(userId)
-                .orElseGet(() -> cartRepository.save(new Cart(userId)));
+        Cart cart = getOrCreateCart(userId, cartStore::findForUpdate);
 
         final ProductAndOffer po = loadProductAndOffer(productId, offerId);
+        final Map<Long, Integer> held = lockHolds(userId, List.of(offerId));
 
-        cart.findLine(productId, offerId).ifPresentOrElse(
-                line -> {
-                    int newQuantity = line.getQuantity() + 1;
-
-                    if (!po.offer().hasSufficientStock(newQuantity)) {
-                        throw new InsufficientStockException(productId, offerId);
-                    }
-                    line.updateQuantity(newQuantity);
-                },
-                () -> {
-                    if (po.offer().hasEmptyStock()) {
-                        throw new InsufficientStockException(productId, offerId);
-                    }
-
-                    CartLine newLine = new CartLine(cart, po.product(), po.offer(), 1);
-                    cart.getLines().add(newLine);
-                }
-        );
-        cartRepository.save(cart);
+        applyAdd(cart, productId, offerId, po, held);
+        holdStock(cart, held, List.of(offerId), "add");
+        save(cart);
     }
 
 
@@ -87,27 +121,20 @@ public class CartServiceImpl implements CartService {
      * @throws InsufficientStockException si le stock est insufisant
      */
     @Override
+    @Transactional
     public void updateItemQuantity(Long userId, UpdateItemRequestDto request) {
         final Long productId = request.productId();
         final Long offerId = request.offerId();
         final int quantity = request.quantity();
 
-        Cart cart = cartRepository.findByUserId(userId)
+        Cart cart = cartStore.findForUpdate(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
         final ProductAndOffer po = loadProductAndOffer(productId, offerId);
+        final Map<Long, Integer> held = lockHolds(userId, List.of(offerId));
 
-        cart.findLine(productId, offerId).orElseThrow(() -> new CartLineNotFoundException(productId, offerId));
-
-        if(!po.offer().hasSufficientStock(quantity)){
-            throw new InsufficientStockException(productId, offerId);
-        }
-
-        cart.updateItemQuantity(
-                po.product(),
-                po.offer(),
-                quantity
-        );
-        cartRepository.save(cart);
+        applyUpdate(cart, productId, offerId, quantity, po, held);
+        holdStock(cart, held, List.of(offerId), "update");
+        save(cart);
 
     }
 
@@ -119,18 +146,205 @@ public class CartServiceImpl implements CartService {
      * @throws CartNotFoundException si le panier n'existe pas
      */
     @Override
+    @Transactional
     public void removeItem(Long userId, Long productId, Long offerId) {
-        Cart cart = cartRepository.findByUserId(userId)
+        Cart cart = cartStore.findForUpdate(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
-        cart.getLines().removeIf(line ->
-                line.getProduct().getId().equals(productId) &&
-                        line.getOffer().getId().equals(offerId)
+        final Map<Long, Integer> held = lockHolds(userId, List.of(offerId));
+        applyRemove(cart, productId, offerId);
+        holdStock(cart, held, List.of(offerId), "remove");
+        save(cart);
+    }
+
+    /**
+     * Applique une série d'ajouts, mises à jour et suppressions sur le panier en une seule passe.
+     * Le panier et toutes les offres référencées sont chargés une fois, le stock est contrôlé sur
+     * ces projections (sauf si le stockage des paniers ne contrôle pas le stock), puis le panier est
+     * sauvegardé une seule fois. Une opération en échec est
+     * rapportée dans son résultat sans interrompre les suivantes. Les réservations de stock des offres
+     * modifiées sont alignées une seule fois, après la dernière opération.
+     *
+     * @param userId  identifiant de l'utilisateur
+     * @param request {@link BatchCartItemsRequestDto} contenant les opérations, dans l'ordre d'application
+     * @return un résultat par opération, dans l'ordre de la requête
+     */
+    @Override
+    @Transactional
+    public List<CartItemOperationResultDto> applyBatch(Long userId, BatchCartItemsRequestDto request) {
+        final List<CartItemOperationDto> operations = request.operations();
+
+        final Set<Long> offerIds = operations.stream()
+                .filter(op -> op.type() != CartItemOperationType.REMOVE)
+                .map(CartItemOperationDto::offerId)
+                .collect(Collectors.toSet());
+        final Map<Long, ProductAndOffer> offers = loadProductsAndOffers(offerIds);
+
+        final boolean createIfAbsent = operations.stream().anyMatch(op -> op.type() == CartItemOperationType.ADD);
+        final Cart cart = createIfAbsent
+                ? getOrCreateCart(userId, cartStore::findForUpdate)
+                : cartStore.findForUpdate(userId).orElse(null);
+
+        final Map<Long, Integer> held = cart == null
+                ? Map.of()
+                : lockHolds(userId, operations.stream().map(CartItemOperationDto::offerId).toList());
+
+        final List<CartItemOperationResultDto> results = new ArrayList<>(operations.size());
+        final Set<Long> appliedOfferIds = new HashSet<>();
+        for (int i = 0; i < operations.size(); i++) {
+            final CartItemOperationResultDto result = applyOperation(i, userId, cart, operations.get(i), offers, held);
+            if (result.status() == CartItemOperationStatus.APPLIED) {
+                appliedOfferIds.add(result.offerId());
+            }
+            results.add(result);
+        }
+
+        if (cart != null) {
+            holdStock(cart, held, appliedOfferIds, "batch");
+            save(cart);
+        }
+        return results;
+    }
+
+    /**
+     * Applique une opération du lot et convertit les erreurs métier en statut de résultat.
+     */
+    private CartItemOperationResultDto applyOperation(
+            int index, Long userId, Cart cart, CartItemOperationDto op, Map<Long, ProductAndOffer> offers,
+            Map<Long, Integer> held
+    ) {
+        try {
+            if (cart == null) {
+                throw new CartNotFoundException(userId);
+            }
+            switch (op.type()) {
+                case ADD -> applyAdd(cart, op.productId(), op.offerId(), resolveProductAndOffer(op, offers), held);
+                case UPDATE -> {
+                    if (op.quantity() == null) {
+                        throw new IllegalArgumentException("Quantity must be > 0");
+                    }
+                    applyUpdate(cart, op.productId(), op.offerId(), op.quantity(), resolveProductAndOffer(op, offers), held);
+                }
+                case REMOVE -> applyRemove(cart, op.productId(), op.offerId());
+            }
+            return operationResult(index, op, CartItemOperationStatus.APPLIED, null);
+        } catch (CartNotFoundException | CartLineNotFoundException | ProductNotFoundException | OfferNotFoundException ex) {
+            return operationResult(index, op, CartItemOperationStatus.NOT_FOUND, ex.getMessage());
+        } catch (InsufficientStockException ex) {
+            return operationResult(index, op, CartItemOperationStatus.INSUFFICIENT_STOCK, ex.getMessage());
+        } catch (IllegalArgumentException ex) {
+            return operationResult(index, op, CartItemOperationStatus.INVALID, ex.getMessage());
+        }
+    }
+
+    private CartItemOperationResultDto operationResult(
+            int index, CartItemOperationDto op, CartItemOperationStatus status, String message
+    ) {
+        return new CartItemOperationResultDto(index, op.type(), op.productId(), op.offerId(), status, message);
+    }
+
+    /**
+     * Ajoute une unité d'une offre au panier, en créant la ligne si besoin.
+     * Le prix unitaire de la ligne et les totaux du panier sont mis à jour au prix courant de l'offre.
+     * @throws InsufficientStockException si le stock ne couvre pas la nouvelle quantité
+     */
+    private void applyAdd(Cart cart, Long productId, Long offerId, ProductAndOffer po, Map<Long, Integer> held) {
+        final long unitPrice = po.unitPriceMinor();
+        cart.findLine(productId, offerId).ifPresentOrElse(
+                line -> {
+                    int newQuantity = line.getQuantity() + 1;
+
+                    if (!hasSufficientStock(po, held, newQuantity)) {
+                        cartMetrics.recordStockRejection("add");
+                        throw new InsufficientStockException(productId, offerId);
+                    }
+                    cart.changeLineQuantity(line, newQuantity, unitPrice);
+                },
+                () -> {
+                    if (!hasSufficientStock(po, held, 1)) {
+                        cartMetrics.recordStockRejection("add");
+                        throw new InsufficientStockException(productId, offerId);
+                    }
+
+                    cart.addLine(po.product(), po.offer(), unitPrice);
+                }
         );
-        cartRepository.save(cart);
+    }
+
+    /**
+     * Remplace la quantité d'une ligne existante.
+     * @throws CartLineNotFoundException si la ligne n'existe pas dans le panier
+     * @throws InsufficientStockException si le stock ne couvre pas la quantité demandée
+     */
+    private void applyUpdate(
+            Cart cart, Long productId, Long offerId, int quantity, ProductAndOffer po, Map<Long, Integer> held
+    ) {
+        final CartLine line = cart.findLine(productId, offerId)
+                .orElseThrow(() -> new CartLineNotFoundException(productId, offerId));
+
+        if(!hasSufficientStock(po, held, quantity)){
+            cartMetrics.recordStockRejection("update");
+            throw new InsufficientStockException(productId, offerId);
+        }
+
+        cart.changeLineQuantity(line, quantity, po.unitPriceMinor());
+    }
+
+    private void applyRemove(Cart cart, Long productId, Long offerId) {
+        cart.removeLine(productId, offerId);
+    }
+
+    /**
+     * Le stock disponible de l'offre exclut toutes les réservations en cours, y compris celle de l'utilisateur,
+     * qui reste donc à sa disposition. Un stock non lu n'est contrôlé qu'au checkout. Pour une offre chaude, il
+     * comprend les unités prélevées par les instances ({@link HotStockService#escrowedStock}).
+     */
+    private static boolean hasSufficientStock(ProductAndOffer po, Map<Long, Integer> held, int quantity) {
+        return po.availableStock() == null
+                || po.availableStock() >= quantity - held.getOrDefault(po.offerId(), 0);
+    }
+
+    private Map<Long, Integer> lockHolds(Long userId, Collection<Long> offerIds) {
+        return cartStore.checksStockOnChange() ? stockHoldService.lockHolds(userId, offerIds) : Map.of();
+    }
+
+    /**
+     * Aligne les réservations de stock de l'utilisateur sur les quantités du panier pour les offres données.
+     * @throws InsufficientStockException si le stock disponible a été pris par un autre panier depuis sa lecture
+     */
+    private void holdStock(Cart cart, Map<Long, Integer> held, Collection<Long> offerIds, String operation) {
+        if (!cartStore.checksStockOnChange()) {
+            return;
+        }
+        final Map<Long, Integer> quantities = new HashMap<>();
+        offerIds.forEach(offerId -> quantities.put(offerId, 0));
+        for (CartLine line : cart.getLines()) {
+            quantities.computeIfPresent(line.getOffer().getId(), (offerId, quantity) -> quantity + line.getQuantity());
+        }
+        final List<Long> uncovered = stockHoldService.holdStock(cart.getUserId(), held, quantities);
+        if (!uncovered.isEmpty()) {
+            final Long offerId = uncovered.getFirst();
+            final Long productId = cart.getLines().stream()
+                    .filter(line -> line.getOffer().getId().equals(offerId))
+                    .map(line -> line.getProduct().getId())
+                    .findFirst()
+                    .orElse(null);
+            cartMetrics.recordStockRejection(operation);
+            throw new InsufficientStockException(productId, offerId);
+        }
+    }
+
+    private void save(Cart cart) {
+        cartStore.save(cart);
+        cartMetrics.recordCartSize("save", cart);
     }
 
     /**
      * Charge un produit et son offre. Lève une exception si l'un ou l'autre n'existe pas.
+     * Le couple produit/offre et le prix courant de l'offre sont lus dans le cache catalogue ; seul le
+     * stock disponible, qui change à chaque panier, est lu en base par une projection indexée sur la clé
+     * de l'offre, et seulement si le stockage des paniers contrôle le stock ; les unités d'une offre chaude
+     * prélevées par les instances y sont ajoutées. Produit et offre ne sont référencés que par leur
+     * identifiant : aucune entité ni collection {@code Product.offers} n'est hydratée.
      * @param productId identifiant du produit
      * @param offerId   identifiant de l'offre
      * @return {@link ProductAndOffer} couplant le produit et l'offre
@@ -138,24 +352,101 @@ public class CartServiceImpl implements CartService {
      * @throws OfferNotFoundException si l'offre n'existe pas
      */
     private ProductAndOffer loadProductAndOffer(Long productId, Long offerId) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductNotFoundException(productId));
+        final long start = System.nanoTime();
+        try {
+            return lookupProductAndOffer(productId, offerId);
+        } finally {
+            cartMetrics.recordOfferLookup(System.nanoTime() - start);
+        }
+    }
 
-        Offer offer = product.getOfferById(offerId)
-                .orElseThrow(() -> new OfferNotFoundException(offerId));
+    private ProductAndOffer lookupProductAndOffer(Long productId, Long offerId) {
+        final OfferSnapshot snapshot = catalogService.findOffer(offerId)
+                .filter(candidate -> candidate.productId().equals(productId))
+                .orElseThrow(() -> productRepository.existsById(productId)
+                        ? new OfferNotFoundException(offerId)
+                        : new ProductNotFoundException(productId));
 
-        return new ProductAndOffer(product, offer);
+        final Integer availableStock = cartStore.checksStockOnChange()
+                ? withEscrowedStock(offerId, offerRepository.findAvailableStockByIdAndProductId(offerId, productId)
+                        .orElseThrow(() -> new OfferNotFoundException(offerId)))
+                : null;
+
+        return productAndOffer(productId, offerId, snapshot.finalUnitPriceMinor(), availableStock);
+    }
+
+    /**
+     * Équivalent de {@link #loadProductAndOffer(Long, Long)} pour toutes les offres d'un lot : une seule
+     * projection groupée si le stockage des paniers contrôle le stock, le cache catalogue seul sinon.
+     * Les offres inexistantes sont absentes du résultat.
+     */
+    private Map<Long, ProductAndOffer> loadProductsAndOffers(Set<Long> offerIds) {
+        if (offerIds.isEmpty()) {
+            return Map.of();
+        }
+        if (!cartStore.checksStockOnChange()) {
+            return offerIds.stream()
+                    .map(catalogService::findOffer)
+                    .flatMap(Optional::stream)
+                    .collect(Collectors.toMap(OfferSnapshot::offerId, snapshot -> productAndOffer(
+                            snapshot.productId(), snapshot.offerId(), snapshot.finalUnitPriceMinor(), null)));
+        }
+        return offerRepository.findViewsByIdIn(offerIds).stream()
+                .collect(Collectors.toMap(OfferView::offerId, view -> productAndOffer(
+                        view.productId(), view.offerId(), view.finalUnitPriceMinor(),
+                        withEscrowedStock(view.offerId(), view.stockQty()))));
     }
 
     /**
-     * Crée un panier vide pour un utilisateur et le sauvegarde en mémoire.
+     * Le stock en base d'une offre chaude ne compte plus les unités prélevées par les instances pour la vente
+     * au checkout : elles restent disponibles pour le panier.
+     */
+    private int withEscrowedStock(Long offerId, int availableStock) {
+        return hotStockService.isHot(offerId)
+                ? (int) Math.min(Integer.MAX_VALUE, availableStock + hotStockService.escrowedStock(offerId))
+                : availableStock;
+    }
+
+    private ProductAndOffer productAndOffer(Long productId, Long offerId, long unitPriceMinor, Integer availableStock) {
+        return new ProductAndOffer(
+                productId,
+                offerId,
+                productRepository.getReferenceById(productId),
+                offerRepository.getReferenceById(offerId),
+                unitPriceMinor,
+                availableStock
+        );
+    }
+
+    /**
+     * Offre d'une opération du lot, parmi celles chargées par {@link #loadProductsAndOffers(Set)}.
+     * @throws ProductNotFoundException si le produit n'existe pas
+     * @throws OfferNotFoundException si l'offre n'existe pas ou n'appartient pas au produit
+     */
+    private ProductAndOffer resolveProductAndOffer(CartItemOperationDto op, Map<Long, ProductAndOffer> offers) {
+        final ProductAndOffer po = offers.get(op.offerId());
+        if (po == null || !po.productId().equals(op.productId())) {
+            throw productRepository.existsById(op.productId())
+                    ? new OfferNotFoundException(op.offerId())
+                    : new ProductNotFoundException(op.productId());
+        }
+        return po;
+    }
+
+    /**
+     * Charge le panier d'un utilisateur avec le plan de chargement donné, en le créant s'il n'existe pas.
+     * La création est idempotente côté stockage ({@link CartStore#createIfAbsent(Long)}) et suivie d'une
+     * relecture : des premières requêtes concurrentes pour un même utilisateur obtiennent toutes le même panier.
      *
      * @param userId identifiant de l'utilisateur
-     * @return panier créé
+     * @param finder lecture du panier selon le cas d'usage
+     * @return panier existant ou créé
      */
-    private Cart createCart(Long userId){
-        return cartRepository.save(new Cart(userId));
+    private Cart getOrCreateCart(Long userId, Function<Long, Optional<Cart>> finder){
+        return finder.apply(userId).orElseGet(() -> {
+            cartStore.createIfAbsent(userId);
+            return finder.apply(userId).orElseThrow(() -> new CartNotFoundException(userId));
+        });
     }
 
 }
-
@@ -0,0 +1,427 @@
+package fr.shopping.cart.domain.cart.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.CartConcurrentModificationException;
+import fr.shopping.cart.domain.cart.exceptions.CartLineNotFoundException;
+import fr.shopping.cart.domain.cart.exceptions.CartNotFoundException;
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.exceptions.OfferNotFoundException;
+import fr.shopping.cart.domain.cart.exceptions.ProductNotFoundException;
+import fr.shopping.cart.domain.cart.models.CartLineView;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.CartView;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.services.ReactiveCartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationStatus;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationType;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import fr.shopping.cart.infrastructure.r2dbc.cart.ReactiveCartRepository;
+import fr.shopping.cart.infrastructure.r2dbc.cart.ReactiveCartRepository.CartRow;
+import fr.shopping.cart.infrastructure.r2dbc.cart.ReactiveOfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implémentation non bloquante du panier (profil {@code reactive}), fonctionnellement équivalente à
+ * {@link CartServiceImpl} décorée par {@link RetryingCartService}.
+ * <p>
+ * Chaque mutation lit le panier et ses lignes, écrit les lignes modifiées, puis reporte la variation
+ * des totaux sur le panier sous contrôle de version, le tout dans une transaction R2DBC. Un conflit
+ * (version du panier modifiée, ligne supprimée ou créée entre-temps) annule la transaction, qui est
+ * rejouée après un backoff exponentiel avec jitter, sans bloquer de thread, selon les mêmes propriétés
+ * {@code cart.retry.*}.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveCartServiceImpl implements ReactiveCartService {
+
+    private final ReactiveCartRepository cartRepository;
+    private final ReactiveOfferRepository offerRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public ReactiveCartServiceImpl(
+            ReactiveCartRepository cartRepository,
+            ReactiveOfferRepository offerRepository,
+            TransactionalOperator transactionalOperator,
+            @Value("${cart.retry.max-attempts:4}") int maxAttempts,
+            @Value("${cart.retry.initial-backoff:5ms}") Duration initialBackoff,
+            @Value("${cart.retry.max-backoff:50ms}") Duration maxBackoff
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("cart.retry.max-attempts must be >= 1");
+        }
+        this.cartRepository = cartRepository;
+        this.offerRepository = offerRepository;
+        this.transactionalOperator = transactionalOperator;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Récupère le panier d'un utilisateur. Si le panier n'existe pas, il est créé automatiquement.
+     *
+     * @param userId identifiant de l'utilisateur
+     * @return {@link CartView} contenant les lignes du panier et le total
+     */
+    @Override
+    public Mono<CartView> getCart(Long userId) {
+        return getOrCreateCart(userId, cartRepository::findForDisplayByUserId);
+    }
+
+    /**
+     * Récupère le résumé du panier d'un utilisateur. Un panier inexistant est résumé à zéro, sans être créé.
+     */
+    @Override
+    public Mono<CartSummary> getCartSummary(Long userId) {
+        return cartRepository.findSummaryByUserId(userId)
+                .defaultIfEmpty(CartSummary.empty(userId));
+    }
+
+    /**
+     * Ajoute un article au panier. Si la ligne existe déjà, la quantité est incrémentée.
+     *
+     * @throws InsufficientStockException si le stock est insufisant
+     */
+    @Override
+    public Mono<Void> addItem(Long userId, AddItemRequestDto request) {
+        final Long productId = request.productId();
+        final Long offerId = request.offerId();
+
+        return withRetry(userId, getOrCreateCart(userId, this::loadCartChanges)
+                .flatMap(cart -> loadOffer(productId, offerId)
+                        .flatMap(view -> applyAdd(cart, productId, offerId, view))
+                        .then(saveTotals(cart))));
+    }
+
+    /**
+     * Met à jour la quantité d'un article dans le panier.
+     *
+     * @throws CartNotFoundException si le panier n'existe pas
+     * @throws CartLineNotFoundException si la ligne n'existe pas dans le panier
+     * @throws InsufficientStockException si le stock est insufisant
+     */
+    @Override
+    public Mono<Void> updateItemQuantity(Long userId, UpdateItemRequestDto request) {
+        final Long productId = request.productId();
+        final Long offerId = request.offerId();
+        final int quantity = request.quantity();
+
+        return withRetry(userId, loadCartChanges(userId)
+                .switchIfEmpty(Mono.error(() -> new CartNotFoundException(userId)))
+                .flatMap(cart -> loadOffer(productId, offerId)
+                        .flatMap(view -> applyUpdate(cart, productId, offerId, quantity, view))
+                        .then(saveTotals(cart))));
+    }
+
+    /**
+     * Supprime une ligne du panier.
+     *
+     * @throws CartNotFoundException si le panier n'existe pas
+     */
+    @Override
+    public Mono<Void> removeItem(Long userId, Long productId, Long offerId) {
+        return withRetry(userId, loadCartChanges(userId)
+                .switchIfEmpty(Mono.error(() -> new CartNotFoundException(userId)))
+                .flatMap(cart -> applyRemove(cart, productId, offerId)
+                        .then(saveTotals(cart))));
+    }
+
+    /**
+     * Applique une série d'opérations sur le panier dans une seule transaction : les offres
+     * référencées sont lues en une requête, les opérations sont appliquées dans l'ordre et les totaux
+     * du panier sont reportés une seule fois. Une opération en échec est rapportée dans son résultat
+     * sans interrompre les suivantes.
+     *
+     * @return un résultat par opération, dans l'ordre de la requête
+     */
+    @Override
+    public Mono<List<CartItemOperationResultDto>> applyBatch(Long userId, BatchCartItemsRequestDto request) {
+        final List<CartItemOperationDto> operations = request.operations();
+
+        final Set<Long> offerIds = operations.stream()
+                .filter(op -> op.type() != CartItemOperationType.REMOVE)
+                .map(CartItemOperationDto::offerId)
+                .collect(Collectors.toSet());
+        final Mono<Map<Long, OfferView>> views = offerIds.isEmpty()
+                ? Mono.just(Map.of())
+                : offerRepository.findViewsByIdIn(offerIds).collectMap(OfferView::offerId);
+
+        final boolean createIfAbsent = operations.stream().anyMatch(op -> op.type() == CartItemOperationType.ADD);
+        final Mono<Optional<CartChanges>> cart = (createIfAbsent
+                ? getOrCreateCart(userId, this::loadCartChanges)
+                : loadCartChanges(userId))
+                .map(Optional::of)
+                .defaultIfEmpty(Optional.empty());
+
+        return withRetry(userId, views.flatMap(viewsByOffer -> cart.flatMap(loaded -> {
+            final CartChanges changes = loaded.orElse(null);
+            return Flux.range(0, operations.size())
+                    .concatMap(i -> applyOperation(i, userId, changes, operations.get(i), viewsByOffer))
+                    .collectList()
+                    .flatMap(results -> changes == null
+                            ? Mono.just(results)
+                            : saveTotals(changes).thenReturn(results));
+        })));
+    }
+
+    /**
+     * Applique une opération du lot et convertit les erreurs métier en statut de résultat.
+     * Les conflits de concurrence ne sont pas convertis : ils annulent et rejouent tout le lot.
+     */
+    private Mono<CartItemOperationResultDto> applyOperation(
+            int index, Long userId, CartChanges cart, CartItemOperationDto op, Map<Long, OfferView> views
+    ) {
+        final Mono<Void> applied = Mono.defer(() -> {
+            if (cart == null) {
+                return Mono.error(new CartNotFoundException(userId));
+            }
+            return switch (op.type()) {
+                case ADD -> resolveOffer(op, views)
+                        .flatMap(view -> applyAdd(cart, op.productId(), op.offerId(), view));
+                case UPDATE -> op.quantity() == null
+                        ? Mono.error(new IllegalArgumentException("Quantity must be > 0"))
+                        : resolveOffer(op, views)
+                                .flatMap(view -> applyUpdate(cart, op.productId(), op.offerId(), op.quantity(), view));
+                case REMOVE -> applyRemove(cart, op.productId(), op.offerId());
+            };
+        });
+
+        return applied
+                .then(Mono.fromCallable(() -> operationResult(index, op, CartItemOperationStatus.APPLIED, null)))
+                .onErrorResume(ex -> ex instanceof CartNotFoundException
+                                || ex instanceof CartLineNotFoundException
+                                || ex instanceof ProductNotFoundException
+                                || ex instanceof OfferNotFoundException,
+                        ex -> Mono.just(operationResult(index, op, CartItemOperationStatus.NOT_FOUND, ex.getMessage())))
+                .onErrorResume(InsufficientStockException.class,
+                        ex -> Mono.just(operationResult(index, op, CartItemOperationStatus.INSUFFICIENT_STOCK, ex.getMessage())))
+                .onErrorResume(IllegalArgumentException.class,
+                        ex -> Mono.just(operationResult(index, op, CartItemOperationStatus.INVALID, ex.getMessage())));
+    }
+
+    private CartItemOperationResultDto operationResult(
+            int index, CartItemOperationDto op, CartItemOperationStatus status, String message
+    ) {
+        return new CartItemOperationResultDto(index, op.type(), op.productId(), op.offerId(), status, message);
+    }
+
+    /**
+     * Ajoute une unité d'une offre au panier, en créant la ligne si besoin, au prix courant de l'offre.
+     * @throws InsufficientStockException si le stock ne couvre pas la nouvelle quantité
+     */
+    private Mono<Void> applyAdd(CartChanges cart, Long productId, Long offerId, OfferView view) {
+        final long unitPrice = view.finalUnitPriceMinor();
+        final CartLineView line = cart.findLine(productId, offerId);
+
+        if (line != null) {
+            final int newQuantity = line.quantity() + 1;
+            if (!view.hasSufficientStock(newQuantity)) {
+                return Mono.error(new InsufficientStockException(productId, offerId));
+            }
+            return changeLineQuantity(cart, line, newQuantity, unitPrice);
+        }
+
+        if (view.hasEmptyStock()) {
+            return Mono.error(new InsufficientStockException(productId, offerId));
+        }
+        return cartRepository.insertLine(cart.id(), productId, offerId, 1, unitPrice)
+                .then(Mono.fromRunnable(() -> cart.putLine(new CartLineView(productId, offerId, view.state(), 1, unitPrice))));
+    }
+
+    /**
+     * Remplace la quantité d'une ligne existante.
+     * @throws CartLineNotFoundException si la ligne n'existe pas dans le panier
+     * @throws InsufficientStockException si le stock ne couvre pas la quantité demandée
+     */
+    private Mono<Void> applyUpdate(CartChanges cart, Long productId, Long offerId, int quantity, OfferView view) {
+        final CartLineView line = cart.findLine(productId, offerId);
+        if (line == null) {
+            return Mono.error(new CartLineNotFoundException(productId, offerId));
+        }
+        if (!view.hasSufficientStock(quantity)) {
+            return Mono.error(new InsufficientStockException(productId, offerId));
+        }
+        if (quantity <= 0) {
+            return Mono.error(new IllegalArgumentException("Quantity must be > 0"));
+        }
+        return changeLineQuantity(cart, line, quantity, view.finalUnitPriceMinor());
+    }
+
+    private Mono<Void> applyRemove(CartChanges cart, Long productId, Long offerId) {
+        final CartLineView line = cart.findLine(productId, offerId);
+        if (line == null) {
+            return Mono.empty();
+        }
+        return cartRepository.deleteLine(cart.id(), productId, offerId)
+                .flatMap(deleted -> deleted == 1
+                        ? Mono.fromRunnable(() -> cart.removeLine(line))
+                        : Mono.error(lineConflict(cart)));
+    }
+
+    private Mono<Void> changeLineQuantity(CartChanges cart, CartLineView line, int quantity, long unitPrice) {
+        return cartRepository.updateLine(cart.id(), line.productId(), line.offerId(), quantity, unitPrice)
+                .flatMap(updated -> updated == 1
+                        ? Mono.fromRunnable(() -> cart.putLine(
+                                new CartLineView(line.productId(), line.offerId(), line.state(), quantity, unitPrice)))
+                        : Mono.error(lineConflict(cart)));
+    }
+
+    /**
+     * Reporte les variations accumulées sur les totaux du panier, si sa version n'a pas changé.
+     * @throws OptimisticLockingFailureException si le panier a été modifié depuis sa lecture
+     */
+    private Mono<Void> saveTotals(CartChanges cart) {
+        return Mono.defer(() -> {
+            if (!cart.isModified()) {
+                return Mono.empty();
+            }
+            return cartRepository.applyTotalsDelta(cart.id(), cart.version(), cart.quantityDelta, cart.amountDeltaMinor)
+                    .flatMap(updated -> updated == 1
+                            ? Mono.empty()
+                            : Mono.error(new OptimisticLockingFailureException(
+                                    "Cart id=" + cart.id() + " was modified since version " + cart.version())));
+        });
+    }
+
+    private OptimisticLockingFailureException lineConflict(CartChanges cart) {
+        return new OptimisticLockingFailureException("A line of cart id=" + cart.id() + " was modified concurrently");
+    }
+
+    /**
+     * Lit une offre et son stock à jour.
+     * @throws ProductNotFoundException si le produit n'existe pas
+     * @throws OfferNotFoundException si l'offre n'existe pas ou n'appartient pas au produit
+     */
+    private Mono<OfferView> loadOffer(Long productId, Long offerId) {
+        return offerRepository.findViewByIdAndProductId(offerId, productId)
+                .switchIfEmpty(Mono.defer(() -> notFound(productId, offerId)));
+    }
+
+    /**
+     * Équivalent de {@link #loadOffer(Long, Long)} à partir des projections déjà chargées pour un lot.
+     */
+    private Mono<OfferView> resolveOffer(CartItemOperationDto op, Map<Long, OfferView> views) {
+        final OfferView view = views.get(op.offerId());
+        if (view == null || !view.productId().equals(op.productId())) {
+            return notFound(op.productId(), op.offerId());
+        }
+        return Mono.just(view);
+    }
+
+    private <T> Mono<T> notFound(Long productId, Long offerId) {
+        return offerRepository.existsProductById(productId)
+                .flatMap(exists -> Mono.error(exists
+                        ? new OfferNotFoundException(offerId)
+                        : new ProductNotFoundException(productId)));
+    }
+
+    private Mono<CartChanges> loadCartChanges(Long userId) {
+        return cartRepository.findByUserId(userId)
+                .flatMap(row -> cartRepository.findLines(row.id())
+                        .collectList()
+                        .map(lines -> new CartChanges(row, lines)));
+    }
+
+    /**
+     * Charge le panier d'un utilisateur avec la lecture donnée, en le créant par upsert s'il n'existe pas.
+     */
+    private <T> Mono<T> getOrCreateCart(Long userId, Function<Long, Mono<T>> finder) {
+        return finder.apply(userId)
+                .switchIfEmpty(Mono.defer(() -> cartRepository.insertIfAbsent(userId).then(finder.apply(userId))))
+                .switchIfEmpty(Mono.error(() -> new CartNotFoundException(userId)));
+    }
+
+    /**
+     * Exécute la mutation dans une transaction et la rejoue sur conflit de concurrence.
+     * @throws CartConcurrentModificationException si toutes les tentatives sont en conflit
+     */
+    private <T> Mono<T> withRetry(Long userId, Mono<T> mutation) {
+        return transactionalOperator.transactional(mutation)
+                .retryWhen(Retry.backoff(maxAttempts - 1L, initialBackoff)
+                        .maxBackoff(maxBackoff)
+                        .filter(ex -> ex instanceof ConcurrencyFailureException || ex instanceof DuplicateKeyException)
+                        .onRetryExhaustedThrow((spec, signal) ->
+                                new CartConcurrentModificationException(userId, signal.failure())));
+    }
+
+    /** Clé d'une ligne dans le panier. */
+    private record LineKey(Long productId, Long offerId) {}
+
+    /**
+     * Panier en cours de modification : lignes lues en début de transaction et variations des totaux
+     * accumulées par les opérations, reportées en une fois sur la table {@code carts}.
+     * Les opérations d'une même requête s'enchaînent séquentiellement : aucun accès concurrent.
+     */
+    private static final class CartChanges {
+
+        private final CartRow row;
+        private final Map<LineKey, CartLineView> lines = new LinkedHashMap<>();
+        private int quantityDelta;
+        private long amountDeltaMinor;
+        private boolean modified;
+
+        private CartChanges(CartRow row, List<CartLineView> lines) {
+            this.row = row;
+            lines.forEach(line -> this.lines.put(new LineKey(line.productId(), line.offerId()), line));
+        }
+
+        Long id() {
+            return row.id();
+        }
+
+        long version() {
+            return row.version();
+        }
+
+        boolean isModified() {
+            return modified;
+        }
+
+        CartLineView findLine(Long productId, Long offerId) {
+            return lines.get(new LineKey(productId, offerId));
+        }
+
+        void putLine(CartLineView line) {
+            final CartLineView previous = lines.put(new LineKey(line.productId(), line.offerId()), line);
+            applyTotalsDelta(
+                    line.quantity() - (previous == null ? 0 : previous.quantity()),
+                    line.lineTotalMinor() - (previous == null ? 0 : previous.lineTotalMinor())
+            );
+        }
+
+        void removeLine(CartLineView line) {
+            lines.remove(new LineKey(line.productId(), line.offerId()));
+            applyTotalsDelta(-line.quantity(), -line.lineTotalMinor());
+        }
+
+        private void applyTotalsDelta(int quantityDelta, long amountDeltaMinor) {
+            this.quantityDelta += quantityDelta;
+            this.amountDeltaMinor = Math.addExact(this.amountDeltaMinor, amountDeltaMinor);
+            this.modified = true;
+        }
+    }
+}
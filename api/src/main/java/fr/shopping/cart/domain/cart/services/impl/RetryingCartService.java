@@ -0,0 +1,148 @@
+package fr.shopping.cart.domain.cart.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.CartConcurrentModificationException;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartConflictStats;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Décorateur de {@link CartServiceImpl} rejouant les mutations de panier en cas de conflit de version.
+ * Chaque mutation s'exécute dans sa propre transaction ; si elle est rejetée par le verrouillage
+ * optimiste (panier, ligne ou offre modifiés entre la lecture et l'écriture), par un verrou perdu
+ * (deadlock détecté par la base, la transaction étant alors annulée) ou par une violation de clé
+ * unique (ligne créée entre-temps par une requête concurrente), elle est relancée après une
+ * attente aléatoire bornée (backoff exponentiel avec jitter complet), dans la limite de
+ * {@code cart.retry.max-attempts} tentatives. La retentative relit l'état committé.
+ * Au sein d'une transaction englobante, aucune retentative n'est faite : le contexte de persistance
+ * partagé ne peut pas être rejoué.
+ */
+@Primary
+@Service
+public class RetryingCartService implements CartService {
+
+    private final CartServiceImpl delegate;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder conflicts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder exhausted = new LongAdder();
+
+    public RetryingCartService(
+            CartServiceImpl delegate,
+            @Value("${cart.retry.max-attempts:4}") int maxAttempts,
+            @Value("${cart.retry.initial-backoff:5ms}") Duration initialBackoff,
+            @Value("${cart.retry.max-backoff:50ms}") Duration maxBackoff
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("cart.retry.max-attempts must be >= 1");
+        }
+        this.delegate = delegate;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+    }
+
+    @Override
+    public Cart getCart(Long userId) {
+        return delegate.getCart(userId);
+    }
+
+    @Override
+    public CartSummary getCartSummary(Long userId) {
+        return delegate.getCartSummary(userId);
+    }
+
+    @Override
+    public void addItem(Long userId, AddItemRequestDto request) {
+        withRetry(userId, () -> {
+            delegate.addItem(userId, request);
+            return null;
+        });
+    }
+
+    @Override
+    public void removeItem(Long userId, Long productId, Long offerId) {
+        withRetry(userId, () -> {
+            delegate.removeItem(userId, productId, offerId);
+            return null;
+        });
+    }
+
+    @Override
+    public void updateItemQuantity(Long userId, UpdateItemRequestDto requestDto) {
+        withRetry(userId, () -> {
+            delegate.updateItemQuantity(userId, requestDto);
+            return null;
+        });
+    }
+
+    @Override
+    public List<CartItemOperationResultDto> applyBatch(Long userId, BatchCartItemsRequestDto request) {
+        return withRetry(userId, () -> delegate.applyBatch(userId, request));
+    }
+
+    public CartConflictStats stats() {
+        return new CartConflictStats(attempts.sum(), conflicts.sum(), retries.sum(), exhausted.sum());
+    }
+
+    /**
+     * Exécute la mutation et la rejoue sur conflit optimiste.
+     * @throws CartConcurrentModificationException si toutes les tentatives sont en conflit
+     */
+    private <T> T withRetry(Long userId, Supplier<T> mutation) {
+        final int allowedAttempts = TransactionSynchronizationManager.isActualTransactionActive() ? 1 : maxAttempts;
+
+        for (int attempt = 1; ; attempt++) {
+            attempts.increment();
+            try {
+                return mutation.get();
+            } catch (ConcurrencyFailureException | DuplicateKeyException ex) {
+                conflicts.increment();
+                if (attempt >= allowedAttempts) {
+                    exhausted.increment();
+                    throw new CartConcurrentModificationException(userId, ex);
+                }
+                retries.increment();
+                backOff(attempt, userId, ex);
+            }
+        }
+    }
+
+    /**
+     * Attente aléatoire dans {@code [0, min(maxBackoff, initialBackoff * 2^(attempt-1))]}.
+     */
+    private void backOff(int attempt, Long userId, RuntimeException cause) {
+        final long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            exhausted.increment();
+            throw new CartConcurrentModificationException(userId, cause);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package fr.shopping.cart.domain.cart.stores;
+
+import fr.shopping.cart.domain.cart.models.CartSnapshot;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sérialisation binaire compacte des lignes d'un panier : un octet de format, le nombre de lignes,
+ * puis 28 octets par ligne (productId, offerId, quantité, prix unitaire en centimes).
+ * L'utilisateur et la version sont portés à part par chaque stockage (clé et champ du hash Redis,
+ * en-tête d'enregistrement du journal write-behind).
+ */
+public final class CartSnapshotCodec {
+
+    private static final byte FORMAT_V1 = 1;
+    private static final int HEADER_BYTES = Byte.BYTES + Integer.BYTES;
+    private static final int LINE_BYTES = Long.BYTES + Long.BYTES + Integer.BYTES + Long.BYTES;
+
+    private CartSnapshotCodec() {
+    }
+
+    public static byte[] encodeLines(List<CartSnapshot.Line> lines) {
+        final ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + lines.size() * LINE_BYTES)
+                .put(FORMAT_V1)
+                .putInt(lines.size());
+        for (CartSnapshot.Line line : lines) {
+            buffer.putLong(line.productId())
+                    .putLong(line.offerId())
+                    .putInt(line.quantity())
+                    .putLong(line.unitPriceMinor());
+        }
+        return buffer.array();
+    }
+
+    /**
+     * @throws IllegalStateException si le format est inconnu ou les données tronquées
+     */
+    public static List<CartSnapshot.Line> decodeLines(byte[] bytes) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        if (bytes.length < HEADER_BYTES || buffer.get() != FORMAT_V1) {
+            throw new IllegalStateException("Unsupported cart format");
+        }
+        final int count = buffer.getInt();
+        if (count < 0 || buffer.remaining() != (long) count * LINE_BYTES) {
+            throw new IllegalStateException("Truncated cart data");
+        }
+        final List<CartSnapshot.Line> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(new CartSnapshot.Line(buffer.getLong(), buffer.getLong(), buffer.getInt(), buffer.getLong()));
+        }
+        return lines;
+    }
+}
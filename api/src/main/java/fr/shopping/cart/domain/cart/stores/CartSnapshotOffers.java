@@ -0,0 +1,67 @@
+package fr.shopping.cart.domain.cart.stores;
+
+import fr.shopping.cart.domain.cart.models.CartSnapshot;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Offres des lignes d'un {@link CartSnapshot} restauré hors JPA : produit et offre ne sont que
+ * des références par identifiant, éventuellement complétées depuis le cache catalogue.
+ */
+public final class CartSnapshotOffers {
+
+    private CartSnapshotOffers() {
+    }
+
+    /**
+     * Offre et produit identifiés par leur clé seule, suffisants pour comparer et modifier les lignes.
+     */
+    public static Offer reference(CartSnapshot.Line line) {
+        final Product product = new Product();
+        product.setId(line.productId());
+        final Offer offer = new Offer();
+        offer.setId(line.offerId());
+        offer.setProduct(product);
+        return offer;
+    }
+
+    /**
+     * Références complétées par les offres lues en base, pour le checkout : prix, remise et état courants,
+     * même si le cache catalogue de l'instance n'a pas encore vu un changement fait ailleurs.
+     *
+     * @param offers offres des lignes, par identifiant
+     */
+    public static Function<CartSnapshot.Line, Offer> fromViews(Map<Long, OfferView> offers) {
+        return line -> {
+            final Offer offer = reference(line);
+            final OfferView view = offers.get(line.offerId());
+            if (view != null) {
+                offer.setPrice(view.price());
+                offer.setDiscountPercent(view.discountPercent());
+                offer.setState(view.state());
+            }
+            return offer;
+        };
+    }
+
+    /**
+     * Références complétées par les données catalogue en cache (prix, remise, état), pour l'affichage,
+     * sans requête SQL.
+     */
+    public static Function<CartSnapshot.Line, Offer> fromCatalog(CatalogService catalogService) {
+        return line -> {
+            final Offer offer = reference(line);
+            catalogService.findOffer(line.offerId()).ifPresent(snapshot -> {
+                offer.setPrice(snapshot.price());
+                offer.setDiscountPercent(snapshot.discountPercent());
+                offer.setState(snapshot.state());
+            });
+            return offer;
+        };
+    }
+}
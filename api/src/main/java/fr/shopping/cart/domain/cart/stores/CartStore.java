@@ -0,0 +1,85 @@
+package fr.shopping.cart.domain.cart.stores;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stockage des paniers, indexés par utilisateur. L'implémentation est choisie par la propriété
+ * {@code cart.store.type} : {@code jpa} (par défaut, tables {@code carts} / {@code cart_lines}),
+ * {@code redis} (un panier sérialisé par utilisateur, expiré après inactivité) ou {@code write-behind}
+ * (paniers en mémoire et journal local, écrits en base par lots).
+ * <p>
+ * Les écritures sont conditionnées par la version du panier lu : un panier modifié entre-temps
+ * fait échouer {@link #save(Cart)} et {@link #delete(Cart)} avec une
+ * {@link org.springframework.dao.OptimisticLockingFailureException}.
+ */
+public interface CartStore {
+
+    /**
+     * Lecture pour affichage : lignes et offres (prix, remise, état).
+     */
+    Optional<Cart> findForDisplay(Long userId);
+
+    /**
+     * Lecture avant modification d'une ligne : produit et offre sont identifiés par leur clé.
+     */
+    Optional<Cart> findForUpdate(Long userId);
+
+    /**
+     * Lecture pour le checkout : lignes et offres, le panier validé étant renvoyé au client.
+     */
+    Optional<Cart> findForCheckout(Long userId);
+
+    /**
+     * Lecture groupée pour un checkout par lot : paniers existants parmi les utilisateurs donnés,
+     * lus un par un sauf si l'implémentation sait les lire ensemble.
+     */
+    default List<Cart> findAllForCheckout(Collection<Long> userIds) {
+        return userIds.stream()
+                .map(this::findForCheckout)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+
+    /**
+     * Indique si les modifications du panier contrôlent et réservent le stock en base. Un stockage
+     * hors base relationnelle renvoie {@code false} : ajouts et changements de quantité ne lisent que
+     * le cache catalogue, et le stock n'est contrôlé qu'au checkout.
+     */
+    default boolean checksStockOnChange() {
+        return true;
+    }
+
+    /**
+     * Résumé du panier (nombre d'articles et total).
+     */
+    Optional<CartSummary> findSummary(Long userId);
+
+    /**
+     * Crée un panier vide pour l'utilisateur s'il n'en a pas encore ; sans effet sinon,
+     * y compris face à une création concurrente.
+     */
+    void createIfAbsent(Long userId);
+
+    /**
+     * Enregistre les lignes et totaux d'un panier obtenu par l'une des lectures ci-dessus.
+     */
+    void save(Cart cart);
+
+    /**
+     * Supprime un panier obtenu par l'une des lectures ci-dessus.
+     */
+    void delete(Cart cart);
+
+    /**
+     * Supprime des paniers obtenus par {@link #findAllForCheckout(Collection)}, un par un sauf si
+     * l'implémentation sait les supprimer ensemble.
+     */
+    default void deleteAll(Collection<Cart> carts) {
+        carts.forEach(this::delete);
+    }
+}
@@ -0,0 +1,46 @@
+package fr.shopping.cart.domain.catalog.listeners;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Listener JPA invalidant le cache catalogue à chaque écriture d'une offre ou d'un produit.
+ * L'invalidation est rejouée après la fin de la transaction pour qu'une lecture concurrente
+ * ne remette pas en cache une valeur antérieure au commit.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCacheInvalidationListener {
+
+    private final ObjectProvider<CatalogService> catalogService;
+
+    @PostUpdate
+    @PostRemove
+    public void onWrite(Object entity) {
+        if (entity instanceof Offer offer) {
+            evictNowAndAfterCompletion(() -> catalogService.ifAvailable(cache -> cache.evictOffer(offer.getId())));
+        } else if (entity instanceof Product product) {
+            evictNowAndAfterCompletion(() -> catalogService.ifAvailable(cache -> cache.evictProduct(product.getId())));
+        }
+    }
+
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,8 @@
+package fr.shopping.cart.domain.catalog.models;
+
+public record CatalogCacheStats(
+        long hitCount,
+        long missCount,
+        long evictionCount,
+        long size
+) {}
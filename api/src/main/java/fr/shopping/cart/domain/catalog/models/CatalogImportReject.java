@@ -0,0 +1,12 @@
+package fr.shopping.cart.domain.catalog.models;
+
+/**
+ * Ligne écartée par l'import catalogue.
+ *
+ * @param lineNumber numéro de la ligne dans le fichier (1 pour la première ligne)
+ * @param reason     motif du rejet
+ */
+public record CatalogImportReject(
+        long lineNumber,
+        String reason
+) {}
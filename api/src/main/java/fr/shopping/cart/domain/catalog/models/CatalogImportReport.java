@@ -0,0 +1,31 @@
+package fr.shopping.cart.domain.catalog.models;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Bilan d'un import catalogue.
+ *
+ * @param rowsRead       nombre de lignes de données lues
+ * @param rowsImported   nombre de lignes valides écrites en base
+ * @param rowsRejected   nombre de lignes écartées
+ * @param commits        nombre de transactions validées
+ * @param repricedOffers nombre d'offres existantes dont le prix final a changé
+ * @param elapsed        durée totale de l'import
+ * @param rejects        premières lignes écartées, dans la limite de {@code catalog.import.max-reported-rejects}
+ */
+public record CatalogImportReport(
+        long rowsRead,
+        long rowsImported,
+        long rowsRejected,
+        int commits,
+        int repricedOffers,
+        Duration elapsed,
+        List<CatalogImportReject> rejects
+) {
+
+    public double rowsPerSecond() {
+        final long millis = Math.max(1, elapsed.toMillis());
+        return rowsRead * 1000.0 / millis;
+    }
+}
@@ -0,0 +1,19 @@
+package fr.shopping.cart.domain.catalog.models;
+
+import fr.shopping.cart.domain.cart.models.State;
+
+import java.math.BigDecimal;
+
+/**
+ * Ligne validée d'un fichier d'import catalogue : une offre et le produit auquel elle appartient,
+ * identifiés par leurs références catalogue.
+ */
+public record CatalogImportRow(
+        String productReference,
+        String productLabel,
+        String offerReference,
+        State state,
+        BigDecimal price,
+        int discountPercent,
+        int stockQty
+) {}
@@ -0,0 +1,30 @@
+package fr.shopping.cart.domain.catalog.models;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+
+import java.math.BigDecimal;
+
+/**
+ * Vue immuable des données catalogue d'une offre (hors stock), destinée au cache.
+ * Le stock n'en fait volontairement pas partie : il reste lu en base à chaque usage.
+ */
+public record OfferSnapshot(
+        Long offerId,
+        Long productId,
+        String label,
+        BigDecimal price,
+        int discountPercent,
+        State state,
+        long finalUnitPriceMinor
+) {
+
+    public OfferSnapshot(Long offerId, Long productId, String label, BigDecimal price, int discountPercent, State state) {
+        this(offerId, productId, label, price, discountPercent, state, Offer.computeFinalUnitPriceMinor(price, discountPercent));
+    }
+
+    public BigDecimal finalUnitPrice() {
+        return PriceCalculator.toAmount(finalUnitPriceMinor);
+    }
+}
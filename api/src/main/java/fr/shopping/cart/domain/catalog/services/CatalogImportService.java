@@ -0,0 +1,16 @@
+package fr.shopping.cart.domain.catalog.services;
+
+import fr.shopping.cart.domain.catalog.models.CatalogImportReport;
+
+import java.nio.file.Path;
+
+public interface CatalogImportService {
+
+    /**
+     * Importe un fichier catalogue CSV ou JSONL.
+     *
+     * @param file fichier {@code .csv} ou {@code .jsonl}
+     * @return le bilan de l'import
+     */
+    CatalogImportReport importFile(Path file);
+}
@@ -0,0 +1,17 @@
+package fr.shopping.cart.domain.catalog.services;
+
+import fr.shopping.cart.domain.catalog.models.CatalogCacheStats;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+
+import java.util.Optional;
+
+public interface CatalogService {
+
+    Optional<OfferSnapshot> findOffer(Long offerId);
+
+    void evictOffer(Long offerId);
+
+    void evictProduct(Long productId);
+
+    CatalogCacheStats stats();
+}
@@ -0,0 +1,243 @@
+package fr.shopping.cart.domain.catalog.services.impl;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartRepricingService;
+import fr.shopping.cart.domain.catalog.models.CatalogImportReject;
+import fr.shopping.cart.domain.catalog.models.CatalogImportReport;
+import fr.shopping.cart.domain.catalog.models.CatalogImportRow;
+import fr.shopping.cart.domain.catalog.services.CatalogImportService;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.imports.catalog.CatalogRecord;
+import fr.shopping.cart.infrastructure.imports.catalog.CatalogRecordReader;
+import fr.shopping.cart.infrastructure.jdbc.catalog.CatalogImportRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Import en masse du catalogue depuis un fichier lu en flux. Les lignes valides sont regroupées par
+ * {@code catalog.import.commit-size} et chaque groupe est écrit dans sa propre transaction en un nombre
+ * fixe de requêtes (voir {@link CatalogImportRepository}) : la mémoire utilisée est bornée par la taille
+ * d'un groupe, quelle que soit la taille du fichier.
+ * <p>
+ * Une ligne invalide est comptée et écartée sans interrompre l'import. Dans un même groupe, la dernière
+ * ligne d'une référence l'emporte. Les groupes déjà validés le restent si l'import échoue ensuite :
+ * l'import étant un upsert par référence, il peut être relancé sur le même fichier.
+ * Les paniers contenant une offre dont le prix final change sont repricés dans la transaction du groupe.
+ * <p>
+ * L'import écrit en JDBC, sans passer par les listeners JPA : après le commit de chaque groupe, le cache
+ * catalogue de l'instance est invalidé pour les offres existantes du groupe et les produits renommés,
+ * par les mêmes méthodes que {@link fr.shopping.cart.domain.catalog.listeners.CatalogCacheInvalidationListener}.
+ */
+@Slf4j
+@Service
+public class CatalogImportServiceImpl implements CatalogImportService {
+
+    static final String PRODUCT_REF = "product_ref";
+    static final String PRODUCT_LABEL = "product_label";
+    static final String OFFER_REF = "offer_ref";
+    static final String STATE = "state";
+    static final String PRICE = "price";
+    static final String DISCOUNT_PERCENT = "discount_percent";
+    static final String STOCK_QTY = "stock_qty";
+
+    private static final int MAX_REFERENCE_LENGTH = 64;
+
+    private final CatalogImportRepository catalogImportRepository;
+    private final CartRepricingService cartRepricingService;
+    private final CatalogService catalogService;
+    private final TransactionTemplate commitTransaction;
+    private final int commitSize;
+    private final int maxReportedRejects;
+
+    public CatalogImportServiceImpl(
+            CatalogImportRepository catalogImportRepository,
+            CartRepricingService cartRepricingService,
+            CatalogService catalogService,
+            PlatformTransactionManager transactionManager,
+            @Value("${catalog.import.commit-size:5000}") int commitSize,
+            @Value("${catalog.import.max-reported-rejects:100}") int maxReportedRejects
+    ) {
+        this.catalogImportRepository = catalogImportRepository;
+        this.cartRepricingService = cartRepricingService;
+        this.catalogService = catalogService;
+        this.commitTransaction = new TransactionTemplate(transactionManager);
+        this.commitSize = commitSize;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    @Override
+    public CatalogImportReport importFile(Path file) {
+        final long start = System.nanoTime();
+        final List<CatalogImportRow> pending = new ArrayList<>(commitSize);
+        final List<CatalogImportReject> rejects = new ArrayList<>();
+        long rowsRead = 0;
+        long rowsImported = 0;
+        long rowsRejected = 0;
+        int commits = 0;
+        int repricedOffers = 0;
+
+        try (CatalogRecordReader reader = CatalogRecordReader.open(file)) {
+            for (CatalogRecord record = reader.next(); record != null; record = reader.next()) {
+                rowsRead++;
+                try {
+                    pending.add(toRow(record));
+                } catch (IllegalArgumentException ex) {
+                    rowsRejected++;
+                    if (rejects.size() < maxReportedRejects) {
+                        rejects.add(new CatalogImportReject(record.lineNumber(), ex.getMessage()));
+                    }
+                }
+                if (pending.size() == commitSize) {
+                    repricedOffers += commit(pending);
+                    rowsImported += pending.size();
+                    commits++;
+                    pending.clear();
+                    log.debug("Catalog import: {} rows read, {} imported, {} rejected", rowsRead, rowsImported, rowsRejected);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Unable to read catalog file " + file, ex);
+        }
+        if (!pending.isEmpty()) {
+            repricedOffers += commit(pending);
+            rowsImported += pending.size();
+            commits++;
+        }
+
+        return new CatalogImportReport(rowsRead, rowsImported, rowsRejected, commits, repricedOffers,
+                Duration.ofNanos(System.nanoTime() - start), List.copyOf(rejects));
+    }
+
+    /**
+     * Offres existantes et produits renommés d'un groupe, et nouveaux prix finaux des offres dont le prix change.
+     */
+    private record CommitChanges(List<Long> offerIds, List<Long> relabeledProductIds, Map<Long, Long> repricings) {}
+
+    /**
+     * Écrit un groupe de lignes et reporte les changements de prix sur les paniers en une transaction,
+     * puis invalide le cache catalogue.
+     *
+     * @return le nombre d'offres existantes dont le prix final a changé
+     */
+    private int commit(List<CatalogImportRow> rows) {
+        final Map<String, CatalogImportRow> products = new LinkedHashMap<>();
+        final Map<String, CatalogImportRow> offers = new LinkedHashMap<>();
+        for (CatalogImportRow row : rows) {
+            products.put(row.productReference(), row);
+            offers.put(row.offerReference(), row);
+        }
+
+        final CommitChanges changes = commitTransaction.execute(status -> {
+            final Map<String, CatalogImportRepository.OfferPrice> current =
+                    catalogImportRepository.findOfferPrices(offers.keySet());
+            final List<Long> relabeled = catalogImportRepository.findProductLabels(products.keySet()).entrySet().stream()
+                    .filter(product -> !product.getValue().label().equals(products.get(product.getKey()).productLabel()))
+                    .map(product -> product.getValue().productId())
+                    .toList();
+            catalogImportRepository.upsertProducts(List.copyOf(products.values()));
+            catalogImportRepository.upsertOffers(List.copyOf(offers.values()));
+
+            final Map<Long, Long> changed = new LinkedHashMap<>();
+            offers.values().forEach(row -> {
+                final CatalogImportRepository.OfferPrice price = current.get(row.offerReference());
+                final long finalUnitPrice = Offer.computeFinalUnitPriceMinor(row.price(), row.discountPercent());
+                if (price != null && price.finalUnitPriceMinor() != finalUnitPrice) {
+                    changed.put(price.offerId(), finalUnitPrice);
+                }
+            });
+            changed.forEach(cartRepricingService::repriceOffer);
+            return new CommitChanges(
+                    current.values().stream().map(CatalogImportRepository.OfferPrice::offerId).toList(),
+                    relabeled, changed);
+        });
+
+        changes.offerIds().forEach(catalogService::evictOffer);
+        changes.relabeledProductIds().forEach(catalogService::evictProduct);
+        return changes.repricings().size();
+    }
+
+    private static CatalogImportRow toRow(CatalogRecord record) {
+        if (record.error() != null) {
+            throw new IllegalArgumentException(record.error());
+        }
+        final Map<String, String> fields = record.fields();
+
+        final int discountPercent = parseInt(fields, DISCOUNT_PERCENT);
+        if (discountPercent < 0 || discountPercent > 100) {
+            throw new IllegalArgumentException(DISCOUNT_PERCENT + " must be between 0 and 100: " + discountPercent);
+        }
+        final int stockQty = parseInt(fields, STOCK_QTY);
+        if (stockQty < 0) {
+            throw new IllegalArgumentException(STOCK_QTY + " must not be negative: " + stockQty);
+        }
+        final BigDecimal price = parsePrice(fields);
+        final String stateName = required(fields, STATE);
+        final State state;
+        try {
+            state = State.valueOf(stateName);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("unknown " + STATE + ": " + stateName);
+        }
+
+        return new CatalogImportRow(
+                reference(fields, PRODUCT_REF),
+                required(fields, PRODUCT_LABEL),
+                reference(fields, OFFER_REF),
+                state,
+                price,
+                discountPercent,
+                stockQty
+        );
+    }
+
+    private static String required(Map<String, String> fields, String name) {
+        final String value = fields.get(name);
+        if (value == null || value.isEmpty()) {
+            throw new IllegalArgumentException("missing " + name);
+        }
+        return value;
+    }
+
+    private static String reference(Map<String, String> fields, String name) {
+        final String value = required(fields, name);
+        if (value.length() > MAX_REFERENCE_LENGTH) {
+            throw new IllegalArgumentException(name + " longer than " + MAX_REFERENCE_LENGTH + " characters");
+        }
+        return value;
+    }
+
+    private static int parseInt(Map<String, String> fields, String name) {
+        try {
+            return Integer.parseInt(required(fields, name));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(name + " is not an integer: " + fields.get(name));
+        }
+    }
+
+    private static BigDecimal parsePrice(Map<String, String> fields) {
+        final BigDecimal price;
+        try {
+            price = new BigDecimal(required(fields, PRICE));
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException(PRICE + " is not a decimal number: " + fields.get(PRICE));
+        }
+        if (price.signum() < 0 || price.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException(PRICE + " must not be negative and have at most 2 decimals: " + price);
+        }
+        return price;
+    }
+}
@@ -0,0 +1,83 @@
+package fr.shopping.cart.domain.catalog.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import fr.shopping.cart.domain.catalog.models.CatalogCacheStats;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Cache catalogue en lecture traversante : les données prix/remise/état d'une offre sont lues
+ * en base au premier accès puis servies depuis la mémoire jusqu'à expiration, éviction par taille
+ * ou invalidation explicite lors d'une écriture sur l'offre.
+ * <p>
+ * L'invalidation est locale à l'instance : une écriture faite par une autre instance (ou par l'import)
+ * n'est vue qu'à l'expiration, au plus {@code catalog.cache.expire-after-write} (30 s) plus tard. Ce retard
+ * ne touche que l'affichage et le prix figé dans les lignes : le checkout relit les prix en base.
+ */
+@Service
+public class CatalogServiceImpl implements CatalogService {
+
+    private final OfferRepository offerRepository;
+    private final Cache<Long, OfferSnapshot> offers;
+
+    public CatalogServiceImpl(
+            OfferRepository offerRepository,
+            @Value("${catalog.cache.maximum-size:10000}") long maximumSize,
+            @Value("${catalog.cache.expire-after-write:30s}") Duration expireAfterWrite
+    ) {
+        this.offerRepository = offerRepository;
+        this.offers = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retourne l'instantané catalogue d'une offre, chargé en base en cas d'absence du cache.
+     * Une offre inexistante n'est pas mise en cache.
+     *
+     * @param offerId identifiant de l'offre
+     * @return l'instantané de l'offre, ou vide si elle n'existe pas
+     */
+    @Override
+    public Optional<OfferSnapshot> findOffer(Long offerId) {
+        return Optional.ofNullable(
+                offers.get(offerId, id -> offerRepository.findSnapshotById(id).orElse(null))
+        );
+    }
+
+    @Override
+    public void evictOffer(Long offerId) {
+        offers.invalidate(offerId);
+    }
+
+    /**
+     * Invalide toutes les offres d'un produit (changement de libellé par exemple).
+     *
+     * @param productId identifiant du produit
+     */
+    @Override
+    public void evictProduct(Long productId) {
+        offers.asMap().values().removeIf(snapshot -> snapshot.productId().equals(productId));
+    }
+
+    @Override
+    public CatalogCacheStats stats() {
+        final CacheStats stats = offers.stats();
+        return new CatalogCacheStats(
+                stats.hitCount(),
+                stats.missCount(),
+                stats.evictionCount(),
+                offers.estimatedSize()
+        );
+    }
+}
@@ -0,0 +1,41 @@
+package fr.shopping.cart.domain.checkout.models;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Stock d'une offre chaude prélevé par une instance et vendu depuis ses compteurs en mémoire.
+ * Les écritures passent par {@code StockEscrowRepository} ; l'entité décrit la table.
+ */
+@Entity
+@Table(name = "stock_escrows")
+@IdClass(StockEscrow.Key.class)
+@Getter
+@NoArgsConstructor
+public class StockEscrow {
+
+    @Id
+    @Column(name = "instance_id", length = 64)
+    private String instanceId;
+
+    @Id
+    @Column(name = "offer_id")
+    private Long offerId;
+
+    @Column(nullable = false, columnDefinition = "INTEGER CHECK (quantity >= 0)")
+    private int quantity;
+
+    @Column(name = "journal_segment", nullable = false, columnDefinition = "BIGINT DEFAULT 0")
+    private long journalSegment;
+
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String instanceId;
+        private Long offerId;
+    }
+}
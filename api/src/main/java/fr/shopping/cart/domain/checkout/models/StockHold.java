@@ -0,0 +1,46 @@
+package fr.shopping.cart.domain.checkout.models;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Réservation temporaire de stock d'un utilisateur sur une offre, prise à l'ajout au panier.
+ * Les écritures passent par {@code StockHoldRepository}, qui maintient dans la même transaction
+ * l'agrégat {@code offers.held_qty} ; l'entité décrit la table et sert aux lectures.
+ */
+@Entity
+@Table(
+        name = "stock_holds",
+        indexes = @Index(name = "idx_stock_holds_expires_at", columnList = "expires_at")
+)
+@IdClass(StockHold.Key.class)
+@Getter
+@NoArgsConstructor
+public class StockHold {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "offer_id")
+    private Long offerId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long userId;
+        private Long offerId;
+    }
+}
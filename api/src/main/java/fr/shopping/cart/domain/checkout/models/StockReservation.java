@@ -0,0 +1,57 @@
+package fr.shopping.cart.domain.checkout.models;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Quantité à prélever sur le stock d'une offre lors d'un checkout.
+ *
+ * @param productId    identifiant du produit (utilisé pour le message d'erreur)
+ * @param offerId      identifiant de l'offre dont le stock est décrémenté
+ * @param quantity     quantité à réserver
+ * @param heldQuantity part de la quantité déjà réservée temporairement par l'utilisateur ({@code stock_holds}),
+ *                     convertie en décrémentation sans nouveau contrôle de stock
+ */
+public record StockReservation(
+        Long productId,
+        Long offerId,
+        int quantity,
+        int heldQuantity
+) {
+
+    public StockReservation(Long productId, Long offerId, int quantity) {
+        this(productId, offerId, quantity, 0);
+    }
+
+    /**
+     * @return la quantité à prélever sur le stock disponible, hors réservation de l'utilisateur
+     *         (nulle si la réservation dépasse la quantité, l'excédent étant simplement libéré)
+     */
+    public int unheldQuantity() {
+        return Math.max(0, quantity - heldQuantity);
+    }
+
+    public StockReservation withHeldQuantity(int heldQuantity) {
+        return new StockReservation(productId, offerId, quantity, heldQuantity);
+    }
+
+    /**
+     * Additionne les quantités d'une même offre et trie le résultat par offerId, afin que deux checkouts
+     * concurrents verrouillent les lignes {@code offers} dans le même ordre (pas d'interblocage).
+     *
+     * @param reservations réservations brutes issues des lignes du panier
+     * @return une réservation par offre, triée par offerId croissant
+     */
+    public static List<StockReservation> mergeByOffer(List<StockReservation> reservations) {
+        final Map<Long, StockReservation> byOffer = new LinkedHashMap<>();
+        for (StockReservation reservation : reservations) {
+            byOffer.merge(reservation.offerId(), reservation, (a, b) -> new StockReservation(
+                    a.productId(), a.offerId(), a.quantity() + b.quantity(), a.heldQuantity() + b.heldQuantity()));
+        }
+        return byOffer.values().stream()
+                .sorted(Comparator.comparing(StockReservation::offerId))
+                .toList();
+    }
+}
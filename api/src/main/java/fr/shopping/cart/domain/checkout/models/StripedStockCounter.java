@@ -0,0 +1,93 @@
+package fr.shopping.cart.domain.checkout.models;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Stock local d'une offre réparti en segments indépendants, décrémentés par CAS sans verrou :
+ * des checkouts concurrents sur la même offre touchent des segments différents.
+ * <p>
+ * Un prélèvement n'est servi que par un seul segment, en tout-ou-rien : aucune unité n'est retenue
+ * temporairement par un prélèvement en échec. {@link #tryTake(int)} peut donc échouer alors que la
+ * somme des segments suffirait ; l'appelant regroupe alors le stock par {@link #drain()} sous son propre verrou.
+ * Les segments sont espacés d'une ligne de cache pour éviter le faux partage.
+ */
+public final class StripedStockCounter {
+
+    /** 8 {@code long} = 64 octets : un segment par ligne de cache. */
+    private static final int PADDING = 8;
+
+    private final AtomicLongArray cells;
+    private final int stripes;
+
+    public StripedStockCounter(int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("stripes must be >= 1");
+        }
+        this.stripes = stripes;
+        this.cells = new AtomicLongArray(stripes * PADDING);
+    }
+
+    /**
+     * Prélève {@code quantity} unités sur un seul segment, en commençant par celui du thread courant.
+     *
+     * @return {@code false} si aucun segment ne couvre la quantité
+     */
+    public boolean tryTake(int quantity) {
+        final int first = (int) (mix(Thread.currentThread().threadId()) % stripes);
+        for (int i = 0; i < stripes; i++) {
+            final int index = ((first + i) % stripes) * PADDING;
+            long current = cells.get(index);
+            while (current >= quantity) {
+                final long witness = cells.compareAndExchange(index, current, current - quantity);
+                if (witness == current) {
+                    return true;
+                }
+                current = witness;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Répartit {@code quantity} unités sur les segments.
+     */
+    public void add(long quantity) {
+        final long share = quantity / stripes;
+        final long remainder = quantity % stripes;
+        for (int i = 0; i < stripes; i++) {
+            final long part = share + (i < remainder ? 1 : 0);
+            if (part != 0) {
+                cells.addAndGet(i * PADDING, part);
+            }
+        }
+    }
+
+    /**
+     * Vide tous les segments.
+     *
+     * @return les unités retirées
+     */
+    public long drain() {
+        long drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PADDING, 0);
+        }
+        return drained;
+    }
+
+    /**
+     * @return le stock local, approximatif pendant des prélèvements concurrents
+     */
+    public long sum() {
+        long sum = 0;
+        for (int i = 0; i < stripes; i++) {
+            sum += cells.get(i * PADDING);
+        }
+        return sum;
+    }
+
+    private static long mix(long threadId) {
+        long h = threadId * 0x9E3779B97F4A7C15L;
+        return (h ^ (h >>> 32)) & Long.MAX_VALUE;
+    }
+}
@@ -0,0 +1,9 @@
+package fr.shopping.cart.domain.checkout.services;
+
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutResultDto;
+
+import java.util.List;
+
+public interface BulkCheckoutService {
+    List<BulkCheckoutResultDto> checkout(List<Long> userIds);
+}
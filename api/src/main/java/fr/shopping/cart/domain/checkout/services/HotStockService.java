@@ -0,0 +1,40 @@
+package fr.shopping.cart.domain.checkout.services;
+
+/**
+ * Stock des offres chaudes ({@code checkout.hot-offers.references}) vendu depuis des compteurs en mémoire,
+ * alimentés par prélèvements sur le stock en base et réconciliés périodiquement.
+ * Sans offre chaude configurée, aucune offre n'est chaude et aucune requête n'est exécutée.
+ */
+public interface HotStockService {
+
+    boolean isHot(Long offerId);
+
+    /**
+     * Prélève {@code quantity} unités d'une offre chaude pour la transaction courante : si elle est annulée,
+     * les unités sont rendues au compteur. Sans transaction en cours, la vente est définitive.
+     *
+     * @return {@code false} si ni le compteur local ni le stock disponible en base ne couvrent la quantité
+     */
+    boolean tryTake(Long offerId, int quantity);
+
+    /**
+     * @return les unités d'une offre chaude prélevées par cette instance et non vendues, 0 pour une offre froide
+     */
+    long localStock(Long offerId);
+
+    /**
+     * Unités d'une offre chaude sorties de {@code offers.stock_qty} par les prélèvements et encore vendables :
+     * le stock local de cette instance et les prélèvements des autres instances (ventes non réconciliées
+     * comprises, au plus une période de réconciliation). À ajouter au stock disponible en base pour contrôler
+     * le stock hors checkout.
+     *
+     * @return 0 pour une offre froide, sans requête
+     */
+    long escrowedStock(Long offerId);
+
+    /**
+     * Reporte en base les ventes depuis la réconciliation précédente et prend en compte les offres chaudes
+     * créées depuis. Exécutée en tâche de fond toutes les {@code checkout.hot-offers.reconcile-interval}.
+     */
+    void reconcile();
+}
@@ -0,0 +1,11 @@
+package fr.shopping.cart.domain.checkout.services;
+
+import fr.shopping.cart.domain.cart.models.CartView;
+import reactor.core.publisher.Mono;
+
+/**
+ * Équivalent non bloquant de {@link CheckoutService} (profil {@code reactive}).
+ */
+public interface ReactiveCheckoutService {
+    Mono<CartView> checkout(Long userId);
+}
@@ -0,0 +1,54 @@
+package fr.shopping.cart.domain.checkout.services;
+
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réservations temporaires de stock prises par les paniers ({@code cart.stock-holds.enabled}).
+ * Désactivées, toutes les opérations sont neutres et n'exécutent aucune requête.
+ */
+public interface StockHoldService {
+
+    /**
+     * @return les quantités déjà réservées par l'utilisateur sur les offres données, par offre,
+     *         verrouillées jusqu'à la fin de la transaction
+     */
+    Map<Long, Integer> lockHolds(Long userId, Collection<Long> offerIds);
+
+    /**
+     * Aligne les réservations de l'utilisateur sur les quantités de son panier et repousse leur expiration.
+     * En cas d'échec, une partie des réservations peut avoir été modifiée : l'appelant doit annuler la transaction.
+     *
+     * @param held       quantités réservées lues par {@link #lockHolds(Long, Collection)}
+     * @param quantities quantité à réserver par offre, 0 pour libérer la réservation
+     * @return les offres dont le stock disponible ne couvre plus la hausse demandée
+     */
+    List<Long> holdStock(Long userId, Map<Long, Integer> held, Map<Long, Integer> quantities);
+
+    /**
+     * Verrouille les réservations des utilisateurs et les reporte sur leurs quantités à prélever,
+     * qui sont regroupées par offre.
+     *
+     * @param reservationsByUser quantités à prélever, par utilisateur
+     * @return les mêmes quantités, avec la part déjà réservée par chaque utilisateur
+     */
+    Map<Long, List<StockReservation>> attachHolds(Map<Long, List<StockReservation>> reservationsByUser);
+
+    /**
+     * Supprime les réservations converties par un checkout ; l'agrégat par offre a été décrémenté
+     * avec le stock. Les réservations sur des offres absentes du panier expirent normalement.
+     *
+     * @param convertedByUser quantités prélevées, par utilisateur, issues de {@link #attachHolds(Map)}
+     */
+    void deleteHolds(Map<Long, List<StockReservation>> convertedByUser);
+
+    /**
+     * Libère les réservations échues, par lots de {@code cart.stock-holds.sweep-batch-size}.
+     *
+     * @return le nombre de réservations expirées
+     */
+    int expireHolds();
+}
@@ -0,0 +1,10 @@
+package fr.shopping.cart.domain.checkout.services;
+
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+
+import java.util.List;
+
+public interface StockReservationService {
+
+    void reserve(List<StockReservation> reservations);
+}
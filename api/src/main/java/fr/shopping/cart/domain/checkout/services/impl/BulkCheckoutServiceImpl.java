@@ -0,0 +1,210 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.CartNotFoundException;
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.BulkCheckoutService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import fr.shopping.cart.domain.checkout.services.StockReservationService;
+import fr.shopping.cart.domain.order.services.OrderService;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutResultDto;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutStatus;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Checkout d'un lot d'utilisateurs (commandes B2B programmées), par tranches de
+ * {@code checkout.bulk.batch-size} paniers. Chaque tranche est validée dans sa propre transaction
+ * avec un nombre fixe de requêtes : lecture des paniers et de leurs offres, lecture du stock et des
+ * réservations temporaires, décrémentations triées par offerId en un batch JDBC, suppression des
+ * paniers en deux batchs puis des réservations converties en un batch, commandes et événements de
+ * l'outbox en deux batchs.
+ * <p>
+ * Le stock est attribué aux paniers dans l'ordre de la requête, chaque panier étant validé en
+ * tout-ou-rien : un panier que le stock restant ne couvre pas est rejeté sans bloquer les suivants.
+ * La part d'un panier déjà réservée à l'ajout lui est acquise et n'est pas prise sur le stock restant.
+ * Si le stock ou un panier change pendant la tranche, elle est annulée puis rejouée panier par panier
+ * via {@link CheckoutService}.
+ */
+@Service
+@Timed("cart.service")
+public class BulkCheckoutServiceImpl implements BulkCheckoutService {
+
+    private final CartStore cartStore;
+    private final OfferRepository offerRepository;
+    private final StockReservationService stockReservationService;
+    private final StockHoldService stockHoldService;
+    private final HotStockService hotStockService;
+    private final CheckoutService checkoutService;
+    private final OrderService orderService;
+    private final CartMetrics cartMetrics;
+    private final TransactionTemplate chunkTransaction;
+    private final int batchSize;
+
+    public BulkCheckoutServiceImpl(
+            CartStore cartStore,
+            OfferRepository offerRepository,
+            StockReservationService stockReservationService,
+            StockHoldService stockHoldService,
+            HotStockService hotStockService,
+            CheckoutService checkoutService,
+            OrderService orderService,
+            CartMetrics cartMetrics,
+            PlatformTransactionManager transactionManager,
+            @Value("${checkout.bulk.batch-size:200}") int batchSize
+    ) {
+        this.cartStore = cartStore;
+        this.offerRepository = offerRepository;
+        this.stockReservationService = stockReservationService;
+        this.stockHoldService = stockHoldService;
+        this.hotStockService = hotStockService;
+        this.checkoutService = checkoutService;
+        this.orderService = orderService;
+        this.cartMetrics = cartMetrics;
+        this.chunkTransaction = new TransactionTemplate(transactionManager);
+        chunkTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Valide les paniers des utilisateurs donnés. Les tranches déjà validées le restent si une
+     * tranche suivante échoue.
+     *
+     * @param userIds utilisateurs, dans l'ordre d'attribution du stock (doublons ignorés)
+     * @return un résultat par utilisateur distinct, dans l'ordre de la requête
+     */
+    @Override
+    public List<BulkCheckoutResultDto> checkout(List<Long> userIds) {
+        final List<Long> distinct = List.copyOf(new LinkedHashSet<>(userIds));
+        final List<BulkCheckoutResultDto> results = new ArrayList<>(distinct.size());
+        for (int from = 0; from < distinct.size(); from += batchSize) {
+            final List<Long> chunk = distinct.subList(from, Math.min(from + batchSize, distinct.size()));
+            try {
+                results.addAll(chunkTransaction.execute(status -> checkoutChunk(chunk)));
+            } catch (InsufficientStockException | OptimisticLockingFailureException ex) {
+                chunk.forEach(userId -> results.add(checkoutOne(userId)));
+            }
+        }
+        return results;
+    }
+
+    private List<BulkCheckoutResultDto> checkoutChunk(List<Long> userIds) {
+        final Map<Long, Cart> carts = cartStore.findAllForCheckout(userIds).stream()
+                .collect(Collectors.toMap(Cart::getUserId, Function.identity()));
+        final Map<Long, Integer> remainingStock = loadStock(carts.values());
+        final Map<Long, List<StockReservation>> reservationsByUser = stockHoldService.attachHolds(reservations(carts));
+
+        final List<BulkCheckoutResultDto> results = new ArrayList<>(userIds.size());
+        final Map<Long, List<StockReservation>> accepted = new LinkedHashMap<>();
+        final List<Cart> checkedOut = new ArrayList<>();
+        for (Long userId : userIds) {
+            final Cart cart = carts.get(userId);
+            if (cart == null) {
+                results.add(failure(userId, BulkCheckoutStatus.CART_NOT_FOUND, new CartNotFoundException(userId)));
+                continue;
+            }
+            final List<StockReservation> reservations = reservationsByUser.get(userId);
+            final StockReservation missing = firstUncovered(reservations, remainingStock);
+            if (missing != null) {
+                cartMetrics.recordStockRejection("checkout");
+                results.add(failure(userId, BulkCheckoutStatus.INSUFFICIENT_STOCK,
+                        new InsufficientStockException(missing.productId(), missing.offerId())));
+                continue;
+            }
+            reservations.forEach(r -> remainingStock.merge(r.offerId(), -r.unheldQuantity(), Integer::sum));
+            accepted.put(userId, reservations);
+            checkedOut.add(cart);
+            results.add(success(cart));
+        }
+
+        stockReservationService.reserve(accepted.values().stream().flatMap(List::stream).toList());
+        cartStore.deleteAll(checkedOut);
+        stockHoldService.deleteHolds(accepted);
+        orderService.placeOrders(checkedOut);
+        checkedOut.forEach(cart -> cartMetrics.recordCartSize("checkout", cart));
+        return results;
+    }
+
+    /**
+     * Stock disponible des offres référencées par les paniers, hors réservations temporaires, en une requête.
+     * Celui d'une offre chaude inclut son stock local ; le prélèvement du complément en base peut encore
+     * échouer au checkout, et la tranche est alors rejouée panier par panier.
+     */
+    private Map<Long, Integer> loadStock(Iterable<Cart> carts) {
+        final List<Long> offerIds = new ArrayList<>();
+        carts.forEach(cart -> cart.getLines().forEach(line -> offerIds.add(line.getOffer().getId())));
+        if (offerIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        return offerRepository.findViewsByIdIn(offerIds).stream()
+                .collect(Collectors.toMap(OfferView::offerId,
+                        view -> view.stockQty() + (int) hotStockService.localStock(view.offerId()),
+                        (a, b) -> a, HashMap::new));
+    }
+
+    private static Map<Long, List<StockReservation>> reservations(Map<Long, Cart> carts) {
+        final Map<Long, List<StockReservation>> reservations = new HashMap<>();
+        carts.forEach((userId, cart) -> reservations.put(userId, cart.getLines().stream()
+                .map(line -> new StockReservation(
+                        line.getProduct().getId(),
+                        line.getOffer().getId(),
+                        line.getQuantity()
+                ))
+                .toList()));
+        return reservations;
+    }
+
+    private static StockReservation firstUncovered(List<StockReservation> reservations, Map<Long, Integer> remainingStock) {
+        for (StockReservation reservation : reservations) {
+            if (remainingStock.getOrDefault(reservation.offerId(), 0) < reservation.unheldQuantity()) {
+                return reservation;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checkout unitaire, utilisé quand une tranche n'a pas pu être validée d'un bloc.
+     */
+    private BulkCheckoutResultDto checkoutOne(Long userId) {
+        try {
+            return success(checkoutService.checkout(userId));
+        } catch (CartNotFoundException ex) {
+            return failure(userId, BulkCheckoutStatus.CART_NOT_FOUND, ex);
+        } catch (InsufficientStockException ex) {
+            return failure(userId, BulkCheckoutStatus.INSUFFICIENT_STOCK, ex);
+        } catch (OptimisticLockingFailureException ex) {
+            return failure(userId, BulkCheckoutStatus.CONFLICT, ex);
+        }
+    }
+
+    private static BulkCheckoutResultDto success(Cart cart) {
+        return new BulkCheckoutResultDto(
+                cart.getUserId(), BulkCheckoutStatus.CHECKED_OUT, cart.getItemCount(), cart.getSubtotal(), null);
+    }
+
+    private static BulkCheckoutResultDto failure(Long userId, BulkCheckoutStatus status, RuntimeException ex) {
+        return new BulkCheckoutResultDto(userId, status, null, null, ex.getMessage());
+    }
+}
@@ -1,57 +1,67 @@
 package fr.shopping.cart.domain.checkout.services.impl;
 
-import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
-import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import fr.shopping.cart.domain.checkout.services.StockReservationService;
 import fr.shopping.cart.domain.cart.exceptions.CartNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
-import fr.shopping.cart.domain.cart.exceptions.OfferNotFoundException;
-import fr.shopping.cart.domain.cart.exceptions.ProductNotFoundException;
 import fr.shopping.cart.domain.checkout.services.CheckoutService;
-import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
 import fr.shopping.cart.domain.cart.models.Cart;
-import fr.shopping.cart.domain.cart.models.CartLine;
-import fr.shopping.cart.domain.cart.models.Offer;
-import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.order.services.OrderService;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
 
 @Service
+@Timed("cart.service")
 @RequiredArgsConstructor
 public class CheckoutServiceImpl implements CheckoutService {
 
-    private final CartRepository cartRepository;
-    private final ProductRepository productRepository;
-    private final CartResponseMapper cartResponseMapper;
+    private final CartStore cartStore;
+    private final StockReservationService stockReservationService;
+    private final StockHoldService stockHoldService;
+    private final OrderService orderService;
+    private final CartMetrics cartMetrics;
 
     @Override
     /**
      * Valide le panier d'un utilisateur et transforme celui-ci en commande.
+     * Le stock de toutes les lignes est réservé en une seule opération atomique :
+     * soit toutes les offres sont décrémentées, soit aucune. La part déjà réservée par l'utilisateur
+     * à l'ajout au panier est prélevée sans nouveau contrôle de stock. La commande et son événement
+     * sont écrits dans la même transaction ; ils sont publiés ensuite, en tâche de fond.
      *
      * @param userId l'identifiant de l'utilisateur dont le panier doit être validé
      * @return le panier validé (avant suppression)
      * @throws CartNotFoundException si le panier de l'utilisateur n'existe pas
-     * @throws ProductNotFoundException si un produit dans le panier n'existe pas
-     * @throws OfferNotFoundException si une offre dans le panier n'existe pas
      * @throws InsufficientStockException si le stock disponible est insuffisant pour une ou plusieurs lignes du panier
      */
+    @Transactional
     public Cart checkout(Long userId) {
-        Cart cart = cartRepository.findByUserId(userId)
+        Cart cart = cartStore.findForCheckout(userId)
                 .orElseThrow(() -> new CartNotFoundException(userId));
 
-        for (CartLine line : cart.getLines()) {
-            final Product product = productRepository.findById(line.getProduct().getId()).orElseThrow(() -> new ProductNotFoundException(line.getProduct().getId()));
-            final Offer offer = product.getOfferById(line.getOffer().getId()).orElseThrow(() -> new OfferNotFoundException(line.getOffer().getId()));
-            if (!offer.hasSufficientStock(line.getQuantity())) {
-                throw new InsufficientStockException(product.getId(), offer.getId());
-            } else {
-                offer.decreaseStock(line.getQuantity());
-                productRepository.save(product);
-            }
-        }
+        final Map<Long, List<StockReservation>> reservations = stockHoldService.attachHolds(Map.of(userId,
+                cart.getLines().stream()
+                        .map(line -> new StockReservation(
+                                line.getProduct().getId(),
+                                line.getOffer().getId(),
+                                line.getQuantity()
+                        ))
+                        .toList()));
+        stockReservationService.reserve(reservations.get(userId));
+        stockHoldService.deleteHolds(reservations);
+        orderService.placeOrders(List.of(cart));
 
-        cartRepository.delete(cart);
+        cartStore.delete(cart);
+        cartMetrics.recordCartSize("checkout", cart);
 
         return cart;
     }
 }
-
@@ -0,0 +1,356 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.checkout.models.StripedStockCounter;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.infrastructure.hotstock.HotStockJournal;
+import fr.shopping.cart.infrastructure.jdbc.stock.StockEscrowRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Vente des offres chaudes depuis des compteurs en mémoire, sans verrou sur la ligne {@code offers}.
+ * <p>
+ * L'instance prélève le stock par lots de {@code checkout.hot-offers.claim-size} unités ({@code stock_escrows})
+ * et les vend depuis un {@link StripedStockCounter}. Chaque vente est consignée dans un journal local avant
+ * d'être confirmée ; la réconciliation retire périodiquement les ventes du prélèvement en base, en un batch,
+ * puis supprime les segments du journal réconciliés. Au démarrage, le prélèvement d'un arrêt brutal est
+ * rendu à l'offre, diminué des ventes relues dans le journal.
+ * <p>
+ * La rupture est exacte : un prélèvement que le compteur local ne couvre pas regroupe tout le stock local sous
+ * le verrou de l'offre et prélève le manque en base avant de conclure. Dès que le stock disponible en base
+ * passe sous un lot, l'offre est « à sec » : plus de réapprovisionnement anticipé, chaque instance rend son
+ * stock local à la réconciliation et ne prélève plus que la quantité d'un checkout. Un prélèvement trop court
+ * refuse aussitôt, sans attendre dans la transaction du checkout : les unités détenues par les autres
+ * instances redeviennent vendables à leur prochaine réconciliation.
+ */
+@Slf4j
+@Service
+public class HotStockServiceImpl implements HotStockService {
+
+    /** Compteur, ventes non réconciliées, verrou de prélèvement et rupture en base d'une offre chaude. */
+    private record HotOffer(StripedStockCounter counter, LongAdder sold, ReentrantLock claimLock, AtomicBoolean dry) {}
+
+    private final StockEscrowRepository stockEscrowRepository;
+    private final TransactionTemplate escrowTransaction;
+    private final Set<String> references;
+    private final String instanceId;
+    private final int stripes;
+    private final int claimSize;
+    private final Duration reconcileInterval;
+    private final Path journalDir;
+    private final boolean journalSync;
+    private final Map<Long, HotOffer> offers = new ConcurrentHashMap<>();
+    /** Lecture : consigner une vente ; écriture : arrêter les ventes d'une réconciliation. */
+    private final ReentrantReadWriteLock journalLock = new ReentrantReadWriteLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("hot-stock-reconcile").daemon().factory());
+    private HotStockJournal journal;
+    private volatile boolean stopping;
+
+    public HotStockServiceImpl(
+            StockEscrowRepository stockEscrowRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${checkout.hot-offers.references:}") List<String> references,
+            @Value("${checkout.hot-offers.instance-id:${HOSTNAME:local}}") String instanceId,
+            @Value("${checkout.hot-offers.stripes:16}") int stripes,
+            @Value("${checkout.hot-offers.claim-size:100}") int claimSize,
+            @Value("${checkout.hot-offers.reconcile-interval:1s}") Duration reconcileInterval,
+            @Value("${checkout.hot-offers.journal-dir:data/hot-stock-journal}") Path journalDir,
+            @Value("${checkout.hot-offers.journal-sync:true}") boolean journalSync
+    ) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("checkout.hot-offers.stripes must be >= 1");
+        }
+        if (claimSize < 1) {
+            throw new IllegalArgumentException("checkout.hot-offers.claim-size must be >= 1");
+        }
+        this.stockEscrowRepository = stockEscrowRepository;
+        this.escrowTransaction = new TransactionTemplate(transactionManager);
+        escrowTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.references = references.stream()
+                .map(String::trim)
+                .filter(reference -> !reference.isEmpty())
+                .collect(Collectors.toUnmodifiableSet());
+        this.instanceId = instanceId;
+        this.stripes = stripes;
+        this.claimSize = claimSize;
+        this.reconcileInterval = reconcileInterval;
+        this.journalDir = journalDir;
+        this.journalSync = journalSync;
+    }
+
+    /**
+     * Rend aux offres le stock prélevé avant l'arrêt précédent, puis charge les offres chaudes et planifie
+     * la réconciliation.
+     */
+    @PostConstruct
+    void start() {
+        if (references.isEmpty()) {
+            return;
+        }
+        journal = new HotStockJournal(journalDir, journalSync);
+        releaseEscrows();
+        refreshOffers();
+        scheduler.scheduleWithFixedDelay(this::scheduledReconcile,
+                reconcileInterval.toNanos(), reconcileInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Arrête les ventes, réconcilie et rend le stock non vendu aux offres.
+     */
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        if (journal == null) {
+            return;
+        }
+        stopping = true;
+        try {
+            offers.values().forEach(offer -> offer.counter().drain());
+            reconcile();
+            releaseEscrows();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Override
+    public boolean isHot(Long offerId) {
+        return offers.containsKey(offerId);
+    }
+
+    @Override
+    public boolean tryTake(Long offerId, int quantity) {
+        final HotOffer offer = offers.get(offerId);
+        if (offer == null) {
+            throw new IllegalArgumentException("Offer " + offerId + " is not a hot offer");
+        }
+        if (!offer.counter().tryTake(quantity) && !takeOrClaim(offerId, offer, quantity)) {
+            return false;
+        }
+
+        try {
+            record(offerId, offer, quantity, false);
+        } catch (RuntimeException ex) {
+            offer.counter().add(quantity);
+            throw ex;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        offer.counter().add(quantity);
+                        record(offerId, offer, quantity, true);
+                    }
+                }
+            });
+        }
+        return true;
+    }
+
+    @Override
+    public long localStock(Long offerId) {
+        final HotOffer offer = offers.get(offerId);
+        return offer == null ? 0 : offer.counter().sum();
+    }
+
+    @Override
+    public long escrowedStock(Long offerId) {
+        final HotOffer offer = offers.get(offerId);
+        return offer == null ? 0 : offer.counter().sum() + stockEscrowRepository.sumPeerEscrows(instanceId, offerId);
+    }
+
+    /**
+     * Les ventes sont relevées et le journal basculé sur un nouveau segment sans vente en cours ; le report
+     * en base se fait ensuite, en une transaction. En cas d'échec, les ventes relevées seront reportées à
+     * la réconciliation suivante avec les nouvelles.
+     * <p>
+     * Une offre qui a vendu depuis la réconciliation précédente et dont le stock local est passé sous la moitié
+     * d'un lot est réapprovisionnée ici, hors du chemin des checkouts, tant que la base en détient au moins un
+     * lot. En dessous, l'offre est à sec et son stock local est rendu à la base, où les autres instances
+     * peuvent le prélever.
+     */
+    @Override
+    public synchronized void reconcile() {
+        if (journal == null) {
+            return;
+        }
+        final Map<Long, Long> sold = new HashMap<>();
+        final long settledSegment;
+        journalLock.writeLock().lock();
+        try {
+            offers.forEach((offerId, offer) -> {
+                final long count = offer.sold().sumThenReset();
+                if (count != 0) {
+                    sold.put(offerId, count);
+                }
+            });
+            settledSegment = journal.currentSegment();
+            journal.roll();
+        } finally {
+            journalLock.writeLock().unlock();
+        }
+
+        if (!sold.isEmpty()) {
+            try {
+                escrowTransaction.executeWithoutResult(status ->
+                        stockEscrowRepository.settle(instanceId, sold, settledSegment));
+            } catch (RuntimeException ex) {
+                sold.forEach((offerId, count) -> offers.get(offerId).sold().add(count));
+                throw ex;
+            }
+        }
+        journal.deleteSegmentsBefore(settledSegment + 1);
+
+        refreshOffers();
+        if (stopping) {
+            return;
+        }
+        final Map<Long, Integer> available = stockEscrowRepository.findAvailableStock(offers.keySet());
+        final Map<Long, Long> unsold = new HashMap<>();
+        offers.forEach((offerId, offer) -> {
+            offer.dry().set(available.getOrDefault(offerId, 0) < claimSize);
+            offer.claimLock().lock();
+            try {
+                if (offer.dry().get()) {
+                    final long local = offer.counter().drain();
+                    if (local > 0) {
+                        unsold.put(offerId, local);
+                    }
+                } else if (sold.containsKey(offerId) && offer.counter().sum() < claimSize / 2) {
+                    offer.counter().add(claim(offerId, claimSize));
+                }
+            } finally {
+                offer.claimLock().unlock();
+            }
+        });
+        if (!unsold.isEmpty()) {
+            try {
+                escrowTransaction.executeWithoutResult(status -> stockEscrowRepository.giveBack(instanceId, unsold));
+            } catch (RuntimeException ex) {
+                unsold.forEach((offerId, count) -> offers.get(offerId).counter().add(count));
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Regroupe le stock local de l'offre et prélève en base ce qui manque pour couvrir la quantité : un lot
+     * entier, ou le seul manque quand l'offre est à sec. Un prélèvement trop court met l'offre à sec.
+     * Sous le verrou de l'offre, un seul thread prélève à la fois ; les autres retentent le compteur.
+     */
+    private boolean takeOrClaim(Long offerId, HotOffer offer, int quantity) {
+        offer.claimLock().lock();
+        try {
+            if (offer.counter().tryTake(quantity)) {
+                return true;
+            }
+            final long local = offer.counter().drain();
+            final long missing = quantity - local;
+            long claimed = 0;
+            if (missing > 0 && !stopping) {
+                final int wanted = (int) (offer.dry().get() ? missing : Math.max(claimSize, missing));
+                claimed = claim(offerId, wanted);
+                if (claimed < wanted) {
+                    offer.dry().set(true);
+                }
+            }
+            if (local + claimed < quantity) {
+                offer.counter().add(local + claimed);
+                return false;
+            }
+            offer.counter().add(local + claimed - quantity);
+            return true;
+        } finally {
+            offer.claimLock().unlock();
+        }
+    }
+
+    private int claim(Long offerId, int max) {
+        return escrowTransaction.execute(status -> stockEscrowRepository.claim(instanceId, offerId, max));
+    }
+
+    private void record(Long offerId, HotOffer offer, int quantity, boolean returned) {
+        journalLock.readLock().lock();
+        try {
+            if (returned) {
+                journal.appendReturn(offerId, quantity);
+                offer.sold().add(-quantity);
+            } else {
+                journal.appendSale(offerId, quantity);
+                offer.sold().add(quantity);
+            }
+        } finally {
+            journalLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rend aux offres le stock prélevé par l'instance, diminué des ventes du journal non encore réconciliées,
+     * puis supprime le journal.
+     */
+    private void releaseEscrows() {
+        final long current = journal.roll();
+        final List<StockEscrowRepository.Escrow> escrows = stockEscrowRepository.findEscrows(instanceId);
+        if (!escrows.isEmpty()) {
+            final Map<Long, Map<Long, Long>> sales = journal.replay();
+            final Map<Long, Long> unsold = new HashMap<>();
+            escrows.forEach(escrow -> {
+                final long sold = sales.entrySet().stream()
+                        .filter(segment -> segment.getKey() > escrow.journalSegment())
+                        .mapToLong(segment -> segment.getValue().getOrDefault(escrow.offerId(), 0L))
+                        .sum();
+                unsold.put(escrow.offerId(), escrow.quantity() - sold);
+            });
+            escrowTransaction.executeWithoutResult(status -> stockEscrowRepository.release(instanceId, unsold));
+            log.info("Released hot offer stock of instance {}: {}", instanceId, unsold);
+        }
+        journal.deleteSegmentsBefore(current);
+    }
+
+    /**
+     * Ajoute les offres portant une référence chaude créées depuis le chargement précédent. Une référence
+     * retirée de la configuration n'est prise en compte qu'au redémarrage.
+     */
+    private void refreshOffers() {
+        stockEscrowRepository.findOfferIds(references)
+                .forEach(offerId -> offers.computeIfAbsent(offerId, id ->
+                        new HotOffer(new StripedStockCounter(stripes), new LongAdder(), new ReentrantLock(),
+                                new AtomicBoolean())));
+    }
+
+    private void scheduledReconcile() {
+        try {
+            reconcile();
+        } catch (RuntimeException ex) {
+            log.warn("Hot offer reconciliation failed", ex);
+        }
+    }
+}
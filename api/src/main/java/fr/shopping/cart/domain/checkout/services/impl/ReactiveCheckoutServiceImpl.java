@@ -0,0 +1,111 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.CartConcurrentModificationException;
+import fr.shopping.cart.domain.cart.exceptions.CartNotFoundException;
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.CartLineView;
+import fr.shopping.cart.domain.cart.models.CartView;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+import fr.shopping.cart.domain.checkout.services.ReactiveCheckoutService;
+import fr.shopping.cart.domain.order.models.OrderLine;
+import fr.shopping.cart.domain.order.models.OrderPlacedPayload;
+import fr.shopping.cart.domain.order.services.OrderService;
+import fr.shopping.cart.infrastructure.r2dbc.cart.ReactiveCartRepository;
+import fr.shopping.cart.infrastructure.r2dbc.cart.ReactiveCartRepository.CartRow;
+import fr.shopping.cart.infrastructure.r2dbc.order.ReactiveOrderRepository;
+import fr.shopping.cart.infrastructure.r2dbc.stock.ReactiveStockReservationRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCheckoutServiceImpl implements ReactiveCheckoutService {
+
+    private final ReactiveCartRepository cartRepository;
+    private final ReactiveStockReservationRepository stockReservationRepository;
+    private final ReactiveOrderRepository orderRepository;
+    private final OrderService orderService;
+    private final TransactionalOperator transactionalOperator;
+
+    /**
+     * Valide le panier d'un utilisateur dans une transaction R2DBC : le stock de toutes les lignes
+     * est réservé en tout-ou-rien (offres décrémentées dans l'ordre des offerId), puis le panier est
+     * supprimé si sa version n'a pas changé depuis sa lecture. La commande, ses lignes et son événement sont
+     * écrits dans la même transaction. Le prix de chaque ligne de commande est celui de la ligne du panier,
+     * tenu égal au prix final de l'offre par le recalcul des paniers.
+     *
+     * @param userId l'identifiant de l'utilisateur dont le panier doit être validé
+     * @return le panier validé (avant suppression)
+     * @throws CartNotFoundException si le panier de l'utilisateur n'existe pas
+     * @throws InsufficientStockException si le stock disponible est insuffisant pour une ou plusieurs lignes du panier
+     * @throws CartConcurrentModificationException si le panier a été modifié pendant la validation
+     */
+    @Override
+    public Mono<CartView> checkout(Long userId) {
+        return transactionalOperator.transactional(cartRepository.findByUserId(userId)
+                .switchIfEmpty(Mono.error(() -> new CartNotFoundException(userId)))
+                .flatMap(cart -> cartRepository.findLines(cart.id())
+                        .collectList()
+                        .flatMap(lines -> reserve(lines)
+                                .then(delete(userId, cart))
+                                .then(placeOrder(userId, lines, cart.subtotal()))
+                                .thenReturn(new CartView(userId, lines, cart.subtotal())))));
+    }
+
+    /**
+     * Décrémente le stock de chaque offre, une par une dans l'ordre des offerId ; le premier échec
+     * interrompt la séquence et annule la transaction.
+     */
+    private Mono<Void> reserve(List<CartLineView> lines) {
+        final List<StockReservation> ordered = StockReservation.mergeByOffer(lines.stream()
+                .map(line -> new StockReservation(line.productId(), line.offerId(), line.quantity()))
+                .toList());
+
+        return Flux.fromIterable(ordered)
+                .concatMap(reservation -> stockReservationRepository.decrementStock(reservation)
+                        .flatMap(updated -> updated == 1
+                                ? Mono.<Void>empty()
+                                : Mono.error(new InsufficientStockException(reservation.productId(), reservation.offerId()))))
+                .then();
+    }
+
+    private Mono<Void> placeOrder(Long userId, List<CartLineView> lines, BigDecimal subtotal) {
+        final LocalDateTime now = LocalDateTime.now();
+        final int itemCount = lines.stream().mapToInt(CartLineView::quantity).sum();
+        return orderRepository.nextId().flatMap(orderId -> {
+            final List<OrderLine> orderLines = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                final CartLineView line = lines.get(i);
+                orderLines.add(new OrderLine(orderId, i + 1, now, line.productId(), line.offerId(), line.quantity(),
+                        PriceCalculator.toAmount(line.unitPriceMinor())));
+            }
+            return orderRepository.insertOrder(orderId, userId, itemCount, subtotal, now)
+                    .thenMany(Flux.fromIterable(orderLines).concatMap(orderRepository::insertLine))
+                    .then(orderRepository.insertEvent(orderService.orderPlaced(new OrderPlacedPayload(
+                            orderId, userId, itemCount, subtotal, now, orderLines.stream()
+                            .map(line -> new OrderPlacedPayload.Line(line.getProductId(), line.getOfferId(),
+                                    line.getQuantity(), line.getUnitPrice()))
+                            .toList()))));
+        });
+    }
+
+    private Mono<Void> delete(Long userId, CartRow cart) {
+        return cartRepository.delete(cart)
+                .flatMap(deleted -> deleted == 1
+                        ? Mono.<Void>empty()
+                        : Mono.error(new CartConcurrentModificationException(userId, new OptimisticLockingFailureException(
+                                "Cart id=" + cart.id() + " was modified since version " + cart.version()))));
+    }
+}
@@ -0,0 +1,161 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import fr.shopping.cart.infrastructure.jdbc.stock.StockHoldRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Réservation de stock à l'ajout au panier, valable {@code cart.stock-holds.ttl} après la dernière
+ * modification de la ligne. Le stock disponible d'une offre ({@code stock_qty - held_qty}) se lit sur sa
+ * ligne : ajouter au panier coûte trois requêtes (verrou des réservations, agrégat en batch, réservations
+ * en batch), quel que soit le nombre d'offres touchées.
+ * <p>
+ * Au checkout, la part réservée est décrémentée sans nouveau contrôle de stock. Une réservation expirée
+ * rend son stock aux autres paniers ; la ligne reste au panier et son stock est recontrôlé au checkout.
+ * <p>
+ * Les offres chaudes ne sont pas réservées : leur stock est vendu au checkout depuis un compteur en mémoire,
+ * sans modifier la ligne {@code offers} à chaque ajout au panier.
+ */
+@Service
+@Timed("cart.service")
+public class StockHoldServiceImpl implements StockHoldService {
+
+    private final StockHoldRepository stockHoldRepository;
+    private final HotStockService hotStockService;
+    private final TransactionTemplate sweepTransaction;
+    private final boolean enabled;
+    private final Duration ttl;
+    private final int sweepBatchSize;
+
+    public StockHoldServiceImpl(
+            StockHoldRepository stockHoldRepository,
+            HotStockService hotStockService,
+            PlatformTransactionManager transactionManager,
+            @Value("${cart.stock-holds.enabled:false}") boolean enabled,
+            @Value("${cart.stock-holds.ttl:15m}") Duration ttl,
+            @Value("${cart.stock-holds.sweep-batch-size:500}") int sweepBatchSize
+    ) {
+        if (sweepBatchSize < 1) {
+            throw new IllegalArgumentException("cart.stock-holds.sweep-batch-size must be >= 1");
+        }
+        this.stockHoldRepository = stockHoldRepository;
+        this.hotStockService = hotStockService;
+        this.sweepTransaction = new TransactionTemplate(transactionManager);
+        sweepTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.ttl = ttl;
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @Override
+    public Map<Long, Integer> lockHolds(Long userId, Collection<Long> offerIds) {
+        if (!enabled || offerIds.isEmpty()) {
+            return Map.of();
+        }
+        return stockHoldRepository.lockHolds(userId, offerIds);
+    }
+
+    @Override
+    public List<Long> holdStock(Long userId, Map<Long, Integer> held, Map<Long, Integer> quantities) {
+        if (!enabled || quantities.isEmpty()) {
+            return List.of();
+        }
+        final Map<Long, Integer> deltas = new HashMap<>();
+        final Map<Long, Integer> kept = new HashMap<>();
+        final List<Long> released = new ArrayList<>();
+        quantities.forEach((offerId, quantity) -> {
+            if (hotStockService.isHot(offerId)) {
+                return;
+            }
+            final int current = held.getOrDefault(offerId, 0);
+            if (quantity != current) {
+                deltas.put(offerId, quantity - current);
+            }
+            if (quantity > 0) {
+                kept.put(offerId, quantity);
+            } else if (current > 0) {
+                released.add(offerId);
+            }
+        });
+
+        if (!deltas.isEmpty()) {
+            final List<Long> uncovered = stockHoldRepository.adjustHeld(deltas);
+            if (!uncovered.isEmpty()) {
+                return uncovered;
+            }
+        }
+        if (!kept.isEmpty()) {
+            stockHoldRepository.saveHolds(userId, kept, LocalDateTime.now().plus(ttl));
+        }
+        if (!released.isEmpty()) {
+            stockHoldRepository.deleteHolds(userId, released);
+        }
+        return List.of();
+    }
+
+    @Override
+    public Map<Long, List<StockReservation>> attachHolds(Map<Long, List<StockReservation>> reservationsByUser) {
+        final Map<Long, Map<Long, Integer>> holds = new HashMap<>();
+        if (enabled && !reservationsByUser.isEmpty()) {
+            stockHoldRepository.lockHolds(reservationsByUser.keySet()).forEach(hold -> holds
+                    .computeIfAbsent(hold.userId(), id -> new HashMap<>())
+                    .put(hold.offerId(), hold.quantity()));
+        }
+        final Map<Long, List<StockReservation>> attached = new LinkedHashMap<>();
+        reservationsByUser.forEach((userId, reservations) -> {
+            final Map<Long, Integer> held = holds.getOrDefault(userId, Map.of());
+            attached.put(userId, StockReservation.mergeByOffer(reservations).stream()
+                    .map(r -> r.withHeldQuantity(held.getOrDefault(r.offerId(), 0)))
+                    .toList());
+        });
+        return attached;
+    }
+
+    @Override
+    public void deleteHolds(Map<Long, List<StockReservation>> convertedByUser) {
+        if (!enabled) {
+            return;
+        }
+        final List<StockHoldRepository.Hold> converted = new ArrayList<>();
+        convertedByUser.forEach((userId, reservations) -> reservations.stream()
+                .filter(r -> r.heldQuantity() > 0)
+                .forEach(r -> converted.add(new StockHoldRepository.Hold(userId, r.offerId(), r.heldQuantity()))));
+        if (!converted.isEmpty()) {
+            stockHoldRepository.deleteHolds(converted);
+        }
+    }
+
+    /**
+     * Chaque lot est validé dans sa propre transaction, courte : un lot en échec n'annule pas les précédents.
+     */
+    @Override
+    public int expireHolds() {
+        if (!enabled) {
+            return 0;
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        int batch;
+        do {
+            batch = sweepTransaction.execute(status -> stockHoldRepository.expireHolds(now, sweepBatchSize));
+            expired += batch;
+        } while (batch == sweepBatchSize);
+        return expired;
+    }
+}
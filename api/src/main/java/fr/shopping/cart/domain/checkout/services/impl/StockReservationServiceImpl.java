@@ -0,0 +1,62 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockReservationService;
+import fr.shopping.cart.infrastructure.jdbc.stock.StockReservationRepository;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Service
+@RequiredArgsConstructor
+public class StockReservationServiceImpl implements StockReservationService {
+
+    private final StockReservationRepository stockReservationRepository;
+    private final HotStockService hotStockService;
+    private final CartMetrics cartMetrics;
+
+    /**
+     * Réserve le stock de toutes les offres en tout-ou-rien.
+     * Les quantités sont regroupées par offre puis triées par offerId afin que deux checkouts
+     * concurrents verrouillent les lignes {@code offers} dans le même ordre (pas d'interblocage).
+     * Si une seule décrémentation échoue, l'exception annule la transaction englobante.
+     * <p>
+     * Les offres chaudes sans réservation temporaire sont prélevées d'abord sur leur compteur en mémoire,
+     * avant tout verrou en base ; leurs unités sont rendues au compteur si la transaction est annulée.
+     *
+     * @param reservations quantités à prélever
+     * @throws InsufficientStockException si le stock d'au moins une offre est insuffisant
+     */
+    @Override
+    @Transactional
+    public void reserve(List<StockReservation> reservations) {
+        final List<StockReservation> ordered = new ArrayList<>();
+        for (StockReservation reservation : StockReservation.mergeByOffer(reservations)) {
+            if (reservation.heldQuantity() > 0 || !hotStockService.isHot(reservation.offerId())) {
+                ordered.add(reservation);
+            } else if (!hotStockService.tryTake(reservation.offerId(), reservation.quantity())) {
+                cartMetrics.recordStockRejection("checkout");
+                throw new InsufficientStockException(reservation.productId(), reservation.offerId());
+            }
+        }
+        if (ordered.isEmpty()) {
+            return;
+        }
+
+        final int[] updated = stockReservationRepository.decrementStock(ordered);
+
+        for (int i = 0; i < ordered.size(); i++) {
+            if (updated[i] != 1) {
+                final StockReservation failed = ordered.get(i);
+                cartMetrics.recordStockRejection("checkout");
+                throw new InsufficientStockException(failed.productId(), failed.offerId());
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package fr.shopping.cart.domain.idempotency.exceptions;
+
+public class IdempotencyKeyInProgressException extends RuntimeException {
+    private static final String MESSAGE = "A request with Idempotency-Key %s is still in progress";
+
+    public IdempotencyKeyInProgressException(String key) {
+        super(String.format(MESSAGE, key));
+    }
+}
@@ -0,0 +1,9 @@
+package fr.shopping.cart.domain.idempotency.exceptions;
+
+public class IdempotencyKeyReuseException extends RuntimeException {
+    private static final String MESSAGE = "Idempotency-Key %s was already used with a different request";
+
+    public IdempotencyKeyReuseException(String key) {
+        super(String.format(MESSAGE, key));
+    }
+}
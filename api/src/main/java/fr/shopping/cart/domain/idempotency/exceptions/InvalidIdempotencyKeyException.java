@@ -0,0 +1,9 @@
+package fr.shopping.cart.domain.idempotency.exceptions;
+
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    private static final String MESSAGE = "Idempotency-Key must be 1 to %d printable ASCII characters";
+
+    public InvalidIdempotencyKeyException(int maxLength) {
+        super(String.format(MESSAGE, maxLength));
+    }
+}
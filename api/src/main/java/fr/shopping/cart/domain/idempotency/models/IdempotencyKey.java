@@ -0,0 +1,53 @@
+package fr.shopping.cart.domain.idempotency.models;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Clé d'idempotence d'une requête et réponse conservée pour la rejouer. Les écritures passent par
+ * {@code IdempotencyKeyRepository} ; l'entité décrit la table.
+ */
+@Entity
+@Table(
+        name = "idempotency_keys",
+        indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+)
+@IdClass(IdempotencyKey.Key.class)
+@Getter
+@NoArgsConstructor
+public class IdempotencyKey {
+
+    /** Opération et utilisateur : une même clé peut servir à deux utilisateurs ou deux opérations. */
+    @Id
+    @Column(length = 64)
+    private String scope;
+
+    @Id
+    @Column(name = "idempotency_key", length = 64)
+    private String idempotencyKey;
+
+    /** Empreinte SHA-256 de la requête, pour refuser une clé réutilisée avec une autre requête. */
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    /** Statut HTTP de la réponse, {@code null} tant que la requête est en cours. */
+    private Integer status;
+
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String scope;
+        private String idempotencyKey;
+    }
+}
@@ -0,0 +1,8 @@
+package fr.shopping.cart.domain.idempotency.models;
+
+/**
+ * Réponse conservée pour une clé d'idempotence.
+ *
+ * @param body corps JSON de la réponse, {@code null} pour une réponse sans corps
+ */
+public record StoredResponse(int status, String body) {}
@@ -0,0 +1,55 @@
+package fr.shopping.cart.domain.idempotency.services;
+
+import fr.shopping.cart.domain.idempotency.exceptions.IdempotencyKeyInProgressException;
+import fr.shopping.cart.domain.idempotency.exceptions.IdempotencyKeyReuseException;
+import fr.shopping.cart.domain.idempotency.exceptions.InvalidIdempotencyKeyException;
+import fr.shopping.cart.domain.idempotency.models.StoredResponse;
+
+import java.util.Optional;
+
+/**
+ * Déduplication des requêtes portant une clé d'idempotence : la réponse d'une requête réussie est conservée
+ * {@code cart.idempotency.ttl} et rejouée pour toute retentative portant la même clé, sans réexécuter la requête.
+ * <p>
+ * La clé réservée est liée au thread de la requête jusqu'à la validation de {@link #complete} ou jusqu'à
+ * {@link #abandon}. La réponse est écrite dans la transaction qui exécute la requête, pour être validée avec elle.
+ */
+public interface IdempotencyService {
+
+    /**
+     * Réserve la clé pour la requête, ou renvoie la réponse à rejouer. Une clé déjà vue sur l'instance est
+     * résolue en mémoire ; sinon, une seule instruction indexée la réserve. Une clé restée en cours plus de
+     * {@code cart.idempotency.lease} est réservée de nouveau : sa requête n'a pas été validée.
+     *
+     * @param scope       opération et utilisateur auxquels la clé s'applique
+     * @param requestHash empreinte de la requête
+     * @return la réponse à rejouer, vide si la clé vient d'être réservée et que la requête doit être exécutée
+     * @throws InvalidIdempotencyKeyException    si la clé est vide, trop longue ou contient des caractères non imprimables
+     * @throws IdempotencyKeyReuseException      si la clé a servi pour une autre requête
+     * @throws IdempotencyKeyInProgressException si la requête portant la clé n'est pas terminée
+     */
+    Optional<StoredResponse> begin(String scope, String key, String requestHash);
+
+    /**
+     * Écrit la réponse d'une requête réussie dans la transaction en cours, celle de la requête, pour la rejouer.
+     * Une fois la transaction validée, la réponse est retenue en mémoire et la clé déliée du thread ;
+     * si elle est annulée, la clé reste liée jusqu'à {@link #abandon}.
+     *
+     * @throws IdempotencyKeyInProgressException si la clé a été réservée de nouveau par une retentative après
+     *                                           {@code cart.idempotency.lease} : la transaction doit être annulée
+     */
+    void complete(String scope, String key, String requestHash, StoredResponse response);
+
+    /**
+     * Libère la clé d'une requête en échec : une retentative l'exécutera. Délie la clé du thread.
+     */
+    void abandon(String scope, String key);
+
+    /**
+     * Supprime les clés expirées, par lots de {@code cart.idempotency.sweep-batch-size}, une transaction
+     * par lot. Exécutée en tâche de fond toutes les {@code cart.idempotency.sweep-interval}.
+     *
+     * @return le nombre de clés supprimées
+     */
+    int purgeExpired();
+}
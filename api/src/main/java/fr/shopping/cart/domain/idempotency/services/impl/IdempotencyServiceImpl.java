@@ -0,0 +1,181 @@
+package fr.shopping.cart.domain.idempotency.services.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import fr.shopping.cart.domain.idempotency.exceptions.IdempotencyKeyInProgressException;
+import fr.shopping.cart.domain.idempotency.exceptions.IdempotencyKeyReuseException;
+import fr.shopping.cart.domain.idempotency.exceptions.InvalidIdempotencyKeyException;
+import fr.shopping.cart.domain.idempotency.models.StoredResponse;
+import fr.shopping.cart.domain.idempotency.services.IdempotencyService;
+import fr.shopping.cart.infrastructure.jdbc.idempotency.IdempotencyKeyRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Optional;
+
+/**
+ * Les réponses conservées sont aussi retenues en mémoire, dans la limite de
+ * {@code cart.idempotency.memory.capacity} clés, dans un cache Caffeine borné sans verrou global : une
+ * retentative servie par la même instance est rejouée sans requête SQL. Sinon, la clé est réservée en base
+ * avant l'exécution de la requête, hors de sa transaction, et la réponse est écrite dans la transaction de
+ * la requête : la requête et sa réponse sont validées ensemble.
+ * <p>
+ * Une clé en cours depuis plus de {@code cart.idempotency.lease} est donc celle d'une requête jamais validée
+ * (instance arrêtée, requête abandonnée) : une retentative la réserve de nouveau. La réservation porte
+ * son échéance ({@code expires_at}) ; l'écriture de la réponse et la libération ne s'appliquent qu'à
+ * la réservation qui les a obtenues, et une requête plus lente que le bail voit sa transaction annulée.
+ */
+@Service
+@Timed("cart.idempotency")
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    /** Réponse conservée et empreinte de sa requête, retenues jusqu'à l'expiration de la clé. */
+    private record Cached(String requestHash, StoredResponse response, LocalDateTime expiresAt) {}
+
+    /** Clé réservée par la requête du thread, jusqu'à l'échéance qui sert de jeton de réservation. */
+    private record Pending(String scope, String key, LocalDateTime claimedUntil) {}
+
+    private final IdempotencyKeyRepository idempotencyKeyRepository;
+    private final TransactionTemplate sweepTransaction;
+    private final Duration ttl;
+    private final Duration lease;
+    private final int sweepBatchSize;
+    private final Cache<String, Cached> recent;
+    private final ThreadLocal<Pending> pending = new ThreadLocal<>();
+
+    public IdempotencyServiceImpl(
+            IdempotencyKeyRepository idempotencyKeyRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${cart.idempotency.ttl:24h}") Duration ttl,
+            @Value("${cart.idempotency.lease:30s}") Duration lease,
+            @Value("${cart.idempotency.memory.capacity:10000}") int capacity,
+            @Value("${cart.idempotency.sweep-batch-size:500}") int sweepBatchSize
+    ) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("cart.idempotency.memory.capacity must be >= 1");
+        }
+        if (sweepBatchSize < 1) {
+            throw new IllegalArgumentException("cart.idempotency.sweep-batch-size must be >= 1");
+        }
+        if (!lease.isPositive() || lease.compareTo(ttl) > 0) {
+            throw new IllegalArgumentException("cart.idempotency.lease must be > 0 and <= cart.idempotency.ttl");
+        }
+        this.idempotencyKeyRepository = idempotencyKeyRepository;
+        this.sweepTransaction = new TransactionTemplate(transactionManager);
+        sweepTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.ttl = ttl;
+        this.lease = lease;
+        this.sweepBatchSize = sweepBatchSize;
+        this.recent = Caffeine.newBuilder()
+                .maximumSize(capacity)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<StoredResponse> begin(String scope, String key, String requestHash) {
+        validate(key);
+        final LocalDateTime now = LocalDateTime.now();
+        final Cached cached = cached(scope, key, now);
+        if (cached != null) {
+            return Optional.of(replay(key, requestHash, cached.requestHash(), cached.response()));
+        }
+
+        // expires_at sert de jeton de réservation : tronqué à la précision de la colonne pour être comparé
+        final LocalDateTime claimedUntil = now.plus(ttl).truncatedTo(ChronoUnit.MICROS);
+        if (idempotencyKeyRepository.claim(scope, key, requestHash, claimedUntil, now, claimedUntil.minus(lease))) {
+            pending.set(new Pending(scope, key, claimedUntil));
+            return Optional.empty();
+        }
+        final IdempotencyKeyRepository.Entry entry = idempotencyKeyRepository.find(scope, key, now)
+                .orElseThrow(() -> new IdempotencyKeyInProgressException(key));
+        final StoredResponse response = entry.response()
+                .orElseThrow(() -> new IdempotencyKeyInProgressException(key));
+        return Optional.of(replay(key, requestHash, entry.requestHash(), response));
+    }
+
+    @Override
+    public void complete(String scope, String key, String requestHash, StoredResponse response) {
+        final Pending request = bound(scope, key);
+        if (request == null) {
+            return;
+        }
+        if (!idempotencyKeyRepository.complete(scope, key, response, request.claimedUntil())) {
+            throw new IdempotencyKeyInProgressException(key);
+        }
+        final Runnable remember = () -> {
+            pending.remove();
+            recent.put(cacheKey(scope, key), new Cached(requestHash, response, request.claimedUntil()));
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    remember.run();
+                }
+            });
+        } else {
+            remember.run();
+        }
+    }
+
+    @Override
+    public void abandon(String scope, String key) {
+        final Pending request = bound(scope, key);
+        if (request != null) {
+            pending.remove();
+            idempotencyKeyRepository.release(scope, key, request.claimedUntil());
+        }
+    }
+
+    @Override
+    public int purgeExpired() {
+        final LocalDateTime now = LocalDateTime.now();
+        int purged = 0;
+        int batch;
+        do {
+            batch = sweepTransaction.execute(status -> idempotencyKeyRepository.deleteExpired(now, sweepBatchSize));
+            purged += batch;
+        } while (batch == sweepBatchSize);
+        return purged;
+    }
+
+    private Pending bound(String scope, String key) {
+        final Pending request = pending.get();
+        return request == null || !request.scope().equals(scope) || !request.key().equals(key) ? null : request;
+    }
+
+    private Cached cached(String scope, String key, LocalDateTime now) {
+        final Cached cached = recent.getIfPresent(cacheKey(scope, key));
+        return cached == null || !cached.expiresAt().isAfter(now) ? null : cached;
+    }
+
+    private static StoredResponse replay(String key, String requestHash, String storedHash, StoredResponse response) {
+        if (!storedHash.equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        return response;
+    }
+
+    private static void validate(String key) {
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH
+                || !key.chars().allMatch(c -> c > ' ' && c < 0x7F)) {
+            throw new InvalidIdempotencyKeyException(MAX_KEY_LENGTH);
+        }
+    }
+
+    private static String cacheKey(String scope, String key) {
+        return scope + '\n' + key;
+    }
+}
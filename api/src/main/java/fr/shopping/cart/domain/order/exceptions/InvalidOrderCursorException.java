@@ -0,0 +1,9 @@
+package fr.shopping.cart.domain.order.exceptions;
+
+public class InvalidOrderCursorException extends RuntimeException {
+    private static final String MESSAGE = "Invalid order history cursor: %s";
+
+    public InvalidOrderCursorException(String cursor) {
+        super(String.format(MESSAGE, cursor));
+    }
+}
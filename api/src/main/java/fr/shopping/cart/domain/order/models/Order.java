@@ -0,0 +1,47 @@
+package fr.shopping.cart.domain.order.models;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Commande créée par un checkout, dans la transaction qui décrémente le stock. Ses lignes sont des
+ * {@link OrderLine}. Sous PostgreSQL, la table est partitionnée par mois sur {@code created_at}, qui
+ * fait partie de sa clé primaire.
+ */
+@Entity
+@Table(
+        name = "orders",
+        indexes = @Index(name = "idx_orders_user_created_at", columnList = "user_id, created_at, id")
+)
+@Getter
+@NoArgsConstructor
+public class Order {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "item_count", nullable = false)
+    private int itemCount;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal subtotal;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    public Order(Long userId, int itemCount, BigDecimal subtotal, LocalDateTime createdAt) {
+        this.userId = userId;
+        this.itemCount = itemCount;
+        this.subtotal = subtotal;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,44 @@
+package fr.shopping.cart.domain.order.models;
+
+import fr.shopping.cart.domain.order.exceptions.InvalidOrderCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans l'historique des commandes d'un utilisateur, trié par date puis identifiant décroissants :
+ * la page suivante commence à la première commande strictement antérieure. Transmis au client sous une
+ * forme opaque ({@link #encode()}).
+ */
+public record OrderCursor(LocalDateTime createdAt, Long id) {
+
+    private static final char SEPARATOR = '|';
+
+    public static OrderCursor after(Order order) {
+        return new OrderCursor(order.getCreatedAt(), order.getId());
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt.toString() + SEPARATOR + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws InvalidOrderCursorException si la valeur n'a pas été produite par {@link #encode()}
+     */
+    public static OrderCursor decode(String value) {
+        try {
+            final String decoded = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            final int separator = decoded.indexOf(SEPARATOR);
+            if (separator < 0) {
+                throw new InvalidOrderCursorException(value);
+            }
+            return new OrderCursor(LocalDateTime.parse(decoded.substring(0, separator)),
+                    Long.valueOf(decoded.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException ex) {
+            throw new InvalidOrderCursorException(value);
+        }
+    }
+}
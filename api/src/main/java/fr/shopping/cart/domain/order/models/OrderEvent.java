@@ -0,0 +1,44 @@
+package fr.shopping.cart.domain.order.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement de commande en attente de publication (outbox), écrit dans la transaction du checkout.
+ * Son identifiant est fixé à la création : un événement republié après un échec porte le même, et les
+ * consommateurs s'en servent pour ignorer les doublons. Les écritures passent par
+ * {@code OrderEventRepository} ; l'entité décrit la table.
+ */
+@Entity
+@Table(
+        name = "order_events",
+        indexes = @Index(name = "idx_order_events_created_at", columnList = "created_at")
+)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderEvent {
+
+    public static final String ORDER_PLACED = "ORDER_PLACED";
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "order_id", nullable = false)
+    private Long orderId;
+
+    @Column(name = "event_type", nullable = false, length = 32)
+    private String type;
+
+    /** Contenu JSON de l'événement, {@link OrderPlacedPayload} pour {@link #ORDER_PLACED}. */
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,56 @@
+package fr.shopping.cart.domain.order.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Ligne d'une commande, au prix unitaire final de l'offre au moment du checkout. Elle porte la date de
+ * sa commande, clé de partition de {@code order_lines} sous PostgreSQL. Les écritures et lectures passent
+ * par {@code OrderLineRepository} ; l'entité décrit la table.
+ */
+@Entity
+@Table(name = "order_lines")
+@IdClass(OrderLine.Key.class)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderLine {
+
+    @Id
+    @Column(name = "order_id")
+    private Long orderId;
+
+    /** Rang de la ligne dans sa commande, à partir de 1. */
+    @Id
+    @Column(name = "line_no")
+    private int lineNo;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+
+    @Column(name = "offer_id", nullable = false)
+    private Long offerId;
+
+    @Column(nullable = false, columnDefinition = "INTEGER CHECK (quantity > 0)")
+    private int quantity;
+
+    @Column(name = "unit_price", nullable = false, precision = 19, scale = 2)
+    private BigDecimal unitPrice;
+
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private Long orderId;
+        private int lineNo;
+    }
+}
@@ -0,0 +1,17 @@
+package fr.shopping.cart.domain.order.models;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Page de l'historique des commandes d'un utilisateur, de la plus récente à la plus ancienne.
+ *
+ * @param lines lignes de chaque commande de la page, par identifiant de commande et dans l'ordre de la commande
+ * @param next  position de la page suivante, {@code null} pour la dernière page
+ */
+public record OrderPage(List<Order> orders, Map<Long, List<OrderLine>> lines, OrderCursor next) {
+
+    public List<OrderLine> linesOf(Order order) {
+        return lines.getOrDefault(order.getId(), List.of());
+    }
+}
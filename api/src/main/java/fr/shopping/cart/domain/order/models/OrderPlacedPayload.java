@@ -0,0 +1,23 @@
+package fr.shopping.cart.domain.order.models;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Contenu de l'événement {@link OrderEvent#ORDER_PLACED} : la commande et ses lignes au prix payé.
+ */
+public record OrderPlacedPayload(
+        Long orderId,
+        Long userId,
+        int itemCount,
+        BigDecimal subtotal,
+        LocalDateTime placedAt,
+        List<Line> lines
+) {
+
+    /**
+     * @param unitPrice prix unitaire final de l'offre au checkout, figé sur la ligne de commande
+     */
+    public record Line(Long productId, Long offerId, int quantity, BigDecimal unitPrice) {}
+}
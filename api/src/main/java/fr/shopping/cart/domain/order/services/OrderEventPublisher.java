@@ -0,0 +1,14 @@
+package fr.shopping.cart.domain.order.services;
+
+/**
+ * Relais de l'outbox : publie les événements de commande en attente vers l'{@code OrderEventSink} configuré.
+ */
+public interface OrderEventPublisher {
+
+    /**
+     * Publie les événements en attente par lots de {@code orders.events.relay-batch-size}, les plus anciens d'abord.
+     *
+     * @return le nombre d'événements publiés
+     */
+    int publishPending();
+}
@@ -0,0 +1,16 @@
+package fr.shopping.cart.domain.order.services;
+
+import fr.shopping.cart.domain.order.models.OrderCursor;
+import fr.shopping.cart.domain.order.models.OrderPage;
+
+public interface OrderHistoryService {
+
+    /**
+     * Lit une page de l'historique des commandes d'un utilisateur, de la plus récente à la plus ancienne,
+     * en deux requêtes : les commandes, puis leurs lignes.
+     *
+     * @param before position renvoyée par la page précédente, {@code null} pour la première page
+     * @param limit  nombre de commandes demandé, ramené entre 1 et {@code orders.history.max-page-size}
+     */
+    OrderPage findOrders(Long userId, OrderCursor before, int limit);
+}
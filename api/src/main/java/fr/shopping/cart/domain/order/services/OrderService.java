@@ -0,0 +1,25 @@
+package fr.shopping.cart.domain.order.services;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.order.models.Order;
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import fr.shopping.cart.domain.order.models.OrderPlacedPayload;
+
+import java.util.List;
+
+public interface OrderService {
+
+    /**
+     * Crée une commande par panier validé et son événement {@code ORDER_PLACED} dans l'outbox, dans la
+     * transaction du checkout : aucune entrée/sortie vers les consommateurs n'a lieu ici.
+     *
+     * @param carts paniers validés, lignes chargées
+     * @return les commandes, dans l'ordre des paniers
+     */
+    List<Order> placeOrders(List<Cart> carts);
+
+    /**
+     * Construit l'événement {@code ORDER_PLACED} d'une commande, sans l'écrire (checkout réactif).
+     */
+    OrderEvent orderPlaced(OrderPlacedPayload payload);
+}
@@ -0,0 +1,63 @@
+package fr.shopping.cart.domain.order.services.impl;
+
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import fr.shopping.cart.domain.order.services.OrderEventPublisher;
+import fr.shopping.cart.infrastructure.events.order.OrderEventSink;
+import fr.shopping.cart.infrastructure.jdbc.order.OrderEventRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Chaque lot est verrouillé, publié puis supprimé de l'outbox dans sa propre transaction. Si la suppression
+ * n'est pas validée après la publication, le lot sera republié : la livraison est au moins une fois, et
+ * l'identifiant de chaque événement permet aux consommateurs d'ignorer les doublons.
+ */
+@Service
+@Timed("cart.service")
+public class OrderEventPublisherImpl implements OrderEventPublisher {
+
+    private final OrderEventRepository orderEventRepository;
+    private final OrderEventSink orderEventSink;
+    private final TransactionTemplate batchTransaction;
+    private final int batchSize;
+
+    public OrderEventPublisherImpl(
+            OrderEventRepository orderEventRepository,
+            OrderEventSink orderEventSink,
+            PlatformTransactionManager transactionManager,
+            @Value("${orders.events.relay-batch-size:500}") int batchSize
+    ) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("orders.events.relay-batch-size must be >= 1");
+        }
+        this.orderEventRepository = orderEventRepository;
+        this.orderEventSink = orderEventSink;
+        this.batchTransaction = new TransactionTemplate(transactionManager);
+        batchTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public int publishPending() {
+        int published = 0;
+        int batch;
+        do {
+            batch = batchTransaction.execute(status -> {
+                final List<OrderEvent> events = orderEventRepository.lockPending(batchSize);
+                if (!events.isEmpty()) {
+                    orderEventSink.publish(events);
+                    orderEventRepository.delete(events);
+                }
+                return events.size();
+            });
+            published += batch;
+        } while (batch == batchSize);
+        return published;
+    }
+}
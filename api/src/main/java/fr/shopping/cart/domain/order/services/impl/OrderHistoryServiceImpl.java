@@ -0,0 +1,67 @@
+package fr.shopping.cart.domain.order.services.impl;
+
+import fr.shopping.cart.domain.order.models.Order;
+import fr.shopping.cart.domain.order.models.OrderCursor;
+import fr.shopping.cart.domain.order.models.OrderLine;
+import fr.shopping.cart.domain.order.models.OrderPage;
+import fr.shopping.cart.domain.order.services.OrderHistoryService;
+import fr.shopping.cart.infrastructure.jdbc.order.OrderLineRepository;
+import fr.shopping.cart.infrastructure.jpa.order.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Historique des commandes paginé par clé : une commande de plus que la page est lue pour savoir s'il
+ * reste une page suivante, sans compter les commandes de l'utilisateur.
+ */
+@Service
+@Timed("cart.service")
+public class OrderHistoryServiceImpl implements OrderHistoryService {
+
+    private final OrderRepository orderRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final int maxPageSize;
+
+    public OrderHistoryServiceImpl(
+            OrderRepository orderRepository,
+            OrderLineRepository orderLineRepository,
+            @Value("${orders.history.max-page-size:100}") int maxPageSize
+    ) {
+        if (maxPageSize < 1) {
+            throw new IllegalArgumentException("orders.history.max-page-size must be >= 1");
+        }
+        this.orderRepository = orderRepository;
+        this.orderLineRepository = orderLineRepository;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public OrderPage findOrders(Long userId, OrderCursor before, int limit) {
+        final int pageSize = Math.clamp(limit, 1, maxPageSize);
+        final Limit fetched = Limit.of(pageSize + 1);
+        final List<Order> orders = before == null
+                ? orderRepository.findLatestByUserId(userId, fetched)
+                : orderRepository.findByUserIdBefore(userId, before.createdAt(), before.id(), fetched);
+        if (orders.isEmpty()) {
+            return new OrderPage(List.of(), Map.of(), null);
+        }
+
+        final List<Order> page = orders.size() > pageSize ? orders.subList(0, pageSize) : orders;
+        final Map<Long, List<OrderLine>> lines = orderLineRepository.findByOrderIds(
+                        page.stream().map(Order::getId).toList(),
+                        page.getLast().getCreatedAt(),
+                        page.getFirst().getCreatedAt())
+                .stream()
+                .collect(Collectors.groupingBy(OrderLine::getOrderId));
+        final OrderCursor next = orders.size() > pageSize ? OrderCursor.after(page.getLast()) : null;
+        return new OrderPage(List.copyOf(page), lines, next);
+    }
+}
@@ -0,0 +1,106 @@
+package fr.shopping.cart.domain.order.services.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+import fr.shopping.cart.domain.order.models.Order;
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import fr.shopping.cart.domain.order.models.OrderLine;
+import fr.shopping.cart.domain.order.models.OrderPlacedPayload;
+import fr.shopping.cart.domain.order.services.OrderService;
+import fr.shopping.cart.infrastructure.jdbc.order.OrderEventRepository;
+import fr.shopping.cart.infrastructure.jdbc.order.OrderLineRepository;
+import fr.shopping.cart.infrastructure.jpa.order.OrderRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Les commandes sont insérées par JPA (identifiants pooled, INSERT regroupés en batch), leurs lignes et
+ * leurs événements par deux batchs JDBC : un checkout, unitaire ou par lot, ajoute quatre requêtes au plus.
+ * Chaque ligne fige le prix unitaire final de son offre ({@link fr.shopping.cart.domain.cart.models.Offer#getFinalUnitPrice()}),
+ * dont le total de la commande est recalculé.
+ */
+@Service
+@Timed("cart.service")
+@RequiredArgsConstructor
+public class OrderServiceImpl implements OrderService {
+
+    private final OrderRepository orderRepository;
+    private final OrderLineRepository orderLineRepository;
+    private final OrderEventRepository orderEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public List<Order> placeOrders(List<Cart> carts) {
+        if (carts.isEmpty()) {
+            return List.of();
+        }
+        final LocalDateTime now = LocalDateTime.now();
+        final List<Order> orders = orderRepository.saveAll(carts.stream()
+                .map(cart -> new Order(cart.getUserId(), cart.getItemCount(), subtotal(cart), now))
+                .toList());
+
+        final List<OrderLine> lines = new ArrayList<>();
+        final List<OrderEvent> events = new ArrayList<>(orders.size());
+        for (int i = 0; i < orders.size(); i++) {
+            final Order order = orders.get(i);
+            final List<OrderLine> orderLines = lines(order, carts.get(i));
+            lines.addAll(orderLines);
+            events.add(orderPlaced(payload(order, orderLines)));
+        }
+        orderLineRepository.append(lines);
+        orderEventRepository.append(events);
+        return orders;
+    }
+
+    @Override
+    public OrderEvent orderPlaced(OrderPlacedPayload payload) {
+        return new OrderEvent(UUID.randomUUID().toString(), payload.orderId(), OrderEvent.ORDER_PLACED,
+                toJson(payload), payload.placedAt());
+    }
+
+    private static BigDecimal subtotal(Cart cart) {
+        return PriceCalculator.toAmount(cart.getLines().stream()
+                .mapToLong(line -> PriceCalculator.lineTotal(line.getOffer().getFinalUnitPriceMinor(), line.getQuantity()))
+                .sum());
+    }
+
+    private static List<OrderLine> lines(Order order, Cart cart) {
+        final List<CartLine> cartLines = cart.getLines();
+        final List<OrderLine> lines = new ArrayList<>(cartLines.size());
+        for (int i = 0; i < cartLines.size(); i++) {
+            final CartLine line = cartLines.get(i);
+            lines.add(new OrderLine(order.getId(), i + 1, order.getCreatedAt(), line.getProduct().getId(),
+                    line.getOffer().getId(), line.getQuantity(), line.getOffer().getFinalUnitPrice()));
+        }
+        return lines;
+    }
+
+    private static OrderPlacedPayload payload(Order order, List<OrderLine> lines) {
+        return new OrderPlacedPayload(order.getId(), order.getUserId(), order.getItemCount(), order.getSubtotal(),
+                order.getCreatedAt(), lines.stream()
+                .map(line -> new OrderPlacedPayload.Line(
+                        line.getProductId(), line.getOfferId(), line.getQuantity(), line.getUnitPrice()))
+                .toList());
+    }
+
+    private String toJson(OrderPlacedPayload payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize order " + payload.orderId(), ex);
+        }
+    }
+}
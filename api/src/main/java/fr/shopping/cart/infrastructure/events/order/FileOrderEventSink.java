@@ -0,0 +1,81 @@
+package fr.shopping.cart.infrastructure.events.order;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ajoute chaque événement en une ligne JSON ({@code id}, {@code type}, {@code orderId}, {@code createdAt},
+ * {@code payload}) au fichier {@code orders.events.file.path}, écrit sur disque à chaque lot.
+ * Un lot republié après un échec peut apparaître deux fois : le lecteur ignore les identifiants déjà lus.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.events.sink", havingValue = "file")
+public class FileOrderEventSink implements OrderEventSink {
+
+    private final ObjectMapper objectMapper;
+    private final FileChannel channel;
+
+    public FileOrderEventSink(
+            ObjectMapper objectMapper,
+            @Value("${orders.events.file.path:data/order-events.jsonl}") Path path
+    ) throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> events) {
+        final StringBuilder lines = new StringBuilder();
+        for (OrderEvent event : events) {
+            lines.append(toJson(event)).append('\n');
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+        channel.close();
+    }
+
+    private String toJson(OrderEvent event) {
+        try {
+            final Map<String, Object> line = new LinkedHashMap<>();
+            line.put("id", event.getId());
+            line.put("type", event.getType());
+            line.put("orderId", event.getOrderId());
+            line.put("createdAt", event.getCreatedAt());
+            line.put("payload", objectMapper.readTree(event.getPayload()));
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot serialize order event " + event.getId(), ex);
+        }
+    }
+}
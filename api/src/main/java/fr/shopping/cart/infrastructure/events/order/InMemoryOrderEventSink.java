@@ -0,0 +1,113 @@
+package fr.shopping.cart.infrastructure.events.order;
+
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * File en mémoire bornée à {@code orders.events.memory.capacity} événements, consommée dans le processus :
+ * un thread dédié remet chaque événement, dans l'ordre, aux {@code @EventListener} de l'application
+ * ({@link ApplicationEventPublisher}). Un écouteur en échec est journalisé sans bloquer les suivants.
+ * <p>
+ * Un lot qui ne tient pas dans la place restante est refusé en entier et reste dans l'outbox, republié
+ * au passage suivant du relais une fois la file consommée.
+ * Les identifiants des derniers événements publiés sont retenus : un événement republié est ignoré.
+ * À l'arrêt, les événements encore en file sont remis avant la fin du thread.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "orders.events.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOrderEventSink implements OrderEventSink {
+
+    private final BlockingQueue<OrderEvent> queue;
+    private final Map<String, Boolean> published;
+    private final ApplicationEventPublisher applicationEventPublisher;
+    private final ExecutorService dispatcher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("order-event-dispatch").daemon().factory());
+    private volatile boolean stopping;
+
+    public InMemoryOrderEventSink(
+            @Value("${orders.events.memory.capacity:10000}") int capacity,
+            ApplicationEventPublisher applicationEventPublisher
+    ) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("orders.events.memory.capacity must be >= 1");
+        }
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.published = new LinkedHashMap<>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.applicationEventPublisher = applicationEventPublisher;
+    }
+
+    @PostConstruct
+    public void start() {
+        dispatcher.execute(this::dispatch);
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        stopping = true;
+        dispatcher.shutdown();
+        dispatcher.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public synchronized void publish(List<OrderEvent> events) {
+        final List<OrderEvent> fresh = events.stream()
+                .filter(event -> !published.containsKey(event.getId()))
+                .toList();
+        if (fresh.size() > queue.remainingCapacity()) {
+            throw new IllegalStateException("Order event queue is full");
+        }
+        for (OrderEvent event : fresh) {
+            queue.add(event);
+            published.put(event.getId(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * @return les événements en file, retirés ; pour les tests, sans thread de remise démarré
+     */
+    List<OrderEvent> drain() {
+        final List<OrderEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        return events;
+    }
+
+    private void dispatch() {
+        try {
+            while (!stopping || !queue.isEmpty()) {
+                final OrderEvent event = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (event == null) {
+                    continue;
+                }
+                try {
+                    applicationEventPublisher.publishEvent(event);
+                } catch (RuntimeException ex) {
+                    log.warn("Order event listener failed for event {}", event.getId(), ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
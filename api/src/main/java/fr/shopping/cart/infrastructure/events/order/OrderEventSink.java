@@ -0,0 +1,19 @@
+package fr.shopping.cart.infrastructure.events.order;
+
+import fr.shopping.cart.domain.order.models.OrderEvent;
+
+import java.util.List;
+
+/**
+ * Destination des événements de commande publiés par le relais de l'outbox ({@code orders.events.sink}).
+ * La publication est au moins une fois : un lot dont la suppression de l'outbox a échoué est republié,
+ * avec les mêmes identifiants d'événement. Une implémentation vers un broker publie l'identifiant comme
+ * clé de déduplication.
+ */
+public interface OrderEventSink {
+
+    /**
+     * Publie un lot d'événements, dans l'ordre. Une exception laisse le lot dans l'outbox, pour le prochain passage.
+     */
+    void publish(List<OrderEvent> events);
+}
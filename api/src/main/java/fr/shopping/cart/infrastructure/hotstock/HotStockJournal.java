@@ -0,0 +1,256 @@
+package fr.shopping.cart.infrastructure.hotstock;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local en ajout seul des ventes servies par les compteurs des offres chaudes, entre deux
+ * réconciliations avec la base. Une vente annulée (transaction de checkout annulée) est consignée
+ * par un enregistrement de retour.
+ * <p>
+ * Comme le journal des paniers en écriture différée, il est découpé en segments numérotés
+ * {@code hot-stock-<n>.log} : {@link #roll()} ouvre un nouveau segment à chaque réconciliation, et les
+ * segments réconciliés sont supprimés par {@link #deleteSegmentsBefore(long)}.
+ * <p>
+ * En mode synchronisé, l'écriture sur disque est groupée : un enregistrement n'est confirmé qu'une fois
+ * écrit sur disque, mais un seul {@code force} couvre tous les enregistrements ajoutés pendant le précédent.
+ * <p>
+ * Format d'un enregistrement : longueur et CRC32 de la charge utile (deux {@code int}), puis type
+ * (octet), offerId ({@code long}) et quantité ({@code int}). Un enregistrement tronqué ou corrompu
+ * termine la relecture de son segment.
+ */
+public class HotStockJournal implements Closeable {
+
+    private static final byte SOLD = 1;
+    private static final byte RETURNED = 2;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int PAYLOAD_BYTES = Byte.BYTES + Long.BYTES + Integer.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("hot-stock-(\\d+)\\.log");
+
+    private final Path directory;
+    private final boolean sync;
+    /** Pris avant le moniteur du journal : {@code force} se fait hors de ce dernier, sans bloquer les ajouts. */
+    private final Object forceLock = new Object();
+    private long segment;
+    private FileChannel channel;
+    /** Octets ajoutés depuis l'ouverture, tous segments confondus. */
+    private long written;
+    /** Octets écrits sur disque, sous {@link #forceLock}. */
+    private long forced;
+
+    /**
+     * Ouvre un nouveau segment après ceux déjà présents dans le répertoire, qui restent lisibles
+     * par {@link #replay()}.
+     *
+     * @param sync force l'écriture sur disque de chaque enregistrement avant de rendre la main
+     */
+    public HotStockJournal(Path directory, boolean sync) {
+        this.directory = directory;
+        this.sync = sync;
+        try {
+            Files.createDirectories(directory);
+            this.segment = Arrays.stream(segments()).max().orElse(0) + 1;
+            this.channel = open(segment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Relit les segments antérieurs au segment courant.
+     *
+     * @return les ventes nettes (ventes moins retours) par segment puis par offre
+     */
+    public synchronized Map<Long, Map<Long, Long>> replay() {
+        final Map<Long, Map<Long, Long>> sold = new TreeMap<>();
+        try {
+            for (long previous : segments()) {
+                if (previous < segment) {
+                    sold.put(previous, readSegment(Files.readAllBytes(segmentPath(previous))));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return sold;
+    }
+
+    public void appendSale(Long offerId, int quantity) {
+        append(SOLD, offerId, quantity);
+    }
+
+    public void appendReturn(Long offerId, int quantity) {
+        append(RETURNED, offerId, quantity);
+    }
+
+    /**
+     * Ferme le segment courant et en ouvre un nouveau.
+     *
+     * @return le numéro du nouveau segment
+     */
+    public long roll() {
+        synchronized (forceLock) {
+            synchronized (this) {
+                try {
+                    closeChannel();
+                    channel = open(++segment);
+                    return segment;
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            }
+        }
+    }
+
+    public synchronized long currentSegment() {
+        return segment;
+    }
+
+    public synchronized void deleteSegmentsBefore(long firstKept) {
+        try {
+            for (long previous : segments()) {
+                if (previous < firstKept) {
+                    Files.deleteIfExists(segmentPath(previous));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        synchronized (forceLock) {
+            synchronized (this) {
+                closeChannel();
+            }
+        }
+    }
+
+    private void append(byte type, Long offerId, int quantity) {
+        final long end = write(type, offerId, quantity);
+        if (sync) {
+            force(end);
+        }
+    }
+
+    /**
+     * Écrit sur disque au moins jusqu'à {@code end} ; les enregistrements ajoutés entre-temps par d'autres
+     * threads sont couverts par le même {@code force}.
+     */
+    private void force(long end) {
+        synchronized (forceLock) {
+            if (forced >= end) {
+                return;
+            }
+            final FileChannel target;
+            final long position;
+            synchronized (this) {
+                target = channel;
+                position = written;
+            }
+            try {
+                target.force(false);
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+            forced = position;
+        }
+    }
+
+    /** Appelé sous {@link #forceLock} puis le moniteur du journal. */
+    private void closeChannel() throws IOException {
+        if (sync && forced < written) {
+            channel.force(false);
+            forced = written;
+        }
+        channel.close();
+    }
+
+    /**
+     * @return la position de fin de l'enregistrement, tous segments confondus
+     */
+    private synchronized long write(byte type, Long offerId, int quantity) {
+        final byte[] payload = ByteBuffer.allocate(PAYLOAD_BYTES)
+                .put(type)
+                .putLong(offerId)
+                .putInt(quantity)
+                .array();
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            written += record.limit();
+            return written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static Map<Long, Long> readSegment(byte[] bytes) {
+        final Map<Long, Long> sold = new HashMap<>();
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+            final int length = buffer.getInt();
+            final int checksum = buffer.getInt();
+            if (length != PAYLOAD_BYTES || length > buffer.remaining()) {
+                break;
+            }
+            final byte[] payload = new byte[length];
+            buffer.get(payload);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                break;
+            }
+
+            final ByteBuffer record = ByteBuffer.wrap(payload);
+            final byte type = record.get();
+            final long offerId = record.getLong();
+            final int quantity = record.getInt();
+            sold.merge(offerId, type == RETURNED ? -(long) quantity : quantity, Long::sum);
+        }
+        return sold;
+    }
+
+    private long[] segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve("hot-stock-" + number + ".log");
+    }
+}
@@ -1,16 +1,24 @@
 package fr.shopping.cart.infrastructure.http;
 
 import fr.shopping.cart.domain.cart.exceptions.ApiErrorResponse;
+import fr.shopping.cart.domain.cart.exceptions.CartConcurrentModificationException;
 import fr.shopping.cart.domain.cart.exceptions.CartLineNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.CartNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
 import fr.shopping.cart.domain.cart.exceptions.OfferNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.ProductNotFoundException;
+import fr.shopping.cart.domain.idempotency.exceptions.IdempotencyKeyInProgressException;
+import fr.shopping.cart.domain.idempotency.exceptions.IdempotencyKeyReuseException;
+import fr.shopping.cart.domain.idempotency.exceptions.InvalidIdempotencyKeyException;
+import fr.shopping.cart.domain.order.exceptions.InvalidOrderCursorException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.time.Instant;
 import java.util.List;
@@ -18,26 +26,24 @@ import java.util.List;
 @ControllerAdvice
 public class GlobalExceptionHandler {
 
+    static final String CONCURRENT_MODIFICATION_MESSAGE = "Resource was modified concurrently, please retry";
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ApiErrorResponse> handleValidation(
             MethodArgumentNotValidException ex
     ) {
-        List<String> messages = ex.getBindingResult()
-                .getFieldErrors()
-                .stream()
-                .map(error -> error.getField() + " : " + error.getDefaultMessage())
-                .toList();
-
-        return ResponseEntity.badRequest().body(
-                new ApiErrorResponse(
-                        Instant.now(),
-                        HttpStatus.BAD_REQUEST.value(),
-                        "Validation error",
-                        messages
-                )
-        );
+        return validationError(ex.getBindingResult());
     }
 
+    /**
+     * Équivalent WebFlux de {@link MethodArgumentNotValidException} (profil {@code reactive}).
+     */
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<ApiErrorResponse> handleReactiveValidation(
+            WebExchangeBindException ex
+    ) {
+        return validationError(ex.getBindingResult());
+    }
 
     @ExceptionHandler(ProductNotFoundException.class)
     public ResponseEntity<ApiErrorResponse> handleProductNotFound(
@@ -74,6 +80,52 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.CONFLICT, ex.getMessage());
     }
 
+    @ExceptionHandler(CartConcurrentModificationException.class)
+    public ResponseEntity<ApiErrorResponse> handleConcurrentModification(
+            CartConcurrentModificationException ex
+    ) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    /**
+     * Conflit de version non rejoué, au checkout notamment (panier, ligne ou offre modifiés entre la lecture
+     * et l'écriture) : la requête peut être relancée, comme pour {@link CartConcurrentModificationException}.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ApiErrorResponse> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex
+    ) {
+        return buildError(HttpStatus.CONFLICT, CONCURRENT_MODIFICATION_MESSAGE);
+    }
+
+    @ExceptionHandler(InvalidOrderCursorException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidOrderCursor(
+            InvalidOrderCursorException ex
+    ) {
+        return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ApiErrorResponse> handleInvalidIdempotencyKey(
+            InvalidIdempotencyKeyException ex
+    ) {
+        return buildError(HttpStatus.BAD_REQUEST, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyKeyInProgress(
+            IdempotencyKeyInProgressException ex
+    ) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ApiErrorResponse> handleIdempotencyKeyReuse(
+            IdempotencyKeyReuseException ex
+    ) {
+        return buildError(HttpStatus.UNPROCESSABLE_ENTITY, ex.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleGeneric(
             Exception ex
@@ -86,6 +138,23 @@ public class GlobalExceptionHandler {
 
 
 
+    private ResponseEntity<ApiErrorResponse> validationError(BindingResult bindingResult) {
+        List<String> messages = bindingResult
+                .getFieldErrors()
+                .stream()
+                .map(error -> error.getField() + " : " + error.getDefaultMessage())
+                .toList();
+
+        return ResponseEntity.badRequest().body(
+                new ApiErrorResponse(
+                        Instant.now(),
+                        HttpStatus.BAD_REQUEST.value(),
+                        "Validation error",
+                        messages
+                )
+        );
+    }
+
     private ResponseEntity<ApiErrorResponse> buildError(
             HttpStatus status,
             String message
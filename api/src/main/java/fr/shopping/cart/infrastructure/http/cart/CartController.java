@@ -2,11 +2,17 @@ package fr.shopping.cart.infrastructure.http.cart;
 
 import fr.shopping.cart.domain.cart.services.CartService;
 import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsResponseDto;
 import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartSummaryResponseDto;
 import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
 import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
+import fr.shopping.cart.infrastructure.http.idempotency.IdempotentRequests;
+import fr.shopping.cart.infrastructure.metrics.SqlBudget;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -18,12 +24,14 @@ import org.springframework.web.bind.annotation.*;
  * URL de base : {@code /api/v1/users/{userId}/cart} (configurable via {@code api.prefix.route})
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("${api.prefix.route}/users/{userId}/cart")
 @RequiredArgsConstructor
 public class CartController {
 
     private final CartService cartService;
     private final CartResponseMapper cartResponseMapper;
+    private final IdempotentRequests idempotentRequests;
 
     /**
      * Récupère l'état actuel du panier d'un utilisateur spécifique.
@@ -33,26 +41,47 @@ public class CartController {
      *         les lignes du panier et le prix total
      */
     @GetMapping
+    @SqlBudget(statements = 3)
     public ResponseEntity<CartResponseDto> getCart(@PathVariable Long userId) {
         final CartResponseDto responseDto = cartResponseMapper.toCartResponse(cartService.getCart(userId));
         return ResponseEntity.ok(responseDto);
     }
 
+    /**
+     * Récupère le résumé du panier (nombre d'articles et prix total), par exemple pour un badge d'en-tête.
+     * Contrairement à {@link #getCart(Long)}, ni les lignes ni les offres ne sont chargées.
+     *
+     * @param userId l'ID de l'utilisateur
+     * @return une ResponseEntity contenant le {@link CartSummaryResponseDto}
+     */
+    @GetMapping("/summary")
+    @SqlBudget(statements = 3)
+    public ResponseEntity<CartSummaryResponseDto> getCartSummary(@PathVariable Long userId) {
+        return ResponseEntity.ok(cartResponseMapper.toCartSummaryResponse(cartService.getCartSummary(userId)));
+    }
+
     /**
      * Ajoute un nouvel article au panier de l'utilisateur.
      * Si l'article existe déjà dans le panier, sa quantité sera augmentée de 1.
+     * Avec l'en-tête {@code Idempotency-Key}, une retentative portant la même clé et le même corps
+     * rejoue la réponse de la première requête sans ajouter l'article une seconde fois.
      *
-     * @param userId  l'ID de l'utilisateur
-     * @param request le DTO contenant le produit et l'offre à ajouter
+     * @param userId         l'ID de l'utilisateur
+     * @param idempotencyKey clé d'idempotence choisie par le client, facultative
+     * @param request        le DTO contenant le produit et l'offre à ajouter
      * @return une ResponseEntity avec le statut HTTP 201 (Créé)
      */
     @PostMapping("/items")
+    @SqlBudget(statements = 11)
     public ResponseEntity<Void> addItem(
             @PathVariable Long userId,
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @RequestBody @Valid AddItemRequestDto request
     ) {
-        cartService.addItem(userId, request);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+        return idempotentRequests.handle(idempotencyKey, "cart-items:" + userId, request, Void.class, () -> {
+            cartService.addItem(userId, request);
+            return null;
+        }, added -> ResponseEntity.status(HttpStatus.CREATED).build());
     }
 
     /**
@@ -63,6 +92,7 @@ public class CartController {
      * @return une ResponseEntity avec le statut HTTP 204 (No Content)
      */
     @PutMapping("/items")
+    @SqlBudget(statements = 7)
     public ResponseEntity<Void> updateItemQuantity(
             @PathVariable Long userId,
             @RequestBody @Valid UpdateItemRequestDto request
@@ -80,6 +110,7 @@ public class CartController {
      * @return une ResponseEntity avec le statut HTTP 204 (No Content)
      */
     @DeleteMapping("/items/{productId}/{offerId}")
+    @SqlBudget(statements = 7)
     public ResponseEntity<Void> removeItem(
             @PathVariable Long userId,
             @PathVariable Long productId,
@@ -88,4 +119,22 @@ public class CartController {
         cartService.removeItem(userId, productId, offerId);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Applique plusieurs opérations (ajout, mise à jour, suppression) sur le panier en une requête.
+     * Chaque opération reçoit son propre résultat : une opération refusée (stock insuffisant,
+     * offre inconnue...) n'empêche pas l'application des suivantes.
+     *
+     * @param userId  l'ID de l'utilisateur
+     * @param request le DTO contenant la liste ordonnée des opérations
+     * @return une ResponseEntity contenant le {@link BatchCartItemsResponseDto} avec un résultat par opération
+     */
+    @PatchMapping("/items:batch")
+    @SqlBudget(statements = 12)
+    public ResponseEntity<BatchCartItemsResponseDto> applyBatch(
+            @PathVariable Long userId,
+            @RequestBody @Valid BatchCartItemsRequestDto request
+    ) {
+        return ResponseEntity.ok(new BatchCartItemsResponseDto(userId, cartService.applyBatch(userId, request)));
+    }
 }
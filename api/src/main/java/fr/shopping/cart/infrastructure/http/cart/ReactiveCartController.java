@@ -0,0 +1,99 @@
+package fr.shopping.cart.infrastructure.http.cart;
+
+import fr.shopping.cart.domain.cart.services.ReactiveCartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartSummaryResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Édition non bloquante de {@link CartController} (profil {@code reactive}) : mêmes routes, mêmes
+ * contrats et mêmes codes de retour, servis par WebFlux.
+ * URL de base : {@code /api/v1/users/{userId}/cart} (configurable via {@code api.prefix.route})
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("${api.prefix.route}/users/{userId}/cart")
+@RequiredArgsConstructor
+public class ReactiveCartController {
+
+    private final ReactiveCartService cartService;
+    private final CartResponseMapper cartResponseMapper;
+
+    /**
+     * Récupère l'état actuel du panier d'un utilisateur, en le créant s'il n'existe pas.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<CartResponseDto>> getCart(@PathVariable Long userId) {
+        return cartService.getCart(userId)
+                .map(cart -> ResponseEntity.ok(cartResponseMapper.toCartResponse(cart)));
+    }
+
+    /**
+     * Récupère le résumé du panier (nombre d'articles et prix total).
+     */
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<CartSummaryResponseDto>> getCartSummary(@PathVariable Long userId) {
+        return cartService.getCartSummary(userId)
+                .map(summary -> ResponseEntity.ok(cartResponseMapper.toCartSummaryResponse(summary)));
+    }
+
+    /**
+     * Ajoute un article au panier de l'utilisateur (201), ou incrémente sa quantité.
+     */
+    @PostMapping("/items")
+    public Mono<ResponseEntity<Void>> addItem(
+            @PathVariable Long userId,
+            @RequestBody @Valid AddItemRequestDto request
+    ) {
+        return cartService.addItem(userId, request)
+                .then(Mono.fromCallable(() -> ResponseEntity.status(HttpStatus.CREATED).build()));
+    }
+
+    /**
+     * Met à jour la quantité d'un article existant dans le panier (204).
+     */
+    @PutMapping("/items")
+    public Mono<ResponseEntity<Void>> updateItemQuantity(
+            @PathVariable Long userId,
+            @RequestBody @Valid UpdateItemRequestDto request
+    ) {
+        return cartService.updateItemQuantity(userId, request)
+                .then(Mono.fromCallable(() -> ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Supprime un article du panier de l'utilisateur (204).
+     */
+    @DeleteMapping("/items/{productId}/{offerId}")
+    public Mono<ResponseEntity<Void>> removeItem(
+            @PathVariable Long userId,
+            @PathVariable Long productId,
+            @PathVariable Long offerId
+    ) {
+        return cartService.removeItem(userId, productId, offerId)
+                .then(Mono.fromCallable(() -> ResponseEntity.noContent().build()));
+    }
+
+    /**
+     * Applique plusieurs opérations sur le panier en une requête, avec un résultat par opération.
+     */
+    @PatchMapping("/items:batch")
+    public Mono<ResponseEntity<BatchCartItemsResponseDto>> applyBatch(
+            @PathVariable Long userId,
+            @RequestBody @Valid BatchCartItemsRequestDto request
+    ) {
+        return cartService.applyBatch(userId, request)
+                .map(results -> ResponseEntity.ok(new BatchCartItemsResponseDto(userId, results)));
+    }
+}
@@ -0,0 +1,11 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BatchCartItemsRequestDto(
+        @NotEmpty @Size(max = 200) List<@Valid CartItemOperationDto> operations
+) { }
@@ -0,0 +1,8 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+import java.util.List;
+
+public record BatchCartItemsResponseDto(
+        Long userId,
+        List<CartItemOperationResultDto> results
+) {}
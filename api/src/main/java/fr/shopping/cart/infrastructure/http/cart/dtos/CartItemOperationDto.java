@@ -0,0 +1,11 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+public record CartItemOperationDto(
+        @NotNull CartItemOperationType type,
+        @NotNull Long productId,
+        @NotNull Long offerId,
+        @Positive Integer quantity
+) { }
@@ -0,0 +1,10 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+public record CartItemOperationResultDto(
+        int index,
+        CartItemOperationType type,
+        Long productId,
+        Long offerId,
+        CartItemOperationStatus status,
+        String message
+) {}
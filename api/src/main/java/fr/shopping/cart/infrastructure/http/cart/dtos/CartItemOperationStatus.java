@@ -0,0 +1,8 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+public enum CartItemOperationStatus {
+    APPLIED,
+    NOT_FOUND,
+    INSUFFICIENT_STOCK,
+    INVALID;
+}
@@ -0,0 +1,7 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+public enum CartItemOperationType {
+    ADD,
+    UPDATE,
+    REMOVE;
+}
@@ -0,0 +1,9 @@
+package fr.shopping.cart.infrastructure.http.cart.dtos;
+
+import java.math.BigDecimal;
+
+public record CartSummaryResponseDto(
+        Long userId,
+        int itemCount,
+        BigDecimal totalPrice
+) {}
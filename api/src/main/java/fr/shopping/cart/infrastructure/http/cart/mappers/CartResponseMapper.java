@@ -2,7 +2,14 @@ package fr.shopping.cart.infrastructure.http.cart.mappers;
 
 import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
 import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.CartView;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartSummaryResponseDto;
 
 public interface CartResponseMapper {
     CartResponseDto toCartResponse(Cart cart);
+
+    CartResponseDto toCartResponse(CartView cart);
+
+    CartSummaryResponseDto toCartSummaryResponse(CartSummary summary);
 }
@@ -1,38 +1,68 @@
 package fr.shopping.cart.infrastructure.http.cart.mappers.impl;
 
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.CartLineView;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.CartView;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
 import fr.shopping.cart.infrastructure.http.cart.dtos.CartLineResponseDto;
 import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartSummaryResponseDto;
 import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
 import fr.shopping.cart.domain.cart.models.Cart;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 
 @Service
+@Timed("cart.mapper")
 public class CartResponseMapperImpl implements CartResponseMapper {
     @Override
     public CartResponseDto toCartResponse(Cart cart) {
-        List<CartLineResponseDto> lines = cart.getLines().stream()
-                .map(line -> {
-                    BigDecimal unitPrice = line.getOffer().getFinalUnitPrice();
-                    BigDecimal lineTotal = unitPrice.multiply(BigDecimal.valueOf(line.getQuantity()));
-
-                    return new CartLineResponseDto(
-                            line.getProduct().getId(),
-                            line.getOffer().getId(),
-                            line.getOffer().getState(),
-                            line.getQuantity(),
-                            unitPrice,
-                            lineTotal
-                    );
-                })
-                .toList();
-
-        BigDecimal total = lines.stream()
-                .map(CartLineResponseDto::lineTotal)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
-
-        return new CartResponseDto(cart.getUserId(), lines, total);
+        List<CartLineResponseDto> lines = new ArrayList<>(cart.getLines().size());
+
+        // Prix unitaire figé sur la ligne et sous-total maintenu par le panier : rien n'est recalculé ici
+        for (CartLine line : cart.getLines()) {
+            final Offer offer = line.getOffer();
+            final long unitPrice = line.getUnitPriceMinor();
+            final long lineTotal = PriceCalculator.lineTotal(unitPrice, line.getQuantity());
+
+            lines.add(new CartLineResponseDto(
+                    line.getProduct().getId(),
+                    offer.getId(),
+                    offer.getState(),
+                    line.getQuantity(),
+                    PriceCalculator.toAmount(unitPrice),
+                    PriceCalculator.toAmount(lineTotal)
+            ));
+        }
+
+        return new CartResponseDto(cart.getUserId(), List.copyOf(lines), cart.getSubtotal());
+    }
+
+    @Override
+    public CartResponseDto toCartResponse(CartView cart) {
+        List<CartLineResponseDto> lines = new ArrayList<>(cart.lines().size());
+
+        for (CartLineView line : cart.lines()) {
+            lines.add(new CartLineResponseDto(
+                    line.productId(),
+                    line.offerId(),
+                    line.state(),
+                    line.quantity(),
+                    PriceCalculator.toAmount(line.unitPriceMinor()),
+                    PriceCalculator.toAmount(line.lineTotalMinor())
+            ));
+        }
+
+        return new CartResponseDto(cart.userId(), List.copyOf(lines), cart.subtotal());
+    }
+
+    @Override
+    public CartSummaryResponseDto toCartSummaryResponse(CartSummary summary) {
+        return new CartSummaryResponseDto(summary.userId(), summary.itemCount(), summary.total());
     }
 }
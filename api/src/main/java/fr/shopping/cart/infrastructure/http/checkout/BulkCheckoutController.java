@@ -0,0 +1,35 @@
+package fr.shopping.cart.infrastructure.http.checkout;
+
+import fr.shopping.cart.domain.checkout.services.BulkCheckoutService;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutRequestDto;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutResponseDto;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for checking out many users' carts at once (B2B standing orders, scheduled orders).
+ * Base URL: {@code /api/v1/checkout:bulk} (configurable via {@code api.prefix.route})
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("${api.prefix.route}")
+@RequiredArgsConstructor
+public class BulkCheckoutController {
+
+    private final BulkCheckoutService bulkCheckoutService;
+
+    /**
+     * Performs checkout for each listed user. Stock is allocated to carts in request order,
+     * each cart being checked out entirely or not at all.
+     * @param request the DTO containing the user IDs
+     * @return a ResponseEntity containing the {@link BulkCheckoutResponseDto} with one result per distinct user,
+     *         in request order
+     */
+    @PostMapping("/checkout:bulk")
+    public ResponseEntity<BulkCheckoutResponseDto> checkout(@RequestBody @Valid BulkCheckoutRequestDto request) {
+        return ResponseEntity.ok(new BulkCheckoutResponseDto(bulkCheckoutService.checkout(request.userIds())));
+    }
+}
@@ -7,8 +7,10 @@ import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
 import fr.shopping.cart.domain.cart.exceptions.OfferNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.ProductNotFoundException;
 import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
-import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.infrastructure.http.idempotency.IdempotentRequests;
+import fr.shopping.cart.infrastructure.metrics.SqlBudget;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -19,16 +21,21 @@ import org.springframework.web.bind.annotation.*;
  * Base URL: {@code /api/v1/users/{userId}/checkout} (configurable via {@code api.prefix.route})
  */
 @RestController
+@Profile("!reactive")
 @RequestMapping("${api.prefix.route}/users/{userId}/checkout")
 @RequiredArgsConstructor
 public class CheckoutController {
 
     private final CheckoutService checkoutService;
     private final CartResponseMapper cartResponseMapper;
+    private final IdempotentRequests idempotentRequests;
 
     /**
      * Performs checkout for the specified user's cart.
+     * With an {@code Idempotency-Key} header, a retry carrying the same key gets the first response back
+     * without a second checkout.
      * @param userId the ID of the user performing checkout
+     * @param idempotencyKey optional client-chosen idempotency key
      * @return a ResponseEntity containing the {@link CartResponseDto} representing the finalized order
      * @throws CartNotFoundException if the user's cart does not exist
      * @throws ProductNotFoundException if a product in the cart does not exist
@@ -36,9 +43,13 @@ public class CheckoutController {
      * @throws InsufficientStockException if any offer does not have sufficient stock
      */
     @PostMapping
-    public ResponseEntity<CartResponseDto> checkout(@PathVariable Long userId) {
-        Cart order = checkoutService.checkout(userId);
-
-        return ResponseEntity.ok(cartResponseMapper.toCartResponse(order));
+    @SqlBudget(statements = 14)
+    public ResponseEntity<CartResponseDto> checkout(
+            @PathVariable Long userId,
+            @RequestHeader(name = IdempotentRequests.HEADER, required = false) String idempotencyKey
+    ) {
+        return idempotentRequests.handle(idempotencyKey, "checkout:" + userId, null, CartResponseDto.class,
+                () -> checkoutService.checkout(userId),
+                order -> ResponseEntity.ok(cartResponseMapper.toCartResponse(order)));
     }
 }
@@ -0,0 +1,31 @@
+package fr.shopping.cart.infrastructure.http.checkout;
+
+import fr.shopping.cart.domain.checkout.services.ReactiveCheckoutService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking edition of {@link CheckoutController} (profile {@code reactive}), served by WebFlux
+ * on the same route and with the same contract.
+ * Base URL: {@code /api/v1/users/{userId}/checkout} (configurable via {@code api.prefix.route})
+ */
+@RestController
+@Profile("reactive")
+@RequestMapping("${api.prefix.route}/users/{userId}/checkout")
+@RequiredArgsConstructor
+public class ReactiveCheckoutController {
+
+    private final ReactiveCheckoutService checkoutService;
+    private final CartResponseMapper cartResponseMapper;
+
+    @PostMapping
+    public Mono<ResponseEntity<CartResponseDto>> checkout(@PathVariable Long userId) {
+        return checkoutService.checkout(userId)
+                .map(order -> ResponseEntity.ok(cartResponseMapper.toCartResponse(order)));
+    }
+}
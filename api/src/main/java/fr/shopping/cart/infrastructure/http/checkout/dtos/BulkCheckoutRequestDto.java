@@ -0,0 +1,11 @@
+package fr.shopping.cart.infrastructure.http.checkout.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record BulkCheckoutRequestDto(
+        @NotEmpty @Size(max = 5000) List<@NotNull Long> userIds
+) { }
@@ -0,0 +1,7 @@
+package fr.shopping.cart.infrastructure.http.checkout.dtos;
+
+import java.util.List;
+
+public record BulkCheckoutResponseDto(
+        List<BulkCheckoutResultDto> results
+) {}
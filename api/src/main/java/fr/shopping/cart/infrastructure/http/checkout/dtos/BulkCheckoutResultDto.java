@@ -0,0 +1,15 @@
+package fr.shopping.cart.infrastructure.http.checkout.dtos;
+
+import java.math.BigDecimal;
+
+/**
+ * Résultat du checkout d'un utilisateur dans un lot. Nombre d'articles et total ne sont renseignés
+ * que pour un panier validé.
+ */
+public record BulkCheckoutResultDto(
+        Long userId,
+        BulkCheckoutStatus status,
+        Integer itemCount,
+        BigDecimal totalPrice,
+        String message
+) {}
@@ -0,0 +1,8 @@
+package fr.shopping.cart.infrastructure.http.checkout.dtos;
+
+public enum BulkCheckoutStatus {
+    CHECKED_OUT,
+    INSUFFICIENT_STOCK,
+    CART_NOT_FOUND,
+    CONFLICT;
+}
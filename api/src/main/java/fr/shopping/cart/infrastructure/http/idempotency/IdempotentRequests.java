@@ -0,0 +1,139 @@
+package fr.shopping.cart.infrastructure.http.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.shopping.cart.domain.idempotency.models.StoredResponse;
+import fr.shopping.cart.domain.idempotency.services.IdempotencyService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Applique l'en-tête {@code Idempotency-Key} à une action de contrôleur : la première requête portant une clé
+ * exécute l'action et sa réponse réussie est conservée ; une retentative portant la même clé et la même requête
+ * reçoit la réponse conservée, marquée {@code Idempotent-Replayed: true}, sans réexécuter l'action.
+ * Les requêtes sans l'en-tête exécutent l'action inchangée.
+ * <p>
+ * Une action avec clé s'exécute dans une transaction ouverte ici, que le service métier rejoint ; la réponse
+ * y est construite et écrite, si bien qu'une requête n'est jamais validée sans sa réponse. Dans cette
+ * transaction, le service panier ne rejoue pas un conflit de version : la requête échoue (409) et libère
+ * sa clé, et la retentative du client portant la même clé l'exécute de nouveau.
+ */
+@Component
+@Profile("!reactive")
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private final IdempotencyService idempotencyService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate requestTransaction;
+
+    public IdempotentRequests(
+            IdempotencyService idempotencyService,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager
+    ) {
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        this.requestTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * @param key      valeur de l'en-tête {@code Idempotency-Key}, {@code null} en son absence
+     * @param scope    opération et utilisateur auxquels la clé s'applique, par exemple {@code checkout:42}
+     * @param request  corps de la requête, compris dans l'empreinte comparée à la réutilisation d'une clé ;
+     *                 {@code null} s'il n'y en a pas
+     * @param bodyType type du corps de la réponse, pour reconstruire une réponse rejouée
+     * @param action   l'appel au service métier
+     * @param respond  construit la réponse à partir du résultat de l'appel, dans la même transaction avec une clé
+     */
+    public <R, T> ResponseEntity<T> handle(
+            String key,
+            String scope,
+            Object request,
+            Class<T> bodyType,
+            Supplier<R> action,
+            Function<R, ResponseEntity<T>> respond
+    ) {
+        if (key == null) {
+            return respond.apply(action.get());
+        }
+
+        final String requestHash = fingerprint(scope, request);
+        final Optional<StoredResponse> stored = idempotencyService.begin(scope, key, requestHash);
+        if (stored.isPresent()) {
+            return replay(stored.get(), bodyType);
+        }
+
+        final ResponseEntity<T> response;
+        try {
+            response = requestTransaction.execute(status -> {
+                final ResponseEntity<T> result = respond.apply(action.get());
+                final StoredResponse toStore = store(result);
+                if (toStore != null) {
+                    idempotencyService.complete(scope, key, requestHash, toStore);
+                }
+                return result;
+            });
+        } catch (RuntimeException ex) {
+            idempotencyService.abandon(scope, key);
+            throw ex;
+        }
+        if (store(response) == null) {
+            idempotencyService.abandon(scope, key);
+        }
+        return response;
+    }
+
+    /**
+     * @return la réponse à conserver, {@code null} si elle n'est pas un succès
+     */
+    private StoredResponse store(ResponseEntity<?> response) {
+        return response.getStatusCode().is2xxSuccessful()
+                ? new StoredResponse(response.getStatusCode().value(), write(response.getBody()))
+                : null;
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> bodyType) {
+        try {
+            final T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), bodyType);
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Stored idempotent response cannot be read", ex);
+        }
+    }
+
+    private String fingerprint(String scope, Object request) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(scope.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            if (request != null) {
+                digest.update(objectMapper.writeValueAsBytes(request));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException ex) {
+            throw new IllegalStateException("Request fingerprint cannot be computed", ex);
+        }
+    }
+
+    private String write(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Idempotent response cannot be stored", ex);
+        }
+    }
+}
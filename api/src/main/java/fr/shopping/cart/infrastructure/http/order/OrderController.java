@@ -0,0 +1,47 @@
+package fr.shopping.cart.infrastructure.http.order;
+
+import fr.shopping.cart.domain.order.exceptions.InvalidOrderCursorException;
+import fr.shopping.cart.domain.order.models.OrderCursor;
+import fr.shopping.cart.domain.order.services.OrderHistoryService;
+import fr.shopping.cart.infrastructure.http.order.dtos.OrderHistoryResponseDto;
+import fr.shopping.cart.infrastructure.http.order.mappers.OrderResponseMapper;
+import fr.shopping.cart.infrastructure.metrics.SqlBudget;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST controller for a user's order history, newest orders first.
+ * Base URL: {@code /api/v1/users/{userId}/orders} (configurable via {@code api.prefix.route})
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("${api.prefix.route}/users/{userId}/orders")
+@RequiredArgsConstructor
+public class OrderController {
+
+    private final OrderHistoryService orderHistoryService;
+    private final OrderResponseMapper orderResponseMapper;
+
+    /**
+     * Returns one page of the user's orders with their lines at the price paid.
+     * Pages are keyset-paginated: each page costs the same whatever its depth in the history.
+     * @param userId the ID of the user
+     * @param cursor the {@code nextCursor} of the previous page, absent for the first page
+     * @param limit the number of orders per page, capped by {@code orders.history.max-page-size}
+     * @return a ResponseEntity containing the {@link OrderHistoryResponseDto}
+     * @throws InvalidOrderCursorException if the cursor was not returned by a previous page
+     */
+    @GetMapping
+    @SqlBudget(statements = 2)
+    public ResponseEntity<OrderHistoryResponseDto> getOrders(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        final OrderCursor before = cursor == null ? null : OrderCursor.decode(cursor);
+        return ResponseEntity.ok(orderResponseMapper.toOrderHistoryResponse(
+                orderHistoryService.findOrders(userId, before, limit)));
+    }
+}
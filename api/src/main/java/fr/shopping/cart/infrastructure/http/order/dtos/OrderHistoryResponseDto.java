@@ -0,0 +1,11 @@
+package fr.shopping.cart.infrastructure.http.order.dtos;
+
+import java.util.List;
+
+/**
+ * @param nextCursor valeur du paramètre {@code cursor} de la page suivante, {@code null} pour la dernière page
+ */
+public record OrderHistoryResponseDto(
+        List<OrderResponseDto> orders,
+        String nextCursor
+) {}
@@ -0,0 +1,11 @@
+package fr.shopping.cart.infrastructure.http.order.dtos;
+
+import java.math.BigDecimal;
+
+public record OrderLineResponseDto(
+        Long productId,
+        Long offerId,
+        int quantity,
+        BigDecimal unitPrice,
+        BigDecimal lineTotal
+) {}
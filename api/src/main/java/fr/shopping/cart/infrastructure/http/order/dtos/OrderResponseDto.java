@@ -0,0 +1,13 @@
+package fr.shopping.cart.infrastructure.http.order.dtos;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public record OrderResponseDto(
+        Long orderId,
+        LocalDateTime createdAt,
+        int itemCount,
+        List<OrderLineResponseDto> lines,
+        BigDecimal totalPrice
+) {}
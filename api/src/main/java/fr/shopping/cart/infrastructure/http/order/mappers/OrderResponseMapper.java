@@ -0,0 +1,8 @@
+package fr.shopping.cart.infrastructure.http.order.mappers;
+
+import fr.shopping.cart.domain.order.models.OrderPage;
+import fr.shopping.cart.infrastructure.http.order.dtos.OrderHistoryResponseDto;
+
+public interface OrderResponseMapper {
+    OrderHistoryResponseDto toOrderHistoryResponse(OrderPage page);
+}
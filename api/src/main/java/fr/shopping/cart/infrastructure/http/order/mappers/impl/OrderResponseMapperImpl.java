@@ -0,0 +1,45 @@
+package fr.shopping.cart.infrastructure.http.order.mappers.impl;
+
+import fr.shopping.cart.domain.order.models.Order;
+import fr.shopping.cart.domain.order.models.OrderLine;
+import fr.shopping.cart.domain.order.models.OrderPage;
+import fr.shopping.cart.infrastructure.http.order.dtos.OrderHistoryResponseDto;
+import fr.shopping.cart.infrastructure.http.order.dtos.OrderLineResponseDto;
+import fr.shopping.cart.infrastructure.http.order.dtos.OrderResponseDto;
+import fr.shopping.cart.infrastructure.http.order.mappers.OrderResponseMapper;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Service
+@Timed("cart.mapper")
+public class OrderResponseMapperImpl implements OrderResponseMapper {
+    @Override
+    public OrderHistoryResponseDto toOrderHistoryResponse(OrderPage page) {
+        final List<OrderResponseDto> orders = page.orders().stream()
+                .map(order -> toOrderResponse(order, page.linesOf(order)))
+                .toList();
+        return new OrderHistoryResponseDto(orders, page.next() == null ? null : page.next().encode());
+    }
+
+    // Prix unitaires et total figés au checkout : rien n'est relu dans le catalogue
+    private static OrderResponseDto toOrderResponse(Order order, List<OrderLine> lines) {
+        return new OrderResponseDto(
+                order.getId(),
+                order.getCreatedAt(),
+                order.getItemCount(),
+                lines.stream()
+                        .map(line -> new OrderLineResponseDto(
+                                line.getProductId(),
+                                line.getOfferId(),
+                                line.getQuantity(),
+                                line.getUnitPrice(),
+                                line.getUnitPrice().multiply(BigDecimal.valueOf(line.getQuantity()))
+                        ))
+                        .toList(),
+                order.getSubtotal()
+        );
+    }
+}
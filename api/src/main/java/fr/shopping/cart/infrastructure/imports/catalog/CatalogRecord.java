@@ -0,0 +1,21 @@
+package fr.shopping.cart.infrastructure.imports.catalog;
+
+import java.util.Map;
+
+/**
+ * Enregistrement brut lu dans un fichier d'import catalogue, avant validation.
+ *
+ * @param lineNumber numéro de la ligne dans le fichier (1 pour la première ligne)
+ * @param fields     valeurs textuelles par nom de champ
+ * @param error      motif si la ligne n'a pas pu être découpée en champs, sinon {@code null}
+ */
+public record CatalogRecord(
+        long lineNumber,
+        Map<String, String> fields,
+        String error
+) {
+
+    static CatalogRecord malformed(long lineNumber, String error) {
+        return new CatalogRecord(lineNumber, Map.of(), error);
+    }
+}
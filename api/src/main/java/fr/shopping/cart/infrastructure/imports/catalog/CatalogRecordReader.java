@@ -0,0 +1,152 @@
+package fr.shopping.cart.infrastructure.imports.catalog;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lecture en flux d'un fichier d'import catalogue, une ligne à la fois : la mémoire utilisée
+ * ne dépend pas de la taille du fichier.
+ * <ul>
+ *     <li>{@code .csv} : première ligne d'en-tête donnant le nom des colonnes, séparateur virgule,
+ *     valeurs éventuellement entre guillemets doubles ({@code ""} pour un guillemet) ;</li>
+ *     <li>{@code .jsonl} : un objet JSON par ligne, mêmes noms de champs que l'en-tête CSV.</li>
+ * </ul>
+ * Les lignes vides sont ignorées. Une ligne illisible est rendue comme enregistrement en erreur,
+ * sans interrompre la lecture.
+ */
+public class CatalogRecordReader implements Closeable {
+
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final BufferedReader reader;
+    private final boolean csv;
+    private List<String> header;
+    private long lineNumber;
+
+    private CatalogRecordReader(BufferedReader reader, boolean csv) {
+        this.reader = reader;
+        this.csv = csv;
+    }
+
+    /**
+     * @throws IllegalArgumentException si l'extension du fichier n'est ni {@code .csv} ni {@code .jsonl}
+     */
+    public static CatalogRecordReader open(Path file) throws IOException {
+        final String name = file.getFileName().toString().toLowerCase();
+        if (!name.endsWith(".csv") && !name.endsWith(".jsonl")) {
+            throw new IllegalArgumentException("Unsupported catalog file format: " + file);
+        }
+        return new CatalogRecordReader(Files.newBufferedReader(file, StandardCharsets.UTF_8), name.endsWith(".csv"));
+    }
+
+    /**
+     * @return l'enregistrement suivant, ou {@code null} en fin de fichier
+     */
+    public CatalogRecord next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank() || (csv && header == null && readHeader(line)));
+
+        return csv ? parseCsv(line) : parseJson(line);
+    }
+
+    private boolean readHeader(String line) {
+        final List<String> columns = splitCsv(line);
+        if (columns == null) {
+            throw new IllegalArgumentException("Invalid CSV header at line " + lineNumber);
+        }
+        header = columns.stream().map(String::trim).toList();
+        return true;
+    }
+
+    private CatalogRecord parseCsv(String line) {
+        final List<String> values = splitCsv(line);
+        if (values == null) {
+            return CatalogRecord.malformed(lineNumber, "unterminated quoted value");
+        }
+        if (values.size() != header.size()) {
+            return CatalogRecord.malformed(lineNumber,
+                    "expected " + header.size() + " columns, found " + values.size());
+        }
+        final Map<String, String> fields = new HashMap<>();
+        for (int i = 0; i < values.size(); i++) {
+            fields.put(header.get(i), values.get(i).trim());
+        }
+        return new CatalogRecord(lineNumber, fields, null);
+    }
+
+    private CatalogRecord parseJson(String line) {
+        final JsonNode node;
+        try {
+            node = JSON.readTree(line);
+        } catch (JsonProcessingException ex) {
+            return CatalogRecord.malformed(lineNumber, "invalid JSON: " + ex.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            return CatalogRecord.malformed(lineNumber, "expected a JSON object");
+        }
+        final Map<String, String> fields = new HashMap<>();
+        node.properties().forEach(entry -> {
+            if (!entry.getValue().isNull()) {
+                fields.put(entry.getKey(), entry.getValue().asText().trim());
+            }
+        });
+        return new CatalogRecord(lineNumber, fields, null);
+    }
+
+    /**
+     * @return les valeurs de la ligne, ou {@code null} si un guillemet n'est pas refermé
+     */
+    static List<String> splitCsv(String line) {
+        final List<String> values = new ArrayList<>();
+        final StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            final char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    value.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            return null;
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+}
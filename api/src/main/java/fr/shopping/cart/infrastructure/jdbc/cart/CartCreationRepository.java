@@ -0,0 +1,60 @@
+package fr.shopping.cart.infrastructure.jdbc.cart;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Création idempotente du panier d'un utilisateur, appuyée sur l'index unique {@code carts(user_id)}.
+ * PostgreSQL utilise {@code INSERT ... ON CONFLICT DO NOTHING} ; H2 utilise {@code MERGE ... WHEN NOT MATCHED}.
+ * Deux premières requêtes concurrentes pour un même utilisateur ne créent donc qu'un seul panier.
+ * L'identifiant est tiré de la séquence {@code carts_seq}, partagée avec les identifiants alloués par Hibernate.
+ */
+@Repository
+@Timed("cart.repository")
+public class CartCreationRepository {
+
+    private static final String POSTGRES_INSERT_IF_ABSENT_SQL = """
+            INSERT INTO carts (id, user_id, item_count, subtotal, version)
+            VALUES (nextval('carts_seq'), ?, 0, 0, 0)
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+
+    private static final String H2_INSERT_IF_ABSENT_SQL = """
+            MERGE INTO carts c
+            USING (VALUES (CAST(? AS BIGINT))) AS s(user_id)
+            ON c.user_id = s.user_id
+            WHEN NOT MATCHED THEN INSERT (id, user_id, item_count, subtotal, version)
+                VALUES (NEXT VALUE FOR carts_seq, s.user_id, 0, 0, 0)
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String insertIfAbsentSql;
+
+    public CartCreationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        this.insertIfAbsentSql = "PostgreSQL".equalsIgnoreCase(product)
+                ? POSTGRES_INSERT_IF_ABSENT_SQL
+                : H2_INSERT_IF_ABSENT_SQL;
+    }
+
+    /**
+     * Crée le panier de l'utilisateur s'il n'existe pas encore.
+     *
+     * @param userId identifiant de l'utilisateur
+     * @return {@code true} si le panier a été créé par cet appel
+     */
+    public boolean insertIfAbsent(Long userId) {
+        try {
+            return jdbcTemplate.update(insertIfAbsentSql, userId) > 0;
+        } catch (DataIntegrityViolationException ex) {
+            // H2 : le MERGE concurrent a perdu la course sur l'index unique, le panier existe
+            return false;
+        }
+    }
+}
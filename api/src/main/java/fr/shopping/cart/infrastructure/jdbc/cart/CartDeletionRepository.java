@@ -0,0 +1,55 @@
+package fr.shopping.cart.infrastructure.jdbc.cart;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Suppression groupée de paniers en deux batchs JDBC (lignes, puis paniers), quel que soit leur nombre.
+ * Chaque panier n'est supprimé que s'il a toujours la version lue : un panier modifié entre-temps
+ * fait échouer l'ensemble, à annuler par la transaction englobante.
+ */
+@Repository
+@Timed("cart.repository")
+@RequiredArgsConstructor
+public class CartDeletionRepository {
+
+    private static final String DELETE_LINES_SQL = "DELETE FROM cart_lines WHERE cart_id = ?";
+    private static final String DELETE_CART_SQL = "DELETE FROM carts WHERE id = ? AND version = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * @throws OptimisticLockingFailureException si un panier a changé de version depuis sa lecture
+     */
+    public void deleteAll(Collection<Cart> carts) {
+        if (carts.isEmpty()) {
+            return;
+        }
+        final List<Cart> ordered = carts.stream()
+                .sorted((a, b) -> Long.compare(a.getId(), b.getId()))
+                .toList();
+
+        jdbcTemplate.batchUpdate(DELETE_LINES_SQL, ordered, ordered.size(),
+                (ps, cart) -> ps.setLong(1, cart.getId()));
+        final int[][] deleted = jdbcTemplate.batchUpdate(DELETE_CART_SQL, ordered, ordered.size(),
+                (ps, cart) -> {
+                    ps.setLong(1, cart.getId());
+                    ps.setLong(2, cart.getVersion());
+                });
+
+        for (int i = 0; i < ordered.size(); i++) {
+            if (deleted[0][i] != 1) {
+                final Cart cart = ordered.get(i);
+                throw new OptimisticLockingFailureException(
+                        "Cart of user " + cart.getUserId() + " was modified since version " + cart.getVersion());
+            }
+        }
+    }
+}
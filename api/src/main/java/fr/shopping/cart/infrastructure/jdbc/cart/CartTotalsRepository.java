@@ -0,0 +1,50 @@
+package fr.shopping.cart.infrastructure.jdbc.cart;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Reporte un changement de prix d'offre sur les paniers qui la contiennent, par UPDATE ensemblistes.
+ * Le sous-total des paniers est corrigé par différence avant la mise à jour du prix des lignes,
+ * et leur version est incrémentée pour invalider toute écriture concurrente basée sur l'ancien total.
+ */
+@Repository
+@Timed("cart.repository")
+@RequiredArgsConstructor
+public class CartTotalsRepository {
+
+    private static final String REPRICE_CARTS_SQL = """
+            UPDATE carts SET
+                subtotal = subtotal + (
+                    SELECT COALESCE(SUM((? - l.unit_price) * l.quantity), 0)
+                    FROM cart_lines l
+                    WHERE l.cart_id = carts.id AND l.offer_id = ?
+                ),
+                version = version + 1
+            WHERE id IN (SELECT cart_id FROM cart_lines WHERE offer_id = ? AND unit_price <> ?)
+            """;
+
+    private static final String REPRICE_LINES_SQL =
+            "UPDATE cart_lines SET unit_price = ? WHERE offer_id = ? AND unit_price <> ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applique le nouveau prix unitaire final d'une offre aux lignes de panier qui ne l'ont pas encore.
+     *
+     * @param offerId   identifiant de l'offre
+     * @param unitPrice nouveau prix unitaire final
+     * @return le nombre de paniers repricés
+     */
+    public int repriceOffer(Long offerId, BigDecimal unitPrice) {
+        final int carts = jdbcTemplate.update(REPRICE_CARTS_SQL, unitPrice, offerId, offerId, unitPrice);
+        if (carts > 0) {
+            jdbcTemplate.update(REPRICE_LINES_SQL, unitPrice, offerId, unitPrice);
+        }
+        return carts;
+    }
+}
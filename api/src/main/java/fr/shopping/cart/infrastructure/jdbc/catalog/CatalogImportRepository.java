@@ -0,0 +1,219 @@
+package fr.shopping.cart.infrastructure.jdbc.catalog;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.catalog.models.CatalogImportRow;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Écriture en masse du catalogue, par références : chaque produit ou offre est inséré s'il est inconnu,
+ * mis à jour sinon, en un batch JDBC par table. PostgreSQL utilise {@code INSERT ... ON CONFLICT DO UPDATE}
+ * (réécrit en INSERT multi-lignes par {@code reWriteBatchedInserts}) ; H2 utilise {@code MERGE}.
+ * <p>
+ * Les identifiants des nouvelles lignes sont réservés par blocs sur les séquences {@code products_seq}
+ * et {@code offers_seq}, selon la même convention que l'optimiseur pooled d'Hibernate : une valeur
+ * de séquence {@code v} couvre les identifiants {@code v - pas + 1} à {@code v}.
+ * Une mise à jour d'offre incrémente sa version, comme une écriture JPA.
+ * <p>
+ * Le {@code stock_qty} importé est le stock total de l'offre. Les unités déjà prélevées par les instances
+ * ({@code stock_escrows}) en sont déduites, puisqu'elles ne figurent plus dans {@code offers.stock_qty} ;
+ * le résultat ne descend jamais sous {@code held_qty}, pour que les réservations des paniers restent
+ * honorables : une baisse plus forte est plafonnée et l'offre n'a plus de stock disponible.
+ */
+@Repository
+@Timed("cart.repository")
+public class CatalogImportRepository {
+
+    private static final String POSTGRES_UPSERT_PRODUCT_SQL = """
+            INSERT INTO products (id, reference, label)
+            VALUES (?, ?, ?)
+            ON CONFLICT (reference) DO UPDATE SET label = EXCLUDED.label
+            WHERE products.label IS DISTINCT FROM EXCLUDED.label
+            """;
+
+    private static final String H2_UPSERT_PRODUCT_SQL = """
+            MERGE INTO products p
+            USING (VALUES (CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS VARCHAR))) AS s(id, reference, label)
+            ON p.reference = s.reference
+            WHEN MATCHED AND p.label <> s.label THEN UPDATE SET label = s.label
+            WHEN NOT MATCHED THEN INSERT (id, reference, label) VALUES (s.id, s.reference, s.label)
+            """;
+
+    private static final String POSTGRES_IMPORTED_STOCK = """
+            GREATEST(offers.held_qty, EXCLUDED.stock_qty
+                - COALESCE((SELECT SUM(e.quantity) FROM stock_escrows e WHERE e.offer_id = offers.id), 0))""";
+
+    private static final String POSTGRES_UPSERT_OFFER_SQL = """
+            INSERT INTO offers (id, reference, product_id, state, price, discount_percent, stock_qty, version)
+            VALUES (?, ?, (SELECT id FROM products WHERE reference = ?), ?, ?, ?, ?, 0)
+            ON CONFLICT (reference) DO UPDATE SET
+                product_id = EXCLUDED.product_id,
+                state = EXCLUDED.state,
+                price = EXCLUDED.price,
+                discount_percent = EXCLUDED.discount_percent,
+                stock_qty = %1$s,
+                version = offers.version + 1
+            WHERE (offers.product_id, offers.state, offers.price, offers.discount_percent, offers.stock_qty)
+                IS DISTINCT FROM (EXCLUDED.product_id, EXCLUDED.state, EXCLUDED.price, EXCLUDED.discount_percent, %1$s)
+            """.formatted(POSTGRES_IMPORTED_STOCK);
+
+    private static final String H2_IMPORTED_STOCK = """
+            GREATEST(o.held_qty, s.stock_qty
+                - COALESCE((SELECT SUM(e.quantity) FROM stock_escrows e WHERE e.offer_id = o.id), 0))""";
+
+    private static final String H2_UPSERT_OFFER_SQL = """
+            MERGE INTO offers o
+            USING (SELECT CAST(? AS BIGINT) AS id, CAST(? AS VARCHAR) AS reference,
+                          (SELECT id FROM products WHERE reference = CAST(? AS VARCHAR)) AS product_id,
+                          CAST(? AS VARCHAR) AS state, CAST(? AS DECIMAL(19, 2)) AS price,
+                          CAST(? AS INTEGER) AS discount_percent, CAST(? AS INTEGER) AS stock_qty) AS s
+            ON o.reference = s.reference
+            WHEN MATCHED AND (o.product_id <> s.product_id OR o.state <> s.state OR o.price <> s.price
+                    OR o.discount_percent <> s.discount_percent OR o.stock_qty <> %1$s) THEN UPDATE SET
+                product_id = s.product_id,
+                state = s.state,
+                price = s.price,
+                discount_percent = s.discount_percent,
+                stock_qty = %1$s,
+                version = o.version + 1
+            WHEN NOT MATCHED THEN INSERT (id, reference, product_id, state, price, discount_percent, stock_qty, version)
+                VALUES (s.id, s.reference, s.product_id, s.state, s.price, s.discount_percent, s.stock_qty, 0)
+            """.formatted(H2_IMPORTED_STOCK);
+
+    private static final String SEQUENCE_INCREMENT_SQL =
+            "SELECT CAST(increment AS BIGINT) FROM information_schema.sequences WHERE UPPER(sequence_name) = UPPER(?)";
+
+    private static final String FIND_OFFER_PRICES_SQL =
+            "SELECT id, reference, price, discount_percent FROM offers WHERE reference IN (:references)";
+
+    private static final String FIND_PRODUCT_LABELS_SQL =
+            "SELECT id, reference, label FROM products WHERE reference IN (:references)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final String upsertProductSql;
+    private final String upsertOfferSql;
+    private final String nextValuesSql;
+    private final Map<String, Long> increments = new ConcurrentHashMap<>();
+
+    /**
+     * Prix final actuel d'une offre existante, pour détecter les changements de prix de l'import.
+     */
+    public record OfferPrice(Long offerId, long finalUnitPriceMinor) {}
+
+    /**
+     * Libellé actuel d'un produit existant, pour détecter les renommages de l'import.
+     */
+    public record ProductLabel(Long productId, String label) {}
+
+    public CatalogImportRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        final boolean postgres = "PostgreSQL".equalsIgnoreCase(product);
+        this.upsertProductSql = postgres ? POSTGRES_UPSERT_PRODUCT_SQL : H2_UPSERT_PRODUCT_SQL;
+        this.upsertOfferSql = postgres ? POSTGRES_UPSERT_OFFER_SQL : H2_UPSERT_OFFER_SQL;
+        this.nextValuesSql = postgres
+                ? "SELECT nextval('%s') FROM generate_series(1, ?)"
+                : "SELECT NEXT VALUE FOR %s FROM SYSTEM_RANGE(1, ?)";
+    }
+
+    /**
+     * @param references références d'offres, au plus quelques milliers
+     * @return le prix final actuel des offres déjà connues, par référence
+     */
+    public Map<String, OfferPrice> findOfferPrices(Collection<String> references) {
+        final Map<String, OfferPrice> prices = new HashMap<>();
+        if (references.isEmpty()) {
+            return prices;
+        }
+        namedParameterJdbcTemplate.query(FIND_OFFER_PRICES_SQL, Map.of("references", references), rs -> {
+            prices.put(rs.getString("reference"), new OfferPrice(
+                    rs.getLong("id"),
+                    Offer.computeFinalUnitPriceMinor(rs.getBigDecimal("price"), rs.getInt("discount_percent"))
+            ));
+        });
+        return prices;
+    }
+
+    /**
+     * @param references références de produits, au plus quelques milliers
+     * @return le libellé actuel des produits déjà connus, par référence
+     */
+    public Map<String, ProductLabel> findProductLabels(Collection<String> references) {
+        final Map<String, ProductLabel> labels = new HashMap<>();
+        if (references.isEmpty()) {
+            return labels;
+        }
+        namedParameterJdbcTemplate.query(FIND_PRODUCT_LABELS_SQL, Map.of("references", references), rs -> {
+            labels.put(rs.getString("reference"), new ProductLabel(rs.getLong("id"), rs.getString("label")));
+        });
+        return labels;
+    }
+
+    /**
+     * Insère ou renomme les produits, un par référence.
+     *
+     * @param products lignes portant des références de produit distinctes
+     */
+    public void upsertProducts(List<CatalogImportRow> products) {
+        final PrimitiveIterator.OfLong ids = allocateIds("products_seq", products.size());
+        jdbcTemplate.batchUpdate(upsertProductSql, products, products.size(), (ps, row) -> {
+            ps.setLong(1, ids.nextLong());
+            ps.setString(2, row.productReference());
+            ps.setString(3, row.productLabel());
+        });
+    }
+
+    /**
+     * Insère ou met à jour les offres ; leurs produits doivent déjà exister.
+     *
+     * @param offers lignes portant des références d'offre distinctes
+     */
+    public void upsertOffers(List<CatalogImportRow> offers) {
+        final PrimitiveIterator.OfLong ids = allocateIds("offers_seq", offers.size());
+        jdbcTemplate.batchUpdate(upsertOfferSql, offers, offers.size(), (ps, row) -> {
+            ps.setLong(1, ids.nextLong());
+            ps.setString(2, row.offerReference());
+            ps.setString(3, row.productReference());
+            ps.setString(4, row.state().name());
+            ps.setBigDecimal(5, row.price());
+            ps.setInt(6, row.discountPercent());
+            ps.setInt(7, row.stockQty());
+        });
+    }
+
+    /**
+     * Réserve {@code count} identifiants, en une requête sauf sur une séquence neuve dont la valeur
+     * initiale ne couvre qu'elle-même. Les identifiants des lignes finalement mises à jour plutôt
+     * qu'insérées sont perdus, comme un bloc Hibernate non épuisé.
+     */
+    private PrimitiveIterator.OfLong allocateIds(String sequence, int count) {
+        final long increment = increments.computeIfAbsent(sequence,
+                name -> jdbcTemplate.queryForObject(SEQUENCE_INCREMENT_SQL, Long.class, name));
+        final long[] ids = new long[count];
+        int allocated = 0;
+        while (allocated < count) {
+            final long blocks = (count - allocated + increment - 1) / increment;
+            for (Long value : jdbcTemplate.queryForList(nextValuesSql.formatted(sequence), Long.class, blocks)) {
+                for (long id = Math.max(1, value - increment + 1); id <= value && allocated < count; id++) {
+                    ids[allocated++] = id;
+                }
+            }
+        }
+        return Arrays.stream(ids).iterator();
+    }
+}
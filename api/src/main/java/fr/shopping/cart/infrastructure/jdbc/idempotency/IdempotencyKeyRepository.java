@@ -0,0 +1,158 @@
+package fr.shopping.cart.infrastructure.jdbc.idempotency;
+
+import fr.shopping.cart.domain.idempotency.models.StoredResponse;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Clés d'idempotence ({@code idempotency_keys}), appuyées sur la clé primaire (scope, clé).
+ * La réservation d'une clé est une seule instruction indexée : PostgreSQL utilise
+ * {@code INSERT ... ON CONFLICT DO UPDATE ... WHERE}, H2 {@code MERGE ... WHEN MATCHED AND ... WHEN NOT MATCHED} ;
+ * une clé expirée mais pas encore purgée, ou restée en cours au-delà du bail, est réservée de nouveau par la
+ * même instruction. Deux requêtes concurrentes portant la même clé ne la réservent donc qu'une fois.
+ * L'échéance {@code expires_at} écrite par la réservation en est le jeton : la réponse n'est écrite et la clé
+ * n'est libérée que si elle n'a pas changé.
+ */
+@Repository
+@Timed("cart.repository")
+public class IdempotencyKeyRepository {
+
+    private static final String POSTGRES_CLAIM_SQL = """
+            INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, response_body, expires_at)
+            VALUES (?, ?, ?, NULL, NULL, ?)
+            ON CONFLICT (scope, idempotency_key) DO UPDATE
+                SET request_hash = EXCLUDED.request_hash, status = NULL, response_body = NULL,
+                    expires_at = EXCLUDED.expires_at
+                WHERE idempotency_keys.expires_at <= ?
+                    OR (idempotency_keys.status IS NULL AND idempotency_keys.expires_at <= ?)
+            """;
+
+    private static final String H2_CLAIM_SQL = """
+            MERGE INTO idempotency_keys k
+            USING (VALUES (CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(64)), CAST(? AS TIMESTAMP)))
+                AS s(scope, idempotency_key, request_hash, expires_at)
+            ON k.scope = s.scope AND k.idempotency_key = s.idempotency_key
+            WHEN MATCHED AND (k.expires_at <= ? OR (k.status IS NULL AND k.expires_at <= ?)) THEN UPDATE
+                SET request_hash = s.request_hash, status = NULL, response_body = NULL, expires_at = s.expires_at
+            WHEN NOT MATCHED THEN INSERT (scope, idempotency_key, request_hash, status, response_body, expires_at)
+                VALUES (s.scope, s.idempotency_key, s.request_hash, NULL, NULL, s.expires_at)
+            """;
+
+    private static final String FIND_SQL = """
+            SELECT request_hash, status, response_body FROM idempotency_keys
+            WHERE scope = ? AND idempotency_key = ? AND expires_at > ?
+            """;
+
+    private static final String COMPLETE_SQL = """
+            UPDATE idempotency_keys SET status = ?, response_body = ?
+            WHERE scope = ? AND idempotency_key = ? AND status IS NULL AND expires_at = ?
+            """;
+
+    private static final String RELEASE_SQL = """
+            DELETE FROM idempotency_keys
+            WHERE scope = ? AND idempotency_key = ? AND status IS NULL AND expires_at = ?
+            """;
+
+    private static final String FIND_EXPIRED_SQL = """
+            SELECT scope, idempotency_key FROM idempotency_keys
+            WHERE expires_at <= ?
+            ORDER BY expires_at
+            FETCH FIRST ? ROWS ONLY
+            """;
+
+    private static final String DELETE_EXPIRED_SQL =
+            "DELETE FROM idempotency_keys WHERE scope = ? AND idempotency_key = ? AND expires_at <= ?";
+
+    /**
+     * Clé enregistrée et non expirée.
+     *
+     * @param response réponse conservée, vide tant que la requête est en cours
+     */
+    public record Entry(String requestHash, Optional<StoredResponse> response) {}
+
+    private record ExpiredKey(String scope, String idempotencyKey) {}
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String claimSql;
+
+    public IdempotencyKeyRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        this.claimSql = "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_CLAIM_SQL : H2_CLAIM_SQL;
+    }
+
+    /**
+     * Réserve la clé pour une requête en cours, si elle est libre, expirée, ou en cours avec une échéance
+     * antérieure à {@code leaseExpiredBefore} (réservée depuis plus que le bail).
+     *
+     * @return {@code true} si la clé a été réservée par cet appel
+     */
+    public boolean claim(String scope, String key, String requestHash, LocalDateTime expiresAt, LocalDateTime now,
+                         LocalDateTime leaseExpiredBefore) {
+        try {
+            return jdbcTemplate.update(claimSql, scope, key, requestHash, Timestamp.valueOf(expiresAt),
+                    Timestamp.valueOf(now), Timestamp.valueOf(leaseExpiredBefore)) > 0;
+        } catch (DataIntegrityViolationException ex) {
+            // H2 : le MERGE concurrent a perdu la course sur la clé primaire, la clé est réservée
+            return false;
+        }
+    }
+
+    public Optional<Entry> find(String scope, String key, LocalDateTime now) {
+        return jdbcTemplate.query(FIND_SQL, (rs, i) -> {
+            final int status = rs.getInt("status");
+            final Optional<StoredResponse> response = rs.wasNull()
+                    ? Optional.empty()
+                    : Optional.of(new StoredResponse(status, rs.getString("response_body")));
+            return new Entry(rs.getString("request_hash"), response);
+        }, scope, key, Timestamp.valueOf(now)).stream().findFirst();
+    }
+
+    /**
+     * Écrit la réponse de la réservation d'échéance {@code claimedUntil}.
+     *
+     * @return {@code false} si la clé a été réservée de nouveau entre-temps
+     */
+    public boolean complete(String scope, String key, StoredResponse response, LocalDateTime claimedUntil) {
+        return jdbcTemplate.update(COMPLETE_SQL, response.status(), response.body(), scope, key,
+                Timestamp.valueOf(claimedUntil)) > 0;
+    }
+
+    /**
+     * Libère une clé dont la requête a échoué, pour qu'une retentative puisse l'exécuter, si elle est
+     * toujours réservée par la réservation d'échéance {@code claimedUntil}.
+     */
+    public void release(String scope, String key, LocalDateTime claimedUntil) {
+        jdbcTemplate.update(RELEASE_SQL, scope, key, Timestamp.valueOf(claimedUntil));
+    }
+
+    /**
+     * Supprime au plus {@code limit} clés expirées, les plus anciennes d'abord, en un batch.
+     *
+     * @return le nombre de clés lues pour suppression
+     */
+    public int deleteExpired(LocalDateTime now, int limit) {
+        final List<ExpiredKey> expired = jdbcTemplate.query(FIND_EXPIRED_SQL,
+                (rs, i) -> new ExpiredKey(rs.getString("scope"), rs.getString("idempotency_key")),
+                Timestamp.valueOf(now), limit);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        jdbcTemplate.batchUpdate(DELETE_EXPIRED_SQL, expired, expired.size(), (ps, key) -> {
+            ps.setString(1, key.scope());
+            ps.setString(2, key.idempotencyKey());
+            ps.setTimestamp(3, Timestamp.valueOf(now));
+        });
+        return expired.size();
+    }
+}
@@ -0,0 +1,76 @@
+package fr.shopping.cart.infrastructure.jdbc.order;
+
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Outbox des événements de commande ({@code order_events}) : ajout en un batch dans la transaction du
+ * checkout, puis lecture et suppression par lots par le relais de publication. Sous PostgreSQL, un relais
+ * ignore les événements verrouillés par un autre ({@code SKIP LOCKED}) : plusieurs instances publient
+ * en parallèle des lots disjoints.
+ */
+@Repository
+@Timed("cart.repository")
+public class OrderEventRepository {
+
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO order_events (id, order_id, event_type, payload, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            """;
+
+    private static final String LOCK_PENDING_SQL = """
+            SELECT id, order_id, event_type, payload, created_at FROM order_events
+            ORDER BY created_at
+            FETCH FIRST ? ROWS ONLY
+            FOR UPDATE""";
+
+    private static final String DELETE_EVENT_SQL = "DELETE FROM order_events WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String lockPendingSql;
+
+    public OrderEventRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        this.lockPendingSql = "PostgreSQL".equalsIgnoreCase(product) ? LOCK_PENDING_SQL + " SKIP LOCKED" : LOCK_PENDING_SQL;
+    }
+
+    public void append(List<OrderEvent> events) {
+        jdbcTemplate.batchUpdate(INSERT_EVENT_SQL, events, events.size(), (ps, event) -> {
+            ps.setString(1, event.getId());
+            ps.setLong(2, event.getOrderId());
+            ps.setString(3, event.getType());
+            ps.setString(4, event.getPayload());
+            ps.setTimestamp(5, Timestamp.valueOf(event.getCreatedAt()));
+        });
+    }
+
+    /**
+     * @return au plus {@code limit} événements en attente, les plus anciens d'abord, verrouillés jusqu'à
+     *         la fin de la transaction
+     */
+    public List<OrderEvent> lockPending(int limit) {
+        return jdbcTemplate.query(lockPendingSql, (rs, i) -> new OrderEvent(
+                rs.getString("id"),
+                rs.getLong("order_id"),
+                rs.getString("event_type"),
+                rs.getString("payload"),
+                rs.getTimestamp("created_at").toLocalDateTime()
+        ), limit);
+    }
+
+    /**
+     * Supprime les événements publiés, en un batch.
+     */
+    public void delete(List<OrderEvent> events) {
+        jdbcTemplate.batchUpdate(DELETE_EVENT_SQL, events, events.size(), (ps, event) -> ps.setString(1, event.getId()));
+    }
+}
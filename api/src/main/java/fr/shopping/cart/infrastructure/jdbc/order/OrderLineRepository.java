@@ -0,0 +1,73 @@
+package fr.shopping.cart.infrastructure.jdbc.order;
+
+import fr.shopping.cart.domain.order.models.OrderLine;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lignes des commandes ({@code order_lines}) : ajout en un batch dans la transaction du checkout, lecture
+ * groupée pour une page d'historique. La lecture borne {@code created_at} aux dates des commandes de la
+ * page : sous PostgreSQL, seules les partitions de ces mois sont parcourues.
+ */
+@Repository
+@Timed("cart.repository")
+public class OrderLineRepository {
+
+    private static final String INSERT_LINE_SQL = """
+            INSERT INTO order_lines (order_id, line_no, created_at, product_id, offer_id, quantity, unit_price)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    private static final String FIND_LINES_SQL = """
+            SELECT order_id, line_no, created_at, product_id, offer_id, quantity, unit_price FROM order_lines
+            WHERE order_id IN (:orderIds) AND created_at BETWEEN :oldest AND :newest
+            ORDER BY order_id, line_no
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public OrderLineRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    public void append(List<OrderLine> lines) {
+        jdbcTemplate.batchUpdate(INSERT_LINE_SQL, lines, lines.size(), (ps, line) -> {
+            ps.setLong(1, line.getOrderId());
+            ps.setInt(2, line.getLineNo());
+            ps.setTimestamp(3, Timestamp.valueOf(line.getCreatedAt()));
+            ps.setLong(4, line.getProductId());
+            ps.setLong(5, line.getOfferId());
+            ps.setInt(6, line.getQuantity());
+            ps.setBigDecimal(7, line.getUnitPrice());
+        });
+    }
+
+    /**
+     * @param oldest date de la plus ancienne des commandes
+     * @param newest date de la plus récente des commandes
+     * @return les lignes des commandes, triées par commande puis par rang
+     */
+    public List<OrderLine> findByOrderIds(Collection<Long> orderIds, LocalDateTime oldest, LocalDateTime newest) {
+        return namedParameterJdbcTemplate.query(FIND_LINES_SQL,
+                Map.of("orderIds", orderIds, "oldest", oldest, "newest", newest),
+                (rs, i) -> new OrderLine(
+                        rs.getLong("order_id"),
+                        rs.getInt("line_no"),
+                        rs.getTimestamp("created_at").toLocalDateTime(),
+                        rs.getLong("product_id"),
+                        rs.getLong("offer_id"),
+                        rs.getInt("quantity"),
+                        rs.getBigDecimal("unit_price")
+                ));
+    }
+}
@@ -0,0 +1,52 @@
+package fr.shopping.cart.infrastructure.jdbc.order;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.time.YearMonth;
+
+/**
+ * Partitions mensuelles de {@code orders} et {@code order_lines} sous PostgreSQL, nommées
+ * {@code orders_AAAA_MM} et {@code order_lines_AAAA_MM} comme celles créées par la migration.
+ * Les autres bases n'ont pas de partitions : aucune requête n'y est exécutée.
+ */
+@Repository
+public class OrderPartitionRepository {
+
+    private static final String CREATE_PARTITION_SQL =
+            "CREATE TABLE IF NOT EXISTS %s_%d_%02d PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean partitioned;
+
+    public OrderPartitionRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        this.partitioned = "PostgreSQL".equalsIgnoreCase(product);
+    }
+
+    public boolean isPartitioned() {
+        return partitioned;
+    }
+
+    /**
+     * Crée les partitions manquantes des mois {@code from} à {@code to} inclus, commandes puis lignes.
+     */
+    public void createMonthlyPartitions(YearMonth from, YearMonth to) {
+        if (!partitioned) {
+            return;
+        }
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            jdbcTemplate.execute(createPartitionSql("orders", month));
+            jdbcTemplate.execute(createPartitionSql("order_lines", month));
+        }
+    }
+
+    private static String createPartitionSql(String table, YearMonth month) {
+        return CREATE_PARTITION_SQL.formatted(table, month.getYear(), month.getMonthValue(), table,
+                month.atDay(1), month.plusMonths(1).atDay(1));
+    }
+}
@@ -0,0 +1,182 @@
+package fr.shopping.cart.infrastructure.jdbc.stock;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Stock des offres chaudes prélevé par les instances ({@code stock_escrows}) sur {@code offers.stock_qty}.
+ * Le stock d'une offre est la somme de {@code stock_qty} et des quantités prélevées non vendues : un
+ * prélèvement décrémente l'un et incrémente l'autre dans la même transaction, la réconciliation retire les
+ * ventes du prélèvement, et la restitution rend le reste à l'offre.
+ * <p>
+ * Le prélèvement d'une instance sur une offre n'est modifié que par cette instance ; seule la ligne
+ * {@code offers} est disputée, verrouillée le temps d'une transaction courte par prélèvement.
+ */
+@Repository
+@Timed("cart.repository")
+public class StockEscrowRepository {
+
+    private static final String FIND_OFFER_IDS_SQL = "SELECT id FROM offers WHERE reference IN (:references)";
+
+    private static final String LOCK_AVAILABLE_SQL = "SELECT stock_qty - held_qty FROM offers WHERE id = ? FOR UPDATE";
+
+    private static final String TAKE_STOCK_SQL =
+            "UPDATE offers SET stock_qty = stock_qty - ?, version = version + 1 WHERE id = ?";
+
+    private static final String ADD_ESCROW_SQL =
+            "UPDATE stock_escrows SET quantity = quantity + ? WHERE instance_id = ? AND offer_id = ?";
+
+    private static final String INSERT_ESCROW_SQL =
+            "INSERT INTO stock_escrows (instance_id, offer_id, quantity, journal_segment) VALUES (?, ?, ?, 0)";
+
+    private static final String SETTLE_ESCROW_SQL = """
+            UPDATE stock_escrows SET quantity = quantity - ?, journal_segment = ?
+            WHERE instance_id = ? AND offer_id = ?
+            """;
+
+    private static final String FIND_ESCROWS_SQL =
+            "SELECT offer_id, quantity, journal_segment FROM stock_escrows WHERE instance_id = ?";
+
+    private static final String RETURN_STOCK_SQL =
+            "UPDATE offers SET stock_qty = stock_qty + ?, version = version + 1 WHERE id = ?";
+
+    private static final String DELETE_ESCROWS_SQL = "DELETE FROM stock_escrows WHERE instance_id = ?";
+
+    private static final String FIND_AVAILABLE_SQL = "SELECT id, stock_qty - held_qty AS available FROM offers WHERE id IN (:offerIds)";
+
+    private static final String SUM_PEER_ESCROWS_SQL =
+            "SELECT COALESCE(SUM(quantity), 0) FROM stock_escrows WHERE offer_id = ? AND instance_id <> ?";
+
+    private static final String REDUCE_ESCROW_SQL =
+            "UPDATE stock_escrows SET quantity = quantity - ? WHERE instance_id = ? AND offer_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    /**
+     * Prélèvement d'une instance sur une offre.
+     *
+     * @param journalSegment dernier segment du journal local de l'instance déjà réconcilié pour l'offre
+     */
+    public record Escrow(Long offerId, int quantity, long journalSegment) {}
+
+    public StockEscrowRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * @return les identifiants des offres portant l'une des références données
+     */
+    public List<Long> findOfferIds(Collection<String> references) {
+        return namedParameterJdbcTemplate.queryForList(FIND_OFFER_IDS_SQL, Map.of("references", references), Long.class);
+    }
+
+    /**
+     * Prélève jusqu'à {@code max} unités du stock disponible de l'offre (hors réservations temporaires)
+     * pour l'instance.
+     *
+     * @return les unités prélevées, 0 si l'offre n'a plus de stock disponible
+     */
+    public int claim(String instanceId, Long offerId, int max) {
+        final List<Integer> available = jdbcTemplate.queryForList(LOCK_AVAILABLE_SQL, Integer.class, offerId);
+        final int claimed = available.isEmpty() ? 0 : Math.min(max, available.getFirst());
+        if (claimed <= 0) {
+            return 0;
+        }
+        jdbcTemplate.update(TAKE_STOCK_SQL, claimed, offerId);
+        if (jdbcTemplate.update(ADD_ESCROW_SQL, claimed, instanceId, offerId) == 0) {
+            jdbcTemplate.update(INSERT_ESCROW_SQL, instanceId, offerId, claimed);
+        }
+        return claimed;
+    }
+
+    /**
+     * Retire du prélèvement de l'instance les unités vendues, en un batch.
+     *
+     * @param sold           ventes nettes par offre depuis la réconciliation précédente
+     * @param journalSegment dernier segment du journal local couvert par ces ventes
+     */
+    public void settle(String instanceId, Map<Long, Long> sold, long journalSegment) {
+        final List<Map.Entry<Long, Long>> ordered = List.copyOf(new TreeMap<>(sold).entrySet());
+        jdbcTemplate.batchUpdate(SETTLE_ESCROW_SQL, ordered, ordered.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, journalSegment);
+            ps.setString(3, instanceId);
+            ps.setLong(4, entry.getKey());
+        });
+    }
+
+    /**
+     * @return le stock disponible en base (hors prélèvements et réservations temporaires) par offre
+     */
+    public Map<Long, Integer> findAvailableStock(Collection<Long> offerIds) {
+        final Map<Long, Integer> available = new HashMap<>();
+        if (offerIds.isEmpty()) {
+            return available;
+        }
+        namedParameterJdbcTemplate.query(FIND_AVAILABLE_SQL, Map.of("offerIds", offerIds), rs -> {
+            available.put(rs.getLong("id"), rs.getInt("available"));
+        });
+        return available;
+    }
+
+    /**
+     * @return les unités de l'offre prélevées par les autres instances, ventes non réconciliées comprises
+     */
+    public long sumPeerEscrows(String instanceId, Long offerId) {
+        return jdbcTemplate.queryForObject(SUM_PEER_ESCROWS_SQL, Long.class, offerId, instanceId);
+    }
+
+    /**
+     * Rend aux offres des unités non vendues du prélèvement de l'instance, qui reste en place pour les ventes
+     * non encore réconciliées. Les offres sont verrouillées dans l'ordre des identifiants, comme au prélèvement.
+     *
+     * @param unsold unités rendues par offre
+     */
+    public void giveBack(String instanceId, Map<Long, Long> unsold) {
+        final List<Map.Entry<Long, Long>> ordered = new TreeMap<>(unsold).entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        jdbcTemplate.batchUpdate(RETURN_STOCK_SQL, ordered, ordered.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+        jdbcTemplate.batchUpdate(REDUCE_ESCROW_SQL, ordered, ordered.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setString(2, instanceId);
+            ps.setLong(3, entry.getKey());
+        });
+    }
+
+    public List<Escrow> findEscrows(String instanceId) {
+        return jdbcTemplate.query(FIND_ESCROWS_SQL, (rs, i) ->
+                new Escrow(rs.getLong("offer_id"), rs.getInt("quantity"), rs.getLong("journal_segment")),
+                instanceId);
+    }
+
+    /**
+     * Rend aux offres les unités non vendues, en un batch trié par offerId, puis supprime tous les
+     * prélèvements de l'instance.
+     *
+     * @param unsold unités non vendues par offre
+     */
+    public void release(String instanceId, Map<Long, Long> unsold) {
+        final List<Map.Entry<Long, Long>> ordered = new TreeMap<>(unsold).entrySet().stream()
+                .filter(entry -> entry.getValue() > 0)
+                .toList();
+        jdbcTemplate.batchUpdate(RETURN_STOCK_SQL, ordered, ordered.size(), (ps, entry) -> {
+            ps.setLong(1, entry.getValue());
+            ps.setLong(2, entry.getKey());
+        });
+        jdbcTemplate.update(DELETE_ESCROWS_SQL, instanceId);
+    }
+}
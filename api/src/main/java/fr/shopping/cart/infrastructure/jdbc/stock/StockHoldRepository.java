@@ -0,0 +1,183 @@
+package fr.shopping.cart.infrastructure.jdbc.stock;
+
+import io.micrometer.core.annotation.Timed;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Réservations temporaires de stock ({@code stock_holds}) et leur agrégat par offre ({@code offers.held_qty}),
+ * toujours modifiés ensemble dans la transaction appelante, chaque opération en une requête ou un batch JDBC.
+ * <p>
+ * Les réservations sont verrouillées ({@code FOR UPDATE}) avant toute modification de l'agrégat, et les
+ * offres sont modifiées triées par identifiant : ajout au panier, checkout et expiration prennent leurs
+ * verrous dans le même ordre. Sous PostgreSQL, l'expiration ignore les réservations verrouillées par
+ * une transaction en cours ({@code SKIP LOCKED}) ; elles seront reprises au balayage suivant.
+ */
+@Repository
+@Timed("cart.repository")
+public class StockHoldRepository {
+
+    private static final String LOCK_USER_HOLDS_SQL = """
+            SELECT offer_id, quantity FROM stock_holds
+            WHERE user_id = :userId AND offer_id IN (:offerIds)
+            FOR UPDATE
+            """;
+
+    private static final String LOCK_HOLDS_SQL =
+            "SELECT user_id, offer_id, quantity FROM stock_holds WHERE user_id IN (:userIds) FOR UPDATE";
+
+    private static final String ADJUST_HELD_SQL = """
+            UPDATE offers SET held_qty = held_qty + ?
+            WHERE id = ? AND (? <= 0 OR stock_qty - held_qty >= ?)
+            """;
+
+    private static final String POSTGRES_UPSERT_HOLD_SQL = """
+            INSERT INTO stock_holds (user_id, offer_id, quantity, expires_at)
+            VALUES (?, ?, ?, ?)
+            ON CONFLICT (user_id, offer_id) DO UPDATE SET quantity = EXCLUDED.quantity, expires_at = EXCLUDED.expires_at
+            """;
+
+    private static final String H2_UPSERT_HOLD_SQL =
+            "MERGE INTO stock_holds (user_id, offer_id, quantity, expires_at) KEY (user_id, offer_id) VALUES (?, ?, ?, ?)";
+
+    private static final String DELETE_USER_HOLDS_SQL =
+            "DELETE FROM stock_holds WHERE user_id = :userId AND offer_id IN (:offerIds)";
+
+    private static final String DELETE_HOLD_SQL = "DELETE FROM stock_holds WHERE user_id = ? AND offer_id = ?";
+
+    private static final String LOCK_EXPIRED_SQL = """
+            SELECT user_id, offer_id, quantity FROM stock_holds
+            WHERE expires_at <= ?
+            ORDER BY expires_at
+            FETCH FIRST ? ROWS ONLY
+            FOR UPDATE""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final String upsertHoldSql;
+    private final String lockExpiredSql;
+
+    /**
+     * Réservation d'un utilisateur sur une offre.
+     */
+    public record Hold(Long userId, Long offerId, int quantity) {}
+
+    public StockHoldRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        final String product = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+        );
+        final boolean postgres = "PostgreSQL".equalsIgnoreCase(product);
+        this.upsertHoldSql = postgres ? POSTGRES_UPSERT_HOLD_SQL : H2_UPSERT_HOLD_SQL;
+        this.lockExpiredSql = postgres ? LOCK_EXPIRED_SQL + " SKIP LOCKED" : LOCK_EXPIRED_SQL;
+    }
+
+    /**
+     * @return les quantités réservées par l'utilisateur sur les offres données, par offre,
+     *         verrouillées jusqu'à la fin de la transaction
+     */
+    public Map<Long, Integer> lockHolds(Long userId, Collection<Long> offerIds) {
+        final Map<Long, Integer> holds = new HashMap<>();
+        namedParameterJdbcTemplate.query(LOCK_USER_HOLDS_SQL, Map.of("userId", userId, "offerIds", offerIds),
+                rs -> {
+                    holds.put(rs.getLong("offer_id"), rs.getInt("quantity"));
+                });
+        return holds;
+    }
+
+    /**
+     * @return toutes les réservations des utilisateurs donnés, verrouillées jusqu'à la fin de la transaction
+     */
+    public List<Hold> lockHolds(Collection<Long> userIds) {
+        return namedParameterJdbcTemplate.query(LOCK_HOLDS_SQL, Map.of("userIds", userIds), (rs, i) ->
+                new Hold(rs.getLong("user_id"), rs.getLong("offer_id"), rs.getInt("quantity")));
+    }
+
+    /**
+     * Ajuste {@code held_qty} des offres, en un batch trié par offerId. Une hausse n'est appliquée que si le
+     * stock disponible la couvre ; une baisse l'est toujours.
+     *
+     * @param deltas variation de la quantité réservée, par offre
+     * @return les offres dont la hausse n'a pas été appliquée faute de stock disponible
+     */
+    public List<Long> adjustHeld(Map<Long, Integer> deltas) {
+        final List<Map.Entry<Long, Integer>> ordered = List.copyOf(new TreeMap<>(deltas).entrySet());
+        final int[][] updated = jdbcTemplate.batchUpdate(ADJUST_HELD_SQL, ordered, ordered.size(), (ps, delta) -> {
+            ps.setInt(1, delta.getValue());
+            ps.setLong(2, delta.getKey());
+            ps.setInt(3, delta.getValue());
+            ps.setInt(4, delta.getValue());
+        });
+        final int[] counts = updated.length == 0 ? new int[0] : updated[0];
+        return IntStream.range(0, ordered.size())
+                .filter(i -> counts[i] == 0)
+                .mapToObj(i -> ordered.get(i).getKey())
+                .toList();
+    }
+
+    /**
+     * Crée ou remplace les réservations de l'utilisateur, en un batch. L'agrégat {@code held_qty}
+     * doit avoir été ajusté de la différence par l'appelant.
+     *
+     * @param quantities quantité réservée, par offre
+     */
+    public void saveHolds(Long userId, Map<Long, Integer> quantities, LocalDateTime expiresAt) {
+        final List<Map.Entry<Long, Integer>> holds = List.copyOf(quantities.entrySet());
+        final Timestamp expiry = Timestamp.valueOf(expiresAt);
+        jdbcTemplate.batchUpdate(upsertHoldSql, holds, holds.size(), (ps, hold) -> {
+            ps.setLong(1, userId);
+            ps.setLong(2, hold.getKey());
+            ps.setInt(3, hold.getValue());
+            ps.setTimestamp(4, expiry);
+        });
+    }
+
+    /**
+     * Supprime des réservations de l'utilisateur, sans toucher à l'agrégat.
+     */
+    public void deleteHolds(Long userId, Collection<Long> offerIds) {
+        namedParameterJdbcTemplate.update(DELETE_USER_HOLDS_SQL, Map.of("userId", userId, "offerIds", offerIds));
+    }
+
+    /**
+     * Supprime les réservations données, en un batch, sans toucher à l'agrégat.
+     */
+    public void deleteHolds(List<Hold> holds) {
+        jdbcTemplate.batchUpdate(DELETE_HOLD_SQL, holds, holds.size(), (ps, hold) -> {
+            ps.setLong(1, hold.userId());
+            ps.setLong(2, hold.offerId());
+        });
+    }
+
+    /**
+     * Expire au plus {@code limit} réservations échues, les plus anciennes d'abord : elles sont verrouillées,
+     * retirées de l'agrégat de leur offre puis supprimées, en trois requêtes quel que soit leur nombre.
+     *
+     * @return le nombre de réservations expirées
+     */
+    public int expireHolds(LocalDateTime now, int limit) {
+        final List<Hold> expired = jdbcTemplate.query(lockExpiredSql, (rs, i) ->
+                new Hold(rs.getLong("user_id"), rs.getLong("offer_id"), rs.getInt("quantity")),
+                Timestamp.valueOf(now), limit);
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        final Map<Long, Integer> released = new HashMap<>();
+        expired.forEach(hold -> released.merge(hold.offerId(), -hold.quantity(), Integer::sum));
+        adjustHeld(released);
+        deleteHolds(expired);
+        return expired.size();
+    }
+}
@@ -0,0 +1,56 @@
+package fr.shopping.cart.infrastructure.jdbc.stock;
+
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * Décrémente le stock des offres via des UPDATE conditionnels envoyés en un seul batch JDBC.
+ * Chaque ligne n'est modifiée que si le stock disponible (hors réservations temporaires) couvre la
+ * quantité non réservée par l'acheteur : le contrôle et la décrémentation sont atomiques côté base,
+ * sans verrou applicatif. La réservation de l'acheteur est retirée de {@code held_qty} dans le même UPDATE.
+ * La version de l'offre est incrémentée pour qu'une écriture JPA concurrente basée sur l'ancien stock soit rejetée.
+ */
+@Repository
+@Timed("cart.repository")
+@RequiredArgsConstructor
+public class StockReservationRepository {
+
+    private static final String DECREMENT_STOCK_SQL = """
+            UPDATE offers SET stock_qty = stock_qty - ?, held_qty = held_qty - ?, version = version + 1
+            WHERE id = ? AND stock_qty - held_qty >= ?
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Applique toutes les décrémentations en un aller-retour.
+     *
+     * @param reservations réservations à appliquer, dans l'ordre d'exécution souhaité
+     * @return pour chaque réservation, le nombre de lignes modifiées (0 si le stock est insuffisant)
+     */
+    public int[] decrementStock(List<StockReservation> reservations) {
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                final StockReservation reservation = reservations.get(i);
+                ps.setInt(1, reservation.quantity());
+                ps.setInt(2, reservation.heldQuantity());
+                ps.setLong(3, reservation.offerId());
+                ps.setInt(4, reservation.unheldQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return reservations.size();
+            }
+        });
+    }
+}
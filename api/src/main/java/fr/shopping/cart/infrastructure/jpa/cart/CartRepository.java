@@ -1,12 +1,68 @@
 package fr.shopping.cart.infrastructure.jpa.cart;
 
 import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
+/**
+ * Accès aux paniers. Chaque cas d'usage dispose de son plan de chargement afin de récupérer
+ * le panier et les associations dont il a besoin en une seule requête SQL.
+ */
 @Repository
 public interface CartRepository extends JpaRepository<Cart, Long> {
     Optional<Cart> findByUserId(Long userId);
+
+    /**
+     * Lecture pour affichage : lignes et offres (prix, remise, état) chargées par jointure.
+     */
+    @EntityGraph(Cart.GRAPH_LINES_WITH_OFFERS)
+    @Query("select c from Cart c where c.userId = :userId")
+    Optional<Cart> findForDisplayByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lecture avant modification d'une ligne : seules les lignes sont nécessaires,
+     * produit et offre étant identifiés par leur clé sans être initialisés.
+     */
+    @EntityGraph(Cart.GRAPH_LINES)
+    @Query("select c from Cart c where c.userId = :userId")
+    Optional<Cart> findForUpdateByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lecture groupée avant modification, pour écrire un lot de paniers en une requête.
+     */
+    @EntityGraph(Cart.GRAPH_LINES)
+    @Query("select c from Cart c where c.userId in :userIds")
+    List<Cart> findForUpdateByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Lecture pour le checkout : lignes et offres, le panier validé étant renvoyé au client.
+     */
+    @EntityGraph(Cart.GRAPH_LINES_WITH_OFFERS)
+    @Query("select c from Cart c where c.userId = :userId")
+    Optional<Cart> findForCheckoutByUserId(@Param("userId") Long userId);
+
+    /**
+     * Lecture groupée pour un checkout par lot, en une requête.
+     */
+    @EntityGraph(Cart.GRAPH_LINES_WITH_OFFERS)
+    @Query("select c from Cart c where c.userId in :userIds")
+    List<Cart> findForCheckoutByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Résumé du panier (nombre d'articles et total) en une ligne SQL, sans hydratation d'entité.
+     */
+    @Query("""
+            select new fr.shopping.cart.domain.cart.models.CartSummary(c.userId, c.itemCount, c.subtotal)
+            from Cart c
+            where c.userId = :userId
+            """)
+    Optional<CartSummary> findSummaryByUserId(@Param("userId") Long userId);
 }
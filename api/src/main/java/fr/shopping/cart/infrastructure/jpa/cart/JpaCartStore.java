@@ -0,0 +1,74 @@
+package fr.shopping.cart.infrastructure.jpa.cart;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.infrastructure.jdbc.cart.CartCreationRepository;
+import fr.shopping.cart.infrastructure.jdbc.cart.CartDeletionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Stockage relationnel des paniers (implémentation par défaut) : chaque lecture utilise le plan
+ * de chargement de {@link CartRepository} adapté au cas d'usage, la version JPA du panier
+ * protégeant les écritures concurrentes.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaCartStore implements CartStore {
+
+    private final CartRepository cartRepository;
+    private final CartCreationRepository cartCreationRepository;
+    private final CartDeletionRepository cartDeletionRepository;
+
+    @Override
+    public Optional<Cart> findForDisplay(Long userId) {
+        return cartRepository.findForDisplayByUserId(userId);
+    }
+
+    @Override
+    public Optional<Cart> findForUpdate(Long userId) {
+        return cartRepository.findForUpdateByUserId(userId);
+    }
+
+    @Override
+    public Optional<Cart> findForCheckout(Long userId) {
+        return cartRepository.findForCheckoutByUserId(userId);
+    }
+
+    @Override
+    public List<Cart> findAllForCheckout(Collection<Long> userIds) {
+        return cartRepository.findForCheckoutByUserIdIn(userIds);
+    }
+
+    @Override
+    public Optional<CartSummary> findSummary(Long userId) {
+        return cartRepository.findSummaryByUserId(userId);
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        cartCreationRepository.insertIfAbsent(userId);
+    }
+
+    @Override
+    public void save(Cart cart) {
+        cartRepository.save(cart);
+    }
+
+    @Override
+    public void delete(Cart cart) {
+        cartRepository.delete(cart);
+    }
+
+    @Override
+    public void deleteAll(Collection<Cart> carts) {
+        cartDeletionRepository.deleteAll(carts);
+    }
+}
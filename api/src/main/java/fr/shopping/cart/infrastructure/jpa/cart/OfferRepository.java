@@ -0,0 +1,60 @@
+package fr.shopping.cart.infrastructure.jpa.cart;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Accès direct aux offres par clé, sans passer par la collection {@code Product.offers}.
+ * Toutes les recherches s'appuient sur la clé primaire de {@code offers} ; le produit
+ * n'est utilisé que comme filtre d'appartenance.
+ * Les projections {@link OfferView} portent le stock disponible, hors réservations temporaires.
+ */
+@Repository
+public interface OfferRepository extends JpaRepository<Offer, Long> {
+
+    Optional<Offer> findByIdAndProductId(Long offerId, Long productId);
+
+    @Query("""
+            select new fr.shopping.cart.domain.cart.models.OfferView(
+                o.id, o.product.id, o.price, o.discountPercent, o.state, o.stockQty - o.heldQty)
+            from Offer o
+            where o.id = :offerId and o.product.id = :productId
+            """)
+    Optional<OfferView> findViewByIdAndProductId(@Param("offerId") Long offerId, @Param("productId") Long productId);
+
+    /**
+     * Stock disponible d'une offre ({@code stock_qty - held_qty}), seule donnée de l'offre qui ne soit pas
+     * servie par le cache catalogue.
+     */
+    @Query("""
+            select o.stockQty - o.heldQty
+            from Offer o
+            where o.id = :offerId and o.product.id = :productId
+            """)
+    Optional<Integer> findAvailableStockByIdAndProductId(@Param("offerId") Long offerId, @Param("productId") Long productId);
+
+    @Query("""
+            select new fr.shopping.cart.domain.cart.models.OfferView(
+                o.id, o.product.id, o.price, o.discountPercent, o.state, o.stockQty - o.heldQty)
+            from Offer o
+            where o.id in :offerIds
+            """)
+    List<OfferView> findViewsByIdIn(@Param("offerIds") Collection<Long> offerIds);
+
+    @Query("""
+            select new fr.shopping.cart.domain.catalog.models.OfferSnapshot(
+                o.id, p.id, p.label, o.price, o.discountPercent, o.state)
+            from Offer o join o.product p
+            where o.id = :offerId
+            """)
+    Optional<OfferSnapshot> findSnapshotById(@Param("offerId") Long offerId);
+}
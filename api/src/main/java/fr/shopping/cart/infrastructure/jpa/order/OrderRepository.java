@@ -0,0 +1,45 @@
+package fr.shopping.cart.infrastructure.jpa.order;
+
+import fr.shopping.cart.domain.order.models.Order;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Accès aux commandes. L'historique est paginé par clé ({@code created_at}, {@code id}) sur l'index
+ * {@code idx_orders_user_created_at} : le coût d'une page ne dépend pas de sa position dans l'historique.
+ */
+@Repository
+public interface OrderRepository extends JpaRepository<Order, Long> {
+
+    /**
+     * Première page de l'historique d'un utilisateur, commandes les plus récentes d'abord.
+     */
+    @Query("""
+            select o from Order o
+            where o.userId = :userId
+            order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findLatestByUserId(@Param("userId") Long userId, Limit limit);
+
+    /**
+     * Page suivante de l'historique : commandes strictement antérieures à la position ({@code createdAt}, {@code id}).
+     */
+    @Query("""
+            select o from Order o
+            where o.userId = :userId
+              and (o.createdAt < :createdAt or (o.createdAt = :createdAt and o.id < :id))
+            order by o.createdAt desc, o.id desc
+            """)
+    List<Order> findByUserIdBefore(
+            @Param("userId") Long userId,
+            @Param("createdAt") LocalDateTime createdAt,
+            @Param("id") Long id,
+            Limit limit
+    );
+}
@@ -0,0 +1,63 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Métriques métier du panier. Les tags restent à faible cardinalité : aucune métrique n'est
+ * étiquetée par utilisateur, produit ou offre.
+ */
+@Component
+public class CartMetrics {
+
+    private final MeterRegistry registry;
+    private final Timer offerLookup;
+
+    public CartMetrics(MeterRegistry registry) {
+        this.registry = registry;
+        this.offerLookup = Timer.builder("cart.offer.lookup")
+                .description("Vérification catalogue et lecture du stock d'une offre")
+                .register(registry);
+    }
+
+    public void recordOfferLookup(long nanos) {
+        offerLookup.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Enregistre la taille d'un panier (lignes et articles).
+     *
+     * @param event {@code save} à chaque enregistrement, {@code checkout} à la validation
+     */
+    public void recordCartSize(String event, Cart cart) {
+        DistributionSummary.builder("cart.size.lines")
+                .description("Nombre de lignes du panier")
+                .tag("event", event)
+                .register(registry)
+                .record(cart.getLines().size());
+        DistributionSummary.builder("cart.size.items")
+                .description("Nombre d'articles du panier")
+                .tag("event", event)
+                .register(registry)
+                .record(cart.getItemCount());
+    }
+
+    /**
+     * Compte un refus pour stock insuffisant.
+     *
+     * @param operation {@code add}, {@code update}, {@code batch} ou {@code checkout}
+     */
+    public void recordStockRejection(String operation) {
+        Counter.builder("cart.stock.rejections")
+                .description("Refus pour stock insuffisant")
+                .tag("operation", operation)
+                .register(registry)
+                .increment();
+    }
+}
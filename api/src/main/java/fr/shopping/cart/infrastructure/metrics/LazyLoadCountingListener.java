@@ -0,0 +1,26 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import org.hibernate.HibernateException;
+import org.hibernate.event.spi.InitializeCollectionEvent;
+import org.hibernate.event.spi.InitializeCollectionEventListener;
+import org.hibernate.event.spi.LoadEvent;
+import org.hibernate.event.spi.LoadEventListener;
+
+/**
+ * Compte les chargements paresseux de la requête HTTP en cours ({@link RequestDbCounters}) :
+ * initialisation d'un proxy d'entité ou d'une collection non chargée par le plan de chargement.
+ */
+public class LazyLoadCountingListener implements LoadEventListener, InitializeCollectionEventListener {
+
+    @Override
+    public void onLoad(LoadEvent event, LoadType loadType) throws HibernateException {
+        if (loadType == LoadEventListener.IMMEDIATE_LOAD) {
+            RequestDbCounters.lazyLoaded();
+        }
+    }
+
+    @Override
+    public void onInitializeCollection(InitializeCollectionEvent event) throws HibernateException {
+        RequestDbCounters.lazyLoaded();
+    }
+}
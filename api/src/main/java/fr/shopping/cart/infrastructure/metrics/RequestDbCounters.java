@@ -0,0 +1,97 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compteurs d'accès base de la requête HTTP en cours, attachés au thread qui la traite.
+ * Hors requête (tâches planifiées, démarrage), les accès ne sont pas comptés.
+ * <p>
+ * Sur demande, les formes des requêtes (SQL dont les littéraux et listes {@code IN} sont normalisés)
+ * sont également relevées, pour diagnostiquer un dépassement de {@link SqlBudget}.
+ */
+public final class RequestDbCounters {
+
+    private static final ThreadLocal<RequestDbCounters> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("(?i)\\bin\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /** Nombre d'exécutions par SQL brut ; {@code null} si les formes ne sont pas relevées. */
+    private final Map<String, Integer> statementsBySql;
+    private int statements;
+    private int lazyLoads;
+
+    private RequestDbCounters(boolean captureShapes) {
+        this.statementsBySql = captureShapes ? new HashMap<>() : null;
+    }
+
+    /**
+     * Démarre le comptage pour le thread courant.
+     *
+     * @param captureShapes relever aussi le SQL de chaque instruction
+     */
+    public static RequestDbCounters open(boolean captureShapes) {
+        final RequestDbCounters counters = new RequestDbCounters(captureShapes);
+        CURRENT.set(counters);
+        return counters;
+    }
+
+    public static void close() {
+        CURRENT.remove();
+    }
+
+    static void statementExecuted(String sql) {
+        final RequestDbCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.statements++;
+            if (counters.statementsBySql != null) {
+                counters.statementsBySql.merge(sql, 1, Integer::sum);
+            }
+        }
+    }
+
+    static void lazyLoaded() {
+        final RequestDbCounters counters = CURRENT.get();
+        if (counters != null) {
+            counters.lazyLoads++;
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public int lazyLoads() {
+        return lazyLoads;
+    }
+
+    /**
+     * Formes des requêtes exécutées, de la plus fréquente à la moins fréquente ; vide si elles n'ont pas été relevées.
+     */
+    public Map<String, Integer> shapes() {
+        if (statementsBySql == null) {
+            return Map.of();
+        }
+        final Map<String, Integer> shapes = new HashMap<>();
+        statementsBySql.forEach((sql, count) -> shapes.merge(shape(sql), count, Integer::sum));
+        final Map<String, Integer> ordered = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder())
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .forEach(entry -> ordered.put(entry.getKey(), entry.getValue()));
+        return ordered;
+    }
+
+    static String shape(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("in (...)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,134 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Enregistre, pour chaque requête de l'API, le nombre d'instructions SQL et de chargements
+ * paresseux qu'elle a déclenchés. Les métriques sont étiquetées par méthode HTTP et par route
+ * (modèle d'URI), jamais par URI effective.
+ * <p>
+ * Les méthodes de contrôleur annotées {@link SqlBudget} sont contrôlées selon {@code cart.sql-budget.mode} :
+ * <ul>
+ *     <li>{@code off} : aucun contrôle ;</li>
+ *     <li>{@code log} : tout dépassement incrémente {@code cart.request.budget.exceeded} ; pour une fraction
+ *     {@code cart.sql-budget.sample-rate} des requêtes, les formes des requêtes SQL sont relevées et journalisées
+ *     en cas de dépassement ;</li>
+ *     <li>{@code fail} : tout dépassement lève une {@link SqlBudgetExceededException} listant les formes des
+ *     requêtes (tests d'intégration).</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class RequestDbMetricsFilter extends OncePerRequestFilter {
+
+    public enum BudgetMode { OFF, LOG, FAIL }
+
+    private final MeterRegistry registry;
+    private final String apiPrefix;
+    private final BudgetMode budgetMode;
+    private final double sampleRate;
+
+    public RequestDbMetricsFilter(
+            MeterRegistry registry,
+            @Value("${api.prefix.route}") String apiPrefix,
+            @Value("${cart.sql-budget.mode:log}") BudgetMode budgetMode,
+            @Value("${cart.sql-budget.sample-rate:0.01}") double sampleRate
+    ) {
+        this.registry = registry;
+        this.apiPrefix = apiPrefix;
+        this.budgetMode = budgetMode;
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(request.getContextPath() + apiPrefix);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        final RequestDbCounters counters = RequestDbCounters.open(captureShapes());
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RequestDbCounters.close();
+            final Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            if (route != null) {
+                record("cart.request.statements", "Instructions SQL exécutées par requête", request, route, counters.statements());
+                record("cart.request.lazy.loads", "Chargements paresseux par requête", request, route, counters.lazyLoads());
+            }
+        }
+        checkBudget(request, counters);
+    }
+
+    private boolean captureShapes() {
+        return switch (budgetMode) {
+            case OFF -> false;
+            case LOG -> ThreadLocalRandom.current().nextDouble() < sampleRate;
+            case FAIL -> true;
+        };
+    }
+
+    private void checkBudget(HttpServletRequest request, RequestDbCounters counters) {
+        if (budgetMode == BudgetMode.OFF
+                || !(request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)) {
+            return;
+        }
+        final SqlBudget budget = handler.getMethodAnnotation(SqlBudget.class);
+        if (budget == null || counters.statements() <= budget.statements()) {
+            return;
+        }
+
+        final Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        final String message = "%s %s: %d SQL statements, budget %d%s".formatted(
+                request.getMethod(), route, counters.statements(), budget.statements(), describe(counters.shapes()));
+        if (budgetMode == BudgetMode.FAIL) {
+            throw new SqlBudgetExceededException(message);
+        }
+
+        Counter.builder("cart.request.budget.exceeded")
+                .description("Requêtes ayant dépassé leur budget d'instructions SQL")
+                .tag("method", request.getMethod())
+                .tag("uri", String.valueOf(route))
+                .register(registry)
+                .increment();
+        if (!counters.shapes().isEmpty()) {
+            log.warn("SQL budget exceeded: {}", message);
+        }
+    }
+
+    private static String describe(Map<String, Integer> shapes) {
+        return shapes.entrySet().stream()
+                .map(entry -> "\n  " + entry.getValue() + " x " + entry.getKey())
+                .collect(Collectors.joining());
+    }
+
+    private void record(String name, String description, HttpServletRequest request, Object route, int value) {
+        DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", request.getMethod())
+                .tag("uri", route.toString())
+                .register(registry)
+                .record(value);
+    }
+}
@@ -0,0 +1,22 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Nombre maximal d'instructions SQL qu'une requête HTTP traitée par la méthode annotée peut exécuter.
+ * Le dépassement est contrôlé par {@link RequestDbMetricsFilter} selon {@code cart.sql-budget.mode}.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface SqlBudget {
+
+    /**
+     * Instructions SQL autorisées (un {@code executeBatch} compte pour une).
+     */
+    int statements();
+}
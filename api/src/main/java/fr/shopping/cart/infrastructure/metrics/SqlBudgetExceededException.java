@@ -0,0 +1,12 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+/**
+ * Levée en mode {@code cart.sql-budget.mode=fail} quand une requête dépasse son {@link SqlBudget}.
+ * Destinée aux tests d'intégration : la réponse est déjà écrite quand l'exception est levée.
+ */
+public class SqlBudgetExceededException extends IllegalStateException {
+
+    public SqlBudgetExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,79 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Datasource comptant les instructions SQL exécutées pour la requête HTTP en cours
+ * ({@link RequestDbCounters}) : chaque appel {@code execute*} d'un {@link Statement}, y compris
+ * {@code executeBatch}, compte pour un aller-retour, quel que soit l'appelant (JPA, JdbcTemplate, Flyway).
+ * Le SQL compté est celui passé à {@code prepareStatement} / {@code prepareCall}, ou à {@code execute*}
+ * pour un {@link Statement} simple.
+ */
+public class StatementCountingDataSource extends DelegatingDataSource {
+
+    public StatementCountingDataSource(DataSource target) {
+        super(target);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return countingConnection(super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return countingConnection(super.getConnection(username, password));
+    }
+
+    private static Connection countingConnection(Connection connection) {
+        return proxy(Connection.class, connection, (proxy, method, args) -> {
+            final Object result = invoke(connection, method, args);
+            if (result instanceof Statement statement && Statement.class.isAssignableFrom(method.getReturnType())) {
+                final String preparedSql = args != null && args.length > 0 && args[0] instanceof String sql ? sql : null;
+                return countingStatement(method.getReturnType(), statement, preparedSql);
+            }
+            return result;
+        });
+    }
+
+    private static Object countingStatement(Class<?> type, Statement statement, String preparedSql) {
+        return proxy(type, statement, (proxy, method, args) -> {
+            if (method.getName().startsWith("execute")) {
+                RequestDbCounters.statementExecuted(executedSql(preparedSql, method, args));
+            }
+            return invoke(statement, method, args);
+        });
+    }
+
+    private static String executedSql(String preparedSql, Method method, Object[] args) {
+        if (preparedSql != null) {
+            return preparedSql;
+        }
+        if (args != null && args.length > 0 && args[0] instanceof String sql) {
+            return sql;
+        }
+        return method.getName();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, Object target, InvocationHandler handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+    private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+}
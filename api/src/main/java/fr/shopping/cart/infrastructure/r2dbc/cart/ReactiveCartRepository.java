@@ -0,0 +1,266 @@
+package fr.shopping.cart.infrastructure.r2dbc.cart;
+
+import fr.shopping.cart.domain.cart.models.CartLineView;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.CartView;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.pricing.PriceCalculator;
+import io.r2dbc.spi.Row;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+/**
+ * Accès non bloquant aux tables {@code carts} et {@code cart_lines} (profil {@code reactive}).
+ * Les lignes sont modifiées par des ordres SQL unitaires ; les totaux dénormalisés du panier sont
+ * corrigés par différence sous contrôle de version, comme le ferait le {@code @Version} de {@code Cart} :
+ * une écriture concurrente, réactive ou JPA, fait échouer la mise à jour des totaux.
+ * Les identifiants sont tirés des séquences {@code carts_seq} et {@code cart_lines_seq}, comme pour JPA.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveCartRepository {
+
+    /**
+     * En-tête d'un panier : identifiant, sous-total et version lus avant modification.
+     */
+    public record CartRow(Long id, Long userId, BigDecimal subtotal, long version) {}
+
+    /** Ligne de la jointure d'affichage ; {@code line} est nul pour un panier vide. */
+    private record DisplayRow(BigDecimal subtotal, CartLineView line) {}
+
+    private static final String FIND_BY_USER_ID_SQL =
+            "SELECT id, user_id, subtotal, version FROM carts WHERE user_id = :userId";
+
+    private static final String FIND_FOR_DISPLAY_BY_USER_ID_SQL = """
+            SELECT c.subtotal, l.product_id, l.offer_id, o.state, l.quantity, l.unit_price
+            FROM carts c
+            LEFT JOIN cart_lines l ON l.cart_id = c.id
+            LEFT JOIN offers o ON o.id = l.offer_id
+            WHERE c.user_id = :userId
+            ORDER BY l.id
+            """;
+
+    private static final String FIND_SUMMARY_BY_USER_ID_SQL =
+            "SELECT user_id, item_count, subtotal FROM carts WHERE user_id = :userId";
+
+    private static final String FIND_LINES_SQL = """
+            SELECT l.product_id, l.offer_id, o.state, l.quantity, l.unit_price
+            FROM cart_lines l
+            JOIN offers o ON o.id = l.offer_id
+            WHERE l.cart_id = :cartId
+            ORDER BY l.id
+            """;
+
+    private static final String POSTGRES_INSERT_IF_ABSENT_SQL = """
+            INSERT INTO carts (id, user_id, item_count, subtotal, version)
+            VALUES (nextval('carts_seq'), :userId, 0, 0, 0)
+            ON CONFLICT (user_id) DO NOTHING
+            """;
+
+    private static final String H2_INSERT_IF_ABSENT_SQL = """
+            MERGE INTO carts c
+            USING (VALUES (CAST(:userId AS BIGINT))) AS s(user_id)
+            ON c.user_id = s.user_id
+            WHEN NOT MATCHED THEN INSERT (id, user_id, item_count, subtotal, version)
+                VALUES (NEXT VALUE FOR carts_seq, s.user_id, 0, 0, 0)
+            """;
+
+    private static final String POSTGRES_INSERT_LINE_SQL = """
+            INSERT INTO cart_lines (id, cart_id, product_id, offer_id, quantity, unit_price, version)
+            VALUES (nextval('cart_lines_seq'), :cartId, :productId, :offerId, :quantity, :unitPrice, 0)
+            """;
+
+    private static final String H2_INSERT_LINE_SQL = """
+            INSERT INTO cart_lines (id, cart_id, product_id, offer_id, quantity, unit_price, version)
+            VALUES (NEXT VALUE FOR cart_lines_seq, :cartId, :productId, :offerId, :quantity, :unitPrice, 0)
+            """;
+
+    private static final String UPDATE_LINE_SQL = """
+            UPDATE cart_lines SET quantity = :quantity, unit_price = :unitPrice, version = version + 1
+            WHERE cart_id = :cartId AND product_id = :productId AND offer_id = :offerId
+            """;
+
+    private static final String DELETE_LINE_SQL =
+            "DELETE FROM cart_lines WHERE cart_id = :cartId AND product_id = :productId AND offer_id = :offerId";
+
+    private static final String APPLY_TOTALS_DELTA_SQL = """
+            UPDATE carts SET
+                item_count = item_count + :quantityDelta,
+                subtotal = subtotal + :amountDelta,
+                version = version + 1
+            WHERE id = :cartId AND version = :version
+            """;
+
+    private static final String DELETE_LINES_SQL = "DELETE FROM cart_lines WHERE cart_id = :cartId";
+
+    private static final String DELETE_CART_SQL = "DELETE FROM carts WHERE id = :cartId AND version = :version";
+
+    private final DatabaseClient databaseClient;
+    private final String insertIfAbsentSql;
+    private final String insertLineSql;
+
+    public ReactiveCartRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        final boolean postgres = "PostgreSQL".equalsIgnoreCase(databaseClient.getConnectionFactory().getMetadata().getName());
+        this.insertIfAbsentSql = postgres ? POSTGRES_INSERT_IF_ABSENT_SQL : H2_INSERT_IF_ABSENT_SQL;
+        this.insertLineSql = postgres ? POSTGRES_INSERT_LINE_SQL : H2_INSERT_LINE_SQL;
+    }
+
+    public Mono<CartRow> findByUserId(Long userId) {
+        return databaseClient.sql(FIND_BY_USER_ID_SQL)
+                .bind("userId", userId)
+                .map((row, metadata) -> new CartRow(
+                        row.get("id", Long.class),
+                        row.get("user_id", Long.class),
+                        row.get("subtotal", BigDecimal.class),
+                        row.get("version", Long.class)
+                ))
+                .one();
+    }
+
+    /**
+     * Lecture pour affichage : panier, lignes et état des offres en une seule requête SQL.
+     */
+    public Mono<CartView> findForDisplayByUserId(Long userId) {
+        return databaseClient.sql(FIND_FOR_DISPLAY_BY_USER_ID_SQL)
+                .bind("userId", userId)
+                .map((row, metadata) -> new DisplayRow(
+                        row.get("subtotal", BigDecimal.class),
+                        row.get("product_id", Long.class) == null ? null : mapLine(row)
+                ))
+                .all()
+                .collectList()
+                .filter(rows -> !rows.isEmpty())
+                .map(rows -> new CartView(
+                        userId,
+                        rows.stream().map(DisplayRow::line).filter(Objects::nonNull).toList(),
+                        rows.getFirst().subtotal()
+                ));
+    }
+
+    /**
+     * Résumé du panier (nombre d'articles et total) en une ligne SQL.
+     */
+    public Mono<CartSummary> findSummaryByUserId(Long userId) {
+        return databaseClient.sql(FIND_SUMMARY_BY_USER_ID_SQL)
+                .bind("userId", userId)
+                .map((row, metadata) -> new CartSummary(
+                        row.get("user_id", Long.class),
+                        row.get("item_count", Integer.class),
+                        row.get("subtotal", BigDecimal.class)
+                ))
+                .one();
+    }
+
+    /**
+     * Lignes du panier avec l'état de leur offre, dans l'ordre d'ajout.
+     */
+    public Flux<CartLineView> findLines(Long cartId) {
+        return databaseClient.sql(FIND_LINES_SQL)
+                .bind("cartId", cartId)
+                .map((row, metadata) -> mapLine(row))
+                .all();
+    }
+
+    /**
+     * Crée le panier de l'utilisateur s'il n'existe pas encore (voir {@code CartCreationRepository}).
+     *
+     * @return {@code true} si le panier a été créé par cet appel
+     */
+    public Mono<Boolean> insertIfAbsent(Long userId) {
+        return databaseClient.sql(insertIfAbsentSql)
+                .bind("userId", userId)
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0)
+                // H2 : le MERGE concurrent a perdu la course sur l'index unique, le panier existe
+                .onErrorResume(DataIntegrityViolationException.class, ex -> Mono.just(false));
+    }
+
+    public Mono<Void> insertLine(Long cartId, Long productId, Long offerId, int quantity, long unitPriceMinor) {
+        return bindLine(databaseClient.sql(insertLineSql), cartId, productId, offerId)
+                .bind("quantity", quantity)
+                .bind("unitPrice", PriceCalculator.toAmount(unitPriceMinor))
+                .then();
+    }
+
+    /**
+     * Remplace la quantité et le prix unitaire d'une ligne ; sa version est incrémentée pour
+     * invalider une écriture JPA concurrente.
+     *
+     * @return le nombre de lignes modifiées (0 si la ligne a été supprimée entre-temps)
+     */
+    public Mono<Long> updateLine(Long cartId, Long productId, Long offerId, int quantity, long unitPriceMinor) {
+        return bindLine(databaseClient.sql(UPDATE_LINE_SQL), cartId, productId, offerId)
+                .bind("quantity", quantity)
+                .bind("unitPrice", PriceCalculator.toAmount(unitPriceMinor))
+                .fetch()
+                .rowsUpdated();
+    }
+
+    public Mono<Long> deleteLine(Long cartId, Long productId, Long offerId) {
+        return bindLine(databaseClient.sql(DELETE_LINE_SQL), cartId, productId, offerId)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Reporte une variation du nombre d'articles et du sous-total sur le panier, si sa version
+     * n'a pas changé depuis la lecture.
+     *
+     * @param version          version lue avec le panier
+     * @param quantityDelta    variation du nombre d'articles
+     * @param amountDeltaMinor variation du sous-total, en centimes
+     * @return le nombre de paniers modifiés (0 en cas d'écriture concurrente)
+     */
+    public Mono<Long> applyTotalsDelta(Long cartId, long version, int quantityDelta, long amountDeltaMinor) {
+        return databaseClient.sql(APPLY_TOTALS_DELTA_SQL)
+                .bind("quantityDelta", quantityDelta)
+                .bind("amountDelta", PriceCalculator.toAmount(amountDeltaMinor))
+                .bind("cartId", cartId)
+                .bind("version", version)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    /**
+     * Supprime le panier et ses lignes, si sa version n'a pas changé depuis la lecture.
+     *
+     * @return le nombre de paniers supprimés (0 en cas d'écriture concurrente)
+     */
+    public Mono<Long> delete(CartRow cart) {
+        return databaseClient.sql(DELETE_LINES_SQL)
+                .bind("cartId", cart.id())
+                .then()
+                .then(databaseClient.sql(DELETE_CART_SQL)
+                        .bind("cartId", cart.id())
+                        .bind("version", cart.version())
+                        .fetch()
+                        .rowsUpdated());
+    }
+
+    private static CartLineView mapLine(Row row) {
+        return new CartLineView(
+                row.get("product_id", Long.class),
+                row.get("offer_id", Long.class),
+                State.valueOf(row.get("state", String.class)),
+                row.get("quantity", Integer.class),
+                PriceCalculator.toMinorUnits(row.get("unit_price", BigDecimal.class))
+        );
+    }
+
+    private DatabaseClient.GenericExecuteSpec bindLine(
+            DatabaseClient.GenericExecuteSpec spec, Long cartId, Long productId, Long offerId
+    ) {
+        return spec.bind("cartId", cartId)
+                .bind("productId", productId)
+                .bind("offerId", offerId);
+    }
+}
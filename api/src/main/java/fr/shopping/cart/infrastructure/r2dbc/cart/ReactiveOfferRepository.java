@@ -0,0 +1,73 @@
+package fr.shopping.cart.infrastructure.r2dbc.cart;
+
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.models.State;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.function.BiFunction;
+
+/**
+ * Lecture non bloquante des offres et des produits par clé (profil {@code reactive}).
+ * Le stock est toujours lu en base : aucune projection n'est mise en cache.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveOfferRepository {
+
+    private static final String FIND_VIEW_SQL = """
+            SELECT id, product_id, price, discount_percent, state, stock_qty - held_qty AS stock_qty
+            FROM offers
+            WHERE id = :offerId AND product_id = :productId
+            """;
+
+    private static final String FIND_VIEWS_SQL = """
+            SELECT id, product_id, price, discount_percent, state, stock_qty - held_qty AS stock_qty
+            FROM offers
+            WHERE id IN (:offerIds)
+            """;
+
+    private static final String PRODUCT_EXISTS_SQL = "SELECT COUNT(*) AS found FROM products WHERE id = :productId";
+
+    private static final BiFunction<Row, RowMetadata, OfferView> OFFER_VIEW_MAPPER = (row, metadata) -> new OfferView(
+            row.get("id", Long.class),
+            row.get("product_id", Long.class),
+            row.get("price", BigDecimal.class),
+            row.get("discount_percent", Integer.class),
+            State.valueOf(row.get("state", String.class)),
+            row.get("stock_qty", Integer.class)
+    );
+
+    private final DatabaseClient databaseClient;
+
+    public Mono<OfferView> findViewByIdAndProductId(Long offerId, Long productId) {
+        return databaseClient.sql(FIND_VIEW_SQL)
+                .bind("offerId", offerId)
+                .bind("productId", productId)
+                .map(OFFER_VIEW_MAPPER)
+                .one();
+    }
+
+    public Flux<OfferView> findViewsByIdIn(Collection<Long> offerIds) {
+        return databaseClient.sql(FIND_VIEWS_SQL)
+                .bind("offerIds", offerIds)
+                .map(OFFER_VIEW_MAPPER)
+                .all();
+    }
+
+    public Mono<Boolean> existsProductById(Long productId) {
+        return databaseClient.sql(PRODUCT_EXISTS_SQL)
+                .bind("productId", productId)
+                .map((row, metadata) -> row.get("found", Long.class) > 0)
+                .one();
+    }
+}
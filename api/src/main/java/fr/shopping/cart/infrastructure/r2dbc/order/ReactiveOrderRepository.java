@@ -0,0 +1,86 @@
+package fr.shopping.cart.infrastructure.r2dbc.order;
+
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import fr.shopping.cart.domain.order.models.OrderLine;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Écriture non bloquante d'une commande, de ses lignes et de son événement dans l'outbox (profil {@code reactive}),
+ * dans la transaction R2DBC du checkout. L'identifiant est tiré de la séquence {@code orders_seq}, comme pour JPA.
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveOrderRepository {
+
+    private static final String POSTGRES_NEXT_ID_SQL = "SELECT nextval('orders_seq')";
+
+    private static final String H2_NEXT_ID_SQL = "SELECT NEXT VALUE FOR orders_seq";
+
+    private static final String INSERT_ORDER_SQL = """
+            INSERT INTO orders (id, user_id, item_count, subtotal, created_at)
+            VALUES (:id, :userId, :itemCount, :subtotal, :createdAt)
+            """;
+
+    private static final String INSERT_LINE_SQL = """
+            INSERT INTO order_lines (order_id, line_no, created_at, product_id, offer_id, quantity, unit_price)
+            VALUES (:orderId, :lineNo, :createdAt, :productId, :offerId, :quantity, :unitPrice)
+            """;
+
+    private static final String INSERT_EVENT_SQL = """
+            INSERT INTO order_events (id, order_id, event_type, payload, created_at)
+            VALUES (:id, :orderId, :type, :payload, :createdAt)
+            """;
+
+    private final DatabaseClient databaseClient;
+    private final String nextIdSql;
+
+    public ReactiveOrderRepository(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+        final boolean postgres = "PostgreSQL".equalsIgnoreCase(databaseClient.getConnectionFactory().getMetadata().getName());
+        this.nextIdSql = postgres ? POSTGRES_NEXT_ID_SQL : H2_NEXT_ID_SQL;
+    }
+
+    public Mono<Long> nextId() {
+        return databaseClient.sql(nextIdSql)
+                .map(row -> row.get(0, Long.class))
+                .one();
+    }
+
+    public Mono<Void> insertOrder(Long id, Long userId, int itemCount, BigDecimal subtotal, LocalDateTime createdAt) {
+        return databaseClient.sql(INSERT_ORDER_SQL)
+                .bind("id", id)
+                .bind("userId", userId)
+                .bind("itemCount", itemCount)
+                .bind("subtotal", subtotal)
+                .bind("createdAt", createdAt)
+                .then();
+    }
+
+    public Mono<Void> insertLine(OrderLine line) {
+        return databaseClient.sql(INSERT_LINE_SQL)
+                .bind("orderId", line.getOrderId())
+                .bind("lineNo", line.getLineNo())
+                .bind("createdAt", line.getCreatedAt())
+                .bind("productId", line.getProductId())
+                .bind("offerId", line.getOfferId())
+                .bind("quantity", line.getQuantity())
+                .bind("unitPrice", line.getUnitPrice())
+                .then();
+    }
+
+    public Mono<Void> insertEvent(OrderEvent event) {
+        return databaseClient.sql(INSERT_EVENT_SQL)
+                .bind("id", event.getId())
+                .bind("orderId", event.getOrderId())
+                .bind("type", event.getType())
+                .bind("payload", event.getPayload())
+                .bind("createdAt", event.getCreatedAt())
+                .then();
+    }
+}
@@ -0,0 +1,38 @@
+package fr.shopping.cart.infrastructure.r2dbc.stock;
+
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+/**
+ * Décrémentation non bloquante du stock d'une offre (profil {@code reactive}), par le même UPDATE
+ * conditionnel que {@code StockReservationRepository} : contrôle et décrémentation atomiques côté base,
+ * version de l'offre incrémentée. Les réservations temporaires ({@code held_qty}) ne sont pas prises par ce profil
+ * mais restent respectées : seul le stock disponible peut être prélevé.
+ */
+@Repository
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveStockReservationRepository {
+
+    private static final String DECREMENT_STOCK_SQL = """
+            UPDATE offers SET stock_qty = stock_qty - :quantity, version = version + 1
+            WHERE id = :offerId AND stock_qty - held_qty >= :quantity
+            """;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * @return le nombre de lignes modifiées (0 si le stock est insuffisant)
+     */
+    public Mono<Long> decrementStock(StockReservation reservation) {
+        return databaseClient.sql(DECREMENT_STOCK_SQL)
+                .bind("quantity", reservation.quantity())
+                .bind("offerId", reservation.offerId())
+                .fetch()
+                .rowsUpdated();
+    }
+}
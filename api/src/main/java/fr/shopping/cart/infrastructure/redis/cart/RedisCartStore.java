@@ -0,0 +1,203 @@
+package fr.shopping.cart.infrastructure.redis.cart;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSnapshot;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.stores.CartSnapshotCodec;
+import fr.shopping.cart.domain.cart.stores.CartSnapshotOffers;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stockage clé-valeur des paniers (propriété {@code cart.store.type=redis}) : un hash par utilisateur
+ * sous la clé {@code <préfixe><userId>}, avec la version du panier et ses lignes sérialisées
+ * ({@link CartSnapshotCodec}). Les totaux sont recalculés à la lecture.
+ * <p>
+ * Chaque écriture est un script Lua atomique qui compare la version lue, écrit la version suivante
+ * et repousse l'expiration : un panier sans modification pendant {@code cart.store.ttl} disparaît
+ * sans purge côté base. Les lignes ne référencent produits et offres que par identifiant ; l'état
+ * affiché est complété depuis le cache catalogue, sans requête SQL.
+ * <p>
+ * Les modifications du panier ne contrôlent ni ne réservent le stock ({@link #checksStockOnChange()}) :
+ * hors défaut du cache catalogue, seul le checkout interroge la base, où le stock est décrémenté sous
+ * condition et un stock insuffisant refuse la commande. Le checkout relit aussi les offres en base : la
+ * commande est passée au prix courant, jamais au prix d'un cache catalogue en retard.
+ * <p>
+ * Les prix unitaires figés dans les lignes ne suivent pas le repricing SQL des offres
+ * ({@code CartRepricingService}) : ils sont mis à jour au prochain ajout ou changement de quantité.
+ */
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "redis")
+public class RedisCartStore implements CartStore {
+
+    private static final String VERSION_FIELD = "v";
+    private static final String LINES_FIELD = "l";
+
+    private static final RedisScript<Long> CREATE_IF_ABSENT = RedisScript.of("""
+            if redis.call('EXISTS', KEYS[1]) == 1 then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'v', '0', 'l', ARGV[1])
+            redis.call('PEXPIRE', KEYS[1], ARGV[2])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> SAVE_IF_VERSION = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'v') ~= ARGV[1] then
+                return 0
+            end
+            redis.call('HSET', KEYS[1], 'v', ARGV[2], 'l', ARGV[3])
+            redis.call('PEXPIRE', KEYS[1], ARGV[4])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> DELETE_IF_VERSION = RedisScript.of("""
+            if redis.call('HGET', KEYS[1], 'v') ~= ARGV[1] then
+                return 0
+            end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final Function<CartSnapshot.Line, Offer> catalogOffers;
+    private final OfferRepository offerRepository;
+    private final String keyPrefix;
+    private final byte[] ttlMillis;
+
+    public RedisCartStore(
+            RedisConnectionFactory connectionFactory,
+            CatalogService catalogService,
+            OfferRepository offerRepository,
+            @Value("${cart.store.key-prefix:cart:}") String keyPrefix,
+            @Value("${cart.store.ttl:7d}") Duration ttl
+    ) {
+        this.redisTemplate = new RedisTemplate<>();
+        redisTemplate.setConnectionFactory(connectionFactory);
+        redisTemplate.setKeySerializer(RedisSerializer.string());
+        redisTemplate.setValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.setHashKeySerializer(RedisSerializer.string());
+        redisTemplate.setHashValueSerializer(RedisSerializer.byteArray());
+        redisTemplate.afterPropertiesSet();
+
+        this.catalogOffers = CartSnapshotOffers.fromCatalog(catalogService);
+        this.offerRepository = offerRepository;
+        this.keyPrefix = keyPrefix;
+        this.ttlMillis = ascii(ttl.toMillis());
+    }
+
+    @Override
+    public Optional<Cart> findForDisplay(Long userId) {
+        return load(userId).map(snapshot -> Cart.restore(snapshot, catalogOffers));
+    }
+
+    /**
+     * Les lignes ne sont que comparées par identifiant avant modification : les offres ne sont pas
+     * complétées depuis le catalogue.
+     */
+    @Override
+    public Optional<Cart> findForUpdate(Long userId) {
+        return load(userId).map(snapshot -> Cart.restore(snapshot, CartSnapshotOffers::reference));
+    }
+
+    /**
+     * Les offres des lignes sont lues en base, en une requête, et non dans le cache catalogue.
+     */
+    @Override
+    public Optional<Cart> findForCheckout(Long userId) {
+        return load(userId).map(snapshot -> {
+            final List<Long> offerIds = snapshot.lines().stream().map(CartSnapshot.Line::offerId).toList();
+            final Map<Long, OfferView> offers = offerIds.isEmpty() ? Map.of()
+                    : offerRepository.findViewsByIdIn(offerIds).stream()
+                            .collect(Collectors.toMap(OfferView::offerId, Function.identity()));
+            return Cart.restore(snapshot, CartSnapshotOffers.fromViews(offers));
+        });
+    }
+
+    @Override
+    public boolean checksStockOnChange() {
+        return false;
+    }
+
+    @Override
+    public Optional<CartSummary> findSummary(Long userId) {
+        return findForUpdate(userId)
+                .map(cart -> new CartSummary(userId, cart.getItemCount(), cart.getSubtotal()));
+    }
+
+    @Override
+    public void createIfAbsent(Long userId) {
+        redisTemplate.execute(CREATE_IF_ABSENT, List.of(key(userId)),
+                CartSnapshotCodec.encodeLines(List.of()), ttlMillis);
+    }
+
+    /**
+     * @throws OptimisticLockingFailureException si le panier a changé de version ou a disparu depuis sa lecture
+     */
+    @Override
+    public void save(Cart cart) {
+        final CartSnapshot snapshot = CartSnapshot.of(cart);
+        final Long written = redisTemplate.execute(SAVE_IF_VERSION, List.of(key(cart.getUserId())),
+                ascii(snapshot.version()), ascii(snapshot.version() + 1),
+                CartSnapshotCodec.encodeLines(snapshot.lines()), ttlMillis);
+        if (written == null || written == 0) {
+            throw conflict(cart);
+        }
+    }
+
+    /**
+     * @throws OptimisticLockingFailureException si le panier a changé de version ou a disparu depuis sa lecture
+     */
+    @Override
+    public void delete(Cart cart) {
+        final Long deleted = redisTemplate.execute(DELETE_IF_VERSION, List.of(key(cart.getUserId())),
+                ascii(cart.getVersion()));
+        if (deleted == null || deleted == 0) {
+            throw conflict(cart);
+        }
+    }
+
+    private Optional<CartSnapshot> load(Long userId) {
+        final List<byte[]> fields = redisTemplate.<String, byte[]>opsForHash()
+                .multiGet(key(userId), List.of(VERSION_FIELD, LINES_FIELD));
+        if (fields == null || fields.get(0) == null) {
+            return Optional.empty();
+        }
+        final long version = Long.parseLong(new String(fields.get(0), StandardCharsets.US_ASCII));
+        final List<CartSnapshot.Line> lines = fields.get(1) == null
+                ? List.of()
+                : CartSnapshotCodec.decodeLines(fields.get(1));
+        return Optional.of(new CartSnapshot(userId, version, lines));
+    }
+
+    private String key(Long userId) {
+        return keyPrefix + userId;
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static OptimisticLockingFailureException conflict(Cart cart) {
+        return new OptimisticLockingFailureException(
+                "Cart of user " + cart.getUserId() + " was modified since version " + cart.getVersion());
+    }
+}
@@ -0,0 +1,294 @@
+package fr.shopping.cart.infrastructure.writebehind.cart;
+
+import fr.shopping.cart.domain.cart.models.CartSnapshot;
+import fr.shopping.cart.domain.cart.stores.CartSnapshotCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal local en ajout seul des paniers en attente d'écriture en base (mode write-behind).
+ * Chaque enregistrement porte l'état complet d'un panier (ou sa suppression) : à la relecture,
+ * le dernier enregistrement d'un utilisateur l'emporte.
+ * <p>
+ * Le journal est découpé en segments numérotés {@code cart-journal-<n>.log}. Les écritures vont
+ * toujours au segment courant ; {@link #roll()} en ouvre un nouveau, et les segments antérieurs sont
+ * supprimés par {@link #deleteSegmentsBefore(long)} une fois leur contenu écrit en base.
+ * <p>
+ * En mode synchronisé, l'écriture sur disque est groupée, comme pour le journal des offres chaudes :
+ * {@link #append(CartSnapshot)} ne fait qu'ajouter l'enregistrement sous un verrou court et renvoie sa
+ * position, puis {@link #awaitDurable(long)} attend qu'un {@code force} la couvre ; un seul {@code force}
+ * couvre tous les enregistrements ajoutés pendant le précédent. Les verrous sont des
+ * {@link ReentrantLock} : un thread virtuel qui attend le disque ne bloque pas son thread porteur.
+ * <p>
+ * Format d'un enregistrement : longueur et CRC32 de la charge utile (deux {@code int}), puis type
+ * (octet), userId et version ({@code long}) et, pour un panier enregistré, les lignes encodées par
+ * {@link CartSnapshotCodec}. Un enregistrement tronqué ou corrompu (arrêt brutal pendant l'écriture)
+ * termine la relecture de son segment.
+ */
+class CartJournal implements Closeable {
+
+    private static final byte SAVED = 1;
+    private static final byte DELETED = 2;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Integer.BYTES;
+    private static final int PAYLOAD_HEADER_BYTES = Byte.BYTES + Long.BYTES + Long.BYTES;
+    private static final Pattern SEGMENT_NAME = Pattern.compile("cart-journal-(\\d+)\\.log");
+
+    private final Path directory;
+    private final boolean sync;
+    /** Protège le segment courant et les ajouts ; n'est jamais tenu pendant un {@code force}. */
+    private final ReentrantLock appendLock = new ReentrantLock();
+    /** Pris avant {@link #appendLock} : un seul {@code force} à la fois, sans bloquer les ajouts. */
+    private final ReentrantLock forceLock = new ReentrantLock();
+    private long segment;
+    private FileChannel channel;
+    /** Octets ajoutés depuis l'ouverture, tous segments confondus, sous {@link #appendLock}. */
+    private long written;
+    /** Octets écrits sur disque, sous {@link #forceLock}. */
+    private long forced;
+
+    /**
+     * Ouvre un nouveau segment après ceux déjà présents dans le répertoire, qui restent lisibles
+     * par {@link #replay()}.
+     *
+     * @param sync {@link #awaitDurable(long)} attend l'écriture sur disque des enregistrements
+     */
+    CartJournal(Path directory, boolean sync) {
+        this.directory = directory;
+        this.sync = sync;
+        try {
+            Files.createDirectories(directory);
+            this.segment = Arrays.stream(segments()).max().orElse(0) + 1;
+            this.channel = open(segment);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    /**
+     * Relit les segments antérieurs au segment courant, dans l'ordre.
+     *
+     * @return le dernier état connu de chaque panier, {@code null} pour un panier supprimé
+     */
+    Map<Long, CartSnapshot> replay() {
+        final Map<Long, CartSnapshot> carts = new HashMap<>();
+        appendLock.lock();
+        try {
+            for (long previous : segments()) {
+                if (previous < segment) {
+                    readSegment(Files.readAllBytes(segmentPath(previous)), carts);
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            appendLock.unlock();
+        }
+        return carts;
+    }
+
+    /**
+     * Ajoute l'état d'un panier, sans attendre l'écriture sur disque.
+     *
+     * @return la position de fin de l'enregistrement, à passer à {@link #awaitDurable(long)}
+     */
+    long append(CartSnapshot snapshot) {
+        final byte[] lines = CartSnapshotCodec.encodeLines(snapshot.lines());
+        return write(ByteBuffer.allocate(PAYLOAD_HEADER_BYTES + lines.length)
+                .put(SAVED)
+                .putLong(snapshot.userId())
+                .putLong(snapshot.version())
+                .put(lines)
+                .array());
+    }
+
+    /**
+     * Ajoute la suppression d'un panier, sans attendre l'écriture sur disque.
+     *
+     * @return la position de fin de l'enregistrement, à passer à {@link #awaitDurable(long)}
+     */
+    long appendDeletion(Long userId) {
+        return write(ByteBuffer.allocate(PAYLOAD_HEADER_BYTES)
+                .put(DELETED)
+                .putLong(userId)
+                .putLong(0)
+                .array());
+    }
+
+    /**
+     * Ferme le segment courant et en ouvre un nouveau.
+     *
+     * @return le numéro du nouveau segment
+     */
+    long roll() {
+        forceLock.lock();
+        appendLock.lock();
+        try {
+            closeChannel();
+            channel = open(++segment);
+            return segment;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            appendLock.unlock();
+            forceLock.unlock();
+        }
+    }
+
+    /**
+     * Attend que les enregistrements ajoutés jusqu'à {@code end} soient sur disque ; sans effet si le
+     * journal n'est pas synchronisé. Les enregistrements ajoutés entre-temps par d'autres threads sont
+     * couverts par le même {@code force}.
+     */
+    void awaitDurable(long end) {
+        if (!sync) {
+            return;
+        }
+        forceLock.lock();
+        try {
+            if (forced >= end) {
+                return;
+            }
+            final FileChannel target;
+            final long position;
+            appendLock.lock();
+            try {
+                target = channel;
+                position = written;
+            } finally {
+                appendLock.unlock();
+            }
+            target.force(false);
+            forced = position;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            forceLock.unlock();
+        }
+    }
+
+    void deleteSegmentsBefore(long firstKept) {
+        appendLock.lock();
+        try {
+            for (long previous : segments()) {
+                if (previous < firstKept) {
+                    Files.deleteIfExists(segmentPath(previous));
+                }
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        forceLock.lock();
+        appendLock.lock();
+        try {
+            closeChannel();
+        } finally {
+            appendLock.unlock();
+            forceLock.unlock();
+        }
+    }
+
+    /** Appelé sous {@link #forceLock} puis {@link #appendLock}. */
+    private void closeChannel() throws IOException {
+        if (sync && forced < written) {
+            channel.force(false);
+            forced = written;
+        }
+        channel.close();
+    }
+
+    /**
+     * @return la position de fin de l'enregistrement, tous segments confondus
+     */
+    private long write(byte[] payload) {
+        final CRC32 crc = new CRC32();
+        crc.update(payload);
+        final ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_BYTES + payload.length)
+                .putInt(payload.length)
+                .putInt((int) crc.getValue())
+                .put(payload)
+                .flip();
+        appendLock.lock();
+        try {
+            while (record.hasRemaining()) {
+                channel.write(record);
+            }
+            written += record.limit();
+            return written;
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    private static void readSegment(byte[] bytes, Map<Long, CartSnapshot> carts) {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.remaining() >= RECORD_HEADER_BYTES) {
+            final int length = buffer.getInt();
+            final int checksum = buffer.getInt();
+            if (length < PAYLOAD_HEADER_BYTES || length > buffer.remaining()) {
+                return;
+            }
+            final byte[] payload = new byte[length];
+            buffer.get(payload);
+            final CRC32 crc = new CRC32();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+
+            final ByteBuffer record = ByteBuffer.wrap(payload);
+            final byte type = record.get();
+            final long userId = record.getLong();
+            final long version = record.getLong();
+            if (type == DELETED) {
+                carts.put(userId, null);
+            } else {
+                final byte[] lines = Arrays.copyOfRange(payload, PAYLOAD_HEADER_BYTES, payload.length);
+                carts.put(userId, new CartSnapshot(userId, version, CartSnapshotCodec.decodeLines(lines)));
+            }
+        }
+    }
+
+    private long[] segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                    .map(file -> SEGMENT_NAME.matcher(file.getFileName().toString()))
+                    .filter(Matcher::matches)
+                    .mapToLong(matcher -> Long.parseLong(matcher.group(1)))
+                    .sorted()
+                    .toArray();
+        }
+    }
+
+    private FileChannel open(long number) throws IOException {
+        return FileChannel.open(segmentPath(number),
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    private Path segmentPath(long number) {
+        return directory.resolve("cart-journal-" + number + ".log");
+    }
+}
@@ -0,0 +1,455 @@
+package fr.shopping.cart.infrastructure.writebehind.cart;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartFlushStats;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.CartSnapshot;
+import fr.shopping.cart.domain.cart.models.CartSummary;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.stores.CartSnapshotOffers;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.jdbc.cart.CartCreationRepository;
+import fr.shopping.cart.infrastructure.jdbc.cart.CartDeletionRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.JpaCartStore;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Stockage des paniers en écriture différée (propriété {@code cart.store.type=write-behind}).
+ * <p>
+ * Les mutations s'appliquent à l'état en mémoire du panier de l'utilisateur, sous condition de
+ * version, et sont consignées dans un {@link CartJournal} local avant de rendre la main : un arrêt
+ * brutal ne perd aucune modification, le journal étant relu au démarrage. L'enregistrement est ajouté
+ * au journal sous le verrou de l'entrée du panier, mais son écriture sur disque est attendue après
+ * l'avoir relâché, et groupée avec celle des mutations concurrentes. Les paniers modifiés sont
+ * écrits en base par lots, toutes les {@code cart.write-behind.flush-interval}, dans une transaction
+ * par lot ({@code cart.write-behind.max-batch-size} paniers au plus) : plusieurs clics successifs sur
+ * une même ligne ne coûtent qu'une écriture. Un panier écrit et non modifié depuis quitte la mémoire,
+ * la base faisant de nouveau foi.
+ * <p>
+ * Comme pour le stockage Redis, les modifications du panier ne contrôlent ni ne réservent le stock
+ * ({@link #checksStockOnChange()}) : un clic sur un panier en mémoire ne lit que le cache catalogue, sans
+ * requête SQL, et le stock n'est contrôlé qu'au checkout, où un stock insuffisant refuse la commande.
+ * <p>
+ * Le checkout écrit d'abord le panier de l'utilisateur en base, dans sa propre transaction, puis le
+ * lit et le supprime par le stockage relationnel. Jusqu'à la fin de la transaction de checkout,
+ * les mutations du panier sont rejetées en conflit (et donc rejouées par {@code RetryingCartService}).
+ * <p>
+ * L'état en mémoire est propre à l'instance : ce mode suppose qu'un utilisateur est toujours servi
+ * par la même instance. Comme pour le stockage Redis, les prix figés des lignes en mémoire ne suivent
+ * pas le repricing SQL et sont actualisés à la modification suivante.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "cart.store.type", havingValue = "write-behind")
+public class WriteBehindCartStore implements CartStore {
+
+    private enum Status { CLEAN, DIRTY, DELETING }
+
+    /**
+     * État en mémoire d'un panier.
+     *
+     * @param snapshot   dernier état connu, absent pendant un checkout
+     * @param dirtySince instant ({@link System#nanoTime()}) de la première modification non écrite en base
+     * @param previous   état remis en place si le checkout est annulé
+     */
+    private record Entry(CartSnapshot snapshot, Status status, long dirtySince, Entry previous) {}
+
+    private final ConcurrentHashMap<Long, Entry> carts = new ConcurrentHashMap<>();
+    private final JpaCartStore database;
+    private final CartRepository cartRepository;
+    private final CartCreationRepository cartCreationRepository;
+    private final ProductRepository productRepository;
+    private final OfferRepository offerRepository;
+    private final Function<CartSnapshot.Line, Offer> catalogOffers;
+    private final TransactionTemplate flushTransaction;
+    private final CartJournal journal;
+    private final Duration flushInterval;
+    private final int maxBatchSize;
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("cart-flush").daemon().factory());
+
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushedCarts = new LongAdder();
+    private final LongAdder failedCarts = new LongAdder();
+    private final AtomicLong maxFlushLagNanos = new AtomicLong();
+    private volatile int lastBatchSize;
+    private volatile long lastFlushLagNanos;
+
+    public WriteBehindCartStore(
+            CartRepository cartRepository,
+            CartCreationRepository cartCreationRepository,
+            CartDeletionRepository cartDeletionRepository,
+            ProductRepository productRepository,
+            OfferRepository offerRepository,
+            CatalogService catalogService,
+            PlatformTransactionManager transactionManager,
+            @Value("${cart.write-behind.journal-dir:data/cart-journal}") Path journalDir,
+            @Value("${cart.write-behind.journal-sync:true}") boolean journalSync,
+            @Value("${cart.write-behind.flush-interval:200ms}") Duration flushInterval,
+            @Value("${cart.write-behind.max-batch-size:500}") int maxBatchSize
+    ) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("cart.write-behind.max-batch-size must be >= 1");
+        }
+        this.database = new JpaCartStore(cartRepository, cartCreationRepository, cartDeletionRepository);
+        this.cartRepository = cartRepository;
+        this.cartCreationRepository = cartCreationRepository;
+        this.productRepository = productRepository;
+        this.offerRepository = offerRepository;
+        this.catalogOffers = CartSnapshotOffers.fromCatalog(catalogService);
+        this.flushTransaction = new TransactionTemplate(transactionManager);
+        flushTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.journal = new CartJournal(journalDir, journalSync);
+        this.flushInterval = flushInterval;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Reprend les paniers consignés au journal et non écrits en base avant l'arrêt précédent,
+     * puis planifie les écritures par lots.
+     */
+    @PostConstruct
+    void start() {
+        final long now = System.nanoTime();
+        journal.replay().forEach((userId, snapshot) -> {
+            if (snapshot != null) {
+                carts.put(userId, new Entry(snapshot, Status.DIRTY, now, null));
+            }
+        });
+        scheduler.scheduleWithFixedDelay(this::scheduledFlush,
+                flushInterval.toNanos(), flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws IOException, InterruptedException {
+        scheduler.shutdown();
+        scheduler.awaitTermination(30, TimeUnit.SECONDS);
+        try {
+            flush();
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Override
+    public Optional<Cart> findForDisplay(Long userId) {
+        final Entry entry = carts.get(userId);
+        return entry != null && entry.status() != Status.DELETING
+                ? Optional.of(Cart.restore(entry.snapshot(), catalogOffers))
+                : database.findForDisplay(userId);
+    }
+
+    /**
+     * Lit le panier en mémoire, ou le charge depuis la base s'il n'y est pas.
+     *
+     * @throws OptimisticLockingFailureException si le panier est en cours de checkout
+     */
+    @Override
+    public Optional<Cart> findForUpdate(Long userId) {
+        Entry entry = carts.get(userId);
+        if (entry == null) {
+            final Optional<Cart> stored = database.findForUpdate(userId);
+            if (stored.isEmpty()) {
+                return Optional.empty();
+            }
+            entry = carts.computeIfAbsent(userId,
+                    id -> new Entry(CartSnapshot.of(stored.get()), Status.CLEAN, 0, null));
+        }
+        if (entry.status() == Status.DELETING) {
+            throw checkoutInProgress(userId);
+        }
+        return Optional.of(Cart.restore(entry.snapshot(), CartSnapshotOffers::reference));
+    }
+
+    /**
+     * Écrit en base les modifications en attente du panier, puis le lit par le stockage relationnel.
+     */
+    @Override
+    public Optional<Cart> findForCheckout(Long userId) {
+        flushLock.lock();
+        try {
+            final Entry entry = carts.get(userId);
+            if (entry != null && entry.status() == Status.DIRTY) {
+                writeBatch(List.of(entry));
+                if (carts.get(userId) == entry) {
+                    throw new OptimisticLockingFailureException("Cart of user " + userId + " could not be flushed");
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+        return database.findForCheckout(userId);
+    }
+
+    @Override
+    public boolean checksStockOnChange() {
+        return false;
+    }
+
+    @Override
+    public Optional<CartSummary> findSummary(Long userId) {
+        final Entry entry = carts.get(userId);
+        if (entry == null || entry.status() == Status.DELETING) {
+            return database.findSummary(userId);
+        }
+        final Cart cart = Cart.restore(entry.snapshot(), CartSnapshotOffers::reference);
+        return Optional.of(new CartSummary(userId, cart.getItemCount(), cart.getSubtotal()));
+    }
+
+    /**
+     * Crée un panier vide en mémoire, écrit en base au prochain lot. N'est appelé qu'après une lecture
+     * sans résultat : en l'absence d'état en mémoire, la base fait foi.
+     */
+    @Override
+    public void createIfAbsent(Long userId) {
+        final AtomicLong appended = new AtomicLong();
+        carts.compute(userId, (id, entry) -> {
+            if (entry != null && entry.status() == Status.DELETING) {
+                throw checkoutInProgress(id);
+            }
+            if (entry != null) {
+                return entry;
+            }
+            final CartSnapshot empty = CartSnapshot.empty(id);
+            appended.set(journal.append(empty));
+            return new Entry(empty, Status.DIRTY, System.nanoTime(), null);
+        });
+        journal.awaitDurable(appended.get());
+    }
+
+    /**
+     * @throws OptimisticLockingFailureException si le panier a changé de version depuis sa lecture
+     */
+    @Override
+    public void save(Cart cart) {
+        final AtomicLong appended = new AtomicLong();
+        carts.compute(cart.getUserId(), (id, entry) -> {
+            if (entry == null || entry.status() == Status.DELETING || entry.snapshot().version() != cart.getVersion()) {
+                throw new OptimisticLockingFailureException(
+                        "Cart of user " + id + " was modified since version " + cart.getVersion());
+            }
+            final CartSnapshot next = new CartSnapshot(id, cart.getVersion() + 1, CartSnapshot.of(cart).lines());
+            appended.set(journal.append(next));
+            final long dirtySince = entry.status() == Status.DIRTY ? entry.dirtySince() : System.nanoTime();
+            return new Entry(next, Status.DIRTY, dirtySince, null);
+        });
+        journal.awaitDurable(appended.get());
+    }
+
+    /**
+     * Supprime en base le panier lu par {@link #findForCheckout(Long)}. L'état en mémoire est écarté
+     * à la validation de la transaction, et remis en place si elle est annulée.
+     *
+     * @throws OptimisticLockingFailureException si le panier a été modifié en mémoire depuis sa lecture
+     */
+    @Override
+    public void delete(Cart cart) {
+        final Long userId = cart.getUserId();
+        final AtomicLong appended = new AtomicLong();
+        final Entry deleting = carts.compute(userId, (id, entry) -> {
+            if (entry != null && entry.status() != Status.CLEAN) {
+                throw new OptimisticLockingFailureException(
+                        "Cart of user " + id + " was modified since version " + cart.getVersion());
+            }
+            appended.set(journal.appendDeletion(id));
+            return new Entry(null, Status.DELETING, 0, entry);
+        });
+        journal.awaitDurable(appended.get());
+        database.delete(cart);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            carts.remove(userId, deleting);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    carts.remove(userId, deleting);
+                } else {
+                    carts.computeIfPresent(userId, (id, current) -> current == deleting ? deleting.previous() : current);
+                }
+            }
+        });
+    }
+
+    /**
+     * Écrit en base tous les paniers en attente, par lots. Le journal passe à un nouveau segment :
+     * les segments précédents sont supprimés une fois les lots écrits, après avoir reconsigné
+     * les paniers restés en attente (écriture en échec).
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            final long firstKeptSegment = journal.roll();
+            carts.forEach((userId, entry) -> {
+                if (entry.status() == Status.CLEAN) {
+                    carts.remove(userId, entry);
+                }
+            });
+
+            final List<Entry> pending = carts.values().stream()
+                    .filter(entry -> entry.status() == Status.DIRTY)
+                    .toList();
+            for (int from = 0; from < pending.size(); from += maxBatchSize) {
+                writeBatch(pending.subList(from, Math.min(from + maxBatchSize, pending.size())));
+            }
+
+            final AtomicLong appended = new AtomicLong();
+            carts.forEach((userId, entry) -> carts.computeIfPresent(userId, (id, current) -> {
+                if (current.status() == Status.DIRTY) {
+                    appended.set(journal.append(current.snapshot()));
+                }
+                return current;
+            }));
+            journal.awaitDurable(appended.get());
+            journal.deleteSegmentsBefore(firstKeptSegment);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    public CartFlushStats stats() {
+        final int pending = (int) carts.values().stream().filter(entry -> entry.status() == Status.DIRTY).count();
+        return new CartFlushStats(
+                flushes.sum(),
+                flushedCarts.sum(),
+                failedCarts.sum(),
+                lastBatchSize,
+                TimeUnit.NANOSECONDS.toMillis(lastFlushLagNanos),
+                TimeUnit.NANOSECONDS.toMillis(maxFlushLagNanos.get()),
+                pending
+        );
+    }
+
+    private void scheduledFlush() {
+        try {
+            flush();
+        } catch (RuntimeException ex) {
+            log.warn("Write-behind cart flush failed", ex);
+        }
+    }
+
+    /**
+     * Écrit un lot dans une transaction ; si elle échoue, chaque panier du lot est réécrit seul
+     * afin que seul le panier fautif reste en attente.
+     */
+    private void writeBatch(List<Entry> batch) {
+        try {
+            flushTransaction.executeWithoutResult(status -> writeToDatabase(batch));
+            markFlushed(batch);
+        } catch (RuntimeException batchFailure) {
+            if (batch.size() == 1) {
+                failedCarts.increment();
+                log.warn("Write-behind flush failed for cart of user {}", batch.getFirst().snapshot().userId(), batchFailure);
+                return;
+            }
+            for (Entry entry : batch) {
+                writeBatch(List.of(entry));
+            }
+        }
+    }
+
+    /**
+     * Aligne les paniers en base sur leur état en mémoire : lignes supprimées, ajoutées, quantités
+     * et prix unitaires, les totaux suivant par différence. Les paniers existants sont chargés
+     * en une requête.
+     */
+    private void writeToDatabase(List<Entry> batch) {
+        final Map<Long, Cart> stored = cartRepository.findForUpdateByUserIdIn(
+                        batch.stream().map(entry -> entry.snapshot().userId()).toList())
+                .stream()
+                .collect(Collectors.toMap(Cart::getUserId, Function.identity()));
+
+        for (Entry entry : batch) {
+            final CartSnapshot snapshot = entry.snapshot();
+            final Cart cart = stored.computeIfAbsent(snapshot.userId(), userId -> {
+                cartCreationRepository.insertIfAbsent(userId);
+                return cartRepository.findForUpdateByUserId(userId).orElseThrow();
+            });
+
+            for (CartLine line : new ArrayList<>(cart.getLines())) {
+                final boolean kept = snapshot.lines().stream().anyMatch(l ->
+                        l.productId().equals(line.getProduct().getId()) && l.offerId().equals(line.getOffer().getId()));
+                if (!kept) {
+                    cart.removeLine(line.getProduct().getId(), line.getOffer().getId());
+                }
+            }
+            for (CartSnapshot.Line line : snapshot.lines()) {
+                cart.findLine(line.productId(), line.offerId()).ifPresentOrElse(
+                        existing -> {
+                            if (existing.getQuantity() != line.quantity() || existing.getUnitPriceMinor() != line.unitPriceMinor()) {
+                                cart.changeLineQuantity(existing, line.quantity(), line.unitPriceMinor());
+                            }
+                        },
+                        () -> {
+                            final CartLine added = cart.addLine(
+                                    productRepository.getReferenceById(line.productId()),
+                                    offerRepository.getReferenceById(line.offerId()),
+                                    line.unitPriceMinor());
+                            if (line.quantity() != 1) {
+                                cart.changeLineQuantity(added, line.quantity(), line.unitPriceMinor());
+                            }
+                        }
+                );
+            }
+            cartRepository.save(cart);
+        }
+    }
+
+    /**
+     * Retire de la mémoire les paniers écrits, sauf ceux modifiés depuis la constitution du lot.
+     */
+    private void markFlushed(List<Entry> batch) {
+        final long now = System.nanoTime();
+        long lag = 0;
+        for (Entry flushed : batch) {
+            carts.remove(flushed.snapshot().userId(), flushed);
+            lag = Math.max(lag, now - flushed.dirtySince());
+        }
+        final long batchLag = lag;
+        flushes.increment();
+        flushedCarts.add(batch.size());
+        lastBatchSize = batch.size();
+        lastFlushLagNanos = batchLag;
+        maxFlushLagNanos.accumulateAndGet(batchLag, Math::max);
+    }
+
+    private static OptimisticLockingFailureException checkoutInProgress(Long userId) {
+        return new OptimisticLockingFailureException("Cart of user " + userId + " is being checked out");
+    }
+}
@@ -0,0 +1,14 @@
+-- Clés d'idempotence (en-tête Idempotency-Key) des POST panier et checkout : la réponse d'une requête
+-- réussie est conservée jusqu'à expires_at et rejouée pour une retentative portant la même clé.
+-- scope : opération et utilisateur ; request_hash : empreinte de la requête ; status NULL : requête en cours.
+CREATE TABLE idempotency_keys (
+                                  scope VARCHAR(64) NOT NULL,
+                                  idempotency_key VARCHAR(64) NOT NULL,
+                                  request_hash VARCHAR(64) NOT NULL,
+                                  status INTEGER,
+                                  response_body TEXT,
+                                  expires_at TIMESTAMP NOT NULL,
+                                  CONSTRAINT pk_idempotency_keys PRIMARY KEY (scope, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,20 @@
+ALTER TABLE carts ADD COLUMN item_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE carts ADD COLUMN subtotal DECIMAL(19, 2) NOT NULL DEFAULT 0;
+ALTER TABLE carts ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE cart_lines ADD COLUMN unit_price DECIMAL(19, 2);
+
+UPDATE cart_lines l
+SET unit_price = (
+    SELECT COALESCE(o.price - ROUND(o.price * o.discount_percent / 100.0, 2), 0)
+    FROM offers o
+    WHERE o.id = l.offer_id
+);
+
+ALTER TABLE cart_lines ALTER COLUMN unit_price SET NOT NULL;
+
+UPDATE carts c
+SET item_count = COALESCE((SELECT SUM(l.quantity) FROM cart_lines l WHERE l.cart_id = c.id), 0),
+    subtotal   = COALESCE((SELECT SUM(l.unit_price * l.quantity) FROM cart_lines l WHERE l.cart_id = c.id), 0);
+
+CREATE INDEX idx_cart_lines_offer_id ON cart_lines(offer_id);
@@ -0,0 +1,2 @@
+ALTER TABLE offers ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE cart_lines ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
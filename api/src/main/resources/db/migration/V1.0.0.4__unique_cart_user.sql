@@ -0,0 +1,30 @@
+-- Les doublons éventuels (créés par des premières requêtes concurrentes) sont fusionnés
+-- dans le panier le plus ancien de l'utilisateur avant la création de l'index unique.
+DELETE FROM cart_lines l
+WHERE l.cart_id NOT IN (SELECT MIN(c.id) FROM carts c GROUP BY c.user_id)
+  AND EXISTS (
+      SELECT 1
+      FROM cart_lines k
+      JOIN carts kc ON kc.id = k.cart_id
+      JOIN carts lc ON lc.id = l.cart_id
+      WHERE kc.user_id = lc.user_id
+        AND kc.id = (SELECT MIN(c.id) FROM carts c WHERE c.user_id = lc.user_id)
+        AND k.product_id = l.product_id
+        AND k.offer_id = l.offer_id
+  );
+
+UPDATE cart_lines l
+SET cart_id = (
+    SELECT MIN(c.id) FROM carts c WHERE c.user_id = (SELECT lc.user_id FROM carts lc WHERE lc.id = l.cart_id)
+)
+WHERE l.cart_id NOT IN (SELECT MIN(c.id) FROM carts c GROUP BY c.user_id);
+
+DELETE FROM carts
+WHERE id NOT IN (SELECT MIN(c.id) FROM carts c GROUP BY c.user_id);
+
+UPDATE carts c
+SET item_count = COALESCE((SELECT SUM(l.quantity) FROM cart_lines l WHERE l.cart_id = c.id), 0),
+    subtotal   = COALESCE((SELECT SUM(l.unit_price * l.quantity) FROM cart_lines l WHERE l.cart_id = c.id), 0),
+    version    = version + 1;
+
+CREATE UNIQUE INDEX uk_carts_user_id ON carts(user_id);
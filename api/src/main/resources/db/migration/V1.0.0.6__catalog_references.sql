@@ -0,0 +1,7 @@
+-- Référence métier des produits et offres, clé de l'import catalogue (upsert) :
+-- les identifiants techniques restent alloués par séquence.
+ALTER TABLE products ADD COLUMN reference VARCHAR(64);
+ALTER TABLE offers ADD COLUMN reference VARCHAR(64);
+
+CREATE UNIQUE INDEX uk_products_reference ON products(reference);
+CREATE UNIQUE INDEX uk_offers_reference ON offers(reference);
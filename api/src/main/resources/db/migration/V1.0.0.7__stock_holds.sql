@@ -0,0 +1,17 @@
+-- Réservations temporaires de stock prises à l'ajout au panier, expirées par un balayage périodique.
+-- offers.held_qty agrège les quantités réservées : le stock disponible (stock_qty - held_qty)
+-- se lit sur la ligne de l'offre, sans parcourir stock_holds.
+ALTER TABLE offers ADD COLUMN held_qty INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE offers ADD CONSTRAINT check_held_positive CHECK (held_qty >= 0);
+
+CREATE TABLE stock_holds (
+                             user_id BIGINT NOT NULL,
+                             offer_id BIGINT NOT NULL,
+                             quantity INTEGER NOT NULL,
+                             expires_at TIMESTAMP NOT NULL,
+                             CONSTRAINT pk_stock_holds PRIMARY KEY (user_id, offer_id),
+                             CONSTRAINT fk_offer_stock_hold FOREIGN KEY (offer_id) REFERENCES offers(id) ON DELETE CASCADE,
+                             CONSTRAINT check_hold_quantity_positive CHECK (quantity > 0)
+);
+
+CREATE INDEX idx_stock_holds_expires_at ON stock_holds(expires_at);
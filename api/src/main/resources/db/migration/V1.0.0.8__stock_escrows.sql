@@ -0,0 +1,12 @@
+-- Offres chaudes (checkout.hot-offers.*) : chaque instance prélève le stock par lots sur offers.stock_qty
+-- et le vend depuis des compteurs en mémoire. quantity : unités prélevées par l'instance et non vendues
+-- à la dernière réconciliation ; journal_segment : dernier segment de son journal local déjà réconcilié.
+CREATE TABLE stock_escrows (
+                               instance_id VARCHAR(64) NOT NULL,
+                               offer_id BIGINT NOT NULL,
+                               quantity INTEGER NOT NULL,
+                               journal_segment BIGINT NOT NULL DEFAULT 0,
+                               CONSTRAINT pk_stock_escrows PRIMARY KEY (instance_id, offer_id),
+                               CONSTRAINT fk_offer_stock_escrow FOREIGN KEY (offer_id) REFERENCES offers(id) ON DELETE CASCADE,
+                               CONSTRAINT check_escrow_quantity_positive CHECK (quantity >= 0)
+);
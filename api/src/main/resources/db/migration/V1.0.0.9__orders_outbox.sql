@@ -0,0 +1,25 @@
+-- Commandes créées au checkout et outbox des événements de commande, écrits dans la transaction
+-- qui décrémente le stock. Un relais publie les événements par lots puis les supprime : la table
+-- order_events ne contient que les événements en attente. Pas de clé étrangère vers orders,
+-- l'outbox étant purgée indépendamment des commandes.
+CREATE SEQUENCE orders_seq START WITH 50 INCREMENT BY 50;
+
+CREATE TABLE orders (
+                        id BIGINT NOT NULL,
+                        user_id BIGINT NOT NULL,
+                        item_count INTEGER NOT NULL,
+                        subtotal NUMERIC(19, 2) NOT NULL,
+                        created_at TIMESTAMP NOT NULL,
+                        CONSTRAINT pk_orders PRIMARY KEY (id)
+);
+
+CREATE TABLE order_events (
+                              id VARCHAR(36) NOT NULL,
+                              order_id BIGINT NOT NULL,
+                              event_type VARCHAR(32) NOT NULL,
+                              payload TEXT NOT NULL,
+                              created_at TIMESTAMP NOT NULL,
+                              CONSTRAINT pk_order_events PRIMARY KEY (id)
+);
+
+CREATE INDEX idx_order_events_created_at ON order_events(created_at);
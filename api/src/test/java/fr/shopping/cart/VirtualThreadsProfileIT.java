@@ -0,0 +1,42 @@
+package fr.shopping.cart;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles({"test", "virtual-threads"})
+class VirtualThreadsProfileIT {
+
+    @Autowired
+    private AsyncTaskExecutor applicationTaskExecutor;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    @DisplayName("Le profil virtual-threads exécute les tâches asynchrones sur des threads virtuels")
+    void asyncTasks_ShouldRunOnVirtualThreads() throws Exception {
+        final boolean virtual = applicationTaskExecutor.submit(() -> Thread.currentThread().isVirtual())
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue(virtual);
+    }
+
+    @Test
+    @DisplayName("Le profil virtual-threads dimensionne le pool Hikari")
+    void hikariPool_ShouldBeSizedForVirtualThreads() throws SQLException {
+        assertEquals(40, dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize());
+    }
+}
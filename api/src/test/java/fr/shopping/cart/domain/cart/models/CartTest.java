@@ -0,0 +1,101 @@
+package fr.shopping.cart.domain.cart.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CartTest {
+
+    private Cart cart;
+    private Product product;
+    private Offer offer;
+
+    @BeforeEach
+    void setUp() {
+        cart = new Cart(1L);
+        product = new Product("iPhone");
+        product.setId(10L);
+        offer = new Offer(new BigDecimal("100.00"), product);
+        offer.setId(100L);
+    }
+
+    @Test
+    @DisplayName("Un nouveau panier a des totaux à zéro")
+    void newCart_ShouldHaveZeroTotals() {
+        assertEquals(0, cart.getItemCount());
+        assertEquals(0, cart.getSubtotal().compareTo(BigDecimal.ZERO));
+    }
+
+    @Test
+    @DisplayName("L'ajout d'une ligne incrémente le nombre d'articles et le sous-total")
+    void addLine_ShouldUpdateTotals() {
+        cart.addLine(product, offer, 8_000L);
+
+        assertEquals(1, cart.getItemCount());
+        assertEquals(new BigDecimal("80.00"), cart.getSubtotal());
+        assertEquals(new BigDecimal("80.00"), cart.getLines().get(0).getUnitPrice());
+    }
+
+    @Test
+    @DisplayName("Le changement de quantité et de prix met à jour les totaux par différence")
+    void changeLineQuantity_ShouldApplyDelta() {
+        CartLine line = cart.addLine(product, offer, 8_000L);
+
+        cart.changeLineQuantity(line, 3, 7_500L);
+
+        assertEquals(3, cart.getItemCount());
+        assertEquals(new BigDecimal("225.00"), cart.getSubtotal());
+        assertEquals(new BigDecimal("75.00"), line.getUnitPrice());
+    }
+
+    @Test
+    @DisplayName("Une quantité invalide ne modifie ni la ligne ni les totaux")
+    void changeLineQuantity_WithInvalidQuantity_ShouldLeaveTotalsUntouched() {
+        CartLine line = cart.addLine(product, offer, 8_000L);
+
+        assertThrows(IllegalArgumentException.class, () -> cart.changeLineQuantity(line, 0, 7_500L));
+
+        assertEquals(1, cart.getItemCount());
+        assertEquals(new BigDecimal("80.00"), cart.getSubtotal());
+    }
+
+    @Test
+    @DisplayName("La suppression d'une ligne retire sa quantité et son total")
+    void removeLine_ShouldUpdateTotals() {
+        Product otherProduct = new Product("iPad");
+        otherProduct.setId(20L);
+        Offer otherOffer = new Offer(new BigDecimal("10.00"), otherProduct);
+        otherOffer.setId(200L);
+        CartLine line = cart.addLine(product, offer, 8_000L);
+        cart.changeLineQuantity(line, 2, 8_000L);
+        cart.addLine(otherProduct, otherOffer, 1_000L);
+
+        cart.removeLine(product.getId(), offer.getId());
+
+        assertEquals(1, cart.getItemCount());
+        assertEquals(new BigDecimal("10.00"), cart.getSubtotal());
+        assertTrue(cart.findLine(product.getId(), offer.getId()).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Un panier restauré depuis son snapshot retrouve version, lignes et totaux")
+    void restore_ShouldRebuildLinesAndTotalsFromSnapshot() {
+        cart.addLine(product, offer, 8_000L);
+        cart.changeLineQuantity(cart.getLines().getFirst(), 3, 8_000L);
+        final CartSnapshot snapshot = new CartSnapshot(1L, 7, CartSnapshot.of(cart).lines());
+
+        Cart restored = Cart.restore(snapshot, line -> offer);
+
+        assertEquals(7, restored.getVersion());
+        assertEquals(3, restored.getItemCount());
+        assertEquals(0, new BigDecimal("240.00").compareTo(restored.getSubtotal()));
+        assertTrue(restored.findLine(10L, 100L).isPresent());
+        assertEquals(snapshot, CartSnapshot.of(restored));
+    }
+}
@@ -0,0 +1,96 @@
+package fr.shopping.cart.domain.cart.pricing;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PriceCalculatorTest {
+
+    private static final long SEED = 20240611L;
+    private static final int SAMPLES = 500;
+
+    /**
+     * Implémentation historique en BigDecimal, servant de référence.
+     */
+    private static BigDecimal legacyFinalUnitPrice(BigDecimal price, int discountPercent) {
+        final BigDecimal discount = price.multiply(BigDecimal.valueOf(discountPercent))
+                .divide(BigDecimal.valueOf(100), 2, RoundingMode.HALF_UP);
+        return price.subtract(discount);
+    }
+
+    /**
+     * Prix aléatoires (graine fixe) et valeurs limites autour des arrondis.
+     */
+    static Stream<BigDecimal> prices() {
+        final Random random = new Random(SEED);
+        final LongStream edges = LongStream.of(0, 1, 2, 49, 50, 51, 99, 100, 101, 150, 9_999, 99_999_999_999L);
+        final LongStream randoms = random.longs(SAMPLES, 0, 100_000_000_000L);
+        return LongStream.concat(edges, randoms).mapToObj(cents -> BigDecimal.valueOf(cents, 2));
+    }
+
+    @ParameterizedTest
+    @MethodSource("prices")
+    @DisplayName("Le prix final en centimes est identique au calcul BigDecimal historique pour toutes les remises")
+    void shouldMatchLegacyComputationForEveryDiscount(BigDecimal price) {
+        for (int discount = 0; discount <= 100; discount++) {
+            final BigDecimal expected = legacyFinalUnitPrice(price, discount);
+
+            final long actual = PriceCalculator.finalUnitPrice(PriceCalculator.toMinorUnits(price), discount);
+
+            assertEquals(expected, PriceCalculator.toAmount(actual), "prix " + price + ", remise " + discount);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("prices")
+    @DisplayName("Le total de ligne en centimes est identique au calcul BigDecimal historique")
+    void shouldMatchLegacyLineTotal(BigDecimal price) {
+        final Random random = new Random(SEED ^ price.unscaledValue().longValue());
+        final int discount = random.nextInt(101);
+        final int quantity = 1 + random.nextInt(1_000);
+        final BigDecimal expected = legacyFinalUnitPrice(price, discount).multiply(BigDecimal.valueOf(quantity));
+
+        final long unitPrice = PriceCalculator.finalUnitPrice(PriceCalculator.toMinorUnits(price), discount);
+
+        assertEquals(expected, PriceCalculator.toAmount(PriceCalculator.lineTotal(unitPrice, quantity)));
+    }
+
+    @Test
+    @DisplayName("Un prix sans décimales est converti à l'échelle 2, comme le calcul historique")
+    void shouldNormalizeScale() {
+        assertEquals(legacyFinalUnitPrice(new BigDecimal("999"), 0), PriceCalculator.toAmount(
+                PriceCalculator.finalUnitPrice(PriceCalculator.toMinorUnits(new BigDecimal("999")), 0)));
+    }
+
+    @Test
+    @DisplayName("Un prix avec des fractions de centime est refusé")
+    void shouldRejectSubCentAmounts() {
+        assertThrows(ArithmeticException.class, () -> PriceCalculator.toMinorUnits(new BigDecimal("10.005")));
+    }
+
+    @Test
+    @DisplayName("Le prix final mémoïsé de l'offre suit les changements de prix et de remise")
+    void shouldRefreshMemoizedPriceOnChange() {
+        Offer offer = new Offer();
+        offer.setPrice(new BigDecimal("100.00"));
+        offer.setDiscountPercent(20);
+        assertEquals(8_000L, offer.getFinalUnitPriceMinor());
+
+        offer.setPrice(new BigDecimal("50.00"));
+        assertEquals(4_000L, offer.getFinalUnitPriceMinor());
+
+        offer.setDiscountPercent(0);
+        assertEquals(new BigDecimal("50.00"), offer.getFinalUnitPrice());
+    }
+}
@@ -0,0 +1,151 @@
+package fr.shopping.cart.domain.cart.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.CartConcurrentModificationException;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "cart.retry.max-attempts=50",
+        "cart.retry.initial-backoff=1ms",
+        "cart.retry.max-backoff=20ms"
+})
+@ActiveProfiles("test")
+class CartConcurrencyIT {
+
+    private static final int THREADS = 8;
+    private static final int ADDS_PER_THREAD = 3;
+
+    private final Long userId = 30_000L;
+    private final Long newUserId = 30_001L;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private RetryingCartService retryingCartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Concurrence");
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(1_000);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id IN (?, ?))", userId, newUserId);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id IN (?, ?)", userId, newUserId);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    @DisplayName("Des ajouts concurrents sur la même ligne ne perdent aucune mise à jour")
+    void concurrentAdds_ShouldNotLoseUpdates() throws Exception {
+        // Le panier et la ligne existent déjà : tous les threads se disputent la même ligne
+        final AddItemRequestDto request = new AddItemRequestDto(product.getId(), product.getOffers().get(0).getId());
+        cartService.addItem(userId, request);
+        final long conflictsBefore = retryingCartService.stats().conflicts();
+
+        final int rejected = runConcurrently(THREADS, ADDS_PER_THREAD, () -> cartService.addItem(userId, request));
+
+        Cart cart = cartRepository.findForUpdateByUserId(userId).orElseThrow();
+        final int quantity = cart.getLines().get(0).getQuantity();
+
+        assertEquals(0, rejected);
+        assertEquals(1 + THREADS * ADDS_PER_THREAD, quantity);
+        assertEquals(quantity, cart.getItemCount());
+        assertEquals(new BigDecimal("250.00"), cart.getSubtotal());
+        assertTrue(retryingCartService.stats().conflicts() > conflictsBefore);
+    }
+
+    @Test
+    @DisplayName("Des premiers ajouts concurrents pour un même utilisateur ne créent qu'un seul panier")
+    void concurrentFirstAdds_ShouldCreateSingleCart() throws Exception {
+        final int threads = 16;
+        final AddItemRequestDto request = new AddItemRequestDto(product.getId(), product.getOffers().get(0).getId());
+
+        final int rejected = runConcurrently(threads, 1, () -> cartService.addItem(newUserId, request));
+
+        assertEquals(0, rejected);
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE user_id = ?", Integer.class, newUserId));
+        Cart cart = cartRepository.findForUpdateByUserId(newUserId).orElseThrow();
+        assertEquals(1, cart.getLines().size());
+        assertEquals(threads, cart.getLines().get(0).getQuantity());
+        assertEquals(threads, cart.getItemCount());
+    }
+
+    /**
+     * Lance la mutation depuis plusieurs threads démarrés ensemble.
+     *
+     * @return le nombre de mutations abandonnées pour conflit
+     */
+    private int runConcurrently(int threads, int callsPerThread, Runnable mutation) throws Exception {
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < callsPerThread; i++) {
+                        try {
+                            mutation.run();
+                        } catch (CartConcurrentModificationException ex) {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return rejected.get();
+    }
+}
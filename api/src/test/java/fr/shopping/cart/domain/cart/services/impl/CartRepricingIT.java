@@ -0,0 +1,123 @@
+package fr.shopping.cart.domain.cart.services.impl;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartRepricingIT {
+
+    private final Long userId = 20_000L;
+    private final Long productId = 1L;
+    private final Long offerId = 2L;    // iPhone 14, 799.00 avec 20% de remise
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BigDecimal initialPrice;
+
+    @AfterEach
+    void tearDown() {
+        cartRepository.findByUserId(userId).ifPresent(cartRepository::delete);
+        if (initialPrice != null) {
+            updateOffer(offer -> offer.setPrice(initialPrice));
+        }
+    }
+
+    @Test
+    @DisplayName("Les totaux du panier sont maintenus à chaque ajout")
+    void addItem_ShouldMaintainTotals() {
+        cartService.addItem(userId, new AddItemRequestDto(productId, offerId));
+        cartService.addItem(userId, new AddItemRequestDto(productId, offerId));
+
+        Cart cart = cartRepository.findForUpdateByUserId(userId).orElseThrow();
+        assertEquals(2, cart.getItemCount());
+        assertEquals(new BigDecimal("1278.40"), cart.getSubtotal());
+        assertEquals(new BigDecimal("639.20"), cart.getLines().get(0).getUnitPrice());
+    }
+
+    @Test
+    @DisplayName("Un changement de prix d'offre reprice les lignes et le sous-total des paniers")
+    void priceChange_ShouldRepriceCarts() {
+        cartService.addItem(userId, new AddItemRequestDto(productId, offerId));
+        cartService.addItem(userId, new AddItemRequestDto(productId, offerId));
+        final long versionBefore = cartRepository.findByUserId(userId).orElseThrow().getVersion();
+        initialPrice = offerRepository.findById(offerId).orElseThrow().getPrice();
+
+        updateOffer(offer -> offer.setPrice(new BigDecimal("500.00")));
+
+        Cart cart = cartRepository.findForUpdateByUserId(userId).orElseThrow();
+        assertEquals(new BigDecimal("800.00"), cart.getSubtotal());
+        assertEquals(2, cart.getItemCount());
+        assertEquals(new BigDecimal("400.00"), cart.getLines().get(0).getUnitPrice());
+        assertEquals(versionBefore + 1, cart.getVersion());
+    }
+
+    @Test
+    @DisplayName("Un repricing en échec annule le changement de prix avec lui")
+    void priceChange_WhenRepricingFails_ShouldRollBackThePrice() {
+        cartService.addItem(userId, new AddItemRequestDto(productId, offerId));
+        final Cart before = cartRepository.findByUserId(userId).orElseThrow();
+        initialPrice = offerRepository.findById(offerId).orElseThrow().getPrice();
+
+        jdbcTemplate.execute("ALTER TABLE carts ADD CONSTRAINT it_reprice_failure CHECK (subtotal < 100000) NOCHECK");
+        try {
+            assertThrows(RuntimeException.class, () -> updateOffer(offer -> offer.setPrice(new BigDecimal("200000.00"))));
+        } finally {
+            jdbcTemplate.execute("ALTER TABLE carts DROP CONSTRAINT it_reprice_failure");
+        }
+
+        assertEquals(0, initialPrice.compareTo(offerRepository.findById(offerId).orElseThrow().getPrice()));
+        final Cart after = cartRepository.findByUserId(userId).orElseThrow();
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(before.getSubtotal(), after.getSubtotal());
+    }
+
+    @Test
+    @DisplayName("Une modification d'offre sans impact sur le prix ne touche pas les paniers")
+    void stockChange_ShouldNotRepriceCarts() {
+        cartService.addItem(userId, new AddItemRequestDto(productId, offerId));
+        final Cart before = cartRepository.findByUserId(userId).orElseThrow();
+
+        updateOffer(offer -> offer.setStockQty(offer.getStockQty()));
+        updateOffer(offer -> offer.setState(offer.getState()));
+
+        final Cart after = cartRepository.findByUserId(userId).orElseThrow();
+        assertEquals(before.getVersion(), after.getVersion());
+        assertEquals(before.getSubtotal(), after.getSubtotal());
+    }
+
+    private void updateOffer(Consumer<Offer> change) {
+        transactionTemplate.executeWithoutResult(status -> change.accept(offerRepository.findById(offerId).orElseThrow()));
+    }
+}
@@ -2,15 +2,31 @@ package fr.shopping.cart.domain.cart.services.impl;
 
 import fr.shopping.cart.domain.cart.exceptions.CartLineNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.exceptions.OfferNotFoundException;
 import fr.shopping.cart.domain.cart.exceptions.ProductNotFoundException;
 import fr.shopping.cart.domain.cart.models.Cart;
 import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.CartSummary;
 import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
 import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
 import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationStatus;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationType;
 import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
-import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
 import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -20,7 +36,10 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,11 +49,26 @@ import static org.mockito.Mockito.*;
 class CartServiceImplTest {
 
     @Mock
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private CatalogService catalogService;
+
+    @Mock
+    private StockHoldService stockHoldService;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private CartMetrics cartMetrics;
+
     @InjectMocks
     private CartServiceImpl cartService;
 
@@ -42,6 +76,21 @@ class CartServiceImplTest {
     private final Long PRODUCT_ID = 10L;
     private final Long OFFER_ID = 100L;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(cartStore.checksStockOnChange()).thenReturn(true);
+    }
+
+    private void stubCatalog(Product product, Offer offer) {
+        when(catalogService.findOffer(offer.getId())).thenReturn(Optional.of(new OfferSnapshot(
+                offer.getId(), product.getId(), product.getLabel(), offer.getPrice(), offer.getDiscountPercent(), offer.getState()
+        )));
+        when(offerRepository.findAvailableStockByIdAndProductId(offer.getId(), product.getId()))
+                .thenReturn(Optional.of(offer.getStockQty()));
+        when(offerRepository.getReferenceById(offer.getId())).thenReturn(offer);
+        when(productRepository.getReferenceById(product.getId())).thenReturn(product);
+    }
+
     @Nested
     @DisplayName("Tests pour addItem")
     class AddItemTests {
@@ -59,14 +108,14 @@ class CartServiceImplTest {
 
             AddItemRequestDto request = new AddItemRequestDto(PRODUCT_ID, OFFER_ID);
 
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-            when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            stubCatalog(product, offer);
 
             cartService.addItem(USER_ID, request);
 
             assertEquals(1, cart.getLines().size());
             assertEquals(1, cart.getLines().get(0).getQuantity());
-            verify(cartRepository).save(cart);
+            verify(cartStore).save(cart);
         }
 
         @Test
@@ -82,11 +131,61 @@ class CartServiceImplTest {
 
             AddItemRequestDto request = new AddItemRequestDto(PRODUCT_ID, OFFER_ID);
 
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-            when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            stubCatalog(product, offer);
 
             assertThrows(InsufficientStockException.class, () -> cartService.addItem(USER_ID, request));
-            verify(cartRepository, never()).save(any(Cart.class));
+            verify(cartStore, never()).save(any(Cart.class));
+        }
+
+        @Test
+        @DisplayName("Doit compter la quantité déjà réservée par l'utilisateur comme disponible et la réserver de nouveau")
+        void shouldKeepOwnStockHoldAvailable() {
+            Cart cart = new Cart(USER_ID);
+            Product product = new Product("iPhone");
+            product.setId(PRODUCT_ID);
+            Offer offer = new Offer(new BigDecimal("999"), product);
+            offer.setId(OFFER_ID);
+            offer.setStockQty(0);
+            product.getOffers().add(offer);
+            cart.addLine(product, offer, 99_900);
+
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            stubCatalog(product, offer);
+            when(stockHoldService.lockHolds(USER_ID, List.of(OFFER_ID))).thenReturn(Map.of(OFFER_ID, 1));
+
+            // Stock disponible nul : seule la réservation de l'utilisateur couvre sa ligne
+            cartService.updateItemQuantity(USER_ID, new UpdateItemRequestDto(PRODUCT_ID, OFFER_ID, 1));
+            verify(stockHoldService).holdStock(USER_ID, Map.of(OFFER_ID, 1), Map.of(OFFER_ID, 1));
+            verify(cartStore).save(cart);
+            assertThrows(InsufficientStockException.class,
+                    () -> cartService.addItem(USER_ID, new AddItemRequestDto(PRODUCT_ID, OFFER_ID)));
+        }
+
+        @Test
+        @DisplayName("Ne doit ni lire ni réserver le stock si le stockage des paniers ne le contrôle pas")
+        void shouldLeaveStockToCheckoutWhenStoreDoesNotCheckIt() {
+            Cart cart = new Cart(USER_ID);
+            Product product = new Product("iPhone");
+            product.setId(PRODUCT_ID);
+            Offer offer = new Offer(new BigDecimal("999"), product);
+            offer.setId(OFFER_ID);
+            offer.setStockQty(0);
+
+            when(cartStore.checksStockOnChange()).thenReturn(false);
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            when(catalogService.findOffer(OFFER_ID)).thenReturn(Optional.of(new OfferSnapshot(
+                    OFFER_ID, PRODUCT_ID, product.getLabel(), offer.getPrice(), 0, State.NEUF
+            )));
+            when(offerRepository.getReferenceById(OFFER_ID)).thenReturn(offer);
+            when(productRepository.getReferenceById(PRODUCT_ID)).thenReturn(product);
+
+            cartService.addItem(USER_ID, new AddItemRequestDto(PRODUCT_ID, OFFER_ID));
+
+            assertEquals(99_900, cart.getLines().get(0).getUnitPriceMinor());
+            verify(offerRepository, never()).findAvailableStockByIdAndProductId(any(), any());
+            verifyNoInteractions(stockHoldService);
+            verify(cartStore).save(cart);
         }
     }
 
@@ -94,12 +193,27 @@ class CartServiceImplTest {
     @DisplayName("Tests pour loadProductAndOffer")
     class InternalLoadingTests {
 
+        @Test
+        @DisplayName("Doit lever OfferNotFoundException si l'offre n'appartient pas au produit")
+        void shouldThrowOfferNotFoundWhenOfferBelongsToAnotherProduct() {
+            AddItemRequestDto request = new AddItemRequestDto(PRODUCT_ID, OFFER_ID);
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(new Cart(USER_ID)));
+            when(catalogService.findOffer(OFFER_ID)).thenReturn(Optional.of(new OfferSnapshot(
+                    OFFER_ID, 999L, "Autre", new BigDecimal("10"), 0, null
+            )));
+            when(productRepository.existsById(PRODUCT_ID)).thenReturn(true);
+
+            assertThrows(OfferNotFoundException.class, () -> cartService.addItem(USER_ID, request));
+            verify(offerRepository, never()).findAvailableStockByIdAndProductId(any(), any());
+        }
+
         @Test
         @DisplayName("Doit lever ProductNotFoundException si le produit n'existe pas")
         void shouldThrowProductNotFound() {
             AddItemRequestDto request = new AddItemRequestDto(PRODUCT_ID, OFFER_ID);
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(new Cart(USER_ID)));
-            when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.empty());
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(new Cart(USER_ID)));
+            when(catalogService.findOffer(OFFER_ID)).thenReturn(Optional.empty());
+            when(productRepository.existsById(PRODUCT_ID)).thenReturn(false);
 
             assertThrows(ProductNotFoundException.class, () -> cartService.addItem(USER_ID, request));
         }
@@ -126,13 +240,13 @@ class CartServiceImplTest {
 
             UpdateItemRequestDto request = new UpdateItemRequestDto(PRODUCT_ID, OFFER_ID, 5);
 
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-            when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            stubCatalog(product, offer);
 
             cartService.updateItemQuantity(USER_ID, request);
 
             assertEquals(5, line.getQuantity());
-            verify(cartRepository).save(cart);
+            verify(cartStore).save(cart);
         }
 
         @Test
@@ -151,14 +265,14 @@ class CartServiceImplTest {
 
             UpdateItemRequestDto request = new UpdateItemRequestDto(PRODUCT_ID, OFFER_ID, 5);
 
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-            when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            stubCatalog(product, offer);
 
             assertThrows(InsufficientStockException.class,
                     () -> cartService.updateItemQuantity(USER_ID, request));
 
             assertEquals(1, line.getQuantity());
-            verify(cartRepository, never()).save(any(Cart.class));
+            verify(cartStore, never()).save(any(Cart.class));
         }
 
         @Test
@@ -173,8 +287,8 @@ class CartServiceImplTest {
             Cart cart = new Cart(USER_ID);
             UpdateItemRequestDto request = new UpdateItemRequestDto(PRODUCT_ID, OFFER_ID, 5);
 
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-            when(productRepository.findById(PRODUCT_ID)).thenReturn(Optional.of(product));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            stubCatalog(product, offer);
 
             assertThrows(CartLineNotFoundException.class,
                     () -> cartService.updateItemQuantity(USER_ID, request));
@@ -204,7 +318,7 @@ class CartServiceImplTest {
             otherOffer.setId(999L);
             cart.getLines().add(new CartLine(cart, otherProduct, otherOffer, 2));
 
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
 
             cartService.removeItem(USER_ID, PRODUCT_ID, OFFER_ID);
 
@@ -213,43 +327,141 @@ class CartServiceImplTest {
                     l.getProduct().getId().equals(PRODUCT_ID) && l.getOffer().getId().equals(OFFER_ID)
             ), "La ligne cible doit avoir été supprimée");
 
-            verify(cartRepository).save(cart);
+            verify(cartStore).save(cart);
         }
 
         @Test
         @DisplayName("Ne doit rien supprimer si la ligne n'existe pas mais que le panier existe")
         void shouldDoNothingIfLineDoesNotExist() {
             Cart cart = new Cart(USER_ID);
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
 
             cartService.removeItem(USER_ID, PRODUCT_ID, OFFER_ID);
 
             assertEquals(0, cart.getLines().size());
-            verify(cartRepository).save(cart);
+            verify(cartStore).save(cart);
         }
 
         @Test
         @DisplayName("Doit lever CartNotFoundException si le panier n'existe pas")
         void shouldThrowExceptionWhenCartNotFound() {
-            when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.empty());
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.empty());
 
             assertThrows(fr.shopping.cart.domain.cart.exceptions.CartNotFoundException.class,
                     () -> cartService.removeItem(USER_ID, PRODUCT_ID, OFFER_ID));
 
-            verify(cartRepository, never()).save(any(Cart.class));
+            verify(cartStore, never()).save(any(Cart.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests pour applyBatch")
+    class ApplyBatchTests {
+
+        private OfferView view(int stock) {
+            return new OfferView(OFFER_ID, PRODUCT_ID, new BigDecimal("999"), 0, State.NEUF, stock);
+        }
+
+        @Test
+        @DisplayName("Doit charger les offres en une requête, appliquer les opérations et sauvegarder une seule fois")
+        void shouldApplyAllOperationsWithSingleSave() {
+            Product product = new Product("iPhone");
+            product.setId(PRODUCT_ID);
+            Offer offer = new Offer(new BigDecimal("999"), product);
+            offer.setId(OFFER_ID);
+            Cart cart = new Cart(USER_ID);
+
+            when(offerRepository.findViewsByIdIn(Set.of(OFFER_ID))).thenReturn(List.of(view(10)));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            when(productRepository.getReferenceById(PRODUCT_ID)).thenReturn(product);
+            when(offerRepository.getReferenceById(OFFER_ID)).thenReturn(offer);
+
+            List<CartItemOperationResultDto> results = cartService.applyBatch(USER_ID, new BatchCartItemsRequestDto(List.of(
+                    new CartItemOperationDto(CartItemOperationType.ADD, PRODUCT_ID, OFFER_ID, null),
+                    new CartItemOperationDto(CartItemOperationType.ADD, PRODUCT_ID, OFFER_ID, null),
+                    new CartItemOperationDto(CartItemOperationType.UPDATE, PRODUCT_ID, OFFER_ID, 4)
+            )));
+
+            assertTrue(results.stream().allMatch(r -> r.status() == CartItemOperationStatus.APPLIED));
+            assertEquals(4, cart.getLines().get(0).getQuantity());
+            verify(offerRepository, times(1)).findViewsByIdIn(any());
+            verify(cartStore, times(1)).save(cart);
+        }
+
+        @Test
+        @DisplayName("Une opération en échec ne doit pas interrompre les suivantes")
+        void shouldReportPartialFailures() {
+            Product product = new Product("iPhone");
+            product.setId(PRODUCT_ID);
+            Offer offer = new Offer(new BigDecimal("999"), product);
+            offer.setId(OFFER_ID);
+            Cart cart = new Cart(USER_ID);
+            cart.getLines().add(new CartLine(cart, product, offer, 1));
+
+            when(offerRepository.findViewsByIdIn(Set.of(OFFER_ID, 404L))).thenReturn(List.of(view(2)));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.of(cart));
+            when(productRepository.getReferenceById(PRODUCT_ID)).thenReturn(product);
+            when(offerRepository.getReferenceById(OFFER_ID)).thenReturn(offer);
+            when(productRepository.existsById(PRODUCT_ID)).thenReturn(true);
+
+            List<CartItemOperationResultDto> results = cartService.applyBatch(USER_ID, new BatchCartItemsRequestDto(List.of(
+                    new CartItemOperationDto(CartItemOperationType.UPDATE, PRODUCT_ID, OFFER_ID, 5),
+                    new CartItemOperationDto(CartItemOperationType.ADD, PRODUCT_ID, 404L, null),
+                    new CartItemOperationDto(CartItemOperationType.UPDATE, PRODUCT_ID, OFFER_ID, null),
+                    new CartItemOperationDto(CartItemOperationType.ADD, PRODUCT_ID, OFFER_ID, null),
+                    new CartItemOperationDto(CartItemOperationType.REMOVE, 99L, 999L, null)
+            )));
+
+            assertEquals(List.of(
+                    CartItemOperationStatus.INSUFFICIENT_STOCK,
+                    CartItemOperationStatus.NOT_FOUND,
+                    CartItemOperationStatus.INVALID,
+                    CartItemOperationStatus.APPLIED,
+                    CartItemOperationStatus.APPLIED
+            ), results.stream().map(CartItemOperationResultDto::status).toList());
+            assertEquals(2, cart.getLines().get(0).getQuantity());
+            verify(cartStore).save(cart);
+        }
+
+        @Test
+        @DisplayName("Sans panier et sans ajout, chaque opération doit être rapportée NOT_FOUND")
+        void shouldRejectOperationsWhenCartMissing() {
+            when(offerRepository.findViewsByIdIn(Set.of(OFFER_ID))).thenReturn(List.of(view(2)));
+            when(cartStore.findForUpdate(USER_ID)).thenReturn(Optional.empty());
+
+            List<CartItemOperationResultDto> results = cartService.applyBatch(USER_ID, new BatchCartItemsRequestDto(List.of(
+                    new CartItemOperationDto(CartItemOperationType.UPDATE, PRODUCT_ID, OFFER_ID, 2),
+                    new CartItemOperationDto(CartItemOperationType.REMOVE, PRODUCT_ID, OFFER_ID, null)
+            )));
+
+            assertTrue(results.stream().allMatch(r -> r.status() == CartItemOperationStatus.NOT_FOUND));
+            verify(cartStore, never()).save(any(Cart.class));
         }
     }
 
     @Test
     @DisplayName("getCart doit créer un panier s'il n'existe pas")
     void shouldCreateCartWhenNotFound() {
-        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.empty());
-        when(cartRepository.save(any(Cart.class))).thenAnswer(i -> i.getArguments()[0]);
+        when(cartStore.findForDisplay(USER_ID))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(new Cart(USER_ID)));
 
         Cart result = cartService.getCart(USER_ID);
 
         assertNotNull(result);
         assertEquals(USER_ID, result.getUserId());
-        verify(cartRepository, times(1)).save(any(Cart.class));
+        verify(cartStore, times(1)).createIfAbsent(USER_ID);
+        verify(cartStore, never()).save(any(Cart.class));
+    }
+
+    @Test
+    @DisplayName("getCartSummary doit retourner un résumé vide sans créer de panier")
+    void shouldReturnEmptySummaryWithoutCreatingCart() {
+        when(cartStore.findSummary(USER_ID)).thenReturn(Optional.empty());
+
+        CartSummary result = cartService.getCartSummary(USER_ID);
+
+        assertEquals(CartSummary.empty(USER_ID), result);
+        verify(cartStore, never()).save(any(Cart.class));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,105 @@
+package fr.shopping.cart.domain.cart.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.CartConcurrentModificationException;
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.CartConflictStats;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RetryingCartServiceTest {
+
+    @Mock
+    private CartServiceImpl delegate;
+
+    private RetryingCartService cartService;
+
+    private final Long USER_ID = 1L;
+    private final AddItemRequestDto request = new AddItemRequestDto(10L, 100L);
+
+    @BeforeEach
+    void setUp() {
+        cartService = new RetryingCartService(delegate, 3, Duration.ofMillis(1), Duration.ofMillis(2));
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException("Cart", 1L);
+    }
+
+    @Test
+    @DisplayName("Doit rejouer la mutation après un conflit de version")
+    void shouldRetryOnOptimisticConflict() {
+        doThrow(conflict()).doNothing().when(delegate).addItem(USER_ID, request);
+
+        cartService.addItem(USER_ID, request);
+
+        verify(delegate, times(2)).addItem(USER_ID, request);
+        assertEquals(new CartConflictStats(2, 1, 1, 0), cartService.stats());
+    }
+
+    @Test
+    @DisplayName("Doit lever CartConcurrentModificationException après épuisement des tentatives")
+    void shouldGiveUpAfterMaxAttempts() {
+        doThrow(conflict()).when(delegate).addItem(USER_ID, request);
+
+        assertThrows(CartConcurrentModificationException.class, () -> cartService.addItem(USER_ID, request));
+
+        verify(delegate, times(3)).addItem(USER_ID, request);
+        CartConflictStats stats = cartService.stats();
+        assertEquals(new CartConflictStats(3, 3, 2, 1), stats);
+        assertEquals(1.0, stats.conflictRate());
+    }
+
+    @Test
+    @DisplayName("Doit rejouer la mutation après un deadlock ou une ligne créée en concurrence")
+    void shouldRetryOnLockLossAndDuplicateKey() {
+        doThrow(new CannotAcquireLockException("deadlock"))
+                .doThrow(new DuplicateKeyException("uk_cart_product_offer"))
+                .doNothing()
+                .when(delegate).addItem(USER_ID, request);
+
+        cartService.addItem(USER_ID, request);
+
+        verify(delegate, times(3)).addItem(USER_ID, request);
+        assertEquals(new CartConflictStats(3, 2, 2, 0), cartService.stats());
+    }
+
+    @Test
+    @DisplayName("Ne doit pas rejouer une erreur métier")
+    void shouldNotRetryBusinessErrors() {
+        doThrow(new InsufficientStockException(10L, 100L)).when(delegate).addItem(USER_ID, request);
+
+        assertThrows(InsufficientStockException.class, () -> cartService.addItem(USER_ID, request));
+
+        verify(delegate, times(1)).addItem(USER_ID, request);
+        assertEquals(new CartConflictStats(1, 0, 0, 0), cartService.stats());
+    }
+
+    @Test
+    @DisplayName("Une mutation sans conflit n'est exécutée qu'une fois")
+    void shouldExecuteOnceWithoutConflict() {
+        doNothing().when(delegate).removeItem(USER_ID, 10L, 100L);
+
+        cartService.removeItem(USER_ID, 10L, 100L);
+
+        verify(delegate, times(1)).removeItem(USER_ID, 10L, 100L);
+        assertEquals(0.0, cartService.stats().conflictRate());
+    }
+}
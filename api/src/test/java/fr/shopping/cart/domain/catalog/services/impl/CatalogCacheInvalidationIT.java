@@ -0,0 +1,52 @@
+package fr.shopping.cart.domain.catalog.services.impl;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogCacheInvalidationIT {
+
+    private final Long offerId = 2L;    // iPhone 14, 799.00 avec 20% de remise
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    @DisplayName("La modification d'une offre doit invalider son instantané en cache")
+    void updatingOffer_ShouldEvictCachedSnapshot() {
+        final BigDecimal initialPrice = catalogService.findOffer(offerId).orElseThrow().price();
+
+        try {
+            updatePrice(new BigDecimal("500.00"));
+
+            assertEquals(new BigDecimal("400.00"), catalogService.findOffer(offerId).orElseThrow().finalUnitPrice());
+        } finally {
+            updatePrice(initialPrice);
+        }
+    }
+
+    private void updatePrice(BigDecimal price) {
+        transactionTemplate.executeWithoutResult(status -> {
+            Offer offer = offerRepository.findById(offerId).orElseThrow();
+            offer.setPrice(price);
+        });
+    }
+}
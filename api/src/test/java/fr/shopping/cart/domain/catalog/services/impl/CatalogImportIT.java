@@ -0,0 +1,231 @@
+package fr.shopping.cart.domain.catalog.services.impl;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.services.CartRepricingService;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.catalog.models.CatalogImportReject;
+import fr.shopping.cart.domain.catalog.models.CatalogImportReport;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+import fr.shopping.cart.domain.catalog.services.CatalogImportService;
+import fr.shopping.cart.domain.catalog.services.CatalogService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jdbc.catalog.CatalogImportRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.metrics.RequestDbCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogImportIT {
+
+    private static final String HEADER = "product_ref,product_label,offer_ref,state,price,discount_percent,stock_qty";
+
+    private final Long userId = 21_000L;
+
+    @Autowired
+    private CatalogImportService catalogImportService;
+
+    @Autowired
+    private CatalogImportRepository catalogImportRepository;
+
+    @Autowired
+    private CartRepricingService cartRepricingService;
+
+    @Autowired
+    private CatalogService catalogService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    private Path directory;
+
+    @AfterEach
+    void cleanUp() {
+        cartRepository.findByUserId(userId).ifPresent(cartRepository::delete);
+        jdbcTemplate.update("DELETE FROM offers WHERE reference LIKE 'IT-%'");
+        jdbcTemplate.update("DELETE FROM products WHERE reference LIKE 'IT-%'");
+    }
+
+    @Test
+    @DisplayName("Les lignes valides sont importées, les lignes invalides comptées et écartées")
+    void importFile_ShouldImportValidRowsAndReportRejects() throws IOException {
+        final Path file = write("catalog.csv",
+                HEADER,
+                "IT-P1,\"Imprimante, laser\",IT-O1,NEUF,199.90,10,5",
+                "IT-P1,\"Imprimante, laser\",IT-O2,RECONDITIONNE,149.00,0,2",
+                "IT-P2,Toner,IT-O3,OCCASION,25,0,0",
+                "IT-P2,Toner,IT-O4,NEUF,25.00,120,1",
+                "IT-P2,Toner,IT-O5,NEUF,25.00,0,-1",
+                "IT-P2,Toner,IT-O6,CASSE,25.00,0,1",
+                "IT-P2,Toner,IT-O7,NEUF,25.001,0,1",
+                "IT-P2,Toner,IT-O8",
+                "",
+                "IT-P2,Toner,IT-O1,NEUF,189.90,10,7");
+
+        final CatalogImportReport report = catalogImportService.importFile(file);
+
+        assertEquals(9, report.rowsRead());
+        assertEquals(4, report.rowsImported());
+        assertEquals(5, report.rowsRejected());
+        assertEquals(List.of(5L, 6L, 7L, 8L, 9L),
+                report.rejects().stream().map(CatalogImportReject::lineNumber).toList());
+        assertTrue(report.rejects().get(0).reason().contains("discount_percent"));
+        assertTrue(report.rejects().get(2).reason().contains("unknown state"));
+
+        assertEquals(Map.of("IT-P1", "Imprimante, laser", "IT-P2", "Toner"), productLabels());
+        // Dernière ligne d'une référence : l'offre IT-O1 passe sur le produit IT-P2
+        assertEquals(List.of("IT-O1:IT-P2:189.90:7", "IT-O2:IT-P1:149.00:2", "IT-O3:IT-P2:25.00:0"), offers());
+    }
+
+    @Test
+    @DisplayName("Un second import met à jour les offres existantes et reprice les paniers")
+    void importFile_Twice_ShouldUpsertAndRepriceCarts() throws IOException {
+        catalogImportService.importFile(write("catalog.csv",
+                HEADER,
+                "IT-P1,Imprimante,IT-O1,NEUF,100.00,0,5",
+                "IT-P1,Imprimante,IT-O2,NEUF,50.00,0,5"));
+        final Map<String, Object> offer = jdbcTemplate.queryForMap(
+                "SELECT id, product_id FROM offers WHERE reference = 'IT-O1'");
+        cartService.addItem(userId, new AddItemRequestDto(
+                ((Number) offer.get("product_id")).longValue(), ((Number) offer.get("id")).longValue()));
+
+        final CatalogImportReport report = catalogImportService.importFile(write("catalog.jsonl",
+                "{\"product_ref\":\"IT-P1\",\"product_label\":\"Imprimante A4\",\"offer_ref\":\"IT-O1\",\"state\":\"NEUF\",\"price\":\"100.00\",\"discount_percent\":20,\"stock_qty\":8}",
+                "{\"product_ref\":\"IT-P1\",\"product_label\":\"Imprimante A4\",\"offer_ref\":\"IT-O2\",\"state\":\"NEUF\",\"price\":50.00,\"discount_percent\":0,\"stock_qty\":5}",
+                "{\"product_ref\":\"IT-P1\",\"product_label\":\"Imprimante A4\",\"offer_ref\":\"IT-O3\",\"state\":\"NEUF\",\"price\":10,\"discount_percent\":0,\"stock_qty\":1}",
+                "not json"));
+
+        assertEquals(3, report.rowsImported());
+        assertEquals(1, report.rowsRejected());
+        assertEquals(1, report.repricedOffers());
+        assertEquals(Map.of("IT-P1", "Imprimante A4"), productLabels());
+        assertEquals(List.of("IT-O1:IT-P1:100.00:8", "IT-O2:IT-P1:50.00:5", "IT-O3:IT-P1:10.00:1"), offers());
+        assertEquals(List.of(1L, 0L), jdbcTemplate.queryForList(
+                "SELECT version FROM offers WHERE reference IN ('IT-O1', 'IT-O2') ORDER BY reference", Long.class));
+
+        final Cart cart = cartRepository.findByUserId(userId).orElseThrow();
+        assertEquals(new BigDecimal("80.00"), cart.getSubtotal());
+    }
+
+    @Test
+    @DisplayName("Le stock importé est diminué des prélèvements et ne descend pas sous les réservations")
+    void importFile_ShouldKeepEscrowsAndHolds() throws IOException {
+        catalogImportService.importFile(write("catalog.csv",
+                HEADER,
+                "IT-P1,Imprimante,IT-O1,NEUF,100.00,0,10"));
+        final Long offerId = jdbcTemplate.queryForObject("SELECT id FROM offers WHERE reference = 'IT-O1'", Long.class);
+        jdbcTemplate.update("UPDATE offers SET stock_qty = 7, held_qty = 2 WHERE id = ?", offerId);
+        jdbcTemplate.update("INSERT INTO stock_escrows (instance_id, offer_id, quantity) VALUES ('it-import', ?, 3)", offerId);
+
+        catalogImportService.importFile(write("catalog-2.csv",
+                HEADER,
+                "IT-P1,Imprimante,IT-O1,NEUF,100.00,0,8"));
+        assertEquals(List.of("IT-O1:IT-P1:100.00:5"), offers());
+
+        catalogImportService.importFile(write("catalog-3.csv",
+                HEADER,
+                "IT-P1,Imprimante,IT-O1,NEUF,100.00,0,4"));
+        assertEquals(List.of("IT-O1:IT-P1:100.00:2"), offers(), "Plafonné aux 2 unités réservées par les paniers");
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT version FROM offers WHERE id = ?", Integer.class, offerId));
+    }
+
+    @Test
+    @DisplayName("Un import invalide le cache catalogue des offres existantes et des produits renommés")
+    void importFile_ShouldEvictCatalogCache() throws IOException {
+        catalogImportService.importFile(write("catalog.csv",
+                HEADER,
+                "IT-P1,Imprimante,IT-O1,NEUF,100.00,0,5",
+                "IT-P1,Imprimante,IT-O2,NEUF,50.00,0,5"));
+        final Long firstOfferId = jdbcTemplate.queryForObject("SELECT id FROM offers WHERE reference = 'IT-O1'", Long.class);
+        final Long secondOfferId = jdbcTemplate.queryForObject("SELECT id FROM offers WHERE reference = 'IT-O2'", Long.class);
+        catalogService.findOffer(firstOfferId).orElseThrow();
+        catalogService.findOffer(secondOfferId).orElseThrow();
+
+        catalogImportService.importFile(write("catalog-2.csv",
+                HEADER,
+                "IT-P1,Imprimante A4,IT-O1,NEUF,90.00,0,5"));
+
+        final OfferSnapshot repriced = catalogService.findOffer(firstOfferId).orElseThrow();
+        assertEquals(new BigDecimal("90.00"), repriced.price());
+        assertEquals("Imprimante A4", repriced.label());
+        // IT-O2 est absente du fichier, mais son produit a été renommé
+        assertEquals("Imprimante A4", catalogService.findOffer(secondOfferId).orElseThrow().label());
+    }
+
+    @Test
+    @DisplayName("Chaque commit s'exécute en un nombre fixe de requêtes, quel que soit le nombre de lignes")
+    void importFile_ShouldUseConstantStatementsPerCommit() throws IOException {
+        final CatalogImportService service = new CatalogImportServiceImpl(
+                catalogImportRepository, cartRepricingService, catalogService, transactionManager, 100, 10);
+        final List<String> lines = IntStream.range(0, 1_000)
+                .mapToObj(i -> "IT-P%d,Produit %d,IT-O%d,NEUF,%d.50,5,10".formatted(i / 4, i / 4, i, i))
+                .collect(Collectors.toList());
+        lines.addFirst(HEADER);
+
+        final RequestDbCounters counters = RequestDbCounters.open(false);
+        final CatalogImportReport report;
+        try {
+            report = service.importFile(write("catalog.csv", lines.toArray(String[]::new)));
+        } finally {
+            RequestDbCounters.close();
+        }
+
+        assertEquals(1_000, report.rowsImported());
+        assertEquals(10, report.commits());
+        assertEquals(1_000, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM offers WHERE reference LIKE 'IT-%'", Integer.class));
+        assertEquals(250, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM products WHERE reference LIKE 'IT-%'", Integer.class));
+        assertTrue(counters.statements() <= 10 * 6,
+                "Prix et libellés existants, identifiants et upserts en batch par commit : " + counters.statements());
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), List.of(lines));
+    }
+
+    private Map<String, String> productLabels() {
+        return jdbcTemplate.query("SELECT reference, label FROM products WHERE reference LIKE 'IT-%'",
+                (rs, i) -> Map.entry(rs.getString(1), rs.getString(2))
+        ).stream().collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    private List<String> offers() {
+        return jdbcTemplate.queryForList("""
+                SELECT o.reference || ':' || p.reference || ':' || o.price || ':' || o.stock_qty
+                FROM offers o JOIN products p ON p.id = o.product_id
+                WHERE o.reference LIKE 'IT-%'
+                ORDER BY o.reference
+                """, String.class);
+    }
+}
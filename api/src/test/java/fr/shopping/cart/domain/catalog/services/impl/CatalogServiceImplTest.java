@@ -0,0 +1,83 @@
+package fr.shopping.cart.domain.catalog.services.impl;
+
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.catalog.models.CatalogCacheStats;
+import fr.shopping.cart.domain.catalog.models.OfferSnapshot;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogServiceImplTest {
+
+    private static final Long OFFER_ID = 100L;
+    private static final Long PRODUCT_ID = 10L;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    private CatalogServiceImpl catalogService;
+
+    @BeforeEach
+    void setUp() {
+        catalogService = new CatalogServiceImpl(offerRepository, 100, Duration.ofMinutes(10));
+    }
+
+    private OfferSnapshot snapshot() {
+        return new OfferSnapshot(OFFER_ID, PRODUCT_ID, "iPhone", new BigDecimal("100.00"), 20, State.NEUF);
+    }
+
+    @Test
+    @DisplayName("Doit lire la base une seule fois puis servir l'offre depuis le cache")
+    void shouldLoadOnceThenHit() {
+        when(offerRepository.findSnapshotById(OFFER_ID)).thenReturn(Optional.of(snapshot()));
+
+        catalogService.findOffer(OFFER_ID);
+        OfferSnapshot cached = catalogService.findOffer(OFFER_ID).orElseThrow();
+
+        assertEquals(new BigDecimal("80.00"), cached.finalUnitPrice());
+        verify(offerRepository, times(1)).findSnapshotById(OFFER_ID);
+        CatalogCacheStats stats = catalogService.stats();
+        assertEquals(1, stats.hitCount());
+        assertEquals(1, stats.missCount());
+    }
+
+    @Test
+    @DisplayName("Une offre inexistante ne doit pas être mise en cache")
+    void shouldNotCacheMissingOffer() {
+        when(offerRepository.findSnapshotById(OFFER_ID)).thenReturn(Optional.empty());
+
+        assertTrue(catalogService.findOffer(OFFER_ID).isEmpty());
+        assertTrue(catalogService.findOffer(OFFER_ID).isEmpty());
+
+        verify(offerRepository, times(2)).findSnapshotById(OFFER_ID);
+    }
+
+    @Test
+    @DisplayName("L'invalidation d'une offre ou de son produit doit forcer un rechargement")
+    void shouldReloadAfterEviction() {
+        when(offerRepository.findSnapshotById(OFFER_ID)).thenReturn(Optional.of(snapshot()));
+
+        catalogService.findOffer(OFFER_ID);
+        catalogService.evictOffer(OFFER_ID);
+        catalogService.findOffer(OFFER_ID);
+        catalogService.evictProduct(PRODUCT_ID);
+        catalogService.findOffer(OFFER_ID);
+
+        verify(offerRepository, times(3)).findSnapshotById(OFFER_ID);
+    }
+}
@@ -0,0 +1,60 @@
+package fr.shopping.cart.domain.checkout.models;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockCounterTest {
+
+    @Test
+    @DisplayName("Un prélèvement est servi par un seul segment, en tout-ou-rien")
+    void tryTake_ShouldBeServedByOneStripe() {
+        final StripedStockCounter counter = new StripedStockCounter(2);
+        counter.add(4);
+
+        assertTrue(counter.tryTake(2));
+        assertFalse(counter.tryTake(3), "Les 2 unités restantes sont sur deux segments");
+        assertEquals(2, counter.sum());
+        assertEquals(2, counter.drain());
+        assertEquals(0, counter.sum());
+    }
+
+    @Test
+    @DisplayName("Des prélèvements concurrents ne vendent jamais plus que le stock")
+    void tryTake_ShouldNeverOversellUnderContention() throws InterruptedException {
+        final StripedStockCounter counter = new StripedStockCounter(8);
+        counter.add(10_000);
+        final AtomicInteger taken = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 2_000; i++) {
+                    if (counter.tryTake(1)) {
+                        taken.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(10_000, taken.get() + counter.drain());
+    }
+}
@@ -0,0 +1,165 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.checkout.services.BulkCheckoutService;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutResultDto;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutStatus;
+import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import fr.shopping.cart.infrastructure.metrics.RequestDbCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class BulkCheckoutIT {
+
+    private static final long FIRST_USER_ID = 20_000L;
+
+    @Autowired
+    private BulkCheckoutService bulkCheckoutService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id >= ?)", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id >= ?", FIRST_USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("Le stock est attribué dans l'ordre de la requête, chaque panier en tout-ou-rien")
+    void checkout_ShouldAllocateStockInRequestOrder() throws Exception {
+        final Offer offer = createOffer("Imprimante", 3);
+        final Offer other = createOffer("Toner", 10);
+        createCart(FIRST_USER_ID, List.of(offer), 2);
+        createCart(FIRST_USER_ID + 1, List.of(other, offer), 2);
+        createCart(FIRST_USER_ID + 2, List.of(offer), 1);
+
+        //language=json
+        final String json = """
+                { "userIds": [%d, %d, %d, %d, %d] }
+                """.formatted(FIRST_USER_ID, FIRST_USER_ID + 1, FIRST_USER_ID + 2, FIRST_USER_ID + 3, FIRST_USER_ID);
+
+        mockMvc.perform(post("/api/v1/checkout:bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results.length()").value(4))
+                .andExpect(jsonPath("$.results[0].status").value("CHECKED_OUT"))
+                .andExpect(jsonPath("$.results[0].itemCount").value(2))
+                .andExpect(jsonPath("$.results[1].status").value("INSUFFICIENT_STOCK"))
+                .andExpect(jsonPath("$.results[2].status").value("CHECKED_OUT"))
+                .andExpect(jsonPath("$.results[3].status").value("CART_NOT_FOUND"));
+
+        assertEquals(0, stockOf(offer));
+        assertEquals(10, stockOf(other), "Un panier refusé ne doit décrémenter aucune de ses offres");
+        assertEquals(List.of(FIRST_USER_ID + 1), remainingCartUsers());
+    }
+
+    @Test
+    @DisplayName("Le nombre de requêtes SQL ne dépend pas du nombre de paniers d'une tranche")
+    void checkout_ShouldUseConstantStatementsPerChunk() {
+        final Offer first = createOffer("Ramette", 500);
+        final Offer second = createOffer("Agrafeuse", 500);
+        final List<Long> userIds = LongStream.range(FIRST_USER_ID, FIRST_USER_ID + 120).boxed().toList();
+        userIds.forEach(userId -> createCart(userId, List.of(first, second), 2));
+
+        final RequestDbCounters counters = RequestDbCounters.open(true);
+        final List<BulkCheckoutResultDto> results;
+        try {
+            results = bulkCheckoutService.checkout(userIds);
+        } finally {
+            RequestDbCounters.close();
+        }
+
+        assertEquals(120, results.size());
+        assertTrue(results.stream().allMatch(result -> result.status() == BulkCheckoutStatus.CHECKED_OUT));
+        assertEquals(260, stockOf(first));
+        assertEquals(260, stockOf(second));
+        assertEquals(List.of(), remainingCartUsers());
+        // Le profil de test lit chaque identifiant dans la séquence ; en production, un appel couvre 50 commandes.
+        final int sequenceReads = counters.shapes().entrySet().stream()
+                .filter(shape -> shape.getKey().startsWith("select next value for"))
+                .mapToInt(Map.Entry::getValue)
+                .sum();
+        assertTrue(counters.statements() - sequenceReads <= 10,
+                "Lecture des paniers, du stock, décrémentations, suppressions et commandes en batch : "
+                        + counters.shapes());
+    }
+
+    @Test
+    @DisplayName("Une requête sans utilisateur est refusée")
+    void checkout_WithoutUsers_ShouldReturn400() throws Exception {
+        mockMvc.perform(post("/api/v1/checkout:bulk")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"userIds\": [] }"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private Offer createOffer(String label, int stock) {
+        Product product = new Product(label);
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        return offer;
+    }
+
+    private void createCart(Long userId, List<Offer> offers, int quantity) {
+        Cart cart = new Cart(userId);
+        for (Offer offer : offers) {
+            final CartLine line = cart.addLine(offer.getProduct(), offer, 1_000);
+            cart.changeLineQuantity(line, quantity, 1_000);
+        }
+        cartRepository.save(cart);
+    }
+
+    private int stockOf(Offer offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer.getId());
+    }
+
+    private List<Long> remainingCartUsers() {
+        return jdbcTemplate.queryForList("SELECT user_id FROM carts WHERE user_id >= ? ORDER BY user_id", Long.class, FIRST_USER_ID);
+    }
+}
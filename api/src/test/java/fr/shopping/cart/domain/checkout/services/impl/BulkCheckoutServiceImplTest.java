@@ -0,0 +1,170 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.domain.checkout.services.StockReservationService;
+import fr.shopping.cart.domain.order.services.OrderService;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutResultDto;
+import fr.shopping.cart.infrastructure.http.checkout.dtos.BulkCheckoutStatus;
+import fr.shopping.cart.infrastructure.jdbc.stock.StockHoldRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.OfferRepository;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BulkCheckoutServiceImplTest {
+
+    @Mock
+    private CartStore cartStore;
+
+    @Mock
+    private OfferRepository offerRepository;
+
+    @Mock
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private StockHoldRepository stockHoldRepository;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private CheckoutService checkoutService;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CartMetrics cartMetrics;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private BulkCheckoutServiceImpl bulkCheckoutService;
+
+    private Offer offer;
+
+    @BeforeEach
+    void setUp() {
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        bulkCheckoutService = bulkCheckoutService(false);
+
+        Product product = new Product("Imprimante");
+        product.setId(1L);
+        offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setId(10L);
+        offer.setState(State.NEUF);
+    }
+
+    @Test
+    @DisplayName("Les utilisateurs sont traités par tranches de batch-size paniers")
+    void shouldCheckoutByChunks() {
+        when(cartStore.findAllForCheckout(anyList())).thenAnswer(invocation -> invocation.<List<Long>>getArgument(0)
+                .stream()
+                .map(this::cartOfOne)
+                .toList());
+        when(offerRepository.findViewsByIdIn(anyList())).thenReturn(List.of(view(100)));
+
+        final List<BulkCheckoutResultDto> results = bulkCheckoutService.checkout(List.of(1L, 2L, 3L, 2L));
+
+        assertEquals(List.of(1L, 2L, 3L), results.stream().map(BulkCheckoutResultDto::userId).toList());
+        assertEquals(List.of(BulkCheckoutStatus.CHECKED_OUT, BulkCheckoutStatus.CHECKED_OUT, BulkCheckoutStatus.CHECKED_OUT),
+                results.stream().map(BulkCheckoutResultDto::status).toList());
+        verify(cartStore).findAllForCheckout(List.of(1L, 2L));
+        verify(cartStore).findAllForCheckout(List.of(3L));
+        verify(orderService, times(2)).placeOrders(anyList());
+    }
+
+    @Test
+    @DisplayName("Une tranche en conflit de stock est rejouée panier par panier")
+    void shouldFallBackToSingleCheckoutsOnConflict() {
+        final Cart first = cartOfOne(1L);
+        when(cartStore.findAllForCheckout(anyList())).thenReturn(List.of(first, cartOfOne(2L)));
+        when(offerRepository.findViewsByIdIn(anyList())).thenReturn(List.of(view(100)));
+        doThrow(new InsufficientStockException(1L, 10L)).when(stockReservationService).reserve(anyList());
+        when(checkoutService.checkout(1L)).thenReturn(first);
+        when(checkoutService.checkout(2L)).thenThrow(new InsufficientStockException(1L, 10L));
+
+        final List<BulkCheckoutResultDto> results = bulkCheckoutService.checkout(List.of(1L, 2L));
+
+        assertEquals(BulkCheckoutStatus.CHECKED_OUT, results.get(0).status());
+        assertEquals(BulkCheckoutStatus.INSUFFICIENT_STOCK, results.get(1).status());
+        verify(transactionManager).rollback(any());
+    }
+
+    @Test
+    @DisplayName("La part réservée à l'ajout au panier n'est pas prise sur le stock restant")
+    void shouldConvertHoldsWithoutTakingRemainingStock() {
+        bulkCheckoutService = bulkCheckoutService(true);
+        when(cartStore.findAllForCheckout(anyList())).thenReturn(List.of(cartOfOne(1L), cartOfOne(2L)));
+        when(offerRepository.findViewsByIdIn(anyList())).thenReturn(List.of(view(0)));
+        when(stockHoldRepository.lockHolds(anyCollection()))
+                .thenReturn(List.of(new StockHoldRepository.Hold(1L, 10L, 1)));
+
+        final List<BulkCheckoutResultDto> results = bulkCheckoutService.checkout(List.of(1L, 2L));
+
+        assertEquals(List.of(BulkCheckoutStatus.CHECKED_OUT, BulkCheckoutStatus.INSUFFICIENT_STOCK),
+                results.stream().map(BulkCheckoutResultDto::status).toList());
+        verify(stockReservationService).reserve(List.of(new StockReservation(1L, 10L, 1, 1)));
+        verify(stockHoldRepository).deleteHolds(List.of(new StockHoldRepository.Hold(1L, 10L, 1)));
+    }
+
+    @Test
+    @DisplayName("Le stock local d'une offre chaude s'ajoute au stock restant en base")
+    void shouldCountLocalStockOfHotOffers() {
+        when(cartStore.findAllForCheckout(anyList())).thenReturn(List.of(cartOfOne(1L), cartOfOne(2L)));
+        when(offerRepository.findViewsByIdIn(anyList())).thenReturn(List.of(view(1)));
+        when(hotStockService.localStock(10L)).thenReturn(1L);
+
+        final List<BulkCheckoutResultDto> results = bulkCheckoutService.checkout(List.of(1L, 2L));
+
+        assertEquals(List.of(BulkCheckoutStatus.CHECKED_OUT, BulkCheckoutStatus.CHECKED_OUT),
+                results.stream().map(BulkCheckoutResultDto::status).toList());
+    }
+
+    private BulkCheckoutServiceImpl bulkCheckoutService(boolean holdsEnabled) {
+        final StockHoldServiceImpl stockHoldService = new StockHoldServiceImpl(
+                stockHoldRepository, hotStockService, transactionManager, holdsEnabled, Duration.ofMinutes(15), 500);
+        return new BulkCheckoutServiceImpl(cartStore, offerRepository, stockReservationService, stockHoldService,
+                hotStockService, checkoutService, orderService, cartMetrics, transactionManager, 2);
+    }
+
+    private Cart cartOfOne(Long userId) {
+        Cart cart = new Cart(userId);
+        cart.addLine(offer.getProduct(), offer, 1_000);
+        return cart;
+    }
+
+    private OfferView view(int stock) {
+        return new OfferView(10L, 1L, new BigDecimal("10.00"), 0, State.NEUF, stock);
+    }
+}
@@ -0,0 +1,146 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutConcurrencyIT {
+
+    private static final long FIRST_USER_ID = 10_000L;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id >= ?)", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id >= ?", FIRST_USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("Des centaines de checkouts parallèles sur une offre chaude ne doivent jamais survendre")
+    void parallelCheckoutsOnHotOffer_ShouldNeverOversell() throws Exception {
+        final int stock = 50;
+        final int buyers = 300;
+        final Offer hotOffer = createOffer("Console", stock);
+        for (int i = 0; i < buyers; i++) {
+            createCart(FIRST_USER_ID + i, List.of(hotOffer), 1);
+        }
+
+        final AtomicInteger succeeded = new AtomicInteger();
+        final AtomicInteger rejected = new AtomicInteger();
+        final CountDownLatch start = new CountDownLatch(1);
+        final ExecutorService executor = Executors.newFixedThreadPool(64);
+        final List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < buyers; i++) {
+            final long userId = FIRST_USER_ID + i;
+            futures.add(executor.submit(() -> {
+                start.await();
+                try {
+                    checkoutService.checkout(userId);
+                    succeeded.incrementAndGet();
+                } catch (InsufficientStockException ex) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(stock, succeeded.get(), "Exactement le stock initial doit être vendu");
+        assertEquals(buyers - stock, rejected.get());
+        assertEquals(0, stockOf(hotOffer));
+        assertEquals(buyers - stock, countCarts(), "Les paniers refusés doivent être conservés");
+    }
+
+    @Test
+    @DisplayName("Un checkout refusé ne doit décrémenter aucune des offres du panier")
+    void checkoutWithOneShortLine_ShouldLeaveAllStocksUntouched() {
+        final Offer available = createOffer("Clavier", 10);
+        final Offer soldOut = createOffer("Souris", 1);
+        createCart(FIRST_USER_ID, List.of(available, soldOut), 2);
+
+        boolean thrown = false;
+        try {
+            checkoutService.checkout(FIRST_USER_ID);
+        } catch (InsufficientStockException ex) {
+            thrown = true;
+        }
+
+        assertTrue(thrown);
+        assertEquals(10, stockOf(available));
+        assertEquals(1, stockOf(soldOut));
+        assertEquals(1, countCarts());
+    }
+
+    private Offer createOffer(String label, int stock) {
+        Product product = new Product(label);
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        return offer;
+    }
+
+    private void createCart(Long userId, List<Offer> offers, int quantity) {
+        Cart cart = new Cart(userId);
+        for (Offer offer : offers) {
+            cart.getLines().add(new CartLine(cart, offer.getProduct(), offer, quantity));
+        }
+        cartRepository.save(cart);
+    }
+
+    private int stockOf(Offer offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer.getId());
+    }
+
+    private int countCarts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE user_id >= ?", Integer.class, FIRST_USER_ID);
+    }
+}
@@ -6,8 +6,12 @@ import fr.shopping.cart.domain.cart.models.Cart;
 import fr.shopping.cart.domain.cart.models.CartLine;
 import fr.shopping.cart.domain.cart.models.Offer;
 import fr.shopping.cart.domain.cart.models.Product;
-import fr.shopping.cart.infrastructure.jpa.cart.CartRepository;
-import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import fr.shopping.cart.domain.checkout.services.StockReservationService;
+import fr.shopping.cart.domain.order.services.OrderService;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,11 +20,15 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -29,10 +37,19 @@ import static org.mockito.Mockito.when;
 class CheckoutServiceImplTest {
 
     @Mock
-    private CartRepository cartRepository;
+    private CartStore cartStore;
 
     @Mock
-    private ProductRepository productRepository;
+    private StockReservationService stockReservationService;
+
+    @Mock
+    private StockHoldService stockHoldService;
+
+    @Mock
+    private OrderService orderService;
+
+    @Mock
+    private CartMetrics cartMetrics;
 
     @InjectMocks
     private CheckoutServiceImpl checkoutService;
@@ -40,7 +57,7 @@ class CheckoutServiceImplTest {
     private final Long USER_ID = 1L;
 
     @Test
-    @DisplayName("checkout doit décrémenter le stock et supprimer le panier en cas de succès")
+    @DisplayName("checkout doit réserver le stock de chaque ligne, créer la commande et supprimer le panier en cas de succès")
     void checkout_ShouldSucceed() {
         Product product = new Product("Laptop");
         product.setId(10L);
@@ -53,17 +70,40 @@ class CheckoutServiceImplTest {
         CartLine line = new CartLine(cart, product, offer, 2);
         cart.getLines().add(line);
 
-        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-        when(productRepository.findById(10L)).thenReturn(Optional.of(product));
+        when(cartStore.findForCheckout(USER_ID)).thenReturn(Optional.of(cart));
+        when(stockHoldService.attachHolds(any())).thenAnswer(invocation -> invocation.getArgument(0));
 
         Cart result = checkoutService.checkout(USER_ID);
 
-        assertEquals(8, offer.getStockQty(), "Le stock aurait dû passer de 10 à 8");
-        verify(productRepository).save(product);
-        verify(cartRepository).delete(cart);
+        verify(stockReservationService).reserve(List.of(new StockReservation(10L, 100L, 2)));
+        verify(orderService).placeOrders(List.of(cart));
+        verify(cartStore).delete(cart);
         assertEquals(USER_ID, result.getUserId());
     }
 
+    @Test
+    @DisplayName("checkout doit prélever la part réservée à l'ajout au panier puis supprimer les réservations converties")
+    void checkout_ShouldConvertStockHolds() {
+        Product product = new Product("Laptop");
+        product.setId(10L);
+        Offer offer = new Offer(new BigDecimal("1000"), product);
+        offer.setId(100L);
+        product.getOffers().add(offer);
+
+        Cart cart = new Cart(USER_ID);
+        cart.getLines().add(new CartLine(cart, product, offer, 2));
+
+        final Map<Long, List<StockReservation>> held = Map.of(USER_ID, List.of(new StockReservation(10L, 100L, 2, 2)));
+        when(cartStore.findForCheckout(USER_ID)).thenReturn(Optional.of(cart));
+        when(stockHoldService.attachHolds(Map.of(USER_ID, List.of(new StockReservation(10L, 100L, 2))))).thenReturn(held);
+
+        checkoutService.checkout(USER_ID);
+
+        verify(stockReservationService).reserve(held.get(USER_ID));
+        verify(stockHoldService).deleteHolds(held);
+        verify(cartStore).delete(cart);
+    }
+
     @Test
     @DisplayName("checkout doit lever InsufficientStockException si le stock est trop bas")
     void checkout_ShouldThrowInsufficientStock() {
@@ -77,20 +117,21 @@ class CheckoutServiceImplTest {
         Cart cart = new Cart(USER_ID);
         cart.getLines().add(new CartLine(cart, product, offer, 5));
 
-        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.of(cart));
-        when(productRepository.findById(20L)).thenReturn(Optional.of(product));
+        when(cartStore.findForCheckout(USER_ID)).thenReturn(Optional.of(cart));
+        when(stockHoldService.attachHolds(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new InsufficientStockException(20L, 200L)).when(stockReservationService).reserve(anyList());
 
         assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(USER_ID));
 
-        verify(productRepository, never()).save(any());
-        verify(cartRepository, never()).delete(any());
+        verify(orderService, never()).placeOrders(anyList());
+        verify(cartStore, never()).delete(any());
     }
 
     @Test
     @DisplayName("checkout doit lever CartNotFoundException si le panier n'existe pas")
     void checkout_ShouldThrowCartNotFound() {
-        when(cartRepository.findByUserId(USER_ID)).thenReturn(Optional.empty());
+        when(cartStore.findForCheckout(USER_ID)).thenReturn(Optional.empty());
 
         assertThrows(CartNotFoundException.class, () -> checkoutService.checkout(USER_ID));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,221 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import fr.shopping.cart.infrastructure.jdbc.stock.StockEscrowRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+        "checkout.hot-offers.references=HOT-IT-1,HOT-IT-2,HOT-IT-3,HOT-IT-4,HOT-IT-5",
+        "checkout.hot-offers.instance-id=hot-it",
+        "checkout.hot-offers.claim-size=5",
+        "checkout.hot-offers.reconcile-interval=1h"
+})
+@ActiveProfiles("test")
+class HotStockIT {
+
+    private static final long FIRST_USER_ID = 23_000L;
+
+    @TempDir
+    static Path journalDir;
+
+    @DynamicPropertySource
+    static void journalProperties(DynamicPropertyRegistry registry) {
+        registry.add("checkout.hot-offers.journal-dir", journalDir::toString);
+    }
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private HotStockService hotStockService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private StockEscrowRepository stockEscrowRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id >= ?)", FIRST_USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id >= ?", FIRST_USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("Des checkouts concurrents sur une offre chaude vendent exactement son stock")
+    void checkout_ShouldSellExactlyTheStockUnderContention() throws Exception {
+        final Offer offer = createHotOffer("HOT-IT-1", 6);
+        final List<Long> userIds = LongStream.range(FIRST_USER_ID, FIRST_USER_ID + 10).boxed().toList();
+        userIds.forEach(userId -> cartService.addItem(userId,
+                new AddItemRequestDto(offer.getProduct().getId(), offer.getId())));
+
+        int checkedOut = 0;
+        try (ExecutorService executor = Executors.newFixedThreadPool(5)) {
+            final List<Future<?>> checkouts = userIds.stream()
+                    .<Future<?>>map(userId -> executor.submit(() -> checkoutService.checkout(userId)))
+                    .toList();
+            for (Future<?> checkout : checkouts) {
+                try {
+                    checkout.get();
+                    checkedOut++;
+                } catch (ExecutionException ex) {
+                    assertInstanceOf(InsufficientStockException.class, ex.getCause());
+                }
+            }
+        }
+
+        assertEquals(6, checkedOut);
+        assertEquals(0, hotStockService.localStock(offer.getId()));
+        hotStockService.reconcile();
+        assertEquals(0, stockOf(offer));
+        assertEquals(List.of(0), escrowOf(offer));
+    }
+
+    @Test
+    @DisplayName("Les unités d'une transaction annulée sont rendues au compteur")
+    void tryTake_ShouldGiveUnitsBackOnRollback() {
+        final Offer offer = createHotOffer("HOT-IT-2", 3);
+        final TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            assertTrue(hotStockService.tryTake(offer.getId(), 2));
+            status.setRollbackOnly();
+        });
+
+        assertEquals(2, hotStockService.localStock(offer.getId()), "À sec, seul le manque est prélevé en base");
+        hotStockService.reconcile();
+        assertEquals(3, stockOf(offer), "L'offre à sec rend son stock local à la base");
+        assertEquals(List.of(0), escrowOf(offer));
+    }
+
+    @Test
+    @DisplayName("La réconciliation retire les ventes du stock prélevé en base et purge le journal")
+    void reconcile_ShouldSettleSalesAndDropJournalSegments() throws Exception {
+        final Offer offer = createHotOffer("HOT-IT-3", 12);
+
+        assertTrue(hotStockService.tryTake(offer.getId(), 2));
+        assertEquals(7, stockOf(offer), "Un lot de claim-size unités est prélevé en base");
+        assertEquals(List.of(5), escrowOf(offer));
+
+        hotStockService.reconcile();
+
+        assertEquals(List.of(3), escrowOf(offer));
+        try (Stream<Path> segments = Files.list(journalDir)) {
+            assertEquals(1, segments.count(), "Seul le segment courant subsiste");
+        }
+    }
+
+    @Test
+    @DisplayName("Un prélèvement trop court échoue aussitôt, puis récupère le stock local rendu par une autre instance")
+    void tryTake_ShouldFailFastThenGetUnitsGivenBackByAnotherInstance(@TempDir Path peerJournalDir) throws Exception {
+        final Offer offer = createHotOffer("HOT-IT-4", 6);
+        assertTrue(hotStockService.tryTake(offer.getId(), 1));
+        assertEquals(1, stockOf(offer));
+
+        final HotStockServiceImpl peer = new HotStockServiceImpl(stockEscrowRepository, transactionManager,
+                List.of("HOT-IT-4"), "hot-it-peer", 4, 5, Duration.ofMillis(500), peerJournalDir, false);
+        peer.start();
+        try {
+            assertFalse(peer.tryTake(offer.getId(), 3), "Le checkout échoue sans attendre dans sa transaction");
+
+            hotStockService.reconcile();
+
+            assertTrue(peer.tryTake(offer.getId(), 3), "Le stock local rendu à la réconciliation est de nouveau vendable");
+            assertEquals(0, hotStockService.localStock(offer.getId()));
+            assertEquals(2, stockOf(offer));
+        } finally {
+            peer.stop();
+        }
+        assertEquals(2, stockOf(offer), "4 unités vendues sur 6, aucune ne reste prélevée");
+    }
+
+    @Test
+    @DisplayName("L'ajout au panier compte le stock prélevé par les instances, même quand la ligne offers est vide")
+    void addItem_ShouldCountEscrowedUnitsOfAHotOffer() {
+        final Offer offer = createHotOffer("HOT-IT-5", 5);
+        assertTrue(hotStockService.tryTake(offer.getId(), 1));
+        assertEquals(0, stockOf(offer), "Le prélèvement a vidé la ligne offers");
+        final Long userId = FIRST_USER_ID + 100;
+        final Long productId = offer.getProduct().getId();
+
+        cartService.addItem(userId, new AddItemRequestDto(productId, offer.getId()));
+        cartService.updateItemQuantity(userId, new UpdateItemRequestDto(productId, offer.getId(), 4));
+
+        assertThrows(InsufficientStockException.class, () ->
+                cartService.updateItemQuantity(userId, new UpdateItemRequestDto(productId, offer.getId(), 5)));
+    }
+
+    private Offer createHotOffer(String reference, int stock) {
+        Product product = new Product("Console " + reference);
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        jdbcTemplate.update("UPDATE offers SET reference = ? WHERE id = ?", reference, offer.getId());
+        hotStockService.reconcile();
+        assertTrue(hotStockService.isHot(offer.getId()));
+        return offer;
+    }
+
+    private int stockOf(Offer offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer.getId());
+    }
+
+    private List<Integer> escrowOf(Offer offer) {
+        return jdbcTemplate.queryForList("SELECT quantity FROM stock_escrows WHERE offer_id = ?",
+                Integer.class, offer.getId());
+    }
+}
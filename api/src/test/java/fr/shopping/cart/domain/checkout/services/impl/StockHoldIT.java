@@ -0,0 +1,182 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.domain.checkout.services.StockHoldService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationStatus;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationType;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest(properties = {
+        "cart.stock-holds.enabled=true",
+        "cart.stock-holds.sweep-interval=1h"
+})
+@ActiveProfiles("test")
+class StockHoldIT {
+
+    private static final long USER_ID = 22_000L;
+    private static final long OTHER_USER_ID = 22_001L;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private StockHoldService stockHoldService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM stock_holds WHERE user_id >= ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id >= ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id >= ?", USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("Le stock réservé par un panier n'est plus disponible pour les autres")
+    void addItem_ShouldHoldStockAgainstOtherCarts() {
+        final Offer offer = createOffer("Imprimante", 2);
+
+        add(USER_ID, offer);
+        add(USER_ID, offer);
+
+        assertEquals(2, heldOf(offer));
+        assertEquals(List.of(2), holdsOf(USER_ID, offer));
+        assertThrows(InsufficientStockException.class, () -> add(OTHER_USER_ID, offer));
+        assertEquals(2, stockOf(offer), "La réservation ne décrémente pas le stock physique");
+    }
+
+    @Test
+    @DisplayName("Baisser la quantité ou retirer la ligne libère le stock réservé")
+    void updateAndRemove_ShouldReleaseHeldStock() {
+        final Offer offer = createOffer("Toner", 3);
+        add(USER_ID, offer);
+        cartService.updateItemQuantity(USER_ID, new UpdateItemRequestDto(offer.getProduct().getId(), offer.getId(), 3));
+        assertThrows(InsufficientStockException.class, () -> add(OTHER_USER_ID, offer));
+
+        cartService.updateItemQuantity(USER_ID, new UpdateItemRequestDto(offer.getProduct().getId(), offer.getId(), 2));
+        assertEquals(2, heldOf(offer));
+
+        cartService.removeItem(USER_ID, offer.getProduct().getId(), offer.getId());
+        assertEquals(0, heldOf(offer));
+        assertEquals(List.of(), holdsOf(USER_ID, offer));
+        assertDoesNotThrow(() -> add(OTHER_USER_ID, offer));
+    }
+
+    @Test
+    @DisplayName("Les réservations d'un lot d'opérations sont alignées sur les quantités finales du panier")
+    void applyBatch_ShouldHoldFinalQuantities() {
+        final Offer first = createOffer("Ramette", 5);
+        final Offer second = createOffer("Agrafeuse", 1);
+        add(USER_ID, second);
+
+        final List<CartItemOperationResultDto> results = cartService.applyBatch(USER_ID, new BatchCartItemsRequestDto(List.of(
+                operation(CartItemOperationType.ADD, first, null),
+                operation(CartItemOperationType.UPDATE, first, 4),
+                operation(CartItemOperationType.UPDATE, first, 6),
+                operation(CartItemOperationType.REMOVE, second, null)
+        )));
+
+        assertEquals(List.of(CartItemOperationStatus.APPLIED, CartItemOperationStatus.APPLIED,
+                        CartItemOperationStatus.INSUFFICIENT_STOCK, CartItemOperationStatus.APPLIED),
+                results.stream().map(CartItemOperationResultDto::status).toList());
+        assertEquals(4, heldOf(first));
+        assertEquals(0, heldOf(second));
+    }
+
+    @Test
+    @DisplayName("Une réservation échue est libérée par le balayage, la ligne restant au panier")
+    void expireHolds_ShouldReleaseExpiredHolds() {
+        final Offer offer = createOffer("Scanner", 1);
+        add(USER_ID, offer);
+        jdbcTemplate.update("UPDATE stock_holds SET expires_at = expires_at - INTERVAL '1' DAY WHERE user_id = ?", USER_ID);
+
+        assertEquals(1, stockHoldService.expireHolds());
+
+        assertEquals(0, heldOf(offer));
+        assertEquals(List.of(), holdsOf(USER_ID, offer));
+        add(OTHER_USER_ID, offer);
+        assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(USER_ID),
+                "Sans réservation, le stock est recontrôlé au checkout");
+    }
+
+    @Test
+    @DisplayName("Le checkout prélève le stock réservé et supprime les réservations converties")
+    void checkout_ShouldConvertHolds() {
+        final Offer offer = createOffer("Clavier", 2);
+        add(USER_ID, offer);
+        add(USER_ID, offer);
+
+        checkoutService.checkout(USER_ID);
+
+        assertEquals(0, stockOf(offer));
+        assertEquals(0, heldOf(offer));
+        assertEquals(List.of(), holdsOf(USER_ID, offer));
+    }
+
+    private void add(Long userId, Offer offer) {
+        cartService.addItem(userId, new AddItemRequestDto(offer.getProduct().getId(), offer.getId()));
+    }
+
+    private CartItemOperationDto operation(CartItemOperationType type, Offer offer, Integer quantity) {
+        return new CartItemOperationDto(type, offer.getProduct().getId(), offer.getId(), quantity);
+    }
+
+    private Offer createOffer(String label, int stock) {
+        Product product = new Product(label);
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        return offer;
+    }
+
+    private int stockOf(Offer offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer.getId());
+    }
+
+    private int heldOf(Offer offer) {
+        return jdbcTemplate.queryForObject("SELECT held_qty FROM offers WHERE id = ?", Integer.class, offer.getId());
+    }
+
+    private List<Integer> holdsOf(Long userId, Offer offer) {
+        return jdbcTemplate.queryForList("SELECT quantity FROM stock_holds WHERE user_id = ? AND offer_id = ?",
+                Integer.class, userId, offer.getId());
+    }
+}
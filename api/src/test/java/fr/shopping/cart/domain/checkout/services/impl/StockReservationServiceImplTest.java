@@ -0,0 +1,106 @@
+package fr.shopping.cart.domain.checkout.services.impl;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.checkout.models.StockReservation;
+import fr.shopping.cart.domain.checkout.services.HotStockService;
+import fr.shopping.cart.infrastructure.jdbc.stock.StockReservationRepository;
+import fr.shopping.cart.infrastructure.metrics.CartMetrics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StockReservationServiceImplTest {
+
+    @Mock
+    private StockReservationRepository stockReservationRepository;
+
+    @Mock
+    private HotStockService hotStockService;
+
+    @Mock
+    private CartMetrics cartMetrics;
+
+    @InjectMocks
+    private StockReservationServiceImpl stockReservationService;
+
+    @Test
+    @DisplayName("Doit regrouper les quantités par offre et trier les décrémentations par offerId")
+    void shouldMergeAndSortByOfferId() {
+        when(stockReservationRepository.decrementStock(anyList())).thenReturn(new int[]{1, 1});
+
+        stockReservationService.reserve(List.of(
+                new StockReservation(2L, 20L, 1),
+                new StockReservation(1L, 10L, 2),
+                new StockReservation(2L, 20L, 3)
+        ));
+
+        verify(stockReservationRepository).decrementStock(List.of(
+                new StockReservation(1L, 10L, 2),
+                new StockReservation(2L, 20L, 4)
+        ));
+    }
+
+    @Test
+    @DisplayName("Doit lever InsufficientStockException si une décrémentation n'a modifié aucune ligne")
+    void shouldThrowWhenOneUpdateFails() {
+        when(stockReservationRepository.decrementStock(anyList())).thenReturn(new int[]{1, 0});
+
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class, () ->
+                stockReservationService.reserve(List.of(
+                        new StockReservation(1L, 10L, 1),
+                        new StockReservation(2L, 20L, 1)
+                )));
+
+        assertTrue(ex.getMessage().contains("offerId=20"));
+        verify(cartMetrics).recordStockRejection("checkout");
+    }
+
+    @Test
+    @DisplayName("Doit prélever les offres chaudes sur leur compteur et décrémenter les autres en base")
+    void shouldTakeHotOffersFromTheirCounter() {
+        when(hotStockService.isHot(10L)).thenReturn(true);
+        when(hotStockService.tryTake(10L, 2)).thenReturn(true);
+        when(stockReservationRepository.decrementStock(anyList())).thenReturn(new int[]{1});
+
+        stockReservationService.reserve(List.of(
+                new StockReservation(1L, 10L, 2),
+                new StockReservation(2L, 20L, 1)
+        ));
+
+        verify(stockReservationRepository).decrementStock(List.of(new StockReservation(2L, 20L, 1)));
+    }
+
+    @Test
+    @DisplayName("Doit lever InsufficientStockException avant tout verrou en base si une offre chaude est épuisée")
+    void shouldThrowWhenHotOfferIsSoldOut() {
+        when(hotStockService.isHot(10L)).thenReturn(true);
+        when(hotStockService.tryTake(10L, 1)).thenReturn(false);
+
+        assertThrows(InsufficientStockException.class, () ->
+                stockReservationService.reserve(List.of(new StockReservation(1L, 10L, 1))));
+
+        verify(cartMetrics).recordStockRejection("checkout");
+        verifyNoInteractions(stockReservationRepository);
+    }
+
+    @Test
+    @DisplayName("Ne doit rien exécuter pour un panier vide")
+    void shouldDoNothingWhenEmpty() {
+        stockReservationService.reserve(List.of());
+
+        verifyNoInteractions(stockReservationRepository);
+    }
+}
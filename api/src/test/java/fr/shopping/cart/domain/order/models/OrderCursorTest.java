@@ -0,0 +1,32 @@
+package fr.shopping.cart.domain.order.models;
+
+import fr.shopping.cart.domain.order.exceptions.InvalidOrderCursorException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OrderCursorTest {
+
+    @Test
+    @DisplayName("Un curseur encodé est relu à l'identique")
+    void decode_ShouldReturnEncodedCursor() {
+        final OrderCursor cursor = new OrderCursor(LocalDateTime.of(2026, 10, 18, 9, 30, 15, 123_456_000), 4_250L);
+
+        assertEquals(cursor, OrderCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    @DisplayName("Un curseur qui n'a pas été produit par l'API est refusé")
+    void decode_WithForgedValue_ShouldThrow() {
+        assertThrows(InvalidOrderCursorException.class, () -> OrderCursor.decode("not-a-cursor"));
+        assertThrows(InvalidOrderCursorException.class, () -> OrderCursor.decode("%%%"));
+        assertThrows(InvalidOrderCursorException.class, () -> OrderCursor.decode(
+                Base64.getUrlEncoder().encodeToString("2026-10-18T09:30|abc".getBytes(StandardCharsets.UTF_8))));
+    }
+}
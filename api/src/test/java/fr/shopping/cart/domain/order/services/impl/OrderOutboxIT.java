@@ -0,0 +1,213 @@
+package fr.shopping.cart.domain.order.services.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import fr.shopping.cart.domain.order.services.OrderEventPublisher;
+import fr.shopping.cart.infrastructure.events.order.InMemoryOrderEventSink;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jdbc.order.OrderEventRepository;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.PayloadApplicationEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderOutboxIT {
+
+    private static final long USER_ID = 24_000L;
+    private static final long FIRST_RELAYED_ORDER_ID = 24_000_000L;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private OrderEventPublisher orderEventPublisher;
+
+    @Autowired
+    private OrderEventRepository orderEventRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ConfigurableApplicationContext applicationContext;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+    private final BlockingQueue<OrderEvent> dispatched = new LinkedBlockingQueue<>();
+    private final ApplicationListener<ApplicationEvent> listener = event -> {
+        if (event instanceof PayloadApplicationEvent<?> payload && payload.getPayload() instanceof OrderEvent orderEvent) {
+            dispatched.add(orderEvent);
+        }
+    };
+
+    @BeforeEach
+    void listen() {
+        applicationContext.addApplicationListener(listener);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        applicationContext.removeApplicationListener(listener);
+        jdbcTemplate.update("DELETE FROM order_events WHERE order_id >= ?", FIRST_RELAYED_ORDER_ID);
+        jdbcTemplate.update("DELETE FROM order_events WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("Le checkout écrit la commande et son événement dans sa transaction, publiés ensuite par le relais")
+    void checkout_ShouldWriteOrderAndOutboxEvent() throws Exception {
+        final Offer offer = createOffer("Casque", 5);
+        add(offer);
+        add(offer);
+
+        checkoutService.checkout(USER_ID);
+
+        final Map<String, Object> order = jdbcTemplate.queryForMap(
+                "SELECT id, item_count, subtotal FROM orders WHERE user_id = ?", USER_ID);
+        final Long orderId = ((Number) order.get("id")).longValue();
+        assertEquals(2, ((Number) order.get("item_count")).intValue());
+        assertEquals(1, pendingEvents(orderId));
+
+        orderEventPublisher.publishPending();
+
+        final OrderEvent published = awaitDispatched(orderId);
+        assertEquals(OrderEvent.ORDER_PLACED, published.getType());
+        final JsonNode payload = objectMapper.readTree(published.getPayload());
+        assertEquals(USER_ID, payload.get("userId").asLong());
+        assertEquals(offer.getId(), payload.get("lines").get(0).get("offerId").asLong());
+        assertEquals(2, payload.get("lines").get(0).get("quantity").asInt());
+        assertEquals(0, pendingEvents(orderId), "Un événement publié est retiré de l'outbox");
+    }
+
+    @Test
+    @DisplayName("Un checkout annulé n'écrit ni commande ni événement")
+    void checkout_ShouldWriteNothingWhenRolledBack() {
+        final Offer offer = createOffer("Enceinte", 1);
+        add(offer);
+        jdbcTemplate.update("UPDATE offers SET stock_qty = 0 WHERE id = ?", offer.getId());
+
+        assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(USER_ID));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, USER_ID));
+    }
+
+    @Test
+    @DisplayName("Une outbox plus grande que la file mémoire est entièrement remise aux écouteurs")
+    void publishPending_ShouldDrainMoreEventsThanTheMemoryQueueHolds() throws Exception {
+        final int capacity = 5;
+        final List<OrderEvent> events = LongStream.range(0, capacity * 4)
+                .mapToObj(i -> new OrderEvent(UUID.randomUUID().toString(), FIRST_RELAYED_ORDER_ID + i,
+                        OrderEvent.ORDER_PLACED, "{}", LocalDateTime.now().minusDays(1).plusNanos(i * 1_000)))
+                .toList();
+        orderEventRepository.append(events);
+        final BlockingQueue<OrderEvent> received = new LinkedBlockingQueue<>();
+        final InMemoryOrderEventSink sink = new InMemoryOrderEventSink(capacity, event -> {
+            if (event instanceof OrderEvent orderEvent && orderEvent.getOrderId() >= FIRST_RELAYED_ORDER_ID) {
+                received.add(orderEvent);
+            }
+        });
+        final OrderEventPublisher relay = new OrderEventPublisherImpl(orderEventRepository, sink, transactionManager, 2);
+
+        sink.start();
+        try {
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (pendingRelayedEvents() > 0) {
+                assertTrue(System.nanoTime() < deadline, "L'outbox ne se vide pas");
+                try {
+                    relay.publishPending();
+                } catch (IllegalStateException ex) {
+                    Thread.sleep(10);
+                }
+            }
+        } finally {
+            sink.stop();
+        }
+
+        assertEquals(events.stream().map(OrderEvent::getId).toList(),
+                received.stream().map(OrderEvent::getId).toList());
+    }
+
+    private OrderEvent awaitDispatched(Long orderId) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            final OrderEvent event = dispatched.poll(100, TimeUnit.MILLISECONDS);
+            if (event != null && event.getOrderId().equals(orderId)) {
+                return event;
+            }
+        }
+        throw new AssertionError("Order event of order " + orderId + " was not dispatched");
+    }
+
+    private int pendingRelayedEvents() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_events WHERE order_id >= ?",
+                Integer.class, FIRST_RELAYED_ORDER_ID);
+    }
+
+    private void add(Offer offer) {
+        cartService.addItem(USER_ID, new AddItemRequestDto(offer.getProduct().getId(), offer.getId()));
+    }
+
+    private Offer createOffer(String label, int stock) {
+        Product product = new Product(label);
+        Offer offer = new Offer(new BigDecimal("20.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        return offer;
+    }
+
+    private int pendingEvents(Long orderId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM order_events WHERE order_id = ?", Integer.class, orderId);
+    }
+}
@@ -0,0 +1,91 @@
+package fr.shopping.cart.infrastructure.events.order;
+
+import fr.shopping.cart.domain.order.models.OrderEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InMemoryOrderEventSinkTest {
+
+    @Test
+    @DisplayName("Un événement republié avec le même identifiant est ignoré")
+    void publish_ShouldIgnoreRedeliveredEvents() {
+        final InMemoryOrderEventSink sink = new InMemoryOrderEventSink(10, event -> {});
+
+        sink.publish(List.of(event("a"), event("b")));
+        sink.publish(List.of(event("b"), event("c")));
+
+        assertEquals(List.of("a", "b", "c"), sink.drain().stream().map(OrderEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Un lot qui ne tient pas dans la file est refusé en entier")
+    void publish_ShouldRejectWholeBatchWhenFull() {
+        final InMemoryOrderEventSink sink = new InMemoryOrderEventSink(2, event -> {});
+        sink.publish(List.of(event("a")));
+
+        assertThrows(IllegalStateException.class, () -> sink.publish(List.of(event("b"), event("c"))));
+
+        assertEquals(List.of("a"), sink.drain().stream().map(OrderEvent::getId).toList());
+        sink.publish(List.of(event("b"), event("c")));
+        assertEquals(List.of("b", "c"), sink.drain().stream().map(OrderEvent::getId).toList());
+    }
+
+    @Test
+    @DisplayName("Le thread de remise vide la file vers les écouteurs, même après un écouteur en échec")
+    void start_ShouldDispatchQueuedEventsToListeners() throws Exception {
+        final BlockingQueue<Object> received = new LinkedBlockingQueue<>();
+        final InMemoryOrderEventSink sink = new InMemoryOrderEventSink(2, event -> {
+            if (((OrderEvent) event).getId().equals("b")) {
+                throw new IllegalStateException("listener failure");
+            }
+            received.add(event);
+        });
+        sink.start();
+        try {
+            final List<String> ids = List.of("a", "b", "c", "d", "e");
+            for (String id : ids) {
+                publishWhenRoom(sink, event(id));
+            }
+
+            final List<String> dispatched = new ArrayList<>();
+            for (int i = 0; i < ids.size() - 1; i++) {
+                final OrderEvent event = (OrderEvent) received.poll(5, TimeUnit.SECONDS);
+                assertNotNull(event, "La file n'est pas consommée");
+                dispatched.add(event.getId());
+            }
+            assertEquals(List.of("a", "c", "d", "e"), dispatched);
+        } finally {
+            sink.stop();
+        }
+    }
+
+    /** Republie un lot refusé, comme le relais au passage suivant. */
+    private static void publishWhenRoom(InMemoryOrderEventSink sink, OrderEvent event) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (true) {
+            try {
+                sink.publish(List.of(event));
+                return;
+            } catch (IllegalStateException ex) {
+                assertTrue(System.nanoTime() < deadline, "La file reste pleine");
+                Thread.sleep(10);
+            }
+        }
+    }
+
+    private static OrderEvent event(String id) {
+        return new OrderEvent(id, 1L, OrderEvent.ORDER_PLACED, "{}", LocalDateTime.now());
+    }
+}
@@ -0,0 +1,63 @@
+package fr.shopping.cart.infrastructure.hotstock;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class HotStockJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("La relecture restitue les ventes nettes des retours, par segment puis par offre")
+    void replay_ShouldReturnNetSalesPerSegment() throws IOException {
+        try (HotStockJournal journal = new HotStockJournal(directory, true)) {
+            journal.appendSale(10L, 3);
+            journal.appendSale(20L, 1);
+            journal.appendReturn(10L, 1);
+            journal.roll();
+            journal.appendSale(10L, 2);
+        }
+
+        try (HotStockJournal restarted = new HotStockJournal(directory, true)) {
+            assertEquals(3, restarted.currentSegment());
+            assertEquals(Map.of(1L, Map.of(10L, 2L, 20L, 1L), 2L, Map.of(10L, 2L)), restarted.replay());
+        }
+    }
+
+    @Test
+    @DisplayName("Un enregistrement tronqué en fin de segment est ignoré")
+    void replay_ShouldIgnoreTornTail() throws IOException {
+        try (HotStockJournal journal = new HotStockJournal(directory, true)) {
+            journal.appendSale(10L, 1);
+        }
+        Files.write(directory.resolve("hot-stock-1.log"), new byte[]{0, 0, 0, 13, 1, 2}, StandardOpenOption.APPEND);
+
+        try (HotStockJournal restarted = new HotStockJournal(directory, true)) {
+            assertEquals(Map.of(1L, Map.of(10L, 1L)), restarted.replay());
+        }
+    }
+
+    @Test
+    @DisplayName("Les segments réconciliés sont supprimés")
+    void deleteSegmentsBefore_ShouldDropSettledSegments() throws IOException {
+        try (HotStockJournal journal = new HotStockJournal(directory, true)) {
+            journal.appendSale(10L, 1);
+            final long next = journal.roll();
+            journal.deleteSegmentsBefore(next);
+
+            assertFalse(Files.exists(directory.resolve("hot-stock-1.log")));
+            assertEquals(Map.of(), journal.replay());
+        }
+    }
+}
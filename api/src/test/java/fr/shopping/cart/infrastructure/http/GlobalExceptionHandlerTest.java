@@ -0,0 +1,28 @@
+package fr.shopping.cart.infrastructure.http;
+
+import fr.shopping.cart.domain.cart.exceptions.ApiErrorResponse;
+import fr.shopping.cart.domain.cart.models.Cart;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class GlobalExceptionHandlerTest {
+
+    private final GlobalExceptionHandler handler = new GlobalExceptionHandler();
+
+    @Test
+    @DisplayName("Un conflit de version non rejoué (checkout) renvoie 409 sans exposer l'entité")
+    void handleOptimisticLockingFailure_ShouldReturnConflict() {
+        final ResponseEntity<ApiErrorResponse> response = handler.handleOptimisticLockingFailure(
+                new ObjectOptimisticLockingFailureException(Cart.class, 42L));
+
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertEquals(List.of(GlobalExceptionHandler.CONCURRENT_MODIFICATION_MESSAGE), response.getBody().messages());
+    }
+}
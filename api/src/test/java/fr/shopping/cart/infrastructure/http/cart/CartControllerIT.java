@@ -12,6 +12,9 @@ import org.springframework.test.web.servlet.MockMvc;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @SpringBootTest
@@ -118,4 +121,97 @@ class CartControllerIT {
                         .content(json))
                 .andExpect(status().isConflict());
     }
+
+    @Test
+    void applyBatch_ShouldReturn200_with_per_operation_results() throws Exception {
+        //language=json
+        final String json = """
+                {
+                  "operations": [
+                    { "type": "ADD", "productId": %1$d, "offerId": %2$d },
+                    { "type": "UPDATE", "productId": %1$d, "offerId": %2$d, "quantity": 6 },
+                    { "type": "UPDATE", "productId": %1$d, "offerId": %2$d, "quantity": 3 },
+                    { "type": "ADD", "productId": %1$d, "offerId": 999 }
+                  ]
+                }
+                """.formatted(productId, offerId);
+
+        mockMvc.perform(patch("/api/v1/users/{userId}/cart/items:batch", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].status").value("APPLIED"))
+                .andExpect(jsonPath("$.results[1].status").value("INSUFFICIENT_STOCK"))
+                .andExpect(jsonPath("$.results[2].status").value("APPLIED"))
+                .andExpect(jsonPath("$.results[3].status").value("NOT_FOUND"));
+
+        mockMvc.perform(get("/api/v1/users/{userId}/cart", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines[0].quantity").value(3));
+    }
+
+    @Test
+    void applyBatch_EmptyOperations_ShouldReturn400() throws Exception {
+        mockMvc.perform(patch("/api/v1/users/{userId}/cart/items:batch", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"operations\": [] }"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getCartSummary_ShouldReturn200_with_count_and_total() throws Exception {
+        //language=json
+        final String json = """
+            {
+              "productId": "%d",
+              "offerId": "%d"
+            }
+            """.formatted(productId, offerId);
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(post("/api/v1/users/{userId}/cart/items", userId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/v1/users/{userId}/cart/summary", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(userId))
+                .andExpect(jsonPath("$.itemCount").value(2))
+                .andExpect(jsonPath("$.totalPrice").value(1998.00));
+    }
+
+    @Test
+    void getCartSummary_WithoutCart_ShouldReturn200_with_zero() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{userId}/cart/summary", 404_404L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemCount").value(0))
+                .andExpect(jsonPath("$.totalPrice").value(0));
+    }
+
+    @Test
+    void getCartAndCheckout_WithSeveralLines_ShouldStayWithinSqlBudget() throws Exception {
+        // cart.sql-budget.mode=fail : un chargement ligne par ligne dépasserait le @SqlBudget des endpoints
+        for (long offer : new long[]{offerId, 2L}) {
+            //language=json
+            final String json = """
+                {
+                  "productId": "%d",
+                  "offerId": "%d"
+                }
+                """.formatted(productId, offer);
+            mockMvc.perform(post("/api/v1/users/{userId}/cart/items", userId)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(json))
+                    .andExpect(status().isCreated());
+        }
+
+        mockMvc.perform(get("/api/v1/users/{userId}/cart", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines.length()").value(2));
+
+        mockMvc.perform(post("/api/v1/users/{userId}/checkout", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines.length()").value(2));
+    }
 }
@@ -1,11 +1,20 @@
 package fr.shopping.cart.infrastructure.http.cart;
 
 import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartSummary;
 import fr.shopping.cart.domain.cart.services.CartService;
 import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.BatchCartItemsResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationResultDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationStatus;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartItemOperationType;
 import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartSummaryResponseDto;
 import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
 import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
+import fr.shopping.cart.infrastructure.http.idempotency.IdempotentRequests;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,8 +26,15 @@ import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -32,6 +48,9 @@ class CartControllerTest {
     @Mock
     private CartResponseMapper cartResponseMapper;
 
+    @Mock
+    private IdempotentRequests idempotentRequests;
+
     @InjectMocks
     private CartController cartController;
 
@@ -54,12 +73,31 @@ class CartControllerTest {
         verify(cartService, times(1)).getCart(USER_ID);
     }
 
+    @Test
+    @DisplayName("getCartSummary doit retourner 200 et le résumé mappé")
+    void getCartSummary_ShouldReturnOk() {
+        CartSummary summary = new CartSummary(USER_ID, 3, new BigDecimal("42.00"));
+        CartSummaryResponseDto expectedDto = new CartSummaryResponseDto(USER_ID, 3, new BigDecimal("42.00"));
+
+        when(cartService.getCartSummary(USER_ID)).thenReturn(summary);
+        when(cartResponseMapper.toCartSummaryResponse(summary)).thenReturn(expectedDto);
+
+        ResponseEntity<CartSummaryResponseDto> response = cartController.getCartSummary(USER_ID);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(expectedDto, response.getBody());
+        verify(cartService, never()).getCart(USER_ID);
+    }
+
     @Test
     @DisplayName("addItem doit appeler le service et retourner 201")
     void addItem_ShouldReturnCreated() {
         AddItemRequestDto request = new AddItemRequestDto(10L, 20L);
+        when(idempotentRequests.handle(isNull(), eq("cart-items:1"), eq(request), eq(Void.class), any(), any()))
+                .thenAnswer(invocation -> invocation.<Function<Object, ?>>getArgument(5)
+                        .apply(invocation.<Supplier<?>>getArgument(4).get()));
 
-        ResponseEntity<Void> response = cartController.addItem(USER_ID, request);
+        ResponseEntity<Void> response = cartController.addItem(USER_ID, null, request);
 
         assertEquals(HttpStatus.CREATED, response.getStatusCode());
         verify(cartService).addItem(USER_ID, request);
@@ -84,4 +122,21 @@ class CartControllerTest {
         assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
         verify(cartService).removeItem(USER_ID, 10L, 20L);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("applyBatch doit retourner 200 avec un résultat par opération")
+    void applyBatch_ShouldReturnOkWithResults() {
+        BatchCartItemsRequestDto request = new BatchCartItemsRequestDto(List.of(
+                new CartItemOperationDto(CartItemOperationType.ADD, 10L, 20L, null)
+        ));
+        List<CartItemOperationResultDto> results = List.of(
+                new CartItemOperationResultDto(0, CartItemOperationType.ADD, 10L, 20L, CartItemOperationStatus.APPLIED, null)
+        );
+        when(cartService.applyBatch(USER_ID, request)).thenReturn(results);
+
+        ResponseEntity<BatchCartItemsResponseDto> response = cartController.applyBatch(USER_ID, request);
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(new BatchCartItemsResponseDto(USER_ID, results), response.getBody());
+    }
+}
@@ -0,0 +1,234 @@
+package fr.shopping.cart.infrastructure.http.cart;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.ReactiveCartService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "cart.retry.max-attempts=50",
+                "cart.retry.initial-backoff=1ms",
+                "cart.retry.max-backoff=20ms"
+        }
+)
+@AutoConfigureWebTestClient
+@ActiveProfiles({"test", "reactive"})
+class ReactiveCartControllerIT {
+
+    private final Long userId = 40_000L;
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveCartService cartService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+    private Long offerId;           // 10.00, stock 3
+    private Long discountedOfferId; // 20.00 avec 25% de remise, stock 3
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Réactif");
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(3);
+        Offer discounted = new Offer(new BigDecimal("20.00"), product);
+        discounted.setState(State.OCCASION);
+        discounted.setDiscountPercent(25);
+        discounted.setStockQty(3);
+        product.getOffers().add(offer);
+        product.getOffers().add(discounted);
+        productRepository.save(product);
+
+        offerId = offer.getId();
+        discountedOfferId = discounted.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM order_events WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", userId);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    @DisplayName("Les routes du panier sont servies par WebFlux avec les mêmes contrats")
+    void cartRoutes_ShouldBehaveLikeBlockingController() {
+        addItem(offerId).expectStatus().isCreated();
+        addItem(offerId).expectStatus().isCreated();
+        addItem(discountedOfferId).expectStatus().isCreated();
+
+        webTestClient.get().uri("/api/v1/users/{userId}/cart", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.userId").isEqualTo(userId)
+                .jsonPath("$.lines.length()").isEqualTo(2)
+                .jsonPath("$.lines[0].quantity").isEqualTo(2)
+                .jsonPath("$.lines[0].lineTotal").isEqualTo(20.00)
+                .jsonPath("$.lines[1].state").isEqualTo("OCCASION")
+                .jsonPath("$.lines[1].unitPrice").isEqualTo(15.00)
+                .jsonPath("$.totalPrice").isEqualTo(35.00);
+
+        webTestClient.put().uri("/api/v1/users/{userId}/cart/items", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        { "productId": %d, "offerId": %d, "quantity": 3 }
+                        """.formatted(product.getId(), offerId))
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.delete().uri("/api/v1/users/{userId}/cart/items/{productId}/{offerId}",
+                        userId, product.getId(), discountedOfferId)
+                .exchange()
+                .expectStatus().isNoContent();
+
+        webTestClient.get().uri("/api/v1/users/{userId}/cart/summary", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.itemCount").isEqualTo(3)
+                .jsonPath("$.totalPrice").isEqualTo(30.00);
+    }
+
+    @Test
+    @DisplayName("Les erreurs métier et de validation gardent leurs codes HTTP")
+    void errors_ShouldKeepStatusCodes() {
+        webTestClient.delete().uri("/api/v1/users/{userId}/cart/items/{productId}/{offerId}",
+                        userId, product.getId(), offerId)
+                .exchange()
+                .expectStatus().isNotFound();
+
+        for (int i = 0; i < 3; i++) {
+            addItem(offerId).expectStatus().isCreated();
+        }
+        addItem(offerId).expectStatus().isEqualTo(409);
+
+        webTestClient.post().uri("/api/v1/users/{userId}/cart/items", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{ \"offerId\": %d }".formatted(offerId))
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.messages[0]").isEqualTo("productId : must not be null");
+    }
+
+    @Test
+    @DisplayName("Le lot renvoie un résultat par opération")
+    void applyBatch_ShouldReturnPerOperationResults() {
+        webTestClient.patch().uri("/api/v1/users/{userId}/cart/items:batch", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("""
+                        {
+                          "operations": [
+                            { "type": "ADD", "productId": %1$d, "offerId": %2$d },
+                            { "type": "UPDATE", "productId": %1$d, "offerId": %2$d, "quantity": 4 },
+                            { "type": "UPDATE", "productId": %1$d, "offerId": %2$d, "quantity": 2 },
+                            { "type": "ADD", "productId": %1$d, "offerId": 999999 }
+                          ]
+                        }
+                        """.formatted(product.getId(), offerId))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.results[0].status").isEqualTo("APPLIED")
+                .jsonPath("$.results[1].status").isEqualTo("INSUFFICIENT_STOCK")
+                .jsonPath("$.results[2].status").isEqualTo("APPLIED")
+                .jsonPath("$.results[3].status").isEqualTo("NOT_FOUND");
+
+        webTestClient.get().uri("/api/v1/users/{userId}/cart/summary", userId)
+                .exchange()
+                .expectBody()
+                .jsonPath("$.itemCount").isEqualTo(2)
+                .jsonPath("$.totalPrice").isEqualTo(20.00);
+    }
+
+    @Test
+    @DisplayName("Le checkout réserve le stock, crée la commande et supprime le panier")
+    void checkout_ShouldReserveStockAndDeleteCart() {
+        addItem(offerId).expectStatus().isCreated();
+        addItem(discountedOfferId).expectStatus().isCreated();
+        addItem(discountedOfferId).expectStatus().isCreated();
+
+        webTestClient.post().uri("/api/v1/users/{userId}/checkout", userId)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.lines.length()").isEqualTo(2)
+                .jsonPath("$.totalPrice").isEqualTo(40.00);
+
+        assertEquals(2, stockOf(offerId));
+        assertEquals(1, stockOf(discountedOfferId));
+        assertEquals(1, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM orders o JOIN order_events e ON e.order_id = o.id
+                WHERE o.user_id = ? AND o.item_count = 3
+                """, Integer.class, userId));
+        assertEquals(2, jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM order_lines l JOIN orders o ON o.id = l.order_id WHERE o.user_id = ?
+                """, Integer.class, userId));
+        webTestClient.post().uri("/api/v1/users/{userId}/checkout", userId)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    @DisplayName("Des ajouts concurrents sur la même ligne ne perdent aucune mise à jour")
+    void concurrentAdds_ShouldNotLoseUpdates() {
+        jdbcTemplate.update("UPDATE offers SET stock_qty = 1000 WHERE id = ?", offerId);
+        final AddItemRequestDto request = new AddItemRequestDto(product.getId(), offerId);
+        cartService.addItem(userId, request).block();
+
+        Flux.range(0, 24)
+                .flatMap(i -> cartService.addItem(userId, request), 8)
+                .blockLast(Duration.ofSeconds(60));
+
+        assertEquals(25, jdbcTemplate.queryForObject(
+                "SELECT l.quantity FROM cart_lines l JOIN carts c ON c.id = l.cart_id WHERE c.user_id = ?",
+                Integer.class, userId));
+        assertEquals(25, jdbcTemplate.queryForObject("SELECT item_count FROM carts WHERE user_id = ?", Integer.class, userId));
+        assertEquals(0, new BigDecimal("250.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT subtotal FROM carts WHERE user_id = ?", BigDecimal.class, userId)));
+    }
+
+    private WebTestClient.ResponseSpec addItem(Long offer) {
+        return webTestClient.post().uri("/api/v1/users/{userId}/cart/items", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{ \"productId\": %d, \"offerId\": %d }".formatted(product.getId(), offer))
+                .exchange();
+    }
+
+    private int stockOf(Long offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer);
+    }
+}
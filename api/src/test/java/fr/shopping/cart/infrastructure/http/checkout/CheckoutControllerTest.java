@@ -4,6 +4,7 @@ import fr.shopping.cart.domain.cart.models.Cart;
 import fr.shopping.cart.domain.checkout.services.CheckoutService;
 import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
 import fr.shopping.cart.infrastructure.http.cart.mappers.CartResponseMapper;
+import fr.shopping.cart.infrastructure.http.idempotency.IdempotentRequests;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,8 +16,13 @@ import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.util.Collections;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -30,6 +36,9 @@ class CheckoutControllerTest {
     @Mock
     private CartResponseMapper cartResponseMapper;
 
+    @Mock
+    private IdempotentRequests idempotentRequests;
+
     @InjectMocks
     private CheckoutController checkoutController;
 
@@ -43,8 +52,11 @@ class CheckoutControllerTest {
 
         when(checkoutService.checkout(USER_ID)).thenReturn(finalizedCart);
         when(cartResponseMapper.toCartResponse(finalizedCart)).thenReturn(expectedResponse);
+        when(idempotentRequests.handle(isNull(), eq("checkout:1"), isNull(), eq(CartResponseDto.class), any(), any()))
+                .thenAnswer(invocation -> invocation.<Function<Object, ?>>getArgument(5)
+                        .apply(invocation.<Supplier<?>>getArgument(4).get()));
 
-        ResponseEntity<CartResponseDto> response = checkoutController.checkout(USER_ID);
+        ResponseEntity<CartResponseDto> response = checkoutController.checkout(USER_ID, null);
 
         assertEquals(HttpStatus.OK, response.getStatusCode());
         assertEquals(expectedResponse, response.getBody());
@@ -0,0 +1,241 @@
+package fr.shopping.cart.infrastructure.http.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class IdempotentRequestsIT {
+
+    private static final long USER_ID = 26_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private IdempotentRequests idempotentRequests;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM idempotency_keys WHERE scope IN (?, ?)",
+                "cart-items:" + USER_ID, "checkout:" + USER_ID);
+        jdbcTemplate.update("DELETE FROM order_events WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("Un ajout rejoué avec la même clé n'augmente pas la quantité")
+    void addItem_RetriedWithSameKey_ShouldBeAppliedOnce() throws Exception {
+        final Offer offer = createOffer("Casque", 10);
+        final String key = UUID.randomUUID().toString();
+
+        addItem(key, offer)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER));
+        addItem(key, offer)
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"));
+
+        assertEquals(1, quantityOf(offer));
+    }
+
+    @Test
+    @DisplayName("Sans clé, chaque ajout est appliqué")
+    void addItem_WithoutKey_ShouldBeAppliedEachTime() throws Exception {
+        final Offer offer = createOffer("Souris", 10);
+
+        addItem(null, offer).andExpect(status().isCreated());
+        addItem(null, offer).andExpect(status().isCreated());
+
+        assertEquals(2, quantityOf(offer));
+    }
+
+    @Test
+    @DisplayName("Un checkout rejoué renvoie la même réponse sans décrémenter le stock une seconde fois")
+    void checkout_RetriedWithSameKey_ShouldReplayResponse() throws Exception {
+        final Offer offer = createOffer("Clavier", 10);
+        addItem(null, offer).andExpect(status().isCreated());
+        final String key = UUID.randomUUID().toString();
+
+        final String first = checkout(key)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        final String replayed = checkout(key)
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotentRequests.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse().getContentAsString();
+
+        assertEquals(objectMapper.readTree(first), objectMapper.readTree(replayed));
+        assertEquals(9, stockOf(offer));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders WHERE user_id = ?", Integer.class, USER_ID));
+    }
+
+    @Test
+    @DisplayName("Une clé réutilisée pour une autre requête est refusée")
+    void addItem_ReusedKeyWithOtherBody_ShouldReturn422() throws Exception {
+        final Offer first = createOffer("Écran", 10);
+        final Offer second = createOffer("Webcam", 10);
+        final String key = UUID.randomUUID().toString();
+
+        addItem(key, first).andExpect(status().isCreated());
+        addItem(key, second).andExpect(status().isUnprocessableEntity());
+
+        assertEquals(0, quantityOf(second));
+    }
+
+    @Test
+    @DisplayName("Une requête en échec libère la clé : la retentative est exécutée")
+    void checkout_FailedRequest_ShouldReleaseKey() throws Exception {
+        final String key = UUID.randomUUID().toString();
+        checkout(key).andExpect(status().isNotFound());
+
+        final Offer offer = createOffer("Micro", 10);
+        addItem(null, offer).andExpect(status().isCreated());
+        checkout(key)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER));
+    }
+
+    @Test
+    @DisplayName("Une clé trop longue ou non imprimable est refusée")
+    void addItem_WithInvalidKey_ShouldReturn400() throws Exception {
+        final Offer offer = createOffer("Enceinte", 10);
+
+        addItem("k".repeat(65), offer).andExpect(status().isBadRequest());
+        addItem("with space", offer).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @DisplayName("La réponse est validée avec le checkout : un checkout dont la réponse échoue est annulé")
+    void checkout_ShouldCommitWithItsResponse() throws Exception {
+        final Offer offer = createOffer("Tablette", 10);
+        addItem(null, offer).andExpect(status().isCreated());
+        final String key = UUID.randomUUID().toString();
+
+        assertThrows(IllegalStateException.class, () -> idempotentRequests.handle(key, "checkout:" + USER_ID, null,
+                CartResponseDto.class, () -> checkoutService.checkout(USER_ID), order -> {
+                    throw new IllegalStateException("response cannot be built");
+                }));
+        assertEquals(10, stockOf(offer));
+        assertEquals(1, quantityOf(offer));
+
+        checkout(key)
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER));
+        assertEquals(200, jdbcTemplate.queryForObject(
+                "SELECT status FROM idempotency_keys WHERE scope = ? AND idempotency_key = ?",
+                Integer.class, "checkout:" + USER_ID, key));
+        assertEquals(9, stockOf(offer));
+    }
+
+    @Test
+    @DisplayName("Une clé restée en cours au-delà du bail est réservée de nouveau, pas avant")
+    void addItem_KeyInProgressPastLease_ShouldBeClaimedAgain() throws Exception {
+        final Offer offer = createOffer("Lampe", 10);
+        final String stale = UUID.randomUUID().toString();
+        final String running = UUID.randomUUID().toString();
+        final LocalDateTime claimedUntil = LocalDateTime.now().plusHours(24);
+        insertInProgress(stale, claimedUntil.minusMinutes(1));
+        insertInProgress(running, claimedUntil);
+
+        addItem(stale, offer)
+                .andExpect(status().isCreated())
+                .andExpect(header().doesNotExist(IdempotentRequests.REPLAYED_HEADER));
+        addItem(running, offer).andExpect(status().isConflict());
+
+        assertEquals(1, quantityOf(offer));
+    }
+
+    private void insertInProgress(String key, LocalDateTime expiresAt) {
+        jdbcTemplate.update("""
+                INSERT INTO idempotency_keys (scope, idempotency_key, request_hash, status, response_body, expires_at)
+                VALUES (?, ?, 'other-request', NULL, NULL, ?)
+                """, "cart-items:" + USER_ID, key, Timestamp.valueOf(expiresAt));
+    }
+
+    private ResultActions addItem(String key, Offer offer) throws Exception {
+        final var request = post("/api/v1/users/{userId}/cart/items", USER_ID)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new AddItemRequestDto(offer.getProduct().getId(), offer.getId())));
+        if (key != null) {
+            request.header(IdempotentRequests.HEADER, key);
+        }
+        return mockMvc.perform(request);
+    }
+
+    private ResultActions checkout(String key) throws Exception {
+        return mockMvc.perform(post("/api/v1/users/{userId}/checkout", USER_ID).header(IdempotentRequests.HEADER, key));
+    }
+
+    private int stockOf(Offer offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer.getId());
+    }
+
+    private int quantityOf(Offer offer) {
+        return jdbcTemplate.queryForObject("""
+                SELECT COALESCE(SUM(l.quantity), 0) FROM cart_lines l JOIN carts c ON c.id = l.cart_id
+                WHERE c.user_id = ? AND l.offer_id = ?
+                """, Integer.class, USER_ID, offer.getId());
+    }
+
+    private Offer createOffer(String label, int stock) {
+        Product product = new Product(label);
+        Offer offer = new Offer(new BigDecimal("20.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        return offer;
+    }
+}
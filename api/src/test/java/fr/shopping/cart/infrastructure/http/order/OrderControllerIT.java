@@ -0,0 +1,149 @@
+package fr.shopping.cart.infrastructure.http.order;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class OrderControllerIT {
+
+    private static final long USER_ID = 25_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final List<Long> createdProductIds = new ArrayList<>();
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM order_events WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM order_lines WHERE order_id IN (SELECT id FROM orders WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM orders WHERE user_id = ?", USER_ID);
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", USER_ID);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", USER_ID);
+        createdProductIds.forEach(productRepository::deleteById);
+    }
+
+    @Test
+    @DisplayName("L'historique garde le prix payé, même après un changement de prix de l'offre")
+    void getOrders_ShouldReturnLinesAtPricePaid() throws Exception {
+        final Offer offer = createOffer("Liseuse", 10, 25);
+        add(offer);
+        add(offer);
+        checkoutService.checkout(USER_ID);
+        jdbcTemplate.update("UPDATE offers SET price = 99.00 WHERE id = ?", offer.getId());
+
+        mockMvc.perform(get("/api/v1/users/{userId}/orders", USER_ID))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.orders.length()").value(1))
+                .andExpect(jsonPath("$.orders[0].itemCount").value(2))
+                .andExpect(jsonPath("$.orders[0].totalPrice").value(30.00))
+                .andExpect(jsonPath("$.orders[0].lines.length()").value(1))
+                .andExpect(jsonPath("$.orders[0].lines[0].offerId").value(offer.getId()))
+                .andExpect(jsonPath("$.orders[0].lines[0].quantity").value(2))
+                .andExpect(jsonPath("$.orders[0].lines[0].unitPrice").value(15.00))
+                .andExpect(jsonPath("$.orders[0].lines[0].lineTotal").value(30.00))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("Les pages se suivent par curseur, de la commande la plus récente à la plus ancienne")
+    void getOrders_ShouldPaginateByCursor() throws Exception {
+        final Offer offer = createOffer("Stylet", 10, 0);
+        final List<Long> orderIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            add(offer);
+            checkoutService.checkout(USER_ID);
+            orderIds.add(jdbcTemplate.queryForObject("SELECT MAX(id) FROM orders WHERE user_id = ?", Long.class, USER_ID));
+        }
+
+        final List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            final JsonNode page = page(cursor);
+            page.get("orders").forEach(order -> seen.add(order.get("orderId").asLong()));
+            assertTrue(page.get("orders").size() <= 2);
+            cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(3, pages);
+        assertEquals(orderIds.reversed(), seen);
+    }
+
+    @Test
+    @DisplayName("Un curseur invalide est refusé")
+    void getOrders_WithInvalidCursor_ShouldReturn400() throws Exception {
+        mockMvc.perform(get("/api/v1/users/{userId}/orders", USER_ID).param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private JsonNode page(String cursor) throws Exception {
+        final var request = get("/api/v1/users/{userId}/orders", USER_ID).param("limit", "2");
+        if (cursor != null) {
+            request.param("cursor", cursor);
+        }
+        return objectMapper.readTree(mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+    }
+
+    private void add(Offer offer) {
+        cartService.addItem(USER_ID, new AddItemRequestDto(offer.getProduct().getId(), offer.getId()));
+    }
+
+    private Offer createOffer(String label, int stock, int discountPercent) {
+        Product product = new Product(label);
+        Offer offer = new Offer(new BigDecimal("20.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(stock);
+        offer.setDiscountPercent(discountPercent);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        createdProductIds.add(product.getId());
+        return offer;
+    }
+}
@@ -0,0 +1,67 @@
+package fr.shopping.cart.infrastructure.imports.catalog;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CatalogRecordReaderTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Les colonnes CSV sont nommées par l'en-tête, guillemets et lignes vides compris")
+    void csv_ShouldMapColumnsByHeader() throws IOException {
+        final Path file = write("catalog.csv",
+                "offer_ref, product_label ,price",
+                "O1,\"Câble \"\"USB\"\", 2m\",9.90",
+                "",
+                "O2,\"non terminé,1.00",
+                "O3,Souris");
+
+        try (CatalogRecordReader reader = CatalogRecordReader.open(file)) {
+            assertEquals(new CatalogRecord(2, Map.of("offer_ref", "O1", "product_label", "Câble \"USB\", 2m", "price", "9.90"), null),
+                    reader.next());
+            assertEquals(CatalogRecord.malformed(4, "unterminated quoted value"), reader.next());
+            assertEquals(CatalogRecord.malformed(5, "expected 3 columns, found 2"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Chaque ligne JSONL est un objet dont les valeurs sont lues comme du texte")
+    void jsonl_ShouldReadOneObjectPerLine() throws IOException {
+        final Path file = write("catalog.jsonl",
+                "{\"offer_ref\":\"O1\",\"price\":9.9,\"stock_qty\":3,\"state\":null}",
+                "[1, 2]");
+
+        try (CatalogRecordReader reader = CatalogRecordReader.open(file)) {
+            assertEquals(new CatalogRecord(1, Map.of("offer_ref", "O1", "price", "9.9", "stock_qty", "3"), null),
+                    reader.next());
+            assertEquals(CatalogRecord.malformed(2, "expected a JSON object"), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    @DisplayName("Un format de fichier inconnu est refusé")
+    void open_WithUnknownExtension_ShouldThrow() throws IOException {
+        final Path file = write("catalog.xml", "<catalog/>");
+
+        assertThrows(IllegalArgumentException.class, () -> CatalogRecordReader.open(file));
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(directory.resolve(name), List.of(lines));
+    }
+}
@@ -0,0 +1,86 @@
+package fr.shopping.cart.infrastructure.jpa.cart;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Insertion de lignes de panier en batch JDBC : les identifiants étant alloués par séquence (pooled),
+ * Hibernate regroupe les INSERT par 50 (mêmes réglages que {@code application-prod.properties}).
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true",
+        "spring.jpa.properties.hibernate.order_updates=true"
+})
+class CartLineBatchInsertIT {
+
+    private static final int LINE_COUNT = 500;
+    private static final int BATCH_SIZE = 50;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    private Product product;
+    private final List<Offer> offers = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Catalogue");
+        for (int i = 0; i < LINE_COUNT; i++) {
+            Offer offer = new Offer(new BigDecimal("10.00"), product);
+            offer.setState(State.NEUF);
+            offer.setStockQty(10);
+            product.getOffers().add(offer);
+            offers.add(offer);
+        }
+        entityManager.persist(product);
+        entityManager.flush();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("500 lignes sont insérées en batchs de 50, identifiants réservés par blocs")
+    void saveCart_ShouldBatchLineInserts() {
+        Cart cart = new Cart(7L);
+        offers.forEach(offer -> cart.addLine(product, offer, 1_000));
+
+        cartRepository.saveAndFlush(cart);
+
+        assertEquals(LINE_COUNT + 1, statistics.getEntityInsertCount());
+        // 1 INSERT de panier + 10 batchs de lignes, et un appel de séquence par bloc de 50 identifiants
+        final long lineBatches = LINE_COUNT / BATCH_SIZE;
+        final long sequenceCalls = lineBatches + 1;
+        assertTrue(statistics.getPrepareStatementCount() <= 1 + lineBatches + sequenceCalls + 1,
+                "Instructions préparées : " + statistics.getPrepareStatementCount());
+        assertEquals(LINE_COUNT, cartRepository.findForUpdateByUserId(7L).orElseThrow().getLines().size());
+    }
+}
@@ -0,0 +1,99 @@
+package fr.shopping.cart.infrastructure.jpa.cart;
+
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.CartLine;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.infrastructure.http.cart.dtos.CartResponseDto;
+import fr.shopping.cart.infrastructure.http.cart.mappers.impl.CartResponseMapperImpl;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class CartRepositoryFetchPlanIT {
+
+    private static final Long USER_ID = 42L;
+    private static final int LINE_COUNT = 30;
+
+    @Autowired
+    private CartRepository cartRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Cart cart = new Cart(USER_ID);
+        for (int i = 0; i < LINE_COUNT; i++) {
+            Product product = new Product("Produit " + i);
+            Offer offer = new Offer(new BigDecimal("10.00"), product);
+            offer.setState(State.NEUF);
+            offer.setStockQty(10);
+            product.getOffers().add(offer);
+            entityManager.persist(product);
+            cart.getLines().add(new CartLine(cart, product, offer, 1));
+        }
+        entityManager.persist(cart);
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Affichage : le panier, ses lignes et ses offres doivent être chargés en une requête")
+    void displayPlan_ShouldLoadCartInOneStatement() {
+        Cart cart = cartRepository.findForDisplayByUserId(USER_ID).orElseThrow();
+        CartResponseDto response = new CartResponseMapperImpl().toCartResponse(cart);
+
+        assertEquals(LINE_COUNT, response.lines().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Modification : la recherche d'une ligne ne doit déclencher aucun chargement paresseux")
+    void updatePlan_ShouldFindLineWithoutLazyLoads() {
+        Cart cart = cartRepository.findForUpdateByUserId(USER_ID).orElseThrow();
+        CartLine last = cart.getLines().get(LINE_COUNT - 1);
+
+        assertTrue(cart.findLine(last.getProduct().getId(), last.getOffer().getId()).isPresent());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Checkout : lignes et offres doivent être chargées en une requête")
+    void checkoutPlan_ShouldLoadLinesAndOffersInOneStatement() {
+        Cart cart = cartRepository.findForCheckoutByUserId(USER_ID).orElseThrow();
+        cart.getLines().forEach(line -> line.getOffer().getFinalUnitPrice());
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    @DisplayName("Sans plan de chargement, chaque offre est chargée séparément (N+1)")
+    void defaultFinder_ShouldTriggerLazyLoads() {
+        Cart cart = cartRepository.findByUserId(USER_ID).orElseThrow();
+        new CartResponseMapperImpl().toCartResponse(cart);
+
+        assertEquals(2 + LINE_COUNT, statistics.getPrepareStatementCount());
+    }
+}
@@ -0,0 +1,75 @@
+package fr.shopping.cart.infrastructure.jpa.cart;
+
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.OfferView;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class OfferRepositoryIT {
+
+    @Autowired
+    private OfferRepository offerRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Product product;
+    private Offer offer;
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Marketplace");
+        for (int i = 0; i < 50; i++) {
+            Offer sellerOffer = new Offer(new BigDecimal("100.00"), product);
+            sellerOffer.setState(State.OCCASION);
+            sellerOffer.setDiscountPercent(10);
+            sellerOffer.setStockQty(i);
+            product.getOffers().add(sellerOffer);
+        }
+        entityManager.persist(product);
+        entityManager.flush();
+        entityManager.clear();
+        offer = product.getOffers().get(7);
+    }
+
+    @Test
+    @DisplayName("Doit retrouver une offre par (produit, offre) sans initialiser la collection du produit")
+    void findByIdAndProductId_ShouldNotLoadProductOffers() {
+        Offer found = offerRepository.findByIdAndProductId(offer.getId(), product.getId()).orElseThrow();
+
+        assertEquals(offer.getId(), found.getId());
+        assertFalse(entityManager.getEntityManager().getEntityManagerFactory()
+                .getPersistenceUnitUtil().isLoaded(found.getProduct(), "offers"));
+    }
+
+    @Test
+    @DisplayName("Doit ignorer une offre appartenant à un autre produit")
+    void findByIdAndProductId_ShouldRejectForeignProduct() {
+        assertTrue(offerRepository.findByIdAndProductId(offer.getId(), product.getId() + 1).isEmpty());
+        assertTrue(offerRepository.findViewByIdAndProductId(offer.getId(), product.getId() + 1).isEmpty());
+    }
+
+    @Test
+    @DisplayName("La projection doit renvoyer prix, remise, état et stock")
+    void findViewByIdAndProductId_ShouldReturnProjection() {
+        OfferView view = offerRepository.findViewByIdAndProductId(offer.getId(), product.getId()).orElseThrow();
+
+        assertEquals(0, new BigDecimal("100.00").compareTo(view.price()));
+        assertEquals(10, view.discountPercent());
+        assertEquals(State.OCCASION, view.state());
+        assertEquals(7, view.stockQty());
+    }
+}
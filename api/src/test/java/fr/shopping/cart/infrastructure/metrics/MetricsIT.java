@@ -0,0 +1,90 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import jakarta.transaction.Transactional;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Exposition Prometheus des métriques du panier après quelques appels à l'API.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+@Transactional
+@ActiveProfiles("test")
+class MetricsIT {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final Long userId = 16_000L;
+    private final Long productId = 1L;  // iPhone 14 neuf
+    private final Long offerId = 1L;    // iPhone 14 NEUF, stock 5
+
+    @Test
+    @DisplayName("Les métriques du panier sont exposées sans tag à forte cardinalité")
+    void prometheus_ShouldExposeCartMetrics() throws Exception {
+        //language=json
+        final String add = """
+            {
+              "productId": "%d",
+              "offerId": "%d"
+            }
+            """.formatted(productId, offerId);
+        mockMvc.perform(post("/api/v1/users/{userId}/cart/items", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(add))
+                .andExpect(status().isCreated());
+
+        //language=json
+        final String update = """
+            {
+              "productId": "%d",
+              "offerId": "%d",
+              "quantity": 99
+            }
+            """.formatted(productId, offerId);
+        mockMvc.perform(put("/api/v1/users/{userId}/cart/items", userId)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(update))
+                .andExpect(status().isConflict());
+
+        mockMvc.perform(get("/api/v1/users/{userId}/cart", userId))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(allOf(
+                        containsString("cart_service_seconds_count{"),
+                        containsString("method=\"addItem\""),
+                        containsString("cart_offer_lookup_seconds_count"),
+                        containsString("cart_size_lines_count{"),
+                        containsString("cart_stock_rejections_total{"),
+                        containsString("operation=\"update\""),
+                        containsString("cart_request_statements_count{"),
+                        containsString("uri=\"/api/v1/users/{userId}/cart\""),
+                        containsString("cart_request_lazy_loads_count{"),
+                        containsString("spring_data_repository_invocations_seconds_count{"),
+                        containsString("catalog_cache_requests_total{"),
+                        containsString("cart_retry_attempts_total"),
+                        not(containsString("userId=\"" + userId + "\"")),
+                        not(containsString("offerId="))
+                )));
+    }
+}
@@ -0,0 +1,85 @@
+package fr.shopping.cart.infrastructure.metrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestDbMetricsFilterTest {
+
+    private static final String ROUTE = "/api/v1/users/{userId}/cart";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    /** Contrôleur factice : deux instructions autorisées. */
+    static class BudgetedController {
+        @SqlBudget(statements = 2)
+        void getCart() {
+        }
+    }
+
+    @Test
+    @DisplayName("En mode fail, un dépassement lève une exception listant les formes des requêtes")
+    void failMode_ShouldThrowWithQueryShapes() {
+        final RequestDbMetricsFilter filter = filter(RequestDbMetricsFilter.BudgetMode.FAIL, 0);
+
+        final SqlBudgetExceededException ex = assertThrows(SqlBudgetExceededException.class, () ->
+                filter.doFilter(request(), new MockHttpServletResponse(), executing(
+                        "select * from cart_lines where cart_id = 1",
+                        "select * from cart_lines where cart_id = 2",
+                        "select * from cart_lines where cart_id = 3")));
+
+        assertTrue(ex.getMessage().contains("GET " + ROUTE + ": 3 SQL statements, budget 2"));
+        assertTrue(ex.getMessage().contains("3 x select * from cart_lines where cart_id = ?"));
+        assertEquals(3, registry.get("cart.request.statements").summary().max());
+    }
+
+    @Test
+    @DisplayName("En mode log, un dépassement est compté sans interrompre la requête")
+    void logMode_ShouldCountExceededRequests() {
+        final RequestDbMetricsFilter filter = filter(RequestDbMetricsFilter.BudgetMode.LOG, 1.0);
+
+        assertDoesNotThrow(() -> filter.doFilter(request(), new MockHttpServletResponse(),
+                executing("select 1", "select 2", "select 3")));
+        assertDoesNotThrow(() -> filter.doFilter(request(), new MockHttpServletResponse(),
+                executing("select 1")));
+
+        assertEquals(1, registry.get("cart.request.budget.exceeded").tag("uri", ROUTE).counter().count());
+    }
+
+    @Test
+    @DisplayName("Les littéraux et listes IN sont normalisés dans la forme d'une requête")
+    void shape_ShouldNormalizeLiteralsAndInLists() {
+        assertEquals("select * from offers o1_0 where o1_0.id in (...) and o1_0.state = ?",
+                RequestDbCounters.shape("select *  from offers o1_0\n where o1_0.id in (?, ?,?) and o1_0.state = 'NEUF'"));
+    }
+
+    private RequestDbMetricsFilter filter(RequestDbMetricsFilter.BudgetMode mode, double sampleRate) {
+        return new RequestDbMetricsFilter(registry, "/api/v1", mode, sampleRate);
+    }
+
+    private MockHttpServletRequest request() throws NoSuchMethodException {
+        final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/users/1/cart");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, ROUTE);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE,
+                new HandlerMethod(new BudgetedController(), BudgetedController.class.getDeclaredMethod("getCart")));
+        return request;
+    }
+
+    private static FilterChain executing(String... statements) {
+        return (request, response) -> {
+            for (String sql : statements) {
+                RequestDbCounters.statementExecuted(sql);
+            }
+        };
+    }
+}
@@ -0,0 +1,264 @@
+package fr.shopping.cart.infrastructure.redis.cart;
+
+import com.github.fppt.jedismock.RedisServer;
+import fr.shopping.cart.domain.cart.models.Cart;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.stores.CartStore;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import fr.shopping.cart.infrastructure.metrics.RequestDbCounters;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Panier stocké dans un serveur au protocole Redis exécuté dans la JVM (jedis-mock) :
+ * seul le checkout accède aux tables relationnelles, pour le stock.
+ */
+@SpringBootTest(properties = {
+        "cart.store.type=redis",
+        "cart.store.ttl=1h",
+        "cart.retry.max-attempts=50",
+        "cart.retry.initial-backoff=1ms",
+        "cart.retry.max-backoff=20ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RedisCartStoreIT {
+
+    private static final RedisServer REDIS = startRedis();
+
+    private final Long userId = 41_000L;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private CartStore cartStore;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+    private Long offerId;           // 10.00, stock 3
+    private Long discountedOfferId; // 20.00 avec 25% de remise, stock 3
+
+    @DynamicPropertySource
+    static void redisProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.data.redis.host", REDIS::getHost);
+        registry.add("spring.data.redis.port", REDIS::getBindPort);
+    }
+
+    @AfterAll
+    static void stopRedis() throws IOException {
+        REDIS.stop();
+    }
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Clé-valeur");
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(3);
+        Offer discounted = new Offer(new BigDecimal("20.00"), product);
+        discounted.setState(State.OCCASION);
+        discounted.setDiscountPercent(25);
+        discounted.setStockQty(3);
+        product.getOffers().add(offer);
+        product.getOffers().add(discounted);
+        productRepository.save(product);
+
+        offerId = offer.getId();
+        discountedOfferId = discounted.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        redisTemplate.delete("cart:" + userId);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    @DisplayName("Le panier est servi depuis le stockage clé-valeur, sans ligne dans les tables carts")
+    void cartRoutes_ShouldUseKeyValueStore() throws Exception {
+        addItem(offerId).andExpect(status().isCreated());
+        addItem(offerId).andExpect(status().isCreated());
+        addItem(discountedOfferId).andExpect(status().isCreated());
+
+        mockMvc.perform(get("/api/v1/users/{userId}/cart", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines.length()").value(2))
+                .andExpect(jsonPath("$.lines[0].quantity").value(2))
+                .andExpect(jsonPath("$.lines[0].state").value("NEUF"))
+                .andExpect(jsonPath("$.lines[1].state").value("OCCASION"))
+                .andExpect(jsonPath("$.lines[1].unitPrice").value(15.00))
+                .andExpect(jsonPath("$.totalPrice").value(35.00));
+
+        mockMvc.perform(get("/api/v1/users/{userId}/cart/summary", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemCount").value(3))
+                .andExpect(jsonPath("$.totalPrice").value(35.00));
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE user_id = ?", Integer.class, userId));
+        final Long ttl = redisTemplate.getExpire("cart:" + userId, TimeUnit.SECONDS);
+        assertTrue(ttl > 0 && ttl <= Duration.ofHours(1).toSeconds(), "TTL : " + ttl);
+    }
+
+    @Test
+    @DisplayName("Le checkout réserve le stock en base et supprime le panier clé-valeur")
+    void checkout_ShouldReserveStockAndDeleteKey() throws Exception {
+        addItem(offerId).andExpect(status().isCreated());
+        addItem(discountedOfferId).andExpect(status().isCreated());
+        addItem(discountedOfferId).andExpect(status().isCreated());
+
+        mockMvc.perform(post("/api/v1/users/{userId}/checkout", userId))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.lines.length()").value(2))
+                .andExpect(jsonPath("$.totalPrice").value(40.00));
+
+        assertEquals(2, stockOf(offerId));
+        assertEquals(1, stockOf(discountedOfferId));
+        assertFalse(redisTemplate.hasKey("cart:" + userId));
+    }
+
+    @Test
+    @DisplayName("Le checkout passe la commande au prix en base, même si le cache catalogue est en retard")
+    void checkout_ShouldPriceTheOrderFromTheDatabase() {
+        cartService.addItem(userId, new AddItemRequestDto(product.getId(), offerId));
+        // Changement de prix fait par une autre instance : le cache catalogue de celle-ci n'est pas invalidé
+        jdbcTemplate.update("UPDATE offers SET price = 12.00 WHERE id = ?", offerId);
+
+        checkoutService.checkout(userId);
+
+        assertEquals(0, new BigDecimal("12.00").compareTo(jdbcTemplate.queryForObject("""
+                SELECT l.unit_price FROM order_lines l JOIN orders o ON o.id = l.order_id
+                WHERE o.user_id = ? AND l.offer_id = ?
+                """, BigDecimal.class, userId, offerId)));
+    }
+
+    @Test
+    @DisplayName("Ajouts et changements de quantité n'exécutent aucune requête SQL : le stock est contrôlé au checkout")
+    void cartChanges_ShouldRunNoSqlAndLeaveStockToCheckout() {
+        final AddItemRequestDto request = new AddItemRequestDto(product.getId(), offerId);
+        // Premier ajout : charge l'offre dans le cache catalogue
+        cartService.addItem(userId, request);
+
+        final RequestDbCounters counters = RequestDbCounters.open(true);
+        try {
+            cartService.addItem(userId, request);
+            cartService.updateItemQuantity(userId, new UpdateItemRequestDto(product.getId(), offerId, 4));
+        } finally {
+            RequestDbCounters.close();
+        }
+
+        assertEquals(0, counters.statements(), "Requêtes : " + counters.shapes());
+        assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(userId));
+        assertEquals(3, stockOf(offerId));
+    }
+
+    @Test
+    @DisplayName("L'écriture d'un panier périmé échoue sur conflit de version")
+    void save_WithStaleVersion_ShouldFail() {
+        cartStore.createIfAbsent(userId);
+        cartStore.createIfAbsent(userId);
+        final Cart first = cartStore.findForUpdate(userId).orElseThrow();
+        final Cart stale = cartStore.findForUpdate(userId).orElseThrow();
+
+        cartStore.save(first);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> cartStore.save(stale));
+        assertThrows(OptimisticLockingFailureException.class, () -> cartStore.delete(stale));
+        assertEquals(1, cartStore.findForUpdate(userId).orElseThrow().getVersion());
+    }
+
+    @Test
+    @DisplayName("Des ajouts concurrents sur la même ligne ne perdent aucune mise à jour")
+    void concurrentAdds_ShouldNotLoseUpdates() throws Exception {
+        jdbcTemplate.update("UPDATE offers SET stock_qty = 1000 WHERE id = ?", offerId);
+        final AddItemRequestDto request = new AddItemRequestDto(product.getId(), offerId);
+        cartService.addItem(userId, request);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                futures.add(executor.submit(() -> cartService.addItem(userId, request)));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+
+        assertEquals(25, cartService.getCartSummary(userId).itemCount());
+        assertEquals(0, new BigDecimal("250.00").compareTo(cartService.getCartSummary(userId).total()));
+    }
+
+    private ResultActions addItem(Long offer) throws Exception {
+        return mockMvc.perform(post("/api/v1/users/{userId}/cart/items", userId)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{ \"productId\": %d, \"offerId\": %d }".formatted(product.getId(), offer)));
+    }
+
+    private int stockOf(Long offer) {
+        return jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offer);
+    }
+
+    private static RedisServer startRedis() {
+        try {
+            return RedisServer.newRedisServer().start();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package fr.shopping.cart.infrastructure.writebehind.cart;
+
+import fr.shopping.cart.domain.cart.models.CartSnapshot;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CartJournalTest {
+
+    @TempDir
+    private Path directory;
+
+    private final CartSnapshot first = new CartSnapshot(1L, 1, List.of(new CartSnapshot.Line(10L, 100L, 1, 8_000L)));
+    private final CartSnapshot second = new CartSnapshot(1L, 2, List.of(
+            new CartSnapshot.Line(10L, 100L, 3, 8_000L),
+            new CartSnapshot.Line(20L, 200L, 1, 1_999L)));
+
+    @Test
+    @DisplayName("La relecture restitue le dernier état de chaque panier, suppressions comprises")
+    void replay_ShouldReturnLastStatePerUser() throws IOException {
+        try (CartJournal journal = new CartJournal(directory, true)) {
+            journal.append(first);
+            journal.append(second);
+            journal.append(CartSnapshot.empty(2L));
+            journal.appendDeletion(2L);
+        }
+
+        try (CartJournal restarted = new CartJournal(directory, true)) {
+            final Map<Long, CartSnapshot> carts = restarted.replay();
+
+            assertEquals(second, carts.get(1L));
+            assertTrue(carts.containsKey(2L));
+            assertNull(carts.get(2L));
+        }
+    }
+
+    @Test
+    @DisplayName("Un enregistrement tronqué en fin de segment est ignoré")
+    void replay_ShouldIgnoreTornTail() throws IOException {
+        try (CartJournal journal = new CartJournal(directory, true)) {
+            journal.append(first);
+        }
+        final Path scratch = directory.resolve("scratch");
+        try (CartJournal journal = new CartJournal(scratch, true)) {
+            journal.append(second);
+        }
+        final byte[] record = Files.readAllBytes(scratch.resolve("cart-journal-1.log"));
+        Files.write(directory.resolve("cart-journal-1.log"),
+                Arrays.copyOf(record, record.length - 5), StandardOpenOption.APPEND);
+
+        try (CartJournal restarted = new CartJournal(directory, true)) {
+            assertEquals(first, restarted.replay().get(1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Les segments antérieurs au roll sont supprimés une fois écrits en base")
+    void deleteSegmentsBefore_ShouldKeepOnlyRolledSegments() throws IOException {
+        try (CartJournal journal = new CartJournal(directory, true)) {
+            journal.append(first);
+            final long kept = journal.roll();
+            journal.append(second);
+
+            journal.deleteSegmentsBefore(kept);
+        }
+
+        try (CartJournal restarted = new CartJournal(directory, true)) {
+            assertEquals(second, restarted.replay().get(1L));
+        }
+    }
+
+    @Test
+    @DisplayName("Des ajouts concurrents attendus sur disque sont tous relus après redémarrage")
+    void awaitDurable_WithConcurrentAppends_ShouldCoverEveryRecord() throws Exception {
+        try (CartJournal journal = new CartJournal(directory, true);
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (long userId = 1; userId <= 200; userId++) {
+                final CartSnapshot snapshot = new CartSnapshot(userId, 1, first.lines());
+                futures.add(executor.submit(() -> journal.awaitDurable(journal.append(snapshot))));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        }
+
+        try (CartJournal restarted = new CartJournal(directory, true)) {
+            final Map<Long, CartSnapshot> carts = restarted.replay();
+            assertEquals(200, carts.size());
+            assertEquals(first.lines(), carts.get(200L).lines());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package fr.shopping.cart.infrastructure.writebehind.cart;
+
+import fr.shopping.cart.domain.cart.exceptions.InsufficientStockException;
+import fr.shopping.cart.domain.cart.models.CartFlushStats;
+import fr.shopping.cart.domain.cart.models.Offer;
+import fr.shopping.cart.domain.cart.models.Product;
+import fr.shopping.cart.domain.cart.models.State;
+import fr.shopping.cart.domain.cart.services.CartService;
+import fr.shopping.cart.domain.checkout.services.CheckoutService;
+import fr.shopping.cart.infrastructure.http.cart.dtos.AddItemRequestDto;
+import fr.shopping.cart.infrastructure.http.cart.dtos.UpdateItemRequestDto;
+import fr.shopping.cart.infrastructure.jpa.cart.ProductRepository;
+import fr.shopping.cart.infrastructure.metrics.RequestDbCounters;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Écriture différée des paniers : les mutations restent en mémoire (et au journal) jusqu'au lot
+ * suivant. L'intervalle d'écriture est allongé pour déclencher les lots depuis le test.
+ */
+@SpringBootTest(properties = {
+        "cart.store.type=write-behind",
+        "cart.write-behind.flush-interval=1h",
+        "cart.retry.max-attempts=50",
+        "cart.retry.initial-backoff=1ms",
+        "cart.retry.max-backoff=20ms"
+})
+@ActiveProfiles("test")
+class WriteBehindCartStoreIT {
+
+    private final Long userId = 42_000L;
+
+    @Autowired
+    private WriteBehindCartStore cartStore;
+
+    @Autowired
+    private CartService cartService;
+
+    @Autowired
+    private CheckoutService checkoutService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Product product;
+    private Long offerId; // 10.00, stock 100
+
+    @DynamicPropertySource
+    static void journalDirectory(DynamicPropertyRegistry registry) {
+        try {
+            final Path directory = Files.createTempDirectory("cart-journal");
+            registry.add("cart.write-behind.journal-dir", directory::toString);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        product = new Product("Écriture différée");
+        Offer offer = new Offer(new BigDecimal("10.00"), product);
+        offer.setState(State.NEUF);
+        offer.setStockQty(100);
+        product.getOffers().add(offer);
+        productRepository.save(product);
+        offerId = offer.getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        cartStore.flush();
+        jdbcTemplate.update("DELETE FROM cart_lines WHERE cart_id IN (SELECT id FROM carts WHERE user_id = ?)", userId);
+        jdbcTemplate.update("DELETE FROM carts WHERE user_id = ?", userId);
+        productRepository.deleteById(product.getId());
+    }
+
+    @Test
+    @DisplayName("Les modifications successives sont regroupées en une seule écriture en base")
+    void mutations_ShouldBeCoalescedUntilFlush() {
+        final AddItemRequestDto add = new AddItemRequestDto(product.getId(), offerId);
+        cartService.addItem(userId, add);
+        cartService.addItem(userId, add);
+        cartService.updateItemQuantity(userId, new UpdateItemRequestDto(product.getId(), offerId, 5));
+
+        assertEquals(0, countCarts());
+        assertEquals(5, cartService.getCartSummary(userId).itemCount());
+        assertEquals(5, cartService.getCart(userId).getLines().getFirst().getQuantity());
+
+        final long flushedBefore = cartStore.stats().flushedCarts();
+        cartStore.flush();
+
+        final CartFlushStats stats = cartStore.stats();
+        assertEquals(flushedBefore + 1, stats.flushedCarts());
+        assertEquals(1, stats.lastBatchSize());
+        assertEquals(0, stats.pendingCarts());
+        assertEquals(5, jdbcTemplate.queryForObject("SELECT item_count FROM carts WHERE user_id = ?", Integer.class, userId));
+        assertEquals(5, jdbcTemplate.queryForObject(
+                "SELECT l.quantity FROM cart_lines l JOIN carts c ON c.id = l.cart_id WHERE c.user_id = ?",
+                Integer.class, userId));
+
+        cartService.removeItem(userId, product.getId(), offerId);
+        cartStore.flush();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT item_count FROM carts WHERE user_id = ?", Integer.class, userId));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM cart_lines l JOIN carts c ON c.id = l.cart_id WHERE c.user_id = ?",
+                Integer.class, userId));
+    }
+
+    @Test
+    @DisplayName("Un clic sur un panier en mémoire n'interroge pas la base : le stock n'est contrôlé qu'au checkout")
+    void mutations_ShouldNotQueryTheDatabase() {
+        final AddItemRequestDto add = new AddItemRequestDto(product.getId(), offerId);
+        cartService.addItem(userId, add);
+
+        final RequestDbCounters counters = RequestDbCounters.open(false);
+        try {
+            cartService.addItem(userId, add);
+            cartService.updateItemQuantity(userId, new UpdateItemRequestDto(product.getId(), offerId, 150));
+        } finally {
+            RequestDbCounters.close();
+        }
+
+        assertEquals(0, counters.statements());
+        assertThrows(InsufficientStockException.class, () -> checkoutService.checkout(userId));
+        assertEquals(100, jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offerId));
+    }
+
+    @Test
+    @DisplayName("Le checkout écrit le panier en attente avant de réserver le stock")
+    void checkout_ShouldFlushPendingCartFirst() {
+        final AddItemRequestDto add = new AddItemRequestDto(product.getId(), offerId);
+        cartService.addItem(userId, add);
+        cartService.addItem(userId, add);
+        assertEquals(0, countCarts());
+
+        checkoutService.checkout(userId);
+
+        assertEquals(98, jdbcTemplate.queryForObject("SELECT stock_qty FROM offers WHERE id = ?", Integer.class, offerId));
+        assertEquals(0, countCarts());
+        assertEquals(0, cartService.getCartSummary(userId).itemCount());
+    }
+
+    @Test
+    @DisplayName("Des ajouts concurrents en mémoire ne perdent aucune mise à jour")
+    void concurrentAdds_ShouldNotLoseUpdates() throws Exception {
+        final AddItemRequestDto request = new AddItemRequestDto(product.getId(), offerId);
+        cartService.addItem(userId, request);
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 24; i++) {
+                futures.add(executor.submit(() -> cartService.addItem(userId, request)));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        }
+        cartStore.flush();
+
+        assertEquals(25, jdbcTemplate.queryForObject("SELECT item_count FROM carts WHERE user_id = ?", Integer.class, userId));
+        assertEquals(0, new BigDecimal("250.00").compareTo(jdbcTemplate.queryForObject(
+                "SELECT subtotal FROM carts WHERE user_id = ?", BigDecimal.class, userId)));
+        assertTrue(cartStore.stats().maxFlushLagMillis() >= 0);
+    }
+
+    private int countCarts() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM carts WHERE user_id = ?", Integer.class, userId);
+    }
+}